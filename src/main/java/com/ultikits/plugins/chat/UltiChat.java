@@ -1,5 +1,9 @@
 package com.ultikits.plugins.chat;
 
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatProfileService;
 import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import com.ultikits.ultitools.annotations.UltiToolsModule;
 
@@ -15,6 +19,12 @@ public class UltiChat extends UltiToolsPlugin {
 
     @Override
     public void unregisterSelf() {
+        // The debounced writes are async tasks that are cancelled with the plugin
+        getContext().getBean(AutoReplyService.class).flushPendingEdits();
+        getContext().getBean(ChatProfileService.class).flush();
+        // Worker threads would otherwise outlive the module across /reload
+        getContext().getBean(ChannelService.class).shutdown();
+        getContext().getBean(AnnouncementService.class).shutdown();
     }
 
     @Override
@@ -0,0 +1,231 @@
+package com.ultikits.plugins.chat.bridge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary encoding of a batch of bridge messages.
+ * 桥接消息批量帧的二进制编码。
+ * <p>
+ * Layout: a version byte, the sender's session id and the first message's
+ * sequence as 8-byte longs, then per message a varint sequence delta from
+ * the previous message, a varint channel reference and the text as a
+ * varint length followed by UTF-8. A channel reference of zero introduces a
+ * new channel name inline; {@code n > 0} repeats the n-th name of the frame,
+ * so a busy channel costs one byte per message. The message count is implied
+ * by the frame length.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class BridgeFrame {
+
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 17;
+
+    private final long session;
+    private final List<BridgeMessage> messages;
+
+    private BridgeFrame(long session, List<BridgeMessage> messages) {
+        this.session = session;
+        this.messages = messages;
+    }
+
+    public long getSession() {
+        return session;
+    }
+
+    public List<BridgeMessage> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Decode a frame.
+     * 解码一帧。
+     *
+     * @param data the frame bytes
+     * @return the decoded frame
+     * @throws IOException if the frame is truncated, malformed or of another version
+     */
+    public static BridgeFrame decode(byte[] data) throws IOException {
+        Reader in = new Reader(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported bridge frame version " + version);
+        }
+        long session = in.readLong();
+        long sequence = in.readLong();
+        List<String> channels = new ArrayList<>();
+        List<BridgeMessage> messages = new ArrayList<>();
+        while (in.hasMore()) {
+            // The first message's delta is zero
+            sequence += in.readVarLong();
+            long reference = in.readVarLong();
+            String channel;
+            if (reference == 0) {
+                channel = in.readString();
+                channels.add(channel);
+            } else if (reference > 0 && reference <= channels.size()) {
+                channel = channels.get((int) reference - 1);
+            } else {
+                throw new IOException("Unknown channel reference " + reference);
+            }
+            messages.add(new BridgeMessage(sequence, channel, in.readString()));
+        }
+        return new BridgeFrame(session, Collections.unmodifiableList(messages));
+    }
+
+    /**
+     * Builds one frame, refusing messages once the size limit is reached.
+     * 逐条写入消息并在达到大小上限时拒绝的帧构建器。
+     */
+    public static final class Writer {
+        private final long session;
+        private final int maxBytes;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+        private final List<String> channels = new ArrayList<>();
+        private long firstSequence;
+        private long lastSequence;
+        private int count;
+
+        /**
+         * @param session  the sending server's session id
+         * @param maxBytes the largest frame to produce
+         */
+        public Writer(long session, int maxBytes) {
+            this.session = session;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Append a message if it fits.
+         *
+         * @param message the message; sequences must increase within a frame
+         * @return false if the frame would exceed its size limit
+         */
+        public boolean add(BridgeMessage message) {
+            scratch.reset();
+            long delta = count == 0 ? 0 : message.getSequence() - lastSequence;
+            writeVarLong(scratch, delta);
+            int reference = channels.indexOf(message.getChannel()) + 1;
+            writeVarLong(scratch, reference);
+            if (reference == 0) {
+                writeString(scratch, message.getChannel());
+            }
+            writeString(scratch, message.getText());
+            if (HEADER_BYTES + body.size() + scratch.size() > maxBytes) {
+                return false;
+            }
+            if (reference == 0) {
+                channels.add(message.getChannel());
+            }
+            if (count == 0) {
+                firstSequence = message.getSequence();
+            }
+            lastSequence = message.getSequence();
+            count++;
+            body.write(scratch.toByteArray(), 0, scratch.size());
+            return true;
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * The encoded frame.
+         */
+        public byte[] toByteArray() {
+            byte[] bytes = new byte[HEADER_BYTES + body.size()];
+            bytes[0] = (byte) VERSION;
+            putLong(bytes, 1, session);
+            putLong(bytes, 9, firstSequence);
+            byte[] encoded = body.toByteArray();
+            System.arraycopy(encoded, 0, bytes, HEADER_BYTES, encoded.length);
+            return bytes;
+        }
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Bounds-checked cursor over a frame.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasMore() {
+            return position < data.length;
+        }
+
+        int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Truncated bridge frame");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in bridge frame");
+        }
+
+        String readString() throws IOException {
+            long length = readVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IOException("Truncated bridge frame");
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
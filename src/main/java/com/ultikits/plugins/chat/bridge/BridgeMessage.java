@@ -0,0 +1,38 @@
+package com.ultikits.plugins.chat.bridge;
+
+/**
+ * A rendered chat line relayed to a network channel on other servers.
+ * 跨服转发的一条已渲染聊天消息。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class BridgeMessage {
+
+    private final long sequence;
+    private final String channel;
+    private final String text;
+
+    /**
+     * @param sequence per-session message number, increasing by one per message
+     * @param channel  the channel name
+     * @param text     the line as players see it
+     */
+    public BridgeMessage(long sequence, String channel, String text) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.text = text;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ultikits.plugins.chat.bridge;
+
+import java.util.function.Consumer;
+
+/**
+ * A link carrying bridge frames between servers.
+ * 在服务器之间传输桥接帧的链路。
+ * <p>
+ * Implementations only move opaque byte arrays; batching, deduplication and
+ * backpressure are handled by {@link ChannelBridgeService}.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public interface BridgeTransport {
+
+    /**
+     * Start delivering frames from other servers.
+     *
+     * @param receiver called with every incoming frame
+     */
+    void open(Consumer<byte[]> receiver);
+
+    /**
+     * Send a frame to the other servers.
+     *
+     * @param frame the encoded frame
+     * @return false if the link cannot take the frame right now; the caller keeps it and retries
+     */
+    boolean send(byte[] frame);
+
+    /**
+     * Stop sending and receiving.
+     */
+    void close();
+}
@@ -0,0 +1,320 @@
+package com.ultikits.plugins.chat.bridge;
+
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.annotations.Scheduled;
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays network channels between the servers behind a proxy.
+ * 在代理后的各服务器之间转发跨服频道消息。
+ * <p>
+ * Chat threads only append to a lock-free queue. Once per tick the queue is
+ * drained into as few frames as the size limit allows, and at most
+ * {@code frames-per-tick} of them are handed to the transport. A transport
+ * that refuses a frame keeps it for the next tick, so a slow link holds
+ * messages back instead of losing them; once {@code max-pending} messages
+ * wait, new ones are dropped and counted. Incoming messages are filtered per
+ * sending session with a sliding window, so retries and duplicate routes are
+ * delivered once.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class ChannelBridgeService {
+
+    private static final int MAX_SESSIONS = 64;
+
+    private final UltiToolsPlugin plugin;
+    private final ChannelConfig config;
+    private final ChannelService channelService;
+    private final ChatHistoryService chatHistoryService;
+
+    private final long session = UUID.randomUUID().getMostSignificantBits();
+    private final Queue<Outgoing> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Map<Long, ReplayWindow> windows = new LinkedHashMap<Long, ReplayWindow>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ReplayWindow> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong duplicateMessages = new AtomicLong();
+    private final AtomicLong stalledTicks = new AtomicLong();
+    private volatile boolean saturated;
+
+    private volatile BridgeTransport transport;
+
+    // Only touched by the flushing thread
+    private long nextSequence;
+    private BridgeMessage carry;
+    private byte[] retry;
+    private int retryCount;
+
+    public ChannelBridgeService(UltiToolsPlugin plugin, ChannelConfig config, ChannelService channelService,
+                                ChatHistoryService chatHistoryService) {
+        this.plugin = plugin;
+        this.config = config;
+        this.channelService = channelService;
+        this.chatHistoryService = chatHistoryService;
+    }
+
+    /**
+     * Queue a chat line for the other servers.
+     * 将聊天消息加入跨服发送队列。
+     *
+     * @param channel the network channel
+     * @param text    the line as players see it
+     * @return false if the bridge is off or too far behind to take more
+     */
+    public boolean publish(String channel, String text) {
+        if (!config.isBridgeEnabled()) {
+            return false;
+        }
+        if (pending.incrementAndGet() > config.getBridgeMaxPending()) {
+            pending.decrementAndGet();
+            droppedMessages.incrementAndGet();
+            if (!saturated) {
+                saturated = true;
+                plugin.getLogger().warn("Channel bridge is falling behind; dropping messages");
+            }
+            return false;
+        }
+        outbound.add(new Outgoing(channel, text));
+        return true;
+    }
+
+    /**
+     * Send queued messages, once per tick.
+     * 每tick发送队列中的消息。
+     */
+    @Scheduled(period = 1, async = false)
+    public void tick() {
+        if (!config.isBridgeEnabled()) {
+            if (transport != null) {
+                setTransport(null);
+            }
+            return;
+        }
+        if (transport == null) {
+            Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+            if (bukkitPlugin == null) {
+                return;
+            }
+            setTransport(new PluginMessageTransport(bukkitPlugin));
+        }
+        flush();
+    }
+
+    /**
+     * Pack queued messages into frames and send up to the per-tick limit.
+     *
+     * @return the number of frames sent
+     */
+    public synchronized int flush() {
+        BridgeTransport link = transport;
+        if (link == null) {
+            return 0;
+        }
+        int frames = 0;
+        while (frames < config.getBridgeFramesPerTick()) {
+            if (retry == null && !pack()) {
+                break;
+            }
+            if (!link.send(retry)) {
+                // Backpressure: keep the frame and let the queue absorb new messages
+                stalledTicks.incrementAndGet();
+                break;
+            }
+            frames++;
+            sentFrames.incrementAndGet();
+            sentMessages.addAndGet(retryCount);
+            pending.addAndGet(-retryCount);
+            retry = null;
+            retryCount = 0;
+        }
+        if (saturated && pending.get() < config.getBridgeMaxPending() / 2) {
+            saturated = false;
+        }
+        return frames;
+    }
+
+    /**
+     * Fill the next frame from the queue.
+     *
+     * @return false if nothing is queued
+     */
+    private boolean pack() {
+        BridgeFrame.Writer writer = new BridgeFrame.Writer(session, config.getBridgeFrameBytes());
+        while (true) {
+            BridgeMessage message = carry;
+            carry = null;
+            if (message == null) {
+                Outgoing next = outbound.poll();
+                if (next == null) {
+                    break;
+                }
+                message = new BridgeMessage(nextSequence++, next.channel, next.text);
+            }
+            if (writer.add(message)) {
+                continue;
+            }
+            if (writer.isEmpty()) {
+                // Larger than a whole frame on its own
+                pending.decrementAndGet();
+                droppedMessages.incrementAndGet();
+                continue;
+            }
+            carry = message;
+            break;
+        }
+        if (writer.isEmpty()) {
+            return false;
+        }
+        retry = writer.toByteArray();
+        retryCount = writer.size();
+        return true;
+    }
+
+    /**
+     * Handle a frame from another server.
+     * 处理来自其他服务器的帧。
+     *
+     * @param data the encoded frame
+     */
+    public void receive(byte[] data) {
+        BridgeFrame frame;
+        try {
+            frame = BridgeFrame.decode(data);
+        } catch (IOException e) {
+            plugin.getLogger().warn("Ignoring malformed bridge frame: " + e.getMessage());
+            return;
+        }
+        if (frame.getSession() == session) {
+            return;
+        }
+        ReplayWindow window;
+        synchronized (windows) {
+            window = windows.computeIfAbsent(frame.getSession(), s -> new ReplayWindow());
+        }
+        for (BridgeMessage message : frame.getMessages()) {
+            boolean fresh;
+            synchronized (window) {
+                fresh = window.accept(message.getSequence());
+            }
+            if (!fresh) {
+                duplicateMessages.incrementAndGet();
+                continue;
+            }
+            receivedMessages.incrementAndGet();
+            deliver(message);
+        }
+    }
+
+    /**
+     * Show a relayed line to local players listening to its channel and keep
+     * it in the channel history. Range and world limits do not apply to
+     * senders on other servers.
+     */
+    private void deliver(BridgeMessage message) {
+        ChannelDefinition definition = channelService.getChannel(message.getChannel());
+        if (definition == null || !definition.isNetwork()) {
+            return;
+        }
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            if (channelService.isListening(online.getUniqueId(), message.getChannel())) {
+                online.sendMessage(message.getText());
+            }
+        }
+        chatHistoryService.record(message.getChannel(), null, message.getText());
+    }
+
+    /**
+     * Replace the transport, closing the previous one.
+     * 替换传输链路并关闭旧链路。
+     *
+     * @param replacement the new transport, or null to disconnect
+     */
+    public synchronized void setTransport(BridgeTransport replacement) {
+        BridgeTransport previous = transport;
+        if (previous != null) {
+            previous.close();
+        }
+        if (replacement != null) {
+            replacement.open(this::receive);
+        }
+        transport = replacement;
+    }
+
+    /**
+     * Messages published but not yet sent.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getSentFrames() {
+        return sentFrames.get();
+    }
+
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    public long getReceivedMessages() {
+        return receivedMessages.get();
+    }
+
+    /**
+     * Messages dropped because the queue was full or a message exceeded the frame size.
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public long getDuplicateMessages() {
+        return duplicateMessages.get();
+    }
+
+    /**
+     * Ticks on which the transport refused a frame.
+     */
+    public long getStalledTicks() {
+        return stalledTicks.get();
+    }
+
+    /**
+     * A published line waiting for its sequence number.
+     */
+    private static final class Outgoing {
+        private final String channel;
+        private final String text;
+
+        Outgoing(String channel, String text) {
+            this.channel = channel;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ultikits.plugins.chat.bridge;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process transport linking several bridges, for tests and benchmarks.
+ * 进程内桥接传输，用于测试和基准测试。
+ * <p>
+ * Every endpoint connected to the same {@link Hub} receives the frames the
+ * others send, synchronously on the sending thread. An endpoint can be made
+ * unwritable to stand in for a congested link.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class LoopbackTransport implements BridgeTransport {
+
+    private final Hub hub;
+    private final AtomicLong sentFrames = new AtomicLong();
+    private volatile Consumer<byte[]> receiver;
+    private volatile boolean writable = true;
+
+    private LoopbackTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void open(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public boolean send(byte[] frame) {
+        if (!writable) {
+            return false;
+        }
+        sentFrames.incrementAndGet();
+        for (LoopbackTransport endpoint : hub.endpoints) {
+            Consumer<byte[]> target = endpoint.receiver;
+            if (endpoint != this && target != null) {
+                target.accept(frame);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        receiver = null;
+        hub.endpoints.remove(this);
+    }
+
+    /**
+     * Simulate a link that accepts frames ({@code true}) or pushes back ({@code false}).
+     */
+    public void setWritable(boolean writable) {
+        this.writable = writable;
+    }
+
+    /**
+     * Frames accepted by {@link #send(byte[])} so far.
+     */
+    public long getSentFrames() {
+        return sentFrames.get();
+    }
+
+    /**
+     * A set of connected endpoints, standing in for the proxy.
+     */
+    public static final class Hub {
+        private final List<LoopbackTransport> endpoints = new CopyOnWriteArrayList<>();
+
+        /**
+         * Create an endpoint attached to this hub.
+         */
+        public LoopbackTransport connect() {
+            LoopbackTransport endpoint = new LoopbackTransport(this);
+            endpoints.add(endpoint);
+            return endpoint;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ultikits.plugins.chat.bridge;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Transport over the proxy's plugin messaging channel.
+ * 基于代理端插件消息通道的传输。
+ * <p>
+ * Frames are wrapped in a BungeeCord {@code Forward} to {@code ALL} servers,
+ * which Velocity also understands when its BungeeCord channel is enabled.
+ * Plugin messages ride on a player connection, so nothing can be sent while
+ * the server is empty; {@link #send(byte[])} then reports the link as busy
+ * and the bridge keeps the frame.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class PluginMessageTransport implements BridgeTransport, PluginMessageListener {
+
+    static final String CHANNEL = "BungeeCord";
+    static final String SUBCHANNEL = "UltiChatBridge";
+
+    private final Plugin plugin;
+    private volatile Consumer<byte[]> receiver;
+
+    public PluginMessageTransport(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void open(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        Bukkit.getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public boolean send(byte[] frame) {
+        Iterator<? extends Player> online = Bukkit.getOnlinePlayers().iterator();
+        if (!online.hasNext()) {
+            return false;
+        }
+        online.next().sendPluginMessage(plugin, CHANNEL, wrap(frame));
+        return true;
+    }
+
+    @Override
+    public void close() {
+        receiver = null;
+        Bukkit.getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL);
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        Consumer<byte[]> target = receiver;
+        if (!CHANNEL.equals(channel) || target == null) {
+            return;
+        }
+        byte[] frame = unwrap(message);
+        if (frame != null) {
+            target.accept(frame);
+        }
+    }
+
+    /**
+     * Wrap a frame in a BungeeCord {@code Forward} message to every other server.
+     */
+    static byte[] wrap(byte[] frame) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(frame.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(frame.length);
+            out.write(frame);
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Extract a frame from a forwarded message.
+     *
+     * @return the frame, or null for other subchannels and malformed messages
+     */
+    static byte[] unwrap(byte[] message) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) {
+                return null;
+            }
+            byte[] frame = new byte[in.readUnsignedShort()];
+            in.readFully(frame);
+            return frame;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
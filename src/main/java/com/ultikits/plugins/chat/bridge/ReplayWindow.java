@@ -0,0 +1,48 @@
+package com.ultikits.plugins.chat.bridge;
+
+/**
+ * Sliding-window duplicate filter over one session's message sequences.
+ * 单个会话消息序号的滑动窗口去重。
+ * <p>
+ * Remembers the highest sequence seen and a bitmap of the 64 below it, so
+ * a message delivered twice (by a retry or two proxy routes) is recognised
+ * in constant time and space. Messages older than the window are treated as
+ * duplicates; with in-order links they never occur.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class ReplayWindow {
+
+    static final int SIZE = 64;
+
+    private long highest = -1;
+    /**
+     * Bit {@code i} set means {@code highest - i} was seen.
+     */
+    private long seen;
+
+    /**
+     * Record a sequence.
+     *
+     * @return true the first time the sequence is offered
+     */
+    boolean accept(long sequence) {
+        if (sequence > highest) {
+            long shift = highest < 0 ? SIZE : sequence - highest;
+            seen = shift >= SIZE ? 1L : (seen << shift) | 1L;
+            highest = sequence;
+            return true;
+        }
+        long offset = highest - sequence;
+        if (offset >= SIZE) {
+            return false;
+        }
+        long bit = 1L << offset;
+        if ((seen & bit) != 0) {
+            return false;
+        }
+        seen |= bit;
+        return true;
+    }
+}
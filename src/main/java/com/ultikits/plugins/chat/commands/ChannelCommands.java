@@ -1,6 +1,11 @@
 package com.ultikits.plugins.chat.commands;
 
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryEntry;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfileService;
 import com.ultikits.ultitools.abstracts.AbstractCommandExecutor;
 import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import com.ultikits.ultitools.annotations.ConditionalOnConfig;
@@ -9,12 +14,21 @@ import com.ultikits.ultitools.annotations.command.CmdMapping;
 import com.ultikits.ultitools.annotations.command.CmdParam;
 import com.ultikits.ultitools.annotations.command.CmdSender;
 import com.ultikits.ultitools.annotations.command.CmdTarget;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Channel switching commands for players.
@@ -28,12 +42,43 @@ import java.util.Map;
 @ConditionalOnConfig(value = "config/channels.yml", path = "channels.enabled")
 public class ChannelCommands extends AbstractCommandExecutor {
 
+    private static final int DEFAULT_HISTORY_LINES = 10;
+
+    public static final String PARTY_PERMISSION = "ultichat.channel.party";
+
+    private static final Pattern PARTY_NAME = Pattern.compile("[A-Za-z0-9_]{2,16}");
+
+    /**
+     * Words that {@code /ch <name>} would read as subcommands.
+     */
+    private static final Set<String> SUBCOMMANDS = new HashSet<>(Arrays.asList(
+            "list", "history", "subscribe", "unsubscribe", "create", "invite", "help"));
+
+    /**
+     * Usage of the subcommands that need an argument, shown when one is typed bare.
+     */
+    private static final Map<String, String> USAGES = new HashMap<>();
+
+    static {
+        USAGES.put("subscribe", "/ch subscribe <name>");
+        USAGES.put("unsubscribe", "/ch unsubscribe <name>");
+        USAGES.put("create", "/ch create <name>");
+        USAGES.put("invite", "/ch invite <player>");
+    }
+
     private final UltiToolsPlugin plugin;
     private final ChannelService channelService;
+    private final ChannelConfig channelConfig;
+    private final ChatProfileService chatProfileService;
+    private final ChatHistoryService chatHistoryService;
 
-    public ChannelCommands(UltiToolsPlugin plugin, ChannelService channelService) {
+    public ChannelCommands(UltiToolsPlugin plugin, ChannelService channelService, ChannelConfig channelConfig,
+                           ChatProfileService chatProfileService, ChatHistoryService chatHistoryService) {
         this.plugin = plugin;
         this.channelService = channelService;
+        this.channelConfig = channelConfig;
+        this.chatProfileService = chatProfileService;
+        this.chatHistoryService = chatHistoryService;
     }
 
     /**
@@ -68,6 +113,185 @@ public class ChannelCommands extends AbstractCommandExecutor {
         String currentMsg = plugin.i18n("channel_current")
                 .replace("{0}", channelService.getChannelDisplayName(currentChannel));
         sender.sendMessage(ChatColor.translateAlternateColorCodes('&', currentMsg));
+
+        Set<String> subscribed = channelService.getSubscriptions(player.getUniqueId());
+        if (!subscribed.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (String channelName : subscribed) {
+                names.add(channelService.getChannelDisplayName(channelName));
+            }
+            String listeningMsg = plugin.i18n("channel_listening").replace("{0}", String.join("&7, ", names));
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', listeningMsg));
+        }
+    }
+
+    /**
+     * Listen to another channel while speaking in the current one: /ch subscribe <name>
+     * 订阅频道，在当前频道发言的同时收听其他频道
+     */
+    @CmdMapping(format = "subscribe <name>")
+    public void onSubscribe(
+            @CmdSender CommandSender sender,
+            @CmdParam(value = "name", suggest = "getName") String name
+    ) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+
+        ChannelDefinition party = channelService.getParty(name);
+        if (channelService.getChannelDef(name) == null && party == null) {
+            send(player, plugin.i18n("channel_not_found").replace("{0}", name));
+            return;
+        }
+        // Recheck the player's permissions rather than trust the cached channel list
+        channelService.invalidateAccess(player.getUniqueId());
+        if (!channelService.hasChannelPermission(player, name)) {
+            send(player, plugin.i18n(party != null ? "channel_party_not_invited" : "channel_no_permission")
+                    .replace("{0}", party != null ? party.getDisplayName() : name));
+            return;
+        }
+        if (party != null && isFull(player, party)) {
+            send(player, plugin.i18n("channel_party_full").replace("{0}", party.getDisplayName()));
+            return;
+        }
+        String displayName = channelService.getChannelDisplayName(name);
+        if (!channelService.isChannelInWorld(player, name)) {
+            send(player, plugin.i18n("channel_wrong_world").replace("{0}", displayName));
+            return;
+        }
+        if (name.equals(channelService.getPlayerChannel(player.getUniqueId()))
+                || !channelService.subscribe(player.getUniqueId(), name)) {
+            send(player, plugin.i18n("channel_already_listening").replace("{0}", displayName));
+            return;
+        }
+        saveSubscriptions(player);
+        send(player, plugin.i18n("channel_subscribed").replace("{0}", displayName));
+    }
+
+    /**
+     * Stop listening to a subscribed channel: /ch unsubscribe <name>
+     * 取消订阅频道
+     */
+    @CmdMapping(format = "unsubscribe <name>")
+    public void onUnsubscribe(
+            @CmdSender CommandSender sender,
+            @CmdParam(value = "name", suggest = "getSubscribed") String name
+    ) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+
+        if (!channelService.unsubscribe(player.getUniqueId(), name)) {
+            send(player, plugin.i18n("channel_not_subscribed").replace("{0}", name));
+            return;
+        }
+        saveSubscriptions(player);
+        send(player, plugin.i18n("channel_unsubscribed")
+                .replace("{0}", channelService.getChannelDisplayName(name)));
+    }
+
+    /**
+     * Create a party channel and switch to it: /ch create <name>
+     * 创建组队频道并切换过去
+     */
+    @CmdMapping(format = "create <name>")
+    public void onCreate(
+            @CmdSender CommandSender sender,
+            @CmdParam("name") String name
+    ) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+
+        if (!channelConfig.isPartyEnabled() || !player.hasPermission(PARTY_PERMISSION)) {
+            send(player, plugin.i18n("channel_party_denied"));
+            return;
+        }
+        if (!PARTY_NAME.matcher(name).matches() || SUBCOMMANDS.contains(name.toLowerCase(Locale.ROOT))) {
+            send(player, plugin.i18n("channel_party_invalid_name").replace("{0}", name));
+            return;
+        }
+        ChannelDefinition party = channelService.createParty(player, name);
+        if (party == null) {
+            send(player, plugin.i18n("channel_party_taken").replace("{0}", name));
+            return;
+        }
+        send(player, plugin.i18n("channel_party_created").replace("{0}", party.getDisplayName()));
+    }
+
+    /**
+     * Invite a player to the party you are in: /ch invite <player>
+     * 邀请玩家加入当前所在的组队频道
+     */
+    @CmdMapping(format = "invite <player>")
+    public void onInvite(
+            @CmdSender CommandSender sender,
+            @CmdParam(value = "player", suggest = "getInvitable") String target
+    ) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+
+        ChannelDefinition party = channelService.getParty(channelService.getPlayerChannel(player.getUniqueId()));
+        if (party == null) {
+            send(player, plugin.i18n("channel_party_not_in"));
+            return;
+        }
+        Player invitee = Bukkit.getPlayerExact(target);
+        if (invitee == null || invitee.equals(player)) {
+            send(player, plugin.i18n("channel_party_player_not_found").replace("{0}", target));
+            return;
+        }
+        if (channelService.getPartySize(party.getName()) >= channelConfig.getPartyMaxMembers()) {
+            send(player, plugin.i18n("channel_party_full").replace("{0}", party.getDisplayName()));
+            return;
+        }
+        if (!channelService.invite(party.getName(), invitee.getUniqueId())) {
+            send(player, plugin.i18n("channel_party_already_invited").replace("{0}", invitee.getName()));
+            return;
+        }
+        send(player, plugin.i18n("channel_party_invite_sent")
+                .replace("{0}", invitee.getName())
+                .replace("{1}", party.getDisplayName()));
+        send(invitee, plugin.i18n("channel_party_invited")
+                .replace("{0}", player.getName())
+                .replace("{1}", party.getDisplayName())
+                .replace("{2}", party.getName()));
+    }
+
+    /**
+     * Show recent lines of the current channel: /ch history
+     * 查看当前频道最近的聊天记录
+     */
+    @CmdMapping(format = "history")
+    public void onHistory(@CmdSender CommandSender sender) {
+        sendHistory(sender, DEFAULT_HISTORY_LINES);
+    }
+
+    /**
+     * Show the last N lines of the current channel: /ch history <count>
+     * 查看当前频道最近N条聊天记录
+     */
+    @CmdMapping(format = "history <count>")
+    public void onHistoryCount(
+            @CmdSender CommandSender sender,
+            @CmdParam("count") String count
+    ) {
+        int n;
+        try {
+            n = Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            n = DEFAULT_HISTORY_LINES;
+        }
+        sendHistory(sender, Math.max(1, n));
     }
 
     /**
@@ -82,8 +306,14 @@ public class ChannelCommands extends AbstractCommandExecutor {
             @CmdSender CommandSender sender,
             @CmdParam(value = "name", suggest = "getName") String name
     ) {
-        // Skip conflict with list subcommand
-        if ("list".equalsIgnoreCase(name)) {
+        // A bare subcommand such as /ch subscribe is not a channel name
+        String key = name.toLowerCase(Locale.ROOT);
+        if (SUBCOMMANDS.contains(key)) {
+            String usage = USAGES.get(key);
+            if (usage != null) {
+                sender.sendMessage(ChatColor.translateAlternateColorCodes('&',
+                        plugin.i18n("channel_usage").replace("{0}", usage)));
+            }
             return;
         }
 
@@ -93,6 +323,12 @@ public class ChannelCommands extends AbstractCommandExecutor {
         }
         Player player = (Player) sender;
 
+        ChannelDefinition party = channelService.getParty(name);
+        if (party != null) {
+            joinParty(player, party);
+            return;
+        }
+
         // Check channel exists
         Map<String, Object> channelDef = channelService.getChannelDef(name);
         if (channelDef == null) {
@@ -101,14 +337,24 @@ public class ChannelCommands extends AbstractCommandExecutor {
             return;
         }
 
-        // Check permission
+        // Check permission, dropping the cached channel list so it agrees with the answer
+        channelService.invalidateAccess(player.getUniqueId());
         if (!channelService.hasChannelPermission(player, name)) {
             String msg = plugin.i18n("channel_no_permission").replace("{0}", name);
             player.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
             return;
         }
 
+        // World-bound channels can only be joined from their worlds
+        if (!channelService.isChannelInWorld(player, name)) {
+            String msg = plugin.i18n("channel_wrong_world")
+                    .replace("{0}", channelService.getChannelDisplayName(name));
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+            return;
+        }
+
         channelService.setPlayerChannel(player.getUniqueId(), name);
+        chatProfileService.update(player.getUniqueId(), profile -> profile.withChannel(name));
         String displayName = channelService.getChannelDisplayName(name);
         String msg = plugin.i18n("channel_switched").replace("{0}", displayName);
         player.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
@@ -119,10 +365,99 @@ public class ChannelCommands extends AbstractCommandExecutor {
         sender.sendMessage(ChatColor.GOLD + "=== Channel Commands ===");
         sender.sendMessage(ChatColor.AQUA + "/ch list" + ChatColor.WHITE + " - List available channels");
         sender.sendMessage(ChatColor.AQUA + "/ch <name>" + ChatColor.WHITE + " - Switch to a channel");
+        sender.sendMessage(ChatColor.AQUA + "/ch subscribe <name>" + ChatColor.WHITE + " - Also listen to a channel");
+        sender.sendMessage(ChatColor.AQUA + "/ch unsubscribe <name>" + ChatColor.WHITE + " - Stop listening to a channel");
+        sender.sendMessage(ChatColor.AQUA + "/ch history [n]" + ChatColor.WHITE + " - Show recent lines of your channel");
+        sender.sendMessage(ChatColor.AQUA + "/ch create <name>" + ChatColor.WHITE + " - Create a party channel");
+        sender.sendMessage(ChatColor.AQUA + "/ch invite <player>" + ChatColor.WHITE + " - Invite a player to your party");
+    }
+
+    /**
+     * Switch into a party channel. The saved channel is left alone, since
+     * the party is gone by the time its last member comes back.
+     */
+    private void joinParty(Player player, ChannelDefinition party) {
+        if (!channelService.hasChannelPermission(player, party.getName())) {
+            send(player, plugin.i18n("channel_party_not_invited").replace("{0}", party.getDisplayName()));
+            return;
+        }
+        if (isFull(player, party)) {
+            send(player, plugin.i18n("channel_party_full").replace("{0}", party.getDisplayName()));
+            return;
+        }
+        channelService.setPlayerChannel(player.getUniqueId(), party.getName());
+        send(player, plugin.i18n("channel_switched").replace("{0}", party.getDisplayName()));
+    }
+
+    /**
+     * Whether a party has no room for a player who is not yet in it.
+     */
+    private boolean isFull(Player player, ChannelDefinition party) {
+        return !channelService.isListening(player.getUniqueId(), party.getName())
+                && channelService.getPartySize(party.getName()) >= channelConfig.getPartyMaxMembers();
+    }
+
+    private void sendHistory(CommandSender sender, int count) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+
+        String channel = channelService.getPlayerChannel(player.getUniqueId());
+        String displayName = channelService.getChannelDisplayName(channel);
+        if (!chatHistoryService.canView(player, channelService.getChannel(channel))) {
+            send(player, plugin.i18n("channel_history_denied").replace("{0}", displayName));
+            return;
+        }
+        List<ChatHistoryEntry> entries = chatHistoryService.getRecent(channel, count);
+        if (entries.isEmpty()) {
+            send(player, plugin.i18n("channel_history_empty").replace("{0}", displayName));
+            return;
+        }
+        send(player, plugin.i18n("channel_history_header").replace("{0}", displayName));
+        String prefix = plugin.i18n("channel_history_entry");
+        for (ChatHistoryEntry entry : entries) {
+            // The recorded text is already rendered; only the prefix takes colour codes
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', prefix.replace("{0}", entry.formatTime()))
+                    + entry.getText());
+        }
+    }
+
+    private void saveSubscriptions(Player player) {
+        Set<String> subscribed = new LinkedHashSet<>();
+        for (String channel : channelService.getSubscriptions(player.getUniqueId())) {
+            // Parties do not outlive their members, so they are not saved
+            if (channelService.getParty(channel) == null) {
+                subscribed.add(channel);
+            }
+        }
+        chatProfileService.update(player.getUniqueId(), profile -> profile.withSubscriptions(subscribed));
+    }
+
+    private static void send(Player player, String message) {
+        player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    }
+
+    @SuppressWarnings("unused")
+    private List<String> getName(Player player, String[] args) {
+        String prefix = args == null || args.length == 0 ? "" : args[args.length - 1];
+        return channelService.completeChannels(player, prefix);
     }
 
     @SuppressWarnings("unused")
-    private List<String> getName(Player player) {
-        return channelService.getAvailableChannels(player);
+    private List<String> getSubscribed(Player player) {
+        return new ArrayList<>(channelService.getSubscriptions(player.getUniqueId()));
+    }
+
+    @SuppressWarnings("unused")
+    private List<String> getInvitable(Player player) {
+        List<String> names = new ArrayList<>();
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            if (!online.equals(player)) {
+                names.add(online.getName());
+            }
+        }
+        return names;
     }
 }
@@ -1,6 +1,14 @@
 package com.ultikits.plugins.chat.commands;
 
+import com.ultikits.plugins.chat.bridge.ChannelBridgeService;
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.AutoReplyImportService;
 import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.CommandQueueService;
+import com.ultikits.plugins.chat.service.ImportReport;
+import com.ultikits.plugins.chat.service.MatchReport;
+import com.ultikits.plugins.chat.service.RuleStats;
 import com.ultikits.ultitools.abstracts.AbstractCommandExecutor;
 import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import com.ultikits.ultitools.annotations.command.CmdExecutor;
@@ -8,9 +16,17 @@ import com.ultikits.ultitools.annotations.command.CmdMapping;
 import com.ultikits.ultitools.annotations.command.CmdParam;
 import com.ultikits.ultitools.annotations.command.CmdSender;
 import com.ultikits.ultitools.annotations.command.CmdTarget;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,12 +40,29 @@ import java.util.Map;
 @CmdExecutor(permission = "ultichat.admin", description = "UltiChat admin commands", alias = {"uchat"})
 public class ChatAdminCommands extends AbstractCommandExecutor {
 
+    private static final int DEFAULT_STATS_TOP = 5;
+    private static final int LIST_PAGE_SIZE = 10;
+    private static final int MAX_REPORTED_FAILURES = 10;
+
     private final UltiToolsPlugin plugin;
     private final AutoReplyService autoReplyService;
+    private final CommandQueueService commandQueueService;
+    private final ChannelService channelService;
+    private final AutoReplyImportService importService;
+    private final ChannelBridgeService bridgeService;
+    private final AnnouncementService announcementService;
 
-    public ChatAdminCommands(UltiToolsPlugin plugin, AutoReplyService autoReplyService) {
+    public ChatAdminCommands(UltiToolsPlugin plugin, AutoReplyService autoReplyService,
+                             CommandQueueService commandQueueService, ChannelService channelService,
+                             AutoReplyImportService importService, ChannelBridgeService bridgeService,
+                             AnnouncementService announcementService) {
         this.plugin = plugin;
         this.autoReplyService = autoReplyService;
+        this.commandQueueService = commandQueueService;
+        this.channelService = channelService;
+        this.importService = importService;
+        this.bridgeService = bridgeService;
+        this.announcementService = announcementService;
     }
 
     /**
@@ -38,28 +71,286 @@ public class ChatAdminCommands extends AbstractCommandExecutor {
      */
     @CmdMapping(format = "reload")
     public void onReload(@CmdSender CommandSender sender) {
+        // Runtime rule edits may still be waiting in the write-behind queue
+        autoReplyService.flushPendingEdits();
         plugin.reloadSelf();
+        channelService.invalidate();
         sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("config_reloaded")));
     }
 
     /**
-     * List all auto-reply rules.
-     * 列出所有自动回复规则。
+     * List the first page of auto-reply rules, sorted by name.
+     * 按名称排序列出第一页自动回复规则。
      */
     @CmdMapping(format = "autoreply list")
     public void onAutoReplyList(@CmdSender CommandSender sender) {
-        Map<String, Map<String, Object>> rules = autoReplyService.getRules();
+        sendRulePage(sender, 1);
+    }
+
+    /**
+     * List a page of auto-reply rules: /uchat autoreply list <page>
+     * 列出指定页的自动回复规则。
+     */
+    @CmdMapping(format = "autoreply list <page>")
+    public void onAutoReplyListPage(@CmdSender CommandSender sender,
+                                    @CmdParam("page") String page) {
+        sendRulePage(sender, parsePage(page));
+    }
+
+    /**
+     * Find rules whose name or keyword starts with a prefix.
+     * 按规则名或关键词前缀搜索规则。
+     */
+    @CmdMapping(format = "autoreply search <prefix>")
+    public void onAutoReplySearch(@CmdSender CommandSender sender,
+                                  @CmdParam("prefix") String prefix) {
+        sendSearchPage(sender, prefix, 1);
+    }
+
+    /**
+     * Show a page of search results: /uchat autoreply search <prefix> <page>
+     * 显示搜索结果的指定页。
+     */
+    @CmdMapping(format = "autoreply search <prefix> <page>")
+    public void onAutoReplySearchPage(@CmdSender CommandSender sender,
+                                      @CmdParam("prefix") String prefix,
+                                      @CmdParam("page") String page) {
+        sendSearchPage(sender, prefix, parsePage(page));
+    }
+
+    /**
+     * Show which rules a message matches, which one would reply, and how long
+     * finding it took. A player tests against the rules of their current
+     * channel. Statistics are not affected. Every remaining argument is part
+     * of the message, so whole sentences can be tested without quoting.
+     * 测试消息匹配的所有规则、最终回复的规则及匹配耗时（不计入统计）。
+     */
+    @CmdMapping(format = "autoreply test <message...>")
+    public void onAutoReplyTest(@CmdSender CommandSender sender,
+                                @CmdParam("message...") String... words) {
+        String message = String.join(" ", words);
+        String channel = sender instanceof Player
+                ? channelService.getActiveChannel(((Player) sender).getUniqueId())
+                : null;
+        MatchReport report = autoReplyService.test(message, channel);
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_test_header")));
+
+        if (report.getMatches().isEmpty()) {
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_test_none")));
+        } else {
+            String matches = plugin.i18n("autoreply_test_matches")
+                    .replace("{0}", String.valueOf(report.getMatches().size()))
+                    .replace("{1}", String.join(", ", report.getMatches()));
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', matches));
+        }
+
+        String micros = String.format("%.1f", report.getMatchNanos() / 1_000.0);
+        String result = report.getWinner() != null
+                ? plugin.i18n("autoreply_test_winner").replace("{0}", report.getWinner()).replace("{1}", micros)
+                : plugin.i18n("autoreply_test_no_winner").replace("{0}", micros);
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', result));
+    }
+
+    /**
+     * Import rules from a CSV or YAML file in the autoreply folder, adding to
+     * the existing rules.
+     * 从 autoreply 目录中的 CSV / YAML 文件导入规则（追加）。
+     */
+    @CmdMapping(format = "autoreply import <file>")
+    public void onAutoReplyImport(@CmdSender CommandSender sender,
+                                  @CmdParam("file") String file) {
+        runImport(sender, file, false);
+    }
+
+    /**
+     * Import rules, replacing all existing ones: /uchat autoreply import <file> replace
+     * 导入规则并替换现有全部规则。
+     */
+    @CmdMapping(format = "autoreply import <file> <mode>")
+    public void onAutoReplyImportMode(@CmdSender CommandSender sender,
+                                      @CmdParam("file") String file,
+                                      @CmdParam("mode") String mode) {
+        runImport(sender, file, "replace".equalsIgnoreCase(mode));
+    }
+
+    /**
+     * Export every rule to a CSV or YAML file in the autoreply folder.
+     * 将所有规则导出到 autoreply 目录中的 CSV / YAML 文件。
+     */
+    @CmdMapping(format = "autoreply export <file>")
+    public void onAutoReplyExport(@CmdSender CommandSender sender,
+                                  @CmdParam("file") String file) {
+        File target = importService.resolve(file);
+        if (target == null) {
+            sendFileInvalid(sender, file);
+            return;
+        }
+
+        runAsync(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                String message;
+                try {
+                    int count = importService.exportRules(target);
+                    message = plugin.i18n("autoreply_export_done")
+                            .replace("{0}", String.valueOf(count))
+                            .replace("{1}", file)
+                            .replace("{2}", millis(System.nanoTime() - start));
+                } catch (IOException e) {
+                    message = plugin.i18n("autoreply_export_error").replace("{0}", String.valueOf(e.getMessage()));
+                }
+                String result = message;
+                runSync(new Runnable() {
+                    @Override
+                    public void run() {
+                        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', result));
+                    }
+                });
+            }
+        });
+    }
+
+    private void runImport(CommandSender sender, String file, boolean replace) {
+        File source = importService.resolve(file);
+        if (source == null) {
+            sendFileInvalid(sender, file);
+            return;
+        }
+        if (!source.isFile()) {
+            String msg = plugin.i18n("autoreply_file_not_found").replace("{0}", file);
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+            return;
+        }
+        if (importService.isImporting()) {
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_import_busy")));
+            return;
+        }
+
+        String started = plugin.i18n("autoreply_import_started").replace("{0}", file);
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', started));
+
+        // Parsing, validation and matcher compilation stay off the main thread
+        runAsync(new Runnable() {
+            @Override
+            public void run() {
+                List<String> lines = new ArrayList<>();
+                try {
+                    ImportReport report = importService.importRules(source, replace);
+                    if (report == null) {
+                        // Another import started after the check above
+                        lines.add(plugin.i18n("autoreply_import_busy"));
+                    } else {
+                        lines.addAll(formatImportReport(report));
+                    }
+                } catch (IOException e) {
+                    lines.add(plugin.i18n("autoreply_import_error").replace("{0}", String.valueOf(e.getMessage())));
+                }
+                runSync(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (String line : lines) {
+                            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', line));
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private List<String> formatImportReport(ImportReport report) {
+        List<String> lines = new ArrayList<>();
+        lines.add(plugin.i18n("autoreply_import_done")
+                .replace("{0}", String.valueOf(report.getImported()))
+                .replace("{1}", String.valueOf(report.getFailures().size()))
+                .replace("{2}", String.valueOf(report.getTotalRules()))
+                .replace("{3}", millis(report.getParseNanos()))
+                .replace("{4}", millis(report.getValidateNanos()))
+                .replace("{5}", millis(report.getCompileNanos())));
+
+        List<ImportReport.Failure> failures = report.getFailures();
+        int shown = Math.min(MAX_REPORTED_FAILURES, failures.size());
+        for (int i = 0; i < shown; i++) {
+            ImportReport.Failure failure = failures.get(i);
+            lines.add(plugin.i18n("autoreply_import_failure")
+                    .replace("{0}", String.valueOf(failure.getLine()))
+                    .replace("{1}", String.valueOf(failure.getRuleName()))
+                    .replace("{2}", failure.getReason()));
+        }
+        if (failures.size() > shown) {
+            lines.add(plugin.i18n("autoreply_import_more").replace("{0}", String.valueOf(failures.size() - shown)));
+        }
+        return lines;
+    }
+
+    private void sendFileInvalid(CommandSender sender, String file) {
+        String msg = plugin.i18n("autoreply_file_invalid").replace("{0}", file);
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
 
+    private static void runAsync(Runnable task) {
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        if (bukkitPlugin == null) {
+            // Fallback: run inline if UltiTools is not available
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(bukkitPlugin, task);
+    }
+
+    private static void runSync(Runnable task) {
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        if (bukkitPlugin == null) {
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(bukkitPlugin, task);
+    }
+
+    private void sendRulePage(CommandSender sender, int page) {
+        int total = autoReplyService.getRuleCount();
         sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_list_header")));
 
-        if (rules.isEmpty()) {
+        if (total == 0) {
             sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_list_empty")));
             return;
         }
 
-        for (Map.Entry<String, Map<String, Object>> entry : rules.entrySet()) {
-            String name = entry.getKey();
-            Map<String, Object> rule = entry.getValue();
+        int pages = pageCount(total);
+        int current = Math.min(page, pages);
+        sendRuleEntries(sender, autoReplyService.getRuleNames((current - 1) * LIST_PAGE_SIZE, LIST_PAGE_SIZE));
+        sendPageFooter(sender, current, pages, total);
+    }
+
+    private void sendSearchPage(CommandSender sender, String prefix, int page) {
+        List<String> found = autoReplyService.searchRules(prefix);
+        String header = plugin.i18n("autoreply_search_header").replace("{0}", prefix);
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', header));
+
+        if (found.isEmpty()) {
+            String empty = plugin.i18n("autoreply_search_empty").replace("{0}", prefix);
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', empty));
+            return;
+        }
+
+        int pages = pageCount(found.size());
+        int current = Math.min(page, pages);
+        int from = (current - 1) * LIST_PAGE_SIZE;
+        sendRuleEntries(sender, found.subList(from, Math.min(from + LIST_PAGE_SIZE, found.size())));
+        sendPageFooter(sender, current, pages, found.size());
+    }
+
+    private void sendRuleEntries(CommandSender sender, List<String> names) {
+        Map<String, Map<String, Object>> rules = autoReplyService.getRules();
+        for (String name : names) {
+            Map<String, Object> rule = rules.get(name);
+            if (rule == null) {
+                continue;
+            }
             Object keyword = rule.get("keyword");
             Object mode = rule.get("mode");
             String keywordStr = keyword != null ? keyword.toString() : "";
@@ -73,6 +364,26 @@ public class ChatAdminCommands extends AbstractCommandExecutor {
         }
     }
 
+    private void sendPageFooter(CommandSender sender, int page, int pages, int total) {
+        String footer = plugin.i18n("autoreply_list_page")
+                .replace("{0}", String.valueOf(page))
+                .replace("{1}", String.valueOf(pages))
+                .replace("{2}", String.valueOf(total));
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', footer));
+    }
+
+    private static int pageCount(int total) {
+        return (total + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE;
+    }
+
+    private static int parsePage(String page) {
+        try {
+            return Math.max(1, Integer.parseInt(page));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
     /**
      * Add a new auto-reply rule.
      * 添加新的自动回复规则。
@@ -105,12 +416,153 @@ public class ChatAdminCommands extends AbstractCommandExecutor {
         sender.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
     }
 
+    /**
+     * Show the top auto-reply rules by hits and by match time.
+     * 显示命中次数与匹配耗时排名靠前的自动回复规则。
+     */
+    @CmdMapping(format = "autoreply stats")
+    public void onAutoReplyStats(@CmdSender CommandSender sender) {
+        sendStats(sender, DEFAULT_STATS_TOP);
+    }
+
+    /**
+     * Show the top N rules, or reset statistics: /uchat autoreply stats <n|reset>
+     * 显示前N条规则，或重置统计。
+     *
+     * The wildcard would intercept an exact "stats reset" mapping, so reset is
+     * handled here.
+     */
+    @CmdMapping(format = "autoreply stats <top>")
+    public void onAutoReplyStatsTop(@CmdSender CommandSender sender,
+                                    @CmdParam("top") String top) {
+        if ("reset".equalsIgnoreCase(top)) {
+            autoReplyService.resetStats();
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_stats_reset")));
+            return;
+        }
+        int n;
+        try {
+            n = Integer.parseInt(top);
+        } catch (NumberFormatException e) {
+            n = DEFAULT_STATS_TOP;
+        }
+        sendStats(sender, Math.max(1, n));
+    }
+
+    private void sendStats(CommandSender sender, int top) {
+        List<RuleStats> stats = autoReplyService.getRuleStats();
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_stats_header")));
+
+        if (stats.isEmpty()) {
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("autoreply_list_empty")));
+        } else {
+            sendTop(sender, stats, top, "autoreply_stats_by_hits", new Comparator<RuleStats>() {
+                @Override
+                public int compare(RuleStats a, RuleStats b) {
+                    return Long.compare(b.getHits(), a.getHits());
+                }
+            });
+            sendTop(sender, stats, top, "autoreply_stats_by_cost", new Comparator<RuleStats>() {
+                @Override
+                public int compare(RuleStats a, RuleStats b) {
+                    return Long.compare(b.getMatchNanos(), a.getMatchNanos());
+                }
+            });
+
+            int unused = 0;
+            for (RuleStats ruleStats : stats) {
+                if (ruleStats.getHits() == 0) {
+                    unused++;
+                }
+            }
+            String unusedMsg = plugin.i18n("autoreply_stats_unused")
+                    .replace("{0}", String.valueOf(unused))
+                    .replace("{1}", String.valueOf(stats.size()));
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', unusedMsg));
+        }
+
+        String queueMsg = plugin.i18n("autoreply_stats_queue")
+                .replace("{0}", String.valueOf(commandQueueService.getPending()))
+                .replace("{1}", String.valueOf(commandQueueService.getDispatched()))
+                .replace("{2}", String.valueOf(commandQueueService.getDroppedOverflow()))
+                .replace("{3}", String.valueOf(commandQueueService.getDroppedRateLimited()));
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', queueMsg));
+    }
+
+    private void sendTop(CommandSender sender, List<RuleStats> stats, int top,
+                         String headerKey, Comparator<RuleStats> order) {
+        List<RuleStats> sorted = new ArrayList<>(stats);
+        sorted.sort(order);
+
+        String header = plugin.i18n(headerKey).replace("{0}", String.valueOf(top));
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', header));
+
+        long now = System.currentTimeMillis();
+        int count = Math.min(top, sorted.size());
+        for (int i = 0; i < count; i++) {
+            RuleStats ruleStats = sorted.get(i);
+            String lastHit = ruleStats.getLastHit() == 0
+                    ? plugin.i18n("autoreply_stats_never")
+                    : ((now - ruleStats.getLastHit()) / 1000) + "s";
+            String line = plugin.i18n("autoreply_stats_entry")
+                    .replace("{0}", String.valueOf(i + 1))
+                    .replace("{1}", ruleStats.getRuleName())
+                    .replace("{2}", String.valueOf(ruleStats.getHits()))
+                    .replace("{3}", String.format("%.2f", ruleStats.getMatchNanos() / 1_000_000.0))
+                    .replace("{4}", String.format("%.2f", ruleStats.getAverageNanos() / 1_000.0))
+                    .replace("{5}", lastHit);
+            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', line));
+        }
+    }
+
+    /**
+     * Show cross-server bridge counters.
+     * 显示跨服频道桥接的统计。
+     */
+    @CmdMapping(format = "bridge")
+    public void onBridge(@CmdSender CommandSender sender) {
+        String msg = plugin.i18n("bridge_status")
+                .replace("{0}", String.valueOf(bridgeService.getPendingCount()))
+                .replace("{1}", String.valueOf(bridgeService.getSentFrames()))
+                .replace("{2}", String.valueOf(bridgeService.getSentMessages()))
+                .replace("{3}", String.valueOf(bridgeService.getReceivedMessages()))
+                .replace("{4}", String.valueOf(bridgeService.getDuplicateMessages()))
+                .replace("{5}", String.valueOf(bridgeService.getDroppedMessages()))
+                .replace("{6}", String.valueOf(bridgeService.getStalledTicks()));
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+    }
+
+    /**
+     * Show announcement delivery counters, the per-tick cost and failed track runs.
+     * 显示公告分批发送的统计、每tick开销和轨道失败次数。
+     */
+    @CmdMapping(format = "announcements")
+    public void onAnnouncements(@CmdSender CommandSender sender) {
+        String msg = plugin.i18n("announcement_status")
+                .replace("{0}", String.valueOf(announcementService.getPendingPlayers()))
+                .replace("{1}", String.valueOf(announcementService.getDeliveredPlayers()))
+                .replace("{2}", String.valueOf(announcementService.getDeliveryTicks()))
+                .replace("{3}", String.valueOf(announcementService.getLastTickPlayers()))
+                .replace("{4}", String.valueOf(announcementService.getLastTickNanos() / 1000))
+                .replace("{5}", String.valueOf(announcementService.getMaxTickPlayers()))
+                .replace("{6}", String.valueOf(announcementService.getMaxTickNanos() / 1000))
+                .replace("{7}", String.valueOf(announcementService.getFailed()));
+        sender.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+    }
+
     @Override
     protected void handleHelp(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "=== UltiChat Admin Commands ===");
         sender.sendMessage(ChatColor.AQUA + "/uchat reload" + ChatColor.WHITE + " - Reload configs");
-        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply list" + ChatColor.WHITE + " - List auto-reply rules");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply list [page]" + ChatColor.WHITE + " - List auto-reply rules");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply search <prefix> [page]" + ChatColor.WHITE + " - Find rules by name or keyword");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply test <message...>" + ChatColor.WHITE + " - Show which rules a message matches");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply import <file> [replace]" + ChatColor.WHITE + " - Import rules from CSV/YAML");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply export <file>" + ChatColor.WHITE + " - Export rules to CSV/YAML");
         sender.sendMessage(ChatColor.AQUA + "/uchat autoreply add <name> <response>" + ChatColor.WHITE + " - Add rule");
         sender.sendMessage(ChatColor.AQUA + "/uchat autoreply remove <name>" + ChatColor.WHITE + " - Remove rule");
+        sender.sendMessage(ChatColor.AQUA + "/uchat autoreply stats [n|reset]" + ChatColor.WHITE + " - Rule hit/cost statistics");
+        sender.sendMessage(ChatColor.AQUA + "/uchat bridge" + ChatColor.WHITE + " - Cross-server bridge statistics");
+        sender.sendMessage(ChatColor.AQUA + "/uchat announcements" + ChatColor.WHITE + " - Announcement delivery statistics");
     }
 }
@@ -0,0 +1,81 @@
+package com.ultikits.plugins.chat.commands;
+
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.ultitools.abstracts.AbstractCommandExecutor;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.annotations.command.CmdExecutor;
+import com.ultikits.ultitools.annotations.command.CmdMapping;
+import com.ultikits.ultitools.annotations.command.CmdSender;
+import com.ultikits.ultitools.annotations.command.CmdTarget;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Personal chat preference toggles, saved in the player's chat profile.
+ * 玩家个人聊天偏好开关，保存在聊天档案中。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@CmdTarget(CmdTarget.CmdTargetType.BOTH)
+@CmdExecutor(permission = "ultichat.toggle", description = "Chat preference toggles", alias = {"chattoggle", "ct"})
+public class ChatToggleCommands extends AbstractCommandExecutor {
+
+    private final UltiToolsPlugin plugin;
+    private final ChatProfileService chatProfileService;
+    private final AnnouncementService announcementService;
+
+    public ChatToggleCommands(UltiToolsPlugin plugin, ChatProfileService chatProfileService,
+                              AnnouncementService announcementService) {
+        this.plugin = plugin;
+        this.chatProfileService = chatProfileService;
+        this.announcementService = announcementService;
+    }
+
+    /**
+     * Toggle the mention sound: /ct mentions
+     * 开关被@提及时的提示音
+     */
+    @CmdMapping(format = "mentions")
+    public void onMentions(@CmdSender CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+        ChatProfile profile = chatProfileService.update(player.getUniqueId(),
+                current -> current.withMentions(!current.isMentions()));
+        send(player, plugin.i18n(profile.isMentions() ? "toggle_mentions_on" : "toggle_mentions_off"));
+    }
+
+    /**
+     * Toggle scheduled announcements: /ct announcements
+     * 开关定时公告
+     */
+    @CmdMapping(format = "announcements")
+    public void onAnnouncements(@CmdSender CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "This command can only be used by players.");
+            return;
+        }
+        Player player = (Player) sender;
+        ChatProfile profile = chatProfileService.update(player.getUniqueId(),
+                current -> current.withAnnouncements(!current.isAnnouncements()));
+        announcementService.refreshBossBar(player);
+        send(player, plugin.i18n(profile.isAnnouncements() ? "toggle_announcements_on" : "toggle_announcements_off"));
+    }
+
+    @Override
+    protected void handleHelp(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "=== Chat Toggles ===");
+        sender.sendMessage(ChatColor.AQUA + "/ct mentions" + ChatColor.WHITE + " - Toggle the mention sound");
+        sender.sendMessage(ChatColor.AQUA + "/ct announcements" + ChatColor.WHITE + " - Toggle announcements");
+    }
+
+    private static void send(Player player, String message) {
+        player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    }
+}
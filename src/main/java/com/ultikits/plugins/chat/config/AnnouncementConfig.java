@@ -46,6 +46,9 @@ public class AnnouncementConfig extends AbstractConfigEntity {
     @ConfigEntry(path = "announcements.bossbar.duration", comment = "Boss bar display duration (seconds) / Boss栏显示时长(秒)")
     private int bossBarDuration = 10;
 
+    @ConfigEntry(path = "announcements.bossbar.animate", comment = "Count the boss bar progress down while shown / Boss栏显示时进度条倒计时")
+    private boolean bossBarAnimate = false;
+
     @ConfigEntry(path = "announcements.bossbar.color", comment = "Boss bar color / Boss栏颜色")
     private String bossBarColor = "BLUE";
 
@@ -75,6 +78,15 @@ public class AnnouncementConfig extends AbstractConfigEntity {
     @ConfigEntry(path = "announcements.title.messages", comment = "Title messages (use || to separate title and subtitle) / 标题公告(用||分隔)")
     private List<String> titleMessages = Arrays.asList("&6Welcome!||&7Enjoy your stay");
 
+    // Delivery
+    @Range(min = 1, max = 10000)
+    @ConfigEntry(path = "announcements.delivery.per-tick", comment = "Players sent an announcement per tick at least / 每tick至少发送公告的玩家数")
+    private int deliveryPerTick = 100;
+
+    @Range(min = 1, max = 100)
+    @ConfigEntry(path = "announcements.delivery.spread-ticks", comment = "Ticks a chat or title announcement is spread over at most / 聊天和标题公告最多分摊的tick数")
+    private int deliverySpreadTicks = 20;
+
     public AnnouncementConfig() {
         super("config/announcements.yml");
     }
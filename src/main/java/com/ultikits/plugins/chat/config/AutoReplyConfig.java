@@ -22,6 +22,40 @@ public class AutoReplyConfig extends AbstractConfigEntity {
     @ConfigEntry(path = "autoreply.cooldown", comment = "Global cooldown between auto-replies (seconds) / 全局冷却(秒)")
     private int cooldown = 10;
 
+    @Range(min = 1, max = 100000)
+    @ConfigEntry(path = "autoreply.command-queue.capacity", comment = "Max queued auto-reply commands / 自动回复命令队列容量")
+    private int commandQueueCapacity = 1024;
+
+    @Range(min = 1, max = 1000)
+    @ConfigEntry(path = "autoreply.command-queue.per-tick", comment = "Max commands dispatched per tick / 每tick最多执行的命令数")
+    private int commandsPerTick = 20;
+
+    @Range(min = 0, max = 10000)
+    @ConfigEntry(path = "autoreply.command-queue.rule-rate", comment = "Max commands per rule per minute, 0 = unlimited / 每条规则每分钟最多命令数(0为不限)")
+    private int commandRuleRate = 60;
+
+    @Range(min = 0, max = 60)
+    @ConfigEntry(path = "autoreply.save-delay", comment = "Delay before runtime rule edits are written (seconds) / 规则修改写回延迟(秒)")
+    private int saveDelay = 2;
+
+    @ConfigEntry(path = "autoreply.stats.timing", comment = "Record per-rule match time / 记录每条规则的匹配耗时")
+    private boolean statsTiming = true;
+
+    @Range(min = 0, max = 3)
+    @ConfigEntry(path = "autoreply.fuzzy.max-edits", comment = "Default typo tolerance of fuzzy rules (edits) / 模糊规则默认容错编辑数")
+    private int fuzzyMaxEdits = 2;
+
+    @Range(min = 1, max = 300)
+    @ConfigEntry(path = "autoreply.broadcast.window", comment = "Seconds a broadcast-once answer suppresses identical triggers / 单次广播回复的去重窗口(秒)")
+    private int broadcastWindow = 10;
+
+    @ConfigEntry(path = "autoreply.placeholders.async", comment = "Resolve PlaceholderAPI tokens in replies off the chat thread / 异步解析回复中的PAPI变量")
+    private boolean placeholdersAsync = true;
+
+    @Range(min = 0.0, max = 1.0)
+    @ConfigEntry(path = "autoreply.semantic.threshold", comment = "Default minimum similarity of semantic rules (0-1) / 语义规则默认最低相似度")
+    private double semanticThreshold = 0.4;
+
     @ConfigEntry(path = "autoreply.rules", comment = "Auto-reply rules / 自动回复规则")
     private Map<String, Map<String, Object>> rules = new HashMap<String, Map<String, Object>>() {{
         HashMap<String, Object> rule1 = new HashMap<>();
@@ -3,6 +3,7 @@ package com.ultikits.plugins.chat.config;
 import com.ultikits.ultitools.abstracts.AbstractConfigEntity;
 import com.ultikits.ultitools.annotations.ConfigEntity;
 import com.ultikits.ultitools.annotations.ConfigEntry;
+import com.ultikits.ultitools.annotations.config.Range;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -20,6 +21,58 @@ public class ChannelConfig extends AbstractConfigEntity {
     @ConfigEntry(path = "channels.default-channel", comment = "Default channel for new players / 默认频道")
     private String defaultChannel = "global";
 
+    @Range(min = 0, max = 3600)
+    @ConfigEntry(path = "channels.access-cache", comment = "Seconds a player's usable channel list is reused for /ch list and tab completion (0 = always recheck) / 玩家可用频道列表缓存秒数(0为每次重新检查)")
+    private int accessCacheSeconds = 30;
+
+    @Range(min = 0, max = 100000)
+    @ConfigEntry(path = "channels.parallel.threshold", comment = "Check recipients of ranged channels on a thread pool from this many candidates (0 = never); untuned default, measure with RecipientFilterBenchmark / 候选接收者达到该数量时并行过滤(0为关闭)，默认值未经调优")
+    private int parallelThreshold = 1024;
+
+    @Range(min = 0, max = 64)
+    @ConfigEntry(path = "channels.parallel.threads", comment = "Threads for parallel recipient filtering (0 = CPU cores - 1; 1 = no parallel filtering) / 并行过滤线程数(0为CPU核数-1，1为不并行)")
+    private int parallelThreads = 0;
+
+    @ConfigEntry(path = "channels.history.enabled", comment = "Keep recent lines of each channel for /ch history / 保存各频道最近消息供 /ch history 查看")
+    private boolean historyEnabled = true;
+
+    @Range(min = 0, max = 1000)
+    @ConfigEntry(path = "channels.history.lines", comment = "Lines kept per channel / 每个频道保存的消息条数")
+    private int historyLines = 100;
+
+    @Range(min = 1024, max = 1048576)
+    @ConfigEntry(path = "channels.history.bytes", comment = "Text bytes kept per channel; older lines are evicted first / 每个频道消息文本的字节上限")
+    private int historyBytes = 16384;
+
+    @Range(min = 0, max = 50)
+    @ConfigEntry(path = "channels.history.join-replay", comment = "Recent lines of their channel shown to joining players (0 = off) / 进服时回放当前频道最近的消息条数(0为关闭)")
+    private int historyJoinReplay = 0;
+
+    @ConfigEntry(path = "channels.party.enabled", comment = "Let players create temporary party channels with /ch create / 允许玩家用 /ch create 创建临时组队频道")
+    private boolean partyEnabled = true;
+
+    @Range(min = 2, max = 1000)
+    @ConfigEntry(path = "channels.party.max-members", comment = "Members a party channel can hold / 组队频道的人数上限")
+    private int partyMaxMembers = 20;
+
+    @ConfigEntry(path = "channels.party.display-name", comment = "Display name of party channels; {name} is the party name / 组队频道的显示名称，{name}为队伍名")
+    private String partyDisplayName = "&d[{name}]";
+
+    @ConfigEntry(path = "channels.bridge.enabled", comment = "Relay network channels to other servers behind the proxy / 跨服转发 network 频道")
+    private boolean bridgeEnabled = false;
+
+    @Range(min = 16, max = 65536)
+    @ConfigEntry(path = "channels.bridge.max-pending", comment = "Messages held while the link is slow before new ones are dropped / 链路繁忙时最多排队的消息数")
+    private int bridgeMaxPending = 1024;
+
+    @Range(min = 1, max = 64)
+    @ConfigEntry(path = "channels.bridge.frames-per-tick", comment = "Frames sent per tick at most / 每tick最多发送的帧数")
+    private int bridgeFramesPerTick = 4;
+
+    @Range(min = 1024, max = 32000)
+    @ConfigEntry(path = "channels.bridge.frame-bytes", comment = "Maximum frame size in bytes / 单帧最大字节数")
+    private int bridgeFrameBytes = 30000;
+
     @ConfigEntry(path = "channels.channels", comment = "Channel definitions / 频道定义")
     private Map<String, Map<String, Object>> channels = new HashMap<String, Map<String, Object>>() {{
         HashMap<String, Object> global = new HashMap<>();
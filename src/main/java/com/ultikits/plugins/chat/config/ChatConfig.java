@@ -97,6 +97,11 @@ public class ChatConfig extends AbstractConfigEntity {
     @ConfigEntry(path = "anti-spam.caps-limit", comment = "Max uppercase percentage / 最大大写百分比")
     private int antiSpamCapsLimit = 70;
 
+    // Player profiles
+    @Range(min = 0, max = 300)
+    @ConfigEntry(path = "profiles.save-delay", comment = "Delay before changed player profiles are written (seconds) / 玩家偏好修改写回延迟(秒)")
+    private int profileSaveDelay = 5;
+
     public ChatConfig() {
         super("config/chat.yml");
     }
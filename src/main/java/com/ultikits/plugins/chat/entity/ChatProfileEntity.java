@@ -0,0 +1,38 @@
+package com.ultikits.plugins.chat.entity;
+
+import com.ultikits.ultitools.abstracts.AbstractDataEntity;
+import com.ultikits.ultitools.annotations.Column;
+import com.ultikits.ultitools.annotations.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Stored chat preferences of a player, keyed by the player's UUID string.
+ * 玩家聊天偏好存储实体，以玩家 UUID 字符串为主键。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Getter
+@Setter
+@Table("chat_profiles")
+public class ChatProfileEntity extends AbstractDataEntity {
+
+    @Column("channel")
+    private String channel;
+
+    /**
+     * Subscribed channel names, comma separated.
+     */
+    @Column(value = "subscriptions", type = "TEXT")
+    private String subscriptions;
+
+    @Column(value = "mentions", type = "BOOLEAN")
+    private boolean mentions;
+
+    @Column(value = "announcements", type = "BOOLEAN")
+    private boolean announcements;
+
+    public ChatProfileEntity() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.ultitools.annotations.Autowired;
+import com.ultikits.ultitools.annotations.EventListener;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Attaches joining players to the announcement boss bar and detaches them on quit.
+ * 玩家进入时加入公告Boss栏，退出时移出。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@EventListener
+public class AnnouncementListener implements Listener {
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        announcementService.refreshBossBar(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        announcementService.removeFromBossBar(event.getPlayer());
+    }
+}
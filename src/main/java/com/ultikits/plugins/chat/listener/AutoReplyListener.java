@@ -2,8 +2,13 @@ package com.ultikits.plugins.chat.listener;
 
 import com.ultikits.plugins.chat.config.AutoReplyConfig;
 import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.CommandQueueService;
+import com.ultikits.plugins.chat.service.ReplyBroadcastService;
+import com.ultikits.plugins.chat.service.ResponseTemplate;
 import com.ultikits.ultitools.annotations.Autowired;
 import com.ultikits.ultitools.annotations.EventListener;
+import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -11,8 +16,12 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,9 +30,12 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Listener for automatic chat replies based on keyword/regex triggers.
  * <p>
- * Supports contains, exact, and regex match modes with per-rule
- * case sensitivity, permissions, cooldowns, multi-line responses,
- * and console command execution.
+ * Supports contains, exact, regex, fuzzy, and semantic match modes with per-rule
+ * case sensitivity, channel scoping, permissions, cooldowns, precompiled multi-line responses
+ * (PlaceholderAPI tokens resolved off the chat thread),
+ * console command execution through the tick-batched
+ * {@link CommandQueueService}, and broadcast-once rules whose answer goes to
+ * the sender's channel (or everyone) once per window.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -42,6 +54,15 @@ public class AutoReplyListener implements Listener {
     @Autowired
     private AutoReplyService autoReplyService;
 
+    @Autowired
+    private CommandQueueService commandQueueService;
+
+    @Autowired
+    private ReplyBroadcastService replyBroadcastService;
+
+    @Autowired
+    private ChannelService channelService;
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         if (!config.isEnabled()) {
@@ -58,7 +79,9 @@ public class AutoReplyListener implements Listener {
             return;
         }
 
-        Map.Entry<String, Map<String, Object>> match = autoReplyService.findMatch(event.getMessage());
+        // Only the rules of the sender's channel are considered
+        String channel = channelService.getActiveChannel(player.getUniqueId());
+        Map.Entry<String, Map<String, Object>> match = autoReplyService.findMatch(event.getMessage(), channel);
         if (match == null) {
             return;
         }
@@ -69,12 +92,26 @@ public class AutoReplyListener implements Listener {
             return;
         }
 
-        sendResponse(player, rule);
-        executeCommands(player, autoReplyService.getCommands(rule));
+        String broadcast = autoReplyService.getBroadcast(rule);
+        if (broadcast == null) {
+            sendResponse(player, match.getKey(), rule);
+        } else if (!broadcastResponse(event, match.getKey(), rule, broadcast)) {
+            // Suppressed as a duplicate: the trigger neither runs the rule nor costs a cooldown
+            return;
+        }
+        commandQueueService.submit(match.getKey(), player.getName(), autoReplyService.getCommands(rule));
 
         LAST_REPLY_TIME.put(player.getUniqueId(), System.currentTimeMillis());
     }
 
+    /**
+     * Forget which broadcast-once answers a leaving player has seen.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        replyBroadcastService.forgetPlayer(event.getPlayer().getUniqueId());
+    }
+
     private boolean isOnCooldown(UUID playerId) {
         Long lastTime = LAST_REPLY_TIME.get(playerId);
         if (lastTime == null) {
@@ -92,40 +129,74 @@ public class AutoReplyListener implements Listener {
         return player.hasPermission(permission.toString());
     }
 
-    private void sendResponse(Player player, Map<String, Object> rule) {
-        Object response = autoReplyService.getResponse(rule);
-        if (response instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<String> lines = (List<String>) response;
-            for (String line : lines) {
-                player.sendMessage(formatMessage(line, player));
-            }
-        } else if (response != null) {
-            player.sendMessage(formatMessage(response.toString(), player));
+    private void sendResponse(Player player, String ruleName, Map<String, Object> rule) {
+        deliver(getTemplate(ruleName, rule), player, Collections.singletonList(player));
+    }
+
+    /**
+     * Send the answer once to everyone who can see the trigger, skipping
+     * players who already saw it within the rule's window.
+     *
+     * @return false if everyone had already seen it, so nothing was sent
+     */
+    private boolean broadcastResponse(AsyncPlayerChatEvent event, String ruleName,
+                                   Map<String, Object> rule, String scope) {
+        Player player = event.getPlayer();
+        Collection<? extends Player> audience = "global".equals(scope)
+                ? Bukkit.getOnlinePlayers()
+                : event.getRecipients();
+        List<Player> targets = replyBroadcastService.claim(ruleName, player, audience,
+                autoReplyService.getBroadcastWindowMillis(rule));
+        if (targets.isEmpty()) {
+            return false;
         }
+        // Rendered once for the whole audience
+        deliver(getTemplate(ruleName, rule), player, targets);
+        return true;
+    }
+
+    /**
+     * The rule's precompiled template, compiled on demand if the rule is not
+     * part of the current rule set (for example it was edited concurrently).
+     */
+    private ResponseTemplate getTemplate(String ruleName, Map<String, Object> rule) {
+        ResponseTemplate template = autoReplyService.getTemplate(ruleName);
+        return template != null ? template : ResponseTemplate.compile(autoReplyService.getResponse(rule));
     }
 
-    private void executeCommands(Player player, List<String> commands) {
-        if (commands.isEmpty()) {
+    private void deliver(ResponseTemplate template, Player player, Collection<? extends Player> targets) {
+        if (template.isEmpty()) {
             return;
         }
-        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
-        if (bukkitPlugin == null) {
+        if (!template.hasPlaceholders() || Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+            send(template.render(player.getName()), targets);
             return;
         }
-        Bukkit.getScheduler().runTask(bukkitPlugin, new Runnable() {
+
+        Runnable resolve = new Runnable() {
             @Override
             public void run() {
-                for (String cmd : commands) {
-                    String formatted = cmd.replace("{player}", player.getName());
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), formatted);
+                List<String> lines = new ArrayList<>();
+                for (String line : template.render(player.getName())) {
+                    lines.add(ChatColor.translateAlternateColorCodes('&', PlaceholderAPI.setPlaceholders(player, line)));
                 }
+                send(lines, targets);
             }
-        });
+        };
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        if (config.isPlaceholdersAsync() && bukkitPlugin != null) {
+            // Slow expansions must not hold up the chat thread
+            Bukkit.getScheduler().runTaskAsynchronously(bukkitPlugin, resolve);
+        } else {
+            resolve.run();
+        }
     }
 
-    private String formatMessage(String message, Player player) {
-        String formatted = message.replace("{player}", player.getName());
-        return ChatColor.translateAlternateColorCodes('&', formatted);
+    private static void send(List<String> lines, Collection<? extends Player> targets) {
+        for (Player target : targets) {
+            for (String line : lines) {
+                target.sendMessage(line);
+            }
+        }
     }
 }
@@ -0,0 +1,54 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.bridge.ChannelBridgeService;
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.ultitools.annotations.Autowired;
+import com.ultikits.ultitools.annotations.EventListener;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+/**
+ * Hands chat in network channels to the channel bridge.
+ * 将跨服频道中的聊天交给频道桥接转发。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@EventListener
+public class ChannelBridgeListener implements Listener {
+
+    @Autowired
+    private ChannelBridgeService bridgeService;
+
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private ChannelConfig channelConfig;
+
+    /**
+     * Runs after every other plugin, so only messages that are actually
+     * shown locally are relayed, exactly as they are rendered here.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChat(AsyncPlayerChatEvent event) {
+        if (!channelConfig.isEnabled() || !channelConfig.isBridgeEnabled()) {
+            return;
+        }
+        Player player = event.getPlayer();
+        String channel = channelService.getPlayerChannel(player.getUniqueId());
+        ChannelDefinition definition = channelService.getChannel(channel);
+        if (definition == null || !definition.isNetwork()) {
+            return;
+        }
+        String line = ChatListener.render(event);
+        if (line != null) {
+            bridgeService.publish(channel, line);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.ultikits.plugins.chat.listener;
 import com.ultikits.plugins.chat.config.ChatConfig;
 import com.ultikits.plugins.chat.config.ChannelConfig;
 import com.ultikits.plugins.chat.service.AntiSpamService;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfileService;
 import com.ultikits.plugins.chat.service.EmojiService;
 import com.ultikits.ultitools.annotations.EventListener;
 import org.bukkit.Bukkit;
@@ -16,12 +19,18 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import me.clip.placeholderapi.PlaceholderAPI;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.IllegalFormatException;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Main chat event listener that integrates anti-spam, emoji, channel, format, and mention features.
  * 主聊天事件监听器，集成反垃圾消息、表情、频道、格式化和@提及功能。
+ * <p>
+ * The chat format is compiled once per value of {@code chat.format}: colours
+ * are translated and the player and message slots are turned into format
+ * specifiers, so a message only fills in the channel and display name.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -29,20 +38,29 @@ import java.util.Set;
 @EventListener
 public class ChatListener implements Listener {
 
+    private static final String DISPLAY_NAME_SLOT = "{displayname}";
+
     private final ChatConfig chatConfig;
     private final ChannelConfig channelConfig;
     private final AntiSpamService antiSpamService;
     private final ChannelService channelService;
     private final EmojiService emojiService;
+    private final ChatProfileService chatProfileService;
+    private final ChatHistoryService chatHistoryService;
+
+    private volatile CompiledFormat chatFormat;
 
     public ChatListener(ChatConfig chatConfig, ChannelConfig channelConfig,
                         AntiSpamService antiSpamService, ChannelService channelService,
-                        EmojiService emojiService) {
+                        EmojiService emojiService, ChatProfileService chatProfileService,
+                        ChatHistoryService chatHistoryService) {
         this.chatConfig = chatConfig;
         this.channelConfig = channelConfig;
         this.antiSpamService = antiSpamService;
         this.channelService = channelService;
         this.emojiService = emojiService;
+        this.chatProfileService = chatProfileService;
+        this.chatHistoryService = chatHistoryService;
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
@@ -62,9 +80,15 @@ public class ChatListener implements Listener {
 
         // 3. Channel recipient filtering
         if (channelConfig.isEnabled()) {
-            Set<Player> filtered = channelService.filterRecipients(player, event.getRecipients());
-            event.getRecipients().clear();
-            event.getRecipients().addAll(filtered);
+            Set<Player> audience = channelService.getAudience(player);
+            if (audience != null) {
+                // Shared by every message in the channel; only read from it
+                keepAudience(event.getRecipients(), audience);
+            } else {
+                Set<Player> filtered = channelService.filterRecipients(player, event.getRecipients());
+                event.getRecipients().clear();
+                event.getRecipients().addAll(filtered);
+            }
         }
 
         // 4. Chat format
@@ -85,6 +109,58 @@ public class ChatListener implements Listener {
         event.setMessage(message);
     }
 
+    /**
+     * Keep only the recipients that are in the audience. A small audience,
+     * such as a party on a busy server, is walked instead of the recipients.
+     */
+    private static void keepAudience(Set<Player> recipients, Set<Player> audience) {
+        if (audience.size() >= recipients.size()) {
+            recipients.retainAll(audience);
+            return;
+        }
+        List<Player> kept = new ArrayList<>(audience.size());
+        for (Player member : audience) {
+            if (recipients.contains(member)) {
+                kept.add(member);
+            }
+        }
+        recipients.clear();
+        recipients.addAll(kept);
+    }
+
+    /**
+     * Record the line in channel history once no other plugin can change or
+     * cancel it, so history holds exactly what recipients saw.
+     * 在消息最终确定后记录到频道历史。
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChatRecorded(AsyncPlayerChatEvent event) {
+        if (!channelConfig.isEnabled()) {
+            return;
+        }
+        String line = render(event);
+        if (line == null) {
+            return;
+        }
+        Player player = event.getPlayer();
+        chatHistoryService.record(channelService.getPlayerChannel(player.getUniqueId()), player.getUniqueId(), line);
+    }
+
+    /**
+     * The line as Bukkit shows it to recipients.
+     * 按 Bukkit 的方式渲染最终聊天行。
+     *
+     * @param event the chat event
+     * @return the rendered line, or null if another plugin left an invalid format
+     */
+    static String render(AsyncPlayerChatEvent event) {
+        try {
+            return String.format(event.getFormat(), event.getPlayer().getDisplayName(), event.getMessage());
+        } catch (IllegalFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Check anti-spam and cancel the event if the message is spam.
      * @return true if the event was cancelled (caller should return)
@@ -93,13 +169,14 @@ public class ChatListener implements Listener {
         if (!chatConfig.isAntiSpamEnabled() || player.hasPermission("ultichat.spam.bypass")) {
             return false;
         }
-        String spamReason = antiSpamService.checkSpam(player, message);
+        ChannelDefinition channel = channelService.getChannel(channelService.getActiveChannel(player.getUniqueId()));
+        String spamReason = antiSpamService.checkSpam(player, channel, message);
         if (spamReason != null) {
             event.setCancelled(true);
             player.sendMessage(ChatColor.RED + spamReason);
             return true;
         }
-        antiSpamService.recordMessage(player.getUniqueId(), message);
+        antiSpamService.recordMessage(player.getUniqueId(), channel, message);
         return false;
     }
 
@@ -107,22 +184,19 @@ public class ChatListener implements Listener {
      * Build and apply the chat format string to the event.
      */
     private void applyChatFormat(Player player, AsyncPlayerChatEvent event) {
-        String format = chatConfig.getChatFormat();
+        CompiledFormat compiled = chatFormat();
+        String format = compiled.format;
 
-        // Prepend channel display name if channels enabled
+        // Channel display names are coloured when the channel table is compiled
         if (channelConfig.isEnabled()) {
             String channel = channelService.getPlayerChannel(player.getUniqueId());
-            String channelDisplay = channelService.getChannelDisplayName(channel);
-            format = channelDisplay + " " + format;
+            format = channelService.getChannelDisplayName(channel) + " " + format;
         }
 
-        // Replace placeholders
-        format = format.replace("{player}", "%1$s");
-        format = format.replace("{displayname}", player.getDisplayName());
-        format = format.replace("{message}", "%2$s");
-
-        // Translate color codes in format
-        format = ChatColor.translateAlternateColorCodes('&', format);
+        if (compiled.hasDisplayName) {
+            format = format.replace(DISPLAY_NAME_SLOT,
+                    ChatColor.translateAlternateColorCodes('&', player.getDisplayName()));
+        }
 
         // PlaceholderAPI
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
@@ -135,6 +209,16 @@ public class ChatListener implements Listener {
         event.setFormat(format);
     }
 
+    private CompiledFormat chatFormat() {
+        String source = chatConfig.getChatFormat();
+        CompiledFormat current = chatFormat;
+        if (current == null || current.source != source) {
+            current = new CompiledFormat(source);
+            chatFormat = current;
+        }
+        return current;
+    }
+
     /**
      * Process @mentions in the message. Highlights mentioned names and plays sounds.
      */
@@ -157,8 +241,10 @@ public class ChatListener implements Listener {
             formatted = ChatColor.translateAlternateColorCodes('&', formatted);
             result = result.replace(mention, formatted);
 
-            // Play sound to mentioned player
-            playMentionSound(online);
+            // Play sound to mentioned player unless they muted mentions
+            if (chatProfileService.get(online.getUniqueId()).isMentions()) {
+                playMentionSound(online);
+            }
         }
         return result;
     }
@@ -206,4 +292,22 @@ public class ChatListener implements Listener {
         }
         return sb.toString();
     }
+
+    /**
+     * {@code chat.format} with colours translated and {@code {player}} and
+     * {@code {message}} replaced by {@code %1$s} and {@code %2$s}.
+     */
+    private static final class CompiledFormat {
+        private final String source;
+        private final String format;
+        private final boolean hasDisplayName;
+
+        CompiledFormat(String source) {
+            String raw = source == null ? "" : source;
+            this.source = source;
+            this.format = ChatColor.translateAlternateColorCodes('&',
+                    raw.replace("{player}", "%1$s").replace("{message}", "%2$s"));
+            this.hasDisplayName = format.contains(DISPLAY_NAME_SLOT);
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.ultitools.annotations.Autowired;
+import com.ultikits.ultitools.annotations.EventListener;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Loads chat profiles before login and releases them on quit, or when the
+ * login is denied after the profile was loaded.
+ * 登录前加载玩家聊天偏好，退出或登录被拒绝时释放。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@EventListener
+public class ChatProfileListener implements Listener {
+
+    @Autowired
+    private ChatProfileService chatProfileService;
+
+    /**
+     * Runs on the async login thread, after other plugins had their chance
+     * to deny the login.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        chatProfileService.preload(event.getUniqueId());
+    }
+
+    /**
+     * A login denied after pre-login (ban, whitelist, full server) never
+     * fires a quit, so release the preloaded profile here.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        Player player = event.getPlayer();
+        Player online = Bukkit.getPlayer(player.getUniqueId());
+        // A denied second login must not unload the profile of the player already online
+        if (online != null && online != player) {
+            return;
+        }
+        chatProfileService.unload(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        chatProfileService.unload(event.getPlayer().getUniqueId());
+    }
+}
@@ -2,17 +2,27 @@ package com.ultikits.plugins.chat.listener;
 
 import com.ultikits.plugins.chat.config.ChannelConfig;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryEntry;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import com.ultikits.ultitools.annotations.Autowired;
 import com.ultikits.ultitools.annotations.EventListener;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.List;
+
 /**
- * Manages player channel assignments on join/quit.
- * 管理玩家加入/退出时的频道分配。
+ * Manages player channel assignments on join/quit and world changes.
+ * 管理玩家加入/退出及切换世界时的频道分配。
  */
 @EventListener
 public class PlayerChannelListener implements Listener {
@@ -23,12 +33,70 @@ public class PlayerChannelListener implements Listener {
     @Autowired
     private ChannelConfig channelConfig;
 
+    @Autowired
+    private ChatProfileService chatProfileService;
+
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
+    @Autowired
+    private UltiToolsPlugin plugin;
+
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        channelService.setPlayerChannel(
-                event.getPlayer().getUniqueId(),
-                channelConfig.getDefaultChannel()
-        );
+        Player player = event.getPlayer();
+        // Preloaded before login, so this never touches storage
+        ChatProfile profile = chatProfileService.get(player.getUniqueId());
+
+        String channel = profile.getChannel();
+        if (channel == null || !channelService.hasChannelPermission(player, channel)) {
+            channel = channelConfig.getDefaultChannel();
+        }
+        channelService.setPlayerChannel(player.getUniqueId(), channel);
+        for (String subscribed : profile.getSubscriptions()) {
+            if (channelService.hasChannelPermission(player, subscribed)) {
+                channelService.subscribe(player.getUniqueId(), subscribed);
+            }
+        }
+        // Joining straight into a world with a bound channel switches silently
+        channelService.enterWorld(player);
+        replayHistory(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        Player player = event.getPlayer();
+        String switched = channelService.enterWorld(player);
+        if (switched != null) {
+            String msg = plugin.i18n("channel_world_switched")
+                    .replace("{0}", channelService.getChannelDisplayName(switched));
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', msg));
+        }
+    }
+
+    /**
+     * Show a joining player the last lines of the channel they landed in.
+     */
+    private void replayHistory(Player player) {
+        int count = channelConfig.getHistoryJoinReplay();
+        if (count <= 0) {
+            return;
+        }
+        String channel = channelService.getPlayerChannel(player.getUniqueId());
+        if (!chatHistoryService.canView(player, channelService.getChannel(channel))) {
+            return;
+        }
+        List<ChatHistoryEntry> entries = chatHistoryService.getRecent(channel, count);
+        if (entries.isEmpty()) {
+            return;
+        }
+        String header = plugin.i18n("channel_history_replay")
+                .replace("{0}", channelService.getChannelDisplayName(channel));
+        player.sendMessage(ChatColor.translateAlternateColorCodes('&', header));
+        for (ChatHistoryEntry entry : entries) {
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', plugin.i18n("channel_history_entry")
+                    .replace("{0}", entry.formatTime())) + entry.getText());
+        }
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
@@ -0,0 +1,138 @@
+package com.ultikits.plugins.chat.service;
+
+import org.bukkit.ChatColor;
+import org.bukkit.boss.BarColor;
+
+import java.util.List;
+
+/**
+ * One announcement track's message list, compiled into ready-to-send lines.
+ * 编译后的公告消息列表，可直接发送。
+ * <p>
+ * Colours are translated, the chat prefix is prepended, titles are split
+ * at {@code ||} and the boss bar colour is resolved once, when the list is
+ * compiled; a broadcast only indexes.
+ * Immutable, and compiled again when a reload replaces the list or the key
+ * it was built with.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class AnnouncementMessages {
+
+    static final AnnouncementMessages EMPTY = new AnnouncementMessages(null, null, new String[0], null, null);
+
+    private static final String TITLE_SEPARATOR = "||";
+
+    private final List<String> source;
+    private final int sourceSize;
+    private final String key;
+    private final String[] lines;
+    private final String[] subtitles;
+    private final BarColor color;
+
+    private AnnouncementMessages(List<String> source, String key, String[] lines, String[] subtitles,
+                                 BarColor color) {
+        this.source = source;
+        this.sourceSize = source == null ? 0 : source.size();
+        this.key = key;
+        this.lines = lines;
+        this.subtitles = subtitles;
+        this.color = color;
+    }
+
+    /**
+     * Compile chat lines, each behind the prefix.
+     *
+     * @param messages the raw messages
+     * @param prefix   the raw prefix; null for none
+     */
+    static AnnouncementMessages chat(List<String> messages, String prefix) {
+        String[] lines = new String[messages == null ? 0 : messages.size()];
+        String head = prefix == null ? "" : prefix;
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = color(head + messages.get(i));
+        }
+        return new AnnouncementMessages(messages, prefix, lines, null, null);
+    }
+
+    /**
+     * Compile boss bar titles and colour.
+     *
+     * @param messages  the raw messages
+     * @param colorName the {@link BarColor} name; BLUE when unknown
+     */
+    static AnnouncementMessages bossBar(List<String> messages, String colorName) {
+        String[] lines = new String[messages == null ? 0 : messages.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = color(messages.get(i));
+        }
+        BarColor color = BarColor.BLUE;
+        if (colorName != null) {
+            try {
+                color = BarColor.valueOf(colorName);
+            } catch (IllegalArgumentException e) {
+                // Keep the default
+            }
+        }
+        return new AnnouncementMessages(messages, colorName, lines, null, color);
+    }
+
+    /**
+     * Compile titles, splitting each at {@code ||} into title and subtitle.
+     *
+     * @param messages the raw messages
+     */
+    static AnnouncementMessages title(List<String> messages) {
+        int size = messages == null ? 0 : messages.size();
+        String[] titles = new String[size];
+        String[] subtitles = new String[size];
+        for (int i = 0; i < size; i++) {
+            String raw = messages.get(i);
+            int separator = raw.indexOf(TITLE_SEPARATOR);
+            titles[i] = color(separator >= 0 ? raw.substring(0, separator) : raw);
+            subtitles[i] = separator >= 0 ? color(raw.substring(separator + TITLE_SEPARATOR.length())) : "";
+        }
+        return new AnnouncementMessages(messages, null, titles, subtitles, null);
+    }
+
+    private static String color(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+
+    /**
+     * A reload swaps the list and key instances; direct list edits at least change its size.
+     */
+    boolean isCurrent(List<String> messages, String key) {
+        return messages == source && key == this.key && (messages == null ? 0 : messages.size()) == sourceSize;
+    }
+
+    int size() {
+        return lines.length;
+    }
+
+    boolean isEmpty() {
+        return lines.length == 0;
+    }
+
+    /**
+     * The chat line, boss bar title or title at an index.
+     */
+    String line(int index) {
+        return lines[index];
+    }
+
+    /**
+     * The subtitle at an index; empty when the title had none.
+     */
+    String subtitle(int index) {
+        return subtitles == null ? "" : subtitles[index];
+    }
+
+    /**
+     * The boss bar colour; null for other tracks.
+     */
+    BarColor getColor() {
+        return color;
+    }
+}
@@ -1,22 +1,50 @@
 package com.ultikits.plugins.chat.service;
 
 import com.ultikits.plugins.chat.config.AnnouncementConfig;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import com.ultikits.ultitools.annotations.Scheduled;
 import com.ultikits.ultitools.annotations.Service;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Scheduled broadcast service for chat, boss bar, and title announcements.
  * 定时广播服务，支持聊天、Boss栏和标题公告。
+ * <p>
+ * Every track runs on an {@link AnnouncementWheel} advanced by a single
+ * repeating tick task, at the interval set in {@code config/announcements.yml}.
+ * Intervals and enabled flags are re-read every second, so a reload
+ * reschedules tracks in place without registering new tasks; a changed
+ * interval keeps the time already waited. A track that throws is logged
+ * with its name the first time and counted after that; the count is shown
+ * by {@code /uchat announcements}.
+ * <p>
+ * The boss bar track keeps one {@link BossBar} for the life of the service.
+ * Each rotation updates its title, colour and progress in place; players
+ * are attached when it is first shown and afterwards on join, and detached
+ * on quit. A frame timer on the same wheel hides it after the configured
+ * duration, optionally counting its progress down twice a second.
+ * {@link #shutdown()} detaches everyone from it when the module is disabled.
+ * <p>
+ * Chat and title announcements are delivered in slices: the online players
+ * are snapshotted when a track fires, and each tick sends to the next
+ * {@code max(per-tick, players / spread-ticks)} of them, so even a full
+ * server is reached within {@code spread-ticks} without one costly tick.
+ * Players who quit or opt out before their turn are skipped.
+ * <p>
+ * Message lists are compiled into {@link AnnouncementMessages} and only
+ * compiled again once a reload replaces them, so a broadcast does no string
+ * work beyond picking the next line. The rotation counters are atomic.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -24,28 +52,106 @@ import java.util.List;
 @Service
 public class AnnouncementService {
 
+    private static final int WHEEL_SLOTS = 256;
+    private static final int SYNC_TICKS = 20;
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final long FRAME_TICKS = 10L;
+
+    private final UltiToolsPlugin plugin;
     private final AnnouncementConfig config;
+    private final ChatProfileService chatProfileService;
+
+    private final AnnouncementWheel wheel = new AnnouncementWheel(WHEEL_SLOTS, this::trackFailed);
+    private final AnnouncementWheel.Timer chatTrack = new AnnouncementWheel.Timer("chat", this::broadcastChat);
+    private final AnnouncementWheel.Timer bossBarTrack =
+            new AnnouncementWheel.Timer("boss-bar", this::broadcastBossBar);
+    private final AnnouncementWheel.Timer titleTrack = new AnnouncementWheel.Timer("title", this::broadcastTitle);
+    private final AnnouncementWheel.Timer bossBarFrame =
+            new AnnouncementWheel.Timer("boss-bar-frame", this::bossBarFrame);
+
+    // Main thread only
+    private BossBar bossBar;
+    private long bossBarShownAt;
+    private final Deque<Delivery> deliveries = new ArrayDeque<>();
+    private int tickPlayers;
+    private long tickNanos;
+    private long deliveredPlayers;
+    private long deliveryTicks;
+    private int lastTickPlayers;
+    private long lastTickNanos;
+    private int maxTickPlayers;
+    private long maxTickNanos;
+
+    private volatile AnnouncementMessages chatMessages = AnnouncementMessages.EMPTY;
+    private volatile AnnouncementMessages bossBarMessages = AnnouncementMessages.EMPTY;
+    private volatile AnnouncementMessages titleMessages = AnnouncementMessages.EMPTY;
 
-    private int chatIndex = 0;
-    private int bossBarIndex = 0;
-    private int titleIndex = 0;
+    private final AtomicInteger chatIndex = new AtomicInteger();
+    private final AtomicInteger bossBarIndex = new AtomicInteger();
+    private final AtomicInteger titleIndex = new AtomicInteger();
 
-    public AnnouncementService(AnnouncementConfig config) {
+    public AnnouncementService(UltiToolsPlugin plugin, AnnouncementConfig config,
+                               ChatProfileService chatProfileService) {
+        this.plugin = plugin;
         this.config = config;
+        this.chatProfileService = chatProfileService;
+    }
+
+    /**
+     * Advance the announcement wheel by one tick, picking up interval changes once a second.
+     * 每tick推进公告时间轮，每秒同步一次间隔配置。
+     */
+    @Scheduled(period = 1, async = false)
+    public void tick() {
+        if (wheel.now() % SYNC_TICKS == 0) {
+            syncTracks();
+        }
+        // Deliveries started this tick already sent their first slice
+        for (int i = deliveries.size(); i > 0; i--) {
+            Delivery delivery = deliveries.poll();
+            if (deliver(delivery)) {
+                deliveries.add(delivery);
+            }
+        }
+        wheel.advance();
+        recordTick();
+    }
+
+    /**
+     * Reschedule every track from the current config.
+     * 按当前配置重新调度所有公告轨道。
+     */
+    public void syncTracks() {
+        schedule(chatTrack, config.isChatEnabled(), config.getChatInterval());
+        schedule(bossBarTrack, config.isBossBarEnabled(), config.getBossBarInterval());
+        if (!config.isBossBarEnabled() && bossBarFrame.isScheduled()) {
+            hideBossBar();
+        }
+        schedule(titleTrack, config.isTitleEnabled(), config.getTitleInterval());
+        // Compile reloaded messages here rather than when a track fires
+        chatMessages();
+        bossBarMessages();
+        titleMessages();
+    }
+
+    private void schedule(AnnouncementWheel.Timer track, boolean enabled, int intervalSeconds) {
+        long period = enabled ? Math.max(1, intervalSeconds) * TICKS_PER_SECOND : 0L;
+        if (period != track.getPeriod()) {
+            wheel.schedule(track, period);
+        }
     }
 
     /**
      * Broadcast a chat announcement rotating through configured messages.
      * 轮播聊天公告消息。
      */
-    @Scheduled(period = 6000, async = false)
     public void broadcastChat() {
         if (!config.isChatEnabled()) {
             return;
         }
 
-        List<String> messages = config.getChatMessages();
-        if (messages == null || messages.isEmpty()) {
+        AnnouncementMessages messages = chatMessages();
+        if (messages.isEmpty()) {
             return;
         }
 
@@ -54,33 +160,21 @@ public class AnnouncementService {
             return;
         }
 
-        String prefix = config.getChatPrefix();
-        if (prefix == null) {
-            prefix = "";
-        }
-
-        String message = messages.get(chatIndex % messages.size());
-        String formatted = ChatColor.translateAlternateColorCodes('&', prefix + message);
-
-        for (Player player : players) {
-            player.sendMessage(formatted);
-        }
-
-        chatIndex = (chatIndex + 1) % messages.size();
+        final String formatted = messages.line(next(chatIndex, messages));
+        startDelivery(players, player -> player.sendMessage(formatted));
     }
 
     /**
      * Show a boss bar announcement rotating through configured messages.
      * 轮播Boss栏公告消息。
      */
-    @Scheduled(period = 1200, async = false)
     public void broadcastBossBar() {
         if (!config.isBossBarEnabled()) {
             return;
         }
 
-        List<String> messages = config.getBossBarMessages();
-        if (messages == null || messages.isEmpty()) {
+        AnnouncementMessages messages = bossBarMessages();
+        if (messages.isEmpty()) {
             return;
         }
 
@@ -89,37 +183,31 @@ public class AnnouncementService {
             return;
         }
 
-        String message = messages.get(bossBarIndex % messages.size());
-        String formatted = ChatColor.translateAlternateColorCodes('&', message);
-
-        BarColor barColor;
-        try {
-            barColor = BarColor.valueOf(config.getBossBarColor());
-        } catch (IllegalArgumentException e) {
-            barColor = BarColor.BLUE;
-        }
+        String formatted = messages.line(next(bossBarIndex, messages));
+        BarColor barColor = messages.getColor();
 
-        final BossBar bossBar = Bukkit.createBossBar(formatted, barColor, BarStyle.SOLID);
-        for (Player player : players) {
-            bossBar.addPlayer(player);
-        }
-
-        // Remove after configured duration
-        int durationTicks = config.getBossBarDuration() * 20;
-        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
-        if (bukkitPlugin != null) {
-            Bukkit.getScheduler().runTaskLater(bukkitPlugin, new Runnable() {
-                @Override
-                public void run() {
-                    bossBar.removeAll();
+        BossBar bar = bossBar;
+        if (bar == null) {
+            bar = Bukkit.createBossBar(formatted, barColor, BarStyle.SOLID);
+            for (Player player : players) {
+                if (wantsAnnouncements(player)) {
+                    bar.addPlayer(player);
                 }
-            }, durationTicks);
+            }
+            bossBar = bar;
         } else {
-            // Fallback: remove immediately if UltiTools not available
-            bossBar.removeAll();
+            bar.setTitle(formatted);
+            bar.setColor(barColor);
         }
+        bar.setProgress(1.0);
+        bar.setVisible(true);
 
-        bossBarIndex = (bossBarIndex + 1) % messages.size();
+        // Hidden again after the configured duration, by the frame timer on the wheel
+        bossBarShownAt = wheel.now();
+        wheel.cancel(bossBarFrame);
+        wheel.schedule(bossBarFrame, config.isBossBarAnimate()
+                ? FRAME_TICKS
+                : Math.max(1, config.getBossBarDuration()) * TICKS_PER_SECOND);
     }
 
     /**
@@ -127,14 +215,13 @@ public class AnnouncementService {
      * Uses || separator for title and subtitle.
      * 轮播标题公告消息。使用 || 分隔主标题和副标题。
      */
-    @Scheduled(period = 12000, async = false)
     public void broadcastTitle() {
         if (!config.isTitleEnabled()) {
             return;
         }
 
-        List<String> messages = config.getTitleMessages();
-        if (messages == null || messages.isEmpty()) {
+        AnnouncementMessages messages = titleMessages();
+        if (messages.isEmpty()) {
             return;
         }
 
@@ -143,30 +230,259 @@ public class AnnouncementService {
             return;
         }
 
-        String raw = messages.get(titleIndex % messages.size());
-        String title;
-        String subtitle;
+        int index = next(titleIndex, messages);
+        final String title = messages.line(index);
+        final String subtitle = messages.subtitle(index);
+        final int fadeIn = config.getTitleFadeIn();
+        final int stay = config.getTitleStay();
+        final int fadeOut = config.getTitleFadeOut();
 
-        int separatorIdx = raw.indexOf("||");
-        if (separatorIdx >= 0) {
-            title = raw.substring(0, separatorIdx);
-            subtitle = raw.substring(separatorIdx + 2);
-        } else {
-            title = raw;
-            subtitle = "";
+        startDelivery(players, player -> player.sendTitle(title, subtitle, fadeIn, stay, fadeOut));
+    }
+
+    /**
+     * Take the next rotation index; safe to call from any thread.
+     */
+    private static int next(AtomicInteger counter, AnnouncementMessages messages) {
+        return Math.floorMod(counter.getAndIncrement(), messages.size());
+    }
+
+    private AnnouncementMessages chatMessages() {
+        List<String> messages = config.getChatMessages();
+        String prefix = config.getChatPrefix();
+        AnnouncementMessages current = chatMessages;
+        if (!current.isCurrent(messages, prefix)) {
+            current = AnnouncementMessages.chat(messages, prefix);
+            chatMessages = current;
         }
+        return current;
+    }
 
-        title = ChatColor.translateAlternateColorCodes('&', title);
-        subtitle = ChatColor.translateAlternateColorCodes('&', subtitle);
+    private AnnouncementMessages bossBarMessages() {
+        List<String> messages = config.getBossBarMessages();
+        String color = config.getBossBarColor();
+        AnnouncementMessages current = bossBarMessages;
+        if (!current.isCurrent(messages, color)) {
+            current = AnnouncementMessages.bossBar(messages, color);
+            bossBarMessages = current;
+        }
+        return current;
+    }
 
-        int fadeIn = config.getTitleFadeIn();
-        int stay = config.getTitleStay();
-        int fadeOut = config.getTitleFadeOut();
+    private AnnouncementMessages titleMessages() {
+        List<String> messages = config.getTitleMessages();
+        AnnouncementMessages current = titleMessages;
+        if (!current.isCurrent(messages, null)) {
+            current = AnnouncementMessages.title(messages);
+            titleMessages = current;
+        }
+        return current;
+    }
 
-        for (Player player : players) {
-            player.sendTitle(title, subtitle, fadeIn, stay, fadeOut);
+    /**
+     * Snapshot the recipients and send the first slice now; the rest follow on later ticks.
+     */
+    private void startDelivery(Collection<? extends Player> players, Consumer<Player> send) {
+        Player[] snapshot = players.toArray(new Player[0]);
+        int spread = Math.max(1, config.getDeliverySpreadTicks());
+        int budget = Math.max(Math.max(1, config.getDeliveryPerTick()), (snapshot.length + spread - 1) / spread);
+        Delivery delivery = new Delivery(snapshot, budget, send);
+        if (deliver(delivery)) {
+            deliveries.add(delivery);
+        }
+    }
+
+    /**
+     * Send one slice of a delivery.
+     *
+     * @return true if players are left for later ticks
+     */
+    private boolean deliver(Delivery delivery) {
+        long start = System.nanoTime();
+        Player[] players = delivery.players;
+        int end = Math.min(players.length, delivery.cursor + delivery.budget);
+        int sent = 0;
+        for (int i = delivery.cursor; i < end; i++) {
+            Player player = players[i];
+            // Released for GC as the cursor passes
+            players[i] = null;
+            if (player.isOnline() && wantsAnnouncements(player)) {
+                delivery.send.accept(player);
+                sent++;
+            }
         }
+        delivery.cursor = end;
+        tickPlayers += sent;
+        tickNanos += System.nanoTime() - start;
+        return end < players.length;
+    }
 
-        titleIndex = (titleIndex + 1) % messages.size();
+    private void recordTick() {
+        if (tickPlayers == 0) {
+            tickNanos = 0;
+            return;
+        }
+        deliveredPlayers += tickPlayers;
+        deliveryTicks++;
+        lastTickPlayers = tickPlayers;
+        lastTickNanos = tickNanos;
+        if (tickNanos > maxTickNanos) {
+            maxTickNanos = tickNanos;
+            maxTickPlayers = tickPlayers;
+        }
+        tickPlayers = 0;
+        tickNanos = 0;
+    }
+
+    /**
+     * Players still waiting for an announcement that is being delivered.
+     */
+    public int getPendingPlayers() {
+        int pending = 0;
+        for (Delivery delivery : deliveries) {
+            pending += delivery.players.length - delivery.cursor;
+        }
+        return pending;
+    }
+
+    public long getDeliveredPlayers() {
+        return deliveredPlayers;
+    }
+
+    /**
+     * Ticks in which at least one announcement was sent.
+     */
+    public long getDeliveryTicks() {
+        return deliveryTicks;
+    }
+
+    public int getLastTickPlayers() {
+        return lastTickPlayers;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Players sent to in the most expensive delivery tick.
+     */
+    public int getMaxTickPlayers() {
+        return maxTickPlayers;
+    }
+
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * Track runs that threw, across all tracks.
+     */
+    public long getFailed() {
+        return wheel.getFailed();
+    }
+
+    /**
+     * Log a track's first failure; later ones are only counted, so a track
+     * broken on every run does not flood the console.
+     */
+    private void trackFailed(AnnouncementWheel.Timer track, RuntimeException e) {
+        if (track.getFailed() == 1) {
+            plugin.getLogger().warn("Announcement track " + track.getName() + " failed, further failures are"
+                    + " only counted in /uchat announcements: " + e);
+        }
+    }
+
+    /**
+     * Count the boss bar down, hiding it once its duration has passed.
+     */
+    private void bossBarFrame() {
+        BossBar bar = bossBar;
+        long duration = Math.max(1, config.getBossBarDuration()) * TICKS_PER_SECOND;
+        long elapsed = wheel.now() - bossBarShownAt;
+        if (bar == null || elapsed >= duration) {
+            hideBossBar();
+            return;
+        }
+        bar.setProgress(1.0 - (double) elapsed / duration);
+    }
+
+    private void hideBossBar() {
+        wheel.cancel(bossBarFrame);
+        if (bossBar != null) {
+            bossBar.setVisible(false);
+        }
+    }
+
+    /**
+     * Stop every track, drop pending deliveries and remove the boss bar from
+     * all players; called on disable. The next sync schedules the tracks again.
+     * 停止所有公告轨道并移除Boss栏（插件停用时调用）。
+     */
+    public void shutdown() {
+        wheel.cancel(chatTrack);
+        wheel.cancel(bossBarTrack);
+        wheel.cancel(titleTrack);
+        wheel.cancel(bossBarFrame);
+        deliveries.clear();
+        BossBar bar = bossBar;
+        bossBar = null;
+        if (bar != null) {
+            // Players keep a bar they are attached to even after the plugin is gone
+            bar.setVisible(false);
+            bar.removeAll();
+        }
+    }
+
+    /**
+     * Attach a player to the boss bar if they want announcements, or detach them otherwise.
+     * Call on join and when the player toggles announcements.
+     * 按玩家的公告偏好将其加入或移出Boss栏。
+     *
+     * @param player the player
+     */
+    public void refreshBossBar(Player player) {
+        BossBar bar = bossBar;
+        if (bar == null) {
+            return;
+        }
+        if (wantsAnnouncements(player)) {
+            bar.addPlayer(player);
+        } else {
+            bar.removePlayer(player);
+        }
+    }
+
+    /**
+     * Detach a player who is leaving.
+     * 玩家退出时将其移出Boss栏。
+     *
+     * @param player the player
+     */
+    public void removeFromBossBar(Player player) {
+        BossBar bar = bossBar;
+        if (bar != null) {
+            bar.removePlayer(player);
+        }
+    }
+
+    private boolean wantsAnnouncements(Player player) {
+        return chatProfileService.get(player.getUniqueId()).isAnnouncements();
+    }
+
+    /**
+     * One announcement on its way to a snapshot of players.
+     */
+    private static final class Delivery {
+        private final Player[] players;
+        private final int budget;
+        private final Consumer<Player> send;
+        private int cursor;
+
+        Delivery(Player[] players, int budget, Consumer<Player> send) {
+            this.players = players;
+            this.budget = budget;
+            this.send = send;
+        }
     }
 }
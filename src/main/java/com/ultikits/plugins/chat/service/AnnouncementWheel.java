@@ -0,0 +1,217 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Hashed timing wheel that runs announcement tracks from one tick task.
+ * 由单个 tick 任务驱动公告轨道的哈希时间轮。
+ * <p>
+ * Each timer hangs in the slot {@code deadline & mask} and fires when the
+ * wheel reaches its deadline; timers further away than one turn simply stay
+ * in their slot for later turns. A tick only walks one slot, and scheduling,
+ * rescheduling and cancelling are O(1), so the cost does not grow with the
+ * number of tracks or the length of their intervals. A task that throws is
+ * counted and handed to the failure handler; the other timers due on the
+ * same tick still run. Not thread-safe: it is advanced and rescheduled on
+ * the main thread only.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class AnnouncementWheel {
+
+    private final Timer[] slots;
+    private final int mask;
+    private final BiConsumer<Timer, RuntimeException> onFailure;
+    private long now;
+    private long failed;
+
+    /**
+     * @param slots the slot count, rounded up to a power of two
+     */
+    AnnouncementWheel(int slots) {
+        this(slots, (timer, e) -> {
+        });
+    }
+
+    /**
+     * @param slots     the slot count, rounded up to a power of two
+     * @param onFailure called with the timer and exception when a task throws
+     */
+    AnnouncementWheel(int slots, BiConsumer<Timer, RuntimeException> onFailure) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new Timer[size];
+        this.mask = size - 1;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * The number of ticks advanced so far.
+     */
+    long now() {
+        return now;
+    }
+
+    /**
+     * Tasks that threw while firing.
+     */
+    long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Set a timer's period. A scheduled timer keeps its phase: the next run
+     * moves by the difference between the old and new period, but never
+     * into the past. A period of zero or less cancels the timer.
+     *
+     * @param timer  the timer
+     * @param period ticks between runs
+     */
+    void schedule(Timer timer, long period) {
+        if (period <= 0) {
+            cancel(timer);
+            return;
+        }
+        long deadline = timer.isScheduled()
+                ? Math.max(now + 1, timer.deadline - timer.period + period)
+                : now + period;
+        unlink(timer);
+        timer.period = period;
+        link(timer, deadline);
+    }
+
+    /**
+     * Stop a timer; it can be scheduled again later.
+     */
+    void cancel(Timer timer) {
+        unlink(timer);
+        timer.period = 0;
+    }
+
+    /**
+     * Move one tick forward and run the timers due on it.
+     *
+     * @return the number of timers run
+     */
+    int advance() {
+        now++;
+        int index = (int) (now & mask);
+        // Re-arm every due timer before running any, so a task may reschedule timers freely
+        Timer due = null;
+        Timer timer = slots[index];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.deadline == now) {
+                unlink(timer);
+                timer.nextDue = due;
+                due = timer;
+            }
+            timer = next;
+        }
+        for (Timer t = due; t != null; t = t.nextDue) {
+            link(t, now + t.period);
+        }
+        int fired = 0;
+        while (due != null) {
+            Timer next = due.nextDue;
+            due.nextDue = null;
+            try {
+                due.task.run();
+            } catch (RuntimeException e) {
+                // A broken track must not stall the others
+                failed++;
+                due.failed++;
+                onFailure.accept(due, e);
+            }
+            fired++;
+            due = next;
+        }
+        return fired;
+    }
+
+    private void link(Timer timer, long deadline) {
+        int index = (int) (deadline & mask);
+        timer.deadline = deadline;
+        timer.prev = null;
+        timer.next = slots[index];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        slots[index] = timer;
+        timer.scheduled = true;
+    }
+
+    private void unlink(Timer timer) {
+        if (!timer.scheduled) {
+            return;
+        }
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[(int) (timer.deadline & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.scheduled = false;
+    }
+
+    /**
+     * One repeating task on the wheel.
+     */
+    static final class Timer {
+        private final String name;
+        private final Runnable task;
+        private long period;
+        private long deadline;
+        private boolean scheduled;
+        private long failed;
+        private Timer prev;
+        private Timer next;
+        private Timer nextDue;
+
+        Timer(Runnable task) {
+            this("timer", task);
+        }
+
+        /**
+         * @param name the name used when reporting failures
+         * @param task the task to run
+         */
+        Timer(String name, Runnable task) {
+            this.name = name;
+            this.task = task;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Runs of this timer's task that threw.
+         */
+        long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Ticks between runs, or 0 when the timer is not scheduled.
+         */
+        long getPeriod() {
+            return period;
+        }
+
+        /**
+         * The tick of the next run; only meaningful while scheduled.
+         */
+        long getDeadline() {
+            return deadline;
+        }
+
+        boolean isScheduled() {
+            return scheduled;
+        }
+    }
+}
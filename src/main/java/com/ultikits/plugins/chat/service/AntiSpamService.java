@@ -5,7 +5,6 @@ import com.ultikits.ultitools.annotations.Autowired;
 import com.ultikits.ultitools.annotations.Service;
 import org.bukkit.entity.Player;
 
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,6 +12,16 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Anti-spam service that enforces cooldown, duplicate detection, caps limiting and temp muting.
  * 反垃圾消息服务，支持冷却、重复检测、大写字母限制和临时禁言。
+ * <p>
+ * Cooldown, duplicate and caps settings come from the sender's channel
+ * {@link SpamPolicy}, falling back to {@code config/chat.yml}; a channel
+ * can also be exempt. Cooldown and duplicate state is kept per player and
+ * channel in a {@link SpamState}, so slow mode in one channel does not hold
+ * up messages in another. Channels are told apart by
+ * {@link ChannelDefinition#getKey()} rather than their id, which a reload or
+ * a new party may reassign, so no state leaks into an unrelated channel.
+ * Party channels have no {@code anti-spam} key and always use
+ * {@link SpamPolicy#DEFAULT}. Mutes apply in every channel.
  */
 @Service
 public class AntiSpamService {
@@ -20,19 +29,31 @@ public class AntiSpamService {
     @Autowired
     private ChatConfig config;
 
-    private final Map<UUID, Long> lastMessageTime = new ConcurrentHashMap<>();
-    private final Map<UUID, LinkedList<String>> recentMessages = new ConcurrentHashMap<>();
+    private final Map<UUID, SpamState> states = new ConcurrentHashMap<>();
     private final Map<UUID, Long> mutedUntil = new ConcurrentHashMap<>();
 
     /**
-     * Check whether a message should be considered spam.
-     * 检查消息是否属于垃圾消息。
+     * Check whether a message should be considered spam, without a channel.
+     * 检查消息是否属于垃圾消息（不区分频道）。
      *
      * @param player  the sending player
      * @param message the chat message
      * @return an i18n key describing the spam reason, or null if the message is not spam
      */
     public String checkSpam(Player player, String message) {
+        return checkSpam(player, null, message);
+    }
+
+    /**
+     * Check whether a message sent in a channel should be considered spam.
+     * 按频道规则检查消息是否属于垃圾消息。
+     *
+     * @param player  the sending player
+     * @param channel the sender's channel, or null when channels are off
+     * @param message the chat message
+     * @return an i18n key describing the spam reason, or null if the message is not spam
+     */
+    public String checkSpam(Player player, ChannelDefinition channel, String message) {
         if (!config.isAntiSpamEnabled()) {
             return null;
         }
@@ -46,16 +67,23 @@ public class AntiSpamService {
             return muteReason;
         }
 
-        String cooldownReason = checkCooldown(playerId);
+        SpamPolicy policy = policy(channel);
+        if (!policy.isEnabled()) {
+            return null;
+        }
+
+        SpamState state = states.get(playerId);
+        int key = key(channel);
+        String cooldownReason = checkCooldown(state, key, policy);
         if (cooldownReason != null) {
             return cooldownReason;
         }
 
-        if (isDuplicate(playerId, message)) {
+        if (isDuplicate(state, key, policy, message)) {
             return "请不要发送重复消息！";
         }
 
-        if (isExcessiveCaps(message)) {
+        if (isExcessiveCaps(message, policy.getCapsLimit(config.getAntiSpamCapsLimit()))) {
             return "消息中大写字母过多！";
         }
 
@@ -74,13 +102,13 @@ public class AntiSpamService {
         return null;
     }
 
-    private String checkCooldown(UUID playerId) {
-        Long lastTime = lastMessageTime.get(playerId);
-        if (lastTime == null) {
+    private String checkCooldown(SpamState state, int key, SpamPolicy policy) {
+        long lastTime = state == null ? 0L : state.lastTime(key);
+        if (lastTime == 0L) {
             return null;
         }
         long elapsed = System.currentTimeMillis() - lastTime;
-        long cooldownMs = config.getAntiSpamCooldown() * 1000L;
+        long cooldownMs = policy.getCooldown(config.getAntiSpamCooldown()) * 1000L;
         if (elapsed < cooldownMs) {
             return "发送消息太快了！";
         }
@@ -95,21 +123,23 @@ public class AntiSpamService {
      * @param message  the chat message
      */
     public void recordMessage(UUID playerId, String message) {
-        if (playerId == null || message == null) {
-            return;
-        }
-        lastMessageTime.put(playerId, System.currentTimeMillis());
-
-        LinkedList<String> messages = recentMessages.computeIfAbsent(playerId, k -> new LinkedList<String>());
-        messages.addLast(message);
+        recordMessage(playerId, null, message);
+    }
 
-        int maxDuplicate = config.getAntiSpamMaxDuplicate();
-        if (maxDuplicate <= 0) {
-            maxDuplicate = 3;
-        }
-        while (messages.size() > maxDuplicate) {
-            messages.removeFirst();
+    /**
+     * Record a message sent in a channel; exempt channels keep no state.
+     * 记录频道内的消息，用于该频道的冷却和重复检测。
+     *
+     * @param playerId the player UUID
+     * @param channel  the channel, or null when channels are off
+     * @param message  the chat message
+     */
+    public void recordMessage(UUID playerId, ChannelDefinition channel, String message) {
+        if (playerId == null || message == null || !policy(channel).isEnabled()) {
+            return;
         }
+        states.computeIfAbsent(playerId, id -> new SpamState())
+                .record(key(channel), System.currentTimeMillis(), SpamState.hash(message));
     }
 
     /**
@@ -134,10 +164,13 @@ public class AntiSpamService {
      * @return true if the uppercase ratio exceeds the configured limit
      */
     public boolean isExcessiveCaps(String message) {
+        return isExcessiveCaps(message, config.getAntiSpamCapsLimit());
+    }
+
+    private static boolean isExcessiveCaps(String message, int capsLimit) {
         if (message == null || message.length() < 5) {
             return false;
         }
-        int capsLimit = config.getAntiSpamCapsLimit();
         if (capsLimit <= 0 || capsLimit >= 100) {
             return false;
         }
@@ -169,32 +202,29 @@ public class AntiSpamService {
         if (playerId == null) {
             return;
         }
-        lastMessageTime.remove(playerId);
-        recentMessages.remove(playerId);
+        states.remove(playerId);
         mutedUntil.remove(playerId);
     }
 
     /**
-     * Check if a message is a duplicate of recent messages within the configured window.
+     * Check if a message repeats the last {@code max-duplicate} messages sent in the channel.
      */
-    private boolean isDuplicate(UUID playerId, String message) {
-        LinkedList<String> messages = recentMessages.get(playerId);
-        if (messages == null || messages.isEmpty()) {
+    private boolean isDuplicate(SpamState state, int key, SpamPolicy policy, String message) {
+        if (state == null) {
             return false;
         }
-
-        int maxDuplicate = config.getAntiSpamMaxDuplicate();
+        int maxDuplicate = policy.getMaxDuplicate(config.getAntiSpamMaxDuplicate());
         if (maxDuplicate <= 0) {
             return false;
         }
+        return state.run(key, SpamState.hash(message)) >= maxDuplicate;
+    }
 
-        // Count how many of the recent messages match
-        int duplicateCount = 0;
-        for (String recent : messages) {
-            if (message.equals(recent)) {
-                duplicateCount++;
-            }
-        }
-        return duplicateCount >= maxDuplicate;
+    private static SpamPolicy policy(ChannelDefinition channel) {
+        return channel == null ? SpamPolicy.DEFAULT : channel.getSpamPolicy();
+    }
+
+    private static int key(ChannelDefinition channel) {
+        return channel == null ? SpamState.NO_CHANNEL : channel.getKey();
     }
 }
@@ -0,0 +1,372 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Bulk import and export of auto-reply rules as CSV or YAML.
+ * 自动回复规则的 CSV / YAML 批量导入导出。
+ * <p>
+ * Files live in the plugin's {@code autoreply} folder. An import streams the
+ * file into rows, validates them in parallel on a fork-join pool, then
+ * compiles the new rule set and swaps it in with
+ * {@link AutoReplyService#replaceRules(Map, Map)}. All of this is meant to run off
+ * the main thread; chat keeps matching the old rules until the swap. A rule
+ * added or removed during an import is kept: the merge is redone on the
+ * edited rules. Only one import runs at a time.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class AutoReplyImportService {
+
+    static final String FOLDER = "autoreply";
+
+    /**
+     * Rows validated sequentially by one fork-join task.
+     */
+    private static final int VALIDATE_BATCH = 256;
+
+    private static final Set<String> MODES = new HashSet<>(Arrays.asList(
+            "contains", "exact", "regex", "fuzzy", "semantic"));
+
+    private final UltiToolsPlugin plugin;
+    private final AutoReplyService autoReplyService;
+
+    private final AtomicBoolean importing = new AtomicBoolean(false);
+
+    public AutoReplyImportService(UltiToolsPlugin plugin, AutoReplyService autoReplyService) {
+        this.plugin = plugin;
+        this.autoReplyService = autoReplyService;
+    }
+
+    /**
+     * Resolve a file name inside the import folder.
+     * 解析导入目录中的文件名。
+     *
+     * @param fileName a plain {@code .csv}, {@code .yml} or {@code .yaml} file name
+     * @return the file, or null if the name is not allowed
+     */
+    public File resolve(String fileName) {
+        if (fileName == null || fileName.isEmpty() || fileName.startsWith(".")
+                || fileName.contains("/") || fileName.contains("\\")) {
+            return null;
+        }
+        if (!isCsv(fileName) && !isYaml(fileName)) {
+            return null;
+        }
+        return new File(new File(plugin.getConfigFolder(), FOLDER), fileName);
+    }
+
+    /**
+     * Import rules from a file and swap them in.
+     * 从文件导入规则并整体替换生效。
+     *
+     * @param file    a file from {@link #resolve(String)}
+     * @param replace true to drop existing rules, false to add to them
+     *                (imported rules replace existing rules of the same name)
+     * @return counts, rejected rows and timings, or null if another import is running
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public ImportReport importRules(File file, boolean replace) throws IOException {
+        if (!importing.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return doImport(file, replace);
+        } finally {
+            importing.set(false);
+        }
+    }
+
+    /**
+     * Whether an import is running.
+     */
+    public boolean isImporting() {
+        return importing.get();
+    }
+
+    private ImportReport doImport(File file, boolean replace) throws IOException {
+        long start = System.nanoTime();
+        List<Row> rows = isCsv(file.getName()) ? readCsv(file) : readYaml(file);
+        long parsed = System.nanoTime();
+
+        String[] reasons = new String[rows.size()];
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        try {
+            pool.invoke(new ValidateTask(rows, reasons, 0, rows.size()));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<ImportReport.Failure> failures = new ArrayList<>();
+        Map<String, Map<String, Object>> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            String reason = reasons[i];
+            if (reason == null && accepted.containsKey(row.name)) {
+                reason = "duplicate rule name";
+            }
+            if (reason != null) {
+                failures.add(new ImportReport.Failure(row.line, row.name, reason));
+            } else {
+                accepted.put(row.name, row.rule);
+            }
+        }
+        long validated = System.nanoTime();
+
+        Map<String, Map<String, Object>> rules;
+        if (replace) {
+            rules = new LinkedHashMap<>(accepted);
+            autoReplyService.replaceRules(rules);
+        } else {
+            Map<String, Map<String, Object>> current;
+            do {
+                current = autoReplyService.getRules();
+                rules = new LinkedHashMap<>(current);
+                rules.putAll(accepted);
+            } while (!autoReplyService.replaceRules(current, rules));
+        }
+        long compiled = System.nanoTime();
+
+        return new ImportReport(accepted.size(), rules.size(), failures,
+                parsed - start, validated - parsed, compiled - validated);
+    }
+
+    /**
+     * Write every current rule to a file.
+     * 将当前所有规则导出到文件。
+     *
+     * @param file a file from {@link #resolve(String)}
+     * @return the number of rules written
+     * @throws IOException if the file cannot be written
+     */
+    public int exportRules(File file) throws IOException {
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : autoReplyService.getRules().entrySet()) {
+            if (entry.getValue() != null) {
+                rules.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+            }
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        Path tmp = new File(parent, file.getName() + ".tmp").toPath();
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            if (isCsv(file.getName())) {
+                List<String> header = RuleCsv.writeHeader(writer, rules);
+                for (Map.Entry<String, Map<String, Object>> entry : rules.entrySet()) {
+                    RuleCsv.writeRule(writer, header, entry.getKey(), entry.getValue());
+                }
+            } else {
+                YamlConfiguration yaml = new YamlConfiguration();
+                yaml.createSection("rules", rules);
+                writer.write(yaml.saveToString());
+            }
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return rules.size();
+    }
+
+    private static List<Row> readCsv(File file) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            RuleCsv.RecordReader records = new RuleCsv.RecordReader(reader);
+            List<String> header = records.next();
+            if (header == null) {
+                return rows;
+            }
+            // A spreadsheet export may start with a byte order mark
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+            for (int i = 0; i < header.size(); i++) {
+                header.set(i, header.get(i).trim().toLowerCase());
+            }
+            if (!header.contains(RuleCsv.NAME_COLUMN)) {
+                throw new IOException("Missing '" + RuleCsv.NAME_COLUMN + "' column");
+            }
+            List<String> record;
+            while ((record = records.next()) != null) {
+                Map.Entry<String, Map<String, Object>> rule = RuleCsv.toRule(header, record);
+                rows.add(new Row(records.getLine(), rule.getKey(), rule.getValue()));
+            }
+        }
+        return rows;
+    }
+
+    private static List<Row> readYaml(File file) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.loadFromString(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new IOException(e.getMessage());
+        }
+        // Accept both a plain export and a copy of config/autoreply.yml
+        ConfigurationSection section = yaml.getConfigurationSection("rules");
+        if (section == null) {
+            section = yaml.getConfigurationSection(AutoReplyPersistenceService.RULES_PATH);
+        }
+        if (section == null) {
+            throw new IOException("Missing 'rules' section");
+        }
+
+        List<Row> rows = new ArrayList<>();
+        int position = 0;
+        for (String name : section.getKeys(false)) {
+            position++;
+            ConfigurationSection rule = section.getConfigurationSection(name);
+            rows.add(new Row(position, name, rule == null
+                    ? null
+                    : new LinkedHashMap<>(rule.getValues(false))));
+        }
+        return rows;
+    }
+
+    /**
+     * Check a rule, normalising numeric settings given as text.
+     *
+     * @return null if the rule is valid, else the reason it is not
+     */
+    static String validate(String name, Map<String, Object> rule) {
+        if (name == null || name.trim().isEmpty()) {
+            return "missing name";
+        }
+        if (rule == null) {
+            return "not a rule";
+        }
+        Object keyword = rule.get("keyword");
+        if (keyword == null || keyword.toString().trim().isEmpty()) {
+            return "missing keyword";
+        }
+        if (rule.get("response") == null && rule.get("commands") == null) {
+            return "missing response";
+        }
+
+        Object modeValue = rule.get("mode");
+        String mode = modeValue == null ? "contains" : modeValue.toString().toLowerCase();
+        if (!MODES.contains(mode)) {
+            return "unknown mode '" + modeValue + "'";
+        }
+        if ("regex".equals(mode)) {
+            try {
+                Pattern.compile(keyword.toString());
+            } catch (PatternSyntaxException e) {
+                return "bad regex: " + e.getDescription();
+            }
+        }
+
+        Object threshold = rule.get("threshold");
+        if (threshold != null) {
+            Double value = toDouble(threshold);
+            if (value == null || value < 0 || value > 1) {
+                return "threshold must be between 0 and 1";
+            }
+            rule.put("threshold", value);
+        }
+        for (String key : new String[]{"max-edits", "cooldown", "broadcast-window"}) {
+            Object raw = rule.get(key);
+            if (raw == null) {
+                continue;
+            }
+            Double value = toDouble(raw);
+            if (value == null || value < 0 || value != Math.floor(value)) {
+                return key + " must be a whole number";
+            }
+            rule.put(key, value.intValue());
+        }
+        return null;
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCsv(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv");
+    }
+
+    private static boolean isYaml(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".yml") || lower.endsWith(".yaml");
+    }
+
+    /**
+     * A rule read from a file, before validation.
+     */
+    private static final class Row {
+        private final int line;
+        private final String name;
+        private final Map<String, Object> rule;
+
+        Row(int line, String name, Map<String, Object> rule) {
+            this.line = line;
+            this.name = name;
+            this.rule = rule;
+        }
+    }
+
+    /**
+     * Validates a range of rows, splitting it in halves until it is small.
+     */
+    private static final class ValidateTask extends RecursiveAction {
+        private final List<Row> rows;
+        private final String[] reasons;
+        private final int from;
+        private final int to;
+
+        ValidateTask(List<Row> rows, String[] reasons, int from, int to) {
+            this.rows = rows;
+            this.reasons = reasons;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= VALIDATE_BATCH) {
+                for (int i = from; i < to; i++) {
+                    Row row = rows.get(i);
+                    reasons[i] = validate(row.name, row.rule);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ValidateTask(rows, reasons, from, middle),
+                    new ValidateTask(rows, reasons, middle, to));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Debounced write-behind writer for runtime auto-reply rule edits.
+ * 自动回复规则的延迟异步写回。
+ * <p>
+ * Every edit replaces the pending snapshot; one asynchronous task per debounce
+ * window writes only the latest one to {@code config/autoreply.yml} through a
+ * temp file and an atomic rename, so bursts of edits cost a single write.
+ * Flushes are serialized and each writes the latest snapshot at the time it
+ * gets the lock, so the file never goes back to an older one.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class AutoReplyPersistenceService {
+
+    static final String FILE_PATH = "config/autoreply.yml";
+    static final String RULES_PATH = "autoreply.rules";
+
+    private final UltiToolsPlugin plugin;
+    private final AutoReplyConfig config;
+
+    private final AtomicReference<Map<String, Map<String, Object>>> pending = new AtomicReference<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object writeLock = new Object();
+
+    public AutoReplyPersistenceService(UltiToolsPlugin plugin, AutoReplyConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+
+    /**
+     * Queue the given rules for writing. Only the latest snapshot queued before
+     * the debounce window closes is written.
+     * 提交规则快照，在延迟窗口结束时只写入最新的一份。
+     *
+     * @param rules the current rule map (copied, the caller may keep mutating it)
+     */
+    public void save(Map<String, Map<String, Object>> rules) {
+        pending.set(snapshot(rules));
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        if (bukkitPlugin == null) {
+            // Fallback: write immediately if UltiTools is not available
+            flush();
+            return;
+        }
+        long delayTicks = Math.max(0, config.getSaveDelay()) * 20L;
+        Bukkit.getScheduler().runTaskLaterAsynchronously(bukkitPlugin, new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, delayTicks);
+    }
+
+    /**
+     * Write the pending snapshot now, if there is one.
+     * 立即写入待保存的快照（例如重载前）。
+     *
+     * @return true if a snapshot was written
+     */
+    public boolean flush() {
+        // Clear the flag first so an edit racing with this write schedules another one
+        flushScheduled.set(false);
+        synchronized (writeLock) {
+            // Taken under the lock, so a flush that stalls cannot write an older snapshot over a newer one
+            Map<String, Map<String, Object>> rules = pending.getAndSet(null);
+            if (rules == null) {
+                return false;
+            }
+            try {
+                write(rules);
+                return true;
+            } catch (IOException e) {
+                plugin.getLogger().warn("Failed to save " + FILE_PATH + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Whether an edit is waiting to be written.
+     */
+    public boolean hasPending() {
+        return pending.get() != null;
+    }
+
+    private void write(Map<String, Map<String, Object>> rules) throws IOException {
+        File target = new File(plugin.getConfigFolder(), FILE_PATH);
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        YamlConfiguration yaml = target.exists()
+                ? YamlConfiguration.loadConfiguration(target)
+                : new YamlConfiguration();
+        yaml.set(RULES_PATH, null);
+        yaml.createSection(RULES_PATH, rules);
+
+        Path tmp = new File(parent, target.getName() + ".tmp").toPath();
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write(yaml.saveToString());
+        }
+        try {
+            Files.move(tmp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> snapshot(Map<String, Map<String, Object>> rules) {
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        if (rules == null) {
+            return copy;
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : rules.entrySet()) {
+            if (entry.getValue() != null) {
+                copy.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An auto-reply rule compiled from its config map.
+ * 从配置编译而来的自动回复规则。
+ * <p>
+ * Mode, case sensitivity, the lower-cased keyword, the regex pattern and the
+ * channels the rule is limited to are resolved once when the rule set is
+ * built instead of on every message. Fuzzy and semantic rules are indexed by
+ * the {@link RuleMatcher} of every channel they apply to.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class AutoReplyRule {
+
+    private final String name;
+    private final Map<String, Object> source;
+    private final Map.Entry<String, Map<String, Object>> entry;
+    private final String keyword;
+    private final String mode;
+    private final boolean caseSensitive;
+    private final String lowerKeyword;
+    private final Pattern pattern;
+    private final int maxEdits;
+    private final List<String> examples;
+    private final double threshold;
+    private final List<String> channels;
+    private final ResponseTemplate template;
+    private final RuleStats stats;
+
+    AutoReplyRule(String name, Map<String, Object> source, String keyword, String mode,
+                  boolean caseSensitive, Pattern pattern, int maxEdits, List<String> examples,
+                  double threshold, List<String> channels, ResponseTemplate template, RuleStats stats) {
+        this.name = name;
+        this.source = source;
+        this.entry = new AbstractMap.SimpleImmutableEntry<>(name, source);
+        this.keyword = keyword;
+        this.mode = mode;
+        this.caseSensitive = caseSensitive;
+        this.lowerKeyword = keyword.toLowerCase();
+        this.pattern = pattern;
+        this.maxEdits = maxEdits;
+        this.examples = examples;
+        this.threshold = threshold;
+        this.channels = channels;
+        this.template = template;
+        this.stats = stats;
+    }
+
+    /**
+     * Test the rule against a message. Fuzzy rules run only the verifier here;
+     * the matcher's {@link FuzzyIndex} decides whether it is worth running.
+     * Semantic rules are decided by the matcher's {@link SemanticIndex}.
+     *
+     * @param message      the raw message
+     * @param lowerMessage the message lower-cased once by the caller
+     * @return true if the rule matches
+     */
+    boolean matches(String message, String lowerMessage) {
+        switch (mode) {
+            case "exact":
+                return caseSensitive ? message.equals(keyword) : message.equalsIgnoreCase(keyword);
+            case "regex":
+                return pattern != null && pattern.matcher(message).find();
+            case "fuzzy":
+                return caseSensitive
+                        ? FuzzyIndex.containsWithin(keyword, message, maxEdits)
+                        : FuzzyIndex.containsWithin(lowerKeyword, lowerMessage, maxEdits);
+            case "semantic":
+                return false;
+            case "contains":
+            default:
+                return caseSensitive ? message.contains(keyword) : lowerMessage.contains(lowerKeyword);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getSource() {
+        return source;
+    }
+
+    /**
+     * The (name, rule map) entry handed out by {@link AutoReplyService#findMatch(String)}.
+     */
+    public Map.Entry<String, Map<String, Object>> getEntry() {
+        return entry;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public boolean isCaseSensitive() {
+        return caseSensitive;
+    }
+
+    /**
+     * Edits tolerated by a fuzzy rule (0 for other modes).
+     */
+    public int getMaxEdits() {
+        return maxEdits;
+    }
+
+    /**
+     * Texts a semantic rule is scored against (empty for other modes).
+     */
+    List<String> getExamples() {
+        return examples;
+    }
+
+    /**
+     * Minimum similarity of a semantic rule.
+     */
+    double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Channels the rule is limited to; empty if it applies everywhere.
+     */
+    public List<String> getChannels() {
+        return channels;
+    }
+
+    /**
+     * The keyword in the case the rule is matched in.
+     */
+    String getMatchKeyword() {
+        return caseSensitive ? keyword : lowerKeyword;
+    }
+
+    /**
+     * The precompiled response.
+     */
+    public ResponseTemplate getTemplate() {
+        return template;
+    }
+
+    public RuleStats getStats() {
+        return stats;
+    }
+}
@@ -12,8 +12,19 @@ import java.util.regex.PatternSyntaxException;
 /**
  * Service for matching chat messages against auto-reply rules.
  * <p>
- * Supports three match modes: contains, exact, and regex.
- * Regex patterns are compiled and cached for performance.
+ * Supports five match modes: contains, exact, regex, fuzzy (typo tolerant,
+ * backed by a {@link FuzzyIndex}) and semantic (TF-IDF similarity to the
+ * rule's example questions, backed by a {@link SemanticIndex}).
+ * Rules are compiled into an immutable snapshot that is rebuilt when the
+ * rule map is replaced. Edits never change the current map: they swap in an
+ * edited copy, so chat threads compiling or reading it never see it change
+ * under them. Rules may be limited to
+ * channels; the snapshot holds one {@link RuleMatcher} per channel so a
+ * message is only matched against the rules of its channel; regex patterns are compiled
+ * and cached for performance, and responses are precompiled into
+ * {@link ResponseTemplate}s. Per-rule hit counts and match cost are
+ * recorded in {@link RuleStats}. A {@link RuleNameIndex} keeps rule names and
+ * keywords sorted for paginated listing and prefix search.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -24,45 +35,154 @@ public class AutoReplyService {
     @Autowired
     private AutoReplyConfig config;
 
+    @Autowired
+    private AutoReplyPersistenceService persistenceService;
+
+    @Autowired
+    private CommandQueueService commandQueueService;
+
+    @Autowired
+    private ReplyBroadcastService replyBroadcastService;
+
     private final Map<String, Pattern> patternCache = new ConcurrentHashMap<>();
+    private final Map<String, RuleStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Keyword characters per tolerated edit, so short keywords like "ip" are
+     * not matched by almost any message.
+     */
+    private static final int CHARS_PER_EDIT = 4;
+
+    private volatile RuleSnapshot snapshot;
+
+    /**
+     * Serializes edits, so two of them never copy the same map and lose one another.
+     */
+    private final Object editLock = new Object();
 
     /**
      * Find the first rule that matches the given message.
+     * Only rules that are not limited to channels are considered.
      *
      * @param message the chat message to match
      * @return the matching rule entry (name -> rule map), or null if no match
      */
     public Map.Entry<String, Map<String, Object>> findMatch(String message) {
+        return findMatch(message, null);
+    }
+
+    /**
+     * Find the first rule that matches a message sent in a channel.
+     * 查找频道内消息匹配的第一条规则。
+     *
+     * @param message the chat message to match
+     * @param channel the sender's channel, or null to consider only rules
+     *                that are not limited to channels
+     * @return the matching rule entry (name -> rule map), or null if no match
+     */
+    public Map.Entry<String, Map<String, Object>> findMatch(String message, String channel) {
         if (message == null || message.isEmpty()) {
             return null;
         }
 
-        Map<String, Map<String, Object>> rules = config.getRules();
-        if (rules == null || rules.isEmpty()) {
+        RuleMatcher matcher = snapshot().matcher(channel);
+        if (matcher.size() == 0) {
             return null;
         }
+        AutoReplyRule winner = matcher.match(message, message.toLowerCase(), config.isStatsTiming(), true);
+        return winner == null ? null : winner.getEntry();
+    }
 
-        for (Map.Entry<String, Map<String, Object>> entry : rules.entrySet()) {
-            Map<String, Object> rule = entry.getValue();
-            if (rule == null) {
-                continue;
-            }
+    /**
+     * Test a message against the rules of a channel without recording statistics.
+     * 测试消息在频道内会匹配哪些规则（不计入统计）。
+     *
+     * @param message the message to test
+     * @param channel the channel the message would be sent in, or null
+     * @return every matching rule, the rule chat would trigger, and the time
+     *         taken to find it
+     */
+    public MatchReport test(String message, String channel) {
+        if (message == null || message.isEmpty()) {
+            return new MatchReport(Collections.<String>emptyList(), null, 0L);
+        }
+        RuleMatcher matcher = snapshot().matcher(channel);
+        String lowerMessage = message.toLowerCase();
 
-            Object keywordObj = rule.get("keyword");
-            if (keywordObj == null) {
-                continue;
-            }
-            String keyword = keywordObj.toString();
+        long start = System.nanoTime();
+        AutoReplyRule winner = matcher.match(message, lowerMessage, false, false);
+        long elapsed = System.nanoTime() - start;
 
-            String mode = getMode(rule);
-            boolean caseSensitive = isCaseSensitive(rule);
+        return new MatchReport(matcher.matchAll(message, lowerMessage),
+                winner == null ? null : winner.getName(), elapsed);
+    }
 
-            if (matches(message, keyword, mode, caseSensitive)) {
-                return entry;
-            }
+    /**
+     * Test a message against the rules that are not limited to channels.
+     *
+     * @param message the message to test
+     * @return the match report
+     */
+    public MatchReport test(String message) {
+        return test(message, null);
+    }
+
+    /**
+     * Number of configured rules.
+     */
+    public int getRuleCount() {
+        return snapshot().names.size();
+    }
+
+    /**
+     * A page of rule names in case-insensitive order.
+     * 按名称排序分页获取规则名。
+     *
+     * @param offset index of the first name
+     * @param limit  maximum number of names
+     * @return the rule names, empty past the end
+     */
+    public List<String> getRuleNames(int offset, int limit) {
+        return snapshot().names.names(offset, limit);
+    }
+
+    /**
+     * Find rules whose name or keyword starts with a prefix, ignoring case.
+     * 按规则名或关键词前缀搜索规则（忽略大小写）。
+     *
+     * @param prefix the prefix to search for
+     * @return matching rule names in case-insensitive order
+     */
+    public List<String> searchRules(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return Collections.emptyList();
         }
+        return snapshot().names.search(prefix);
+    }
 
-        return null;
+    /**
+     * Get the statistics of every current rule.
+     * 获取当前所有规则的统计信息。
+     *
+     * @return one entry per compiled rule, in rule order
+     */
+    public List<RuleStats> getRuleStats() {
+        AutoReplyRule[] rules = snapshot().rules;
+        List<RuleStats> result = new ArrayList<>(rules.length);
+        for (AutoReplyRule rule : rules) {
+            result.add(rule.getStats());
+        }
+        return result;
+    }
+
+    /**
+     * Reset hit counts and timings of every rule.
+     * 重置所有规则的统计。
+     */
+    public void resetStats() {
+        for (RuleStats ruleStats : stats.values()) {
+            ruleStats.reset();
+        }
     }
 
     /**
@@ -78,6 +198,19 @@ public class AutoReplyService {
         return rule.get("response");
     }
 
+    /**
+     * Get the precompiled response of a rule in the current rule set.
+     * 获取当前规则集中规则的预编译回复模板。
+     *
+     * @param ruleName the rule name
+     * @return the template, or null if the rule is not compiled (for example
+     *         it has no keyword or was just removed)
+     */
+    public ResponseTemplate getTemplate(String ruleName) {
+        AutoReplyRule rule = snapshot().byName.get(ruleName);
+        return rule == null ? null : rule.getTemplate();
+    }
+
     /**
      * Get the commands list from a rule.
      *
@@ -96,44 +229,178 @@ public class AutoReplyService {
         return Collections.emptyList();
     }
 
+    /**
+     * Get the broadcast-once scope of a rule.
+     * 获取规则的单次广播范围。
+     *
+     * @param rule the rule map
+     * @return "channel" or "global", or null if the rule answers privately
+     */
+    public String getBroadcast(Map<String, Object> rule) {
+        if (rule == null) {
+            return null;
+        }
+        Object broadcast = rule.get("broadcast");
+        if (broadcast == null || Boolean.FALSE.equals(broadcast)) {
+            return null;
+        }
+        String scope = broadcast.toString().toLowerCase();
+        if ("global".equals(scope)) {
+            return "global";
+        }
+        if ("false".equals(scope) || "none".equals(scope) || scope.isEmpty()) {
+            return null;
+        }
+        // true / "channel" / anything else answers into the sender's channel
+        return "channel";
+    }
+
+    /**
+     * Get how long a broadcast answer suppresses identical triggers.
+     *
+     * @param rule the rule map
+     * @return the window in milliseconds: the rule's {@code broadcast-window}
+     *         seconds, else the config default
+     */
+    public long getBroadcastWindowMillis(Map<String, Object> rule) {
+        Object window = rule == null ? null : rule.get("broadcast-window");
+        if (window instanceof Number) {
+            return ((Number) window).longValue() * 1000L;
+        }
+        if (window != null) {
+            try {
+                return Long.parseLong(window.toString().trim()) * 1000L;
+            } catch (NumberFormatException ignored) {
+                // fall through to the default
+            }
+        }
+        return config.getBroadcastWindow() * 1000L;
+    }
+
     /**
      * Add a simple contains-mode rule to the config.
+     * The change is written back to {@code config/autoreply.yml} asynchronously.
      *
      * @param name     the rule name (key)
      * @param keyword  the keyword to match
      * @param response the response text
      */
     public void addRule(String name, String keyword, String response) {
-        Map<String, Map<String, Object>> rules = config.getRules();
-        if (rules == null) {
-            rules = new HashMap<>();
-            config.setRules(rules);
-        }
-
         Map<String, Object> rule = new HashMap<>();
         rule.put("keyword", keyword);
         rule.put("response", response);
         rule.put("mode", "contains");
         rule.put("case-sensitive", false);
-        rules.put(name, rule);
+
+        synchronized (editLock) {
+            Map<String, Map<String, Object>> rules = copyRules();
+            rules.put(name, rule);
+            config.setRules(rules);
+            // A replaced rule starts with fresh statistics
+            stats.remove(name);
+            snapshot = null;
+            persistenceService.save(rules);
+        }
+    }
+
+    /**
+     * Replace every rule at once, for bulk imports.
+     * 整体替换所有规则（用于批量导入）。
+     * <p>
+     * The new rule set is compiled on the calling thread, which should not be
+     * the main thread for large imports, and then swapped in, so chat matches
+     * either the old rules or the new ones, never a mix. The change is written
+     * back to {@code config/autoreply.yml} asynchronously.
+     *
+     * @param rules the new rules; owned by the service afterwards
+     */
+    public void replaceRules(Map<String, Map<String, Object>> rules) {
+        RuleSnapshot compiled = compile(rules);
+        synchronized (editLock) {
+            swap(rules, compiled);
+        }
+    }
+
+    /**
+     * Replace every rule at once, unless the rules were edited after
+     * {@code expected} was read from {@link #getRules()}. A caller that
+     * derived the new rules from the old ones reads them again and retries,
+     * so an edit made meanwhile is not overwritten.
+     * 仅当规则自读取后未被修改时整体替换。
+     *
+     * @param expected the map the new rules were derived from
+     * @param rules    the new rules; owned by the service afterwards
+     * @return false if the rules changed meanwhile and nothing was replaced
+     */
+    public boolean replaceRules(Map<String, Map<String, Object>> expected, Map<String, Map<String, Object>> rules) {
+        RuleSnapshot compiled = compile(rules);
+        synchronized (editLock) {
+            if (getRules() != expected) {
+                return false;
+            }
+            swap(rules, compiled);
+            return true;
+        }
+    }
+
+    private void swap(Map<String, Map<String, Object>> rules, RuleSnapshot compiled) {
+        Map<String, Map<String, Object>> previous = config.getRules();
+        // A match racing with the swap sees the new map with the old snapshot
+        // and compiles it itself; it never sees the new snapshot with the old map
+        config.setRules(rules);
+        snapshot = compiled;
+        if (previous != null) {
+            for (String name : previous.keySet()) {
+                if (!rules.containsKey(name)) {
+                    commandQueueService.forgetRule(name);
+                    replyBroadcastService.forgetRule(name);
+                }
+            }
+        }
+        persistenceService.save(rules);
     }
 
     /**
      * Remove a rule by name.
+     * The change is written back to {@code config/autoreply.yml} asynchronously.
      *
      * @param name the rule name to remove
      */
     public void removeRule(String name) {
-        Map<String, Map<String, Object>> rules = config.getRules();
-        if (rules != null) {
+        synchronized (editLock) {
+            if (!getRules().containsKey(name)) {
+                return;
+            }
+            Map<String, Map<String, Object>> rules = copyRules();
             rules.remove(name);
+            config.setRules(rules);
             // Also remove cached pattern if any
             patternCache.remove(name);
+            commandQueueService.forgetRule(name);
+            replyBroadcastService.forgetRule(name);
+            snapshot = null;
+            persistenceService.save(rules);
         }
     }
 
     /**
-     * Get all rules.
+     * A copy of the current rules to edit and swap in, in the same order.
+     */
+    private Map<String, Map<String, Object>> copyRules() {
+        return new LinkedHashMap<>(getRules());
+    }
+
+    /**
+     * Write pending rule edits now instead of waiting for the debounce window.
+     * Call before reloading so the reload reads the edited file.
+     */
+    public void flushPendingEdits() {
+        persistenceService.flush();
+    }
+
+    /**
+     * Get all rules. Edits swap in a new map, so the returned one never
+     * changes and may be read from any thread; do not modify it.
      *
      * @return the rules map, or empty map if null
      */
@@ -145,22 +412,87 @@ public class AutoReplyService {
         return rules;
     }
 
-    private boolean matches(String message, String keyword, String mode, boolean caseSensitive) {
-        switch (mode) {
-            case "exact":
-                return caseSensitive ? message.equals(keyword) : message.equalsIgnoreCase(keyword);
-            case "regex":
-                return matchesRegex(message, keyword, caseSensitive);
-            case "contains":
-            default:
-                if (caseSensitive) {
-                    return message.contains(keyword);
+    /**
+     * Drop the compiled snapshot so the next match rebuilds it from the config.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private RuleSnapshot snapshot() {
+        Map<String, Map<String, Object>> rules = config.getRules();
+        RuleSnapshot current = snapshot;
+        if (current != null && current.isCurrent(rules)) {
+            return current;
+        }
+        current = compile(rules);
+        snapshot = current;
+        return current;
+    }
+
+    private RuleSnapshot compile(Map<String, Map<String, Object>> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return new RuleSnapshot(rules, new AutoReplyRule[0], RuleMatcher.EMPTY,
+                    Collections.<String, RuleMatcher>emptyMap(), RuleNameIndex.EMPTY);
+        }
+
+        List<AutoReplyRule> compiled = new ArrayList<>(rules.size());
+        Set<String> names = new HashSet<>();
+        Set<String> channels = new LinkedHashSet<>();
+        for (Map.Entry<String, Map<String, Object>> entry : rules.entrySet()) {
+            Map<String, Object> rule = entry.getValue();
+            if (rule == null) {
+                continue;
+            }
+
+            Object keywordObj = rule.get("keyword");
+            if (keywordObj == null) {
+                continue;
+            }
+            String keyword = keywordObj.toString();
+
+            String mode = getMode(rule);
+            boolean caseSensitive = isCaseSensitive(rule);
+            Pattern pattern = "regex".equals(mode) ? compilePattern(keyword, caseSensitive) : null;
+            int maxEdits = "fuzzy".equals(mode) ? getMaxEdits(rule, keyword) : 0;
+            boolean semantic = "semantic".equals(mode);
+            List<String> examples = semantic ? getExamples(rule, keyword) : Collections.<String>emptyList();
+            double threshold = semantic ? getThreshold(rule) : 0;
+            List<String> ruleChannels = getChannels(rule);
+            channels.addAll(ruleChannels);
+
+            String name = entry.getKey();
+            names.add(name);
+            RuleStats ruleStats = stats.computeIfAbsent(name, RuleStats::new);
+            compiled.add(new AutoReplyRule(name, rule, keyword, mode, caseSensitive, pattern, maxEdits,
+                    examples, threshold, ruleChannels, ResponseTemplate.compile(getResponse(rule)), ruleStats));
+        }
+
+        // Forget statistics of rules that no longer exist
+        stats.keySet().retainAll(names);
+
+        // Each channel matches its own rules plus the unscoped ones, in rule order
+        List<AutoReplyRule> unscoped = new ArrayList<>();
+        for (AutoReplyRule rule : compiled) {
+            if (rule.getChannels().isEmpty()) {
+                unscoped.add(rule);
+            }
+        }
+        Map<String, RuleMatcher> channelMatchers = new HashMap<>(channels.size() * 2);
+        for (String channel : channels) {
+            List<AutoReplyRule> channelRules = new ArrayList<>();
+            for (AutoReplyRule rule : compiled) {
+                if (rule.getChannels().isEmpty() || rule.getChannels().contains(channel)) {
+                    channelRules.add(rule);
                 }
-                return message.toLowerCase().contains(keyword.toLowerCase());
+            }
+            channelMatchers.put(channel, new RuleMatcher(channelRules));
         }
+        return new RuleSnapshot(rules, compiled.toArray(new AutoReplyRule[0]), new RuleMatcher(unscoped),
+                channelMatchers, new RuleNameIndex(rules));
     }
 
-    private boolean matchesRegex(String message, String keyword, boolean caseSensitive) {
+    private Pattern compilePattern(String keyword, boolean caseSensitive) {
         String cacheKey = (caseSensitive ? "s:" : "i:") + keyword;
         Pattern pattern = patternCache.get(cacheKey);
         if (pattern == null) {
@@ -169,10 +501,10 @@ public class AutoReplyService {
                 pattern = Pattern.compile(keyword, flags);
                 patternCache.put(cacheKey, pattern);
             } catch (PatternSyntaxException e) {
-                return false;
+                return null;
             }
         }
-        return pattern.matcher(message).find();
+        return pattern;
     }
 
     private String getMode(Map<String, Object> rule) {
@@ -183,6 +515,83 @@ public class AutoReplyService {
         return mode.toString().toLowerCase();
     }
 
+    /**
+     * Edits tolerated by a fuzzy rule: its {@code max-edits}, else the config
+     * default, capped at one edit per {@value #CHARS_PER_EDIT} keyword characters.
+     */
+    private int getMaxEdits(Map<String, Object> rule, String keyword) {
+        int maxEdits = config.getFuzzyMaxEdits();
+        Object value = rule.get("max-edits");
+        if (value instanceof Number) {
+            maxEdits = ((Number) value).intValue();
+        } else if (value != null) {
+            try {
+                maxEdits = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException ignored) {
+                // keep the default
+            }
+        }
+        return Math.max(0, Math.min(maxEdits, keyword.length() / CHARS_PER_EDIT));
+    }
+
+    /**
+     * Texts a semantic rule is scored against: its keyword plus its
+     * {@code examples} (a list or a single string).
+     */
+    private List<String> getExamples(Map<String, Object> rule, String keyword) {
+        List<String> examples = new ArrayList<>();
+        examples.add(keyword);
+        Object value = rule.get("examples");
+        if (value instanceof List) {
+            for (Object example : (List<?>) value) {
+                if (example != null) {
+                    examples.add(example.toString());
+                }
+            }
+        } else if (value != null) {
+            examples.add(value.toString());
+        }
+        return examples;
+    }
+
+    /**
+     * Minimum similarity of a semantic rule: its {@code threshold}, else the
+     * config default.
+     */
+    private double getThreshold(Map<String, Object> rule) {
+        Object value = rule.get("threshold");
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString().trim());
+            } catch (NumberFormatException ignored) {
+                // fall through to the default
+            }
+        }
+        return config.getSemanticThreshold();
+    }
+
+    /**
+     * Channels a rule is limited to: its {@code channels} (a list or a
+     * comma-separated string). Empty means every channel.
+     */
+    private List<String> getChannels(Map<String, Object> rule) {
+        Object value = rule.get("channels");
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> channels = new ArrayList<>();
+        Iterable<?> items = value instanceof List ? (List<?>) value : Arrays.asList(value.toString().split(","));
+        for (Object item : items) {
+            if (item != null && !item.toString().trim().isEmpty()) {
+                channels.add(item.toString().trim());
+            }
+        }
+        return channels.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(channels);
+    }
+
     private boolean isCaseSensitive(Map<String, Object> rule) {
         Object cs = rule.get("case-sensitive");
         if (cs instanceof Boolean) {
@@ -193,4 +602,50 @@ public class AutoReplyService {
         }
         return false;
     }
+
+    /**
+     * Immutable compiled view of the rule map it was built from.
+     */
+    private static final class RuleSnapshot {
+        private final Map<String, Map<String, Object>> source;
+        private final int sourceSize;
+        private final AutoReplyRule[] rules;
+        private final Map<String, AutoReplyRule> byName;
+        private final RuleMatcher unscoped;
+        private final Map<String, RuleMatcher> channels;
+        private final RuleNameIndex names;
+
+        RuleSnapshot(Map<String, Map<String, Object>> source, AutoReplyRule[] rules, RuleMatcher unscoped,
+                     Map<String, RuleMatcher> channels, RuleNameIndex names) {
+            this.source = source;
+            this.sourceSize = source == null ? 0 : source.size();
+            this.rules = rules;
+            this.byName = new HashMap<>(rules.length * 2);
+            for (AutoReplyRule rule : rules) {
+                byName.put(rule.getName(), rule);
+            }
+            this.unscoped = unscoped;
+            this.channels = channels;
+            this.names = names;
+        }
+
+        /**
+         * The matcher of a channel; channels no rule is limited to share the
+         * matcher of the unscoped rules.
+         */
+        RuleMatcher matcher(String channel) {
+            if (channel == null) {
+                return unscoped;
+            }
+            RuleMatcher matcher = channels.get(channel);
+            return matcher != null ? matcher : unscoped;
+        }
+
+        /**
+         * A reload swaps the map instance; direct map edits at least change its size.
+         */
+        boolean isCurrent(Map<String, Map<String, Object>> rules) {
+            return rules == source && (rules == null ? 0 : rules.size()) == sourceSize;
+        }
+    }
 }
@@ -0,0 +1,252 @@
+package com.ultikits.plugins.chat.service;
+
+import org.bukkit.ChatColor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A channel from {@code config/channels.yml}, compiled once per load.
+ * 加载时编译的频道定义。
+ * <p>
+ * The display name and format are colour-translated up front, the range is
+ * kept squared for distance checks, and the permission is null when anyone
+ * may join. A channel with a {@code worlds} list is bound to those worlds:
+ * players elsewhere cannot join it and leave it when they change world.
+ * A {@code network} channel is also relayed to the other servers behind the
+ * proxy when the channel bridge is enabled. An {@code anti-spam} key
+ * overrides the global anti-spam settings for the channel. Party channels
+ * created by players at runtime are compiled with
+ * {@link #party(int, String, String)}.
+ * Ids are dense and only valid within the channel table that assigned them;
+ * a reload or a new party can hand the same id to another channel. State
+ * that must not carry over to that channel is kept under {@link #getKey()},
+ * which no other compiled definition shares.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class ChannelDefinition {
+
+    public static final String DEFAULT_FORMAT = "{player}: {message}";
+
+    private static final String NAME_SLOT = "{name}";
+
+    private static final AtomicInteger KEYS = new AtomicInteger();
+
+    private final int key = KEYS.incrementAndGet();
+
+    private final int id;
+    private final String name;
+    private final String displayName;
+    private final String format;
+    private final String permission;
+    private final int range;
+    private final double rangeSquared;
+    private final boolean crossWorld;
+    private final Set<String> worlds;
+    private final boolean network;
+    private final boolean party;
+    private final SpamPolicy spamPolicy;
+
+    private ChannelDefinition(int id, String name, String displayName, String format, String permission,
+                              int range, boolean crossWorld, Set<String> worlds, boolean network, boolean party,
+                              SpamPolicy spamPolicy) {
+        this.id = id;
+        this.name = name;
+        this.displayName = displayName;
+        this.format = format;
+        this.permission = permission;
+        this.range = range;
+        this.rangeSquared = range > 0 ? (double) range * range : -1;
+        this.crossWorld = crossWorld;
+        this.worlds = worlds;
+        this.network = network;
+        this.party = party;
+        this.spamPolicy = spamPolicy;
+    }
+
+    /**
+     * Compile a channel entry.
+     * 编译频道配置项。
+     *
+     * @param id   the dense channel id
+     * @param name the channel name
+     * @param def  the raw entry; null gives a global channel with defaults
+     * @return the compiled channel
+     */
+    public static ChannelDefinition compile(int id, String name, Map<String, Object> def) {
+        if (def == null) {
+            return new ChannelDefinition(id, name, name, DEFAULT_FORMAT, null, -1, true, null, false, false,
+                    SpamPolicy.DEFAULT);
+        }
+        Object displayValue = def.get("display-name");
+        String displayName = displayValue == null
+                ? name
+                : ChatColor.translateAlternateColorCodes('&', displayValue.toString());
+        Object formatValue = def.get("format");
+        String format = formatValue == null ? DEFAULT_FORMAT : formatValue.toString();
+        Object permissionValue = def.get("permission");
+        String permission = permissionValue == null || permissionValue.toString().isEmpty()
+                ? null
+                : permissionValue.toString();
+        Object rangeValue = def.get("range");
+        int range = rangeValue instanceof Number ? ((Number) rangeValue).intValue() : -1;
+        Object crossWorldValue = def.get("cross-world");
+        boolean crossWorld = !(crossWorldValue instanceof Boolean) || (Boolean) crossWorldValue;
+        Object networkValue = def.get("network");
+        boolean network = networkValue instanceof Boolean && (Boolean) networkValue;
+        return new ChannelDefinition(id, name, displayName, format, permission, range, crossWorld,
+                worlds(def.get("worlds")), network, false, SpamPolicy.compile(def.get("anti-spam")));
+    }
+
+    /**
+     * Compile a party channel: global, unranged and local to this server.
+     * Access is by invitation, not permission.
+     * 编译玩家创建的组队频道。
+     *
+     * @param id          the dense channel id
+     * @param name        the party name
+     * @param displayName the display name template; {@code {name}} is the party name
+     * @return the compiled channel
+     */
+    public static ChannelDefinition party(int id, String name, String displayName) {
+        String display = ChatColor.translateAlternateColorCodes('&', displayName.replace(NAME_SLOT, name));
+        return new ChannelDefinition(id, name, display, DEFAULT_FORMAT, null, -1, true, null, false, true,
+                SpamPolicy.DEFAULT);
+    }
+
+    /**
+     * Read the {@code worlds} key as a list or a comma-separated string.
+     *
+     * @return the world names, or null when the channel is not world-bound
+     */
+    private static Set<String> worlds(Object value) {
+        Set<String> worlds = new HashSet<>();
+        if (value instanceof Collection) {
+            for (Object world : (Collection<?>) value) {
+                worlds.add(String.valueOf(world).trim());
+            }
+        } else if (value != null) {
+            for (String world : value.toString().split(",")) {
+                worlds.add(world.trim());
+            }
+        }
+        worlds.remove("");
+        return worlds.isEmpty() ? null : Collections.unmodifiableSet(worlds);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * A key unique to this compiled definition, never reused by a later
+     * table or party. Always positive.
+     * 本次编译的频道定义的唯一键，重载或新组队不会复用。
+     *
+     * @return the key
+     */
+    public int getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The colour-translated display name, or the channel name if none is set.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * The format as configured.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * The permission node, or null when anyone may join.
+     */
+    public String getPermission() {
+        return permission;
+    }
+
+    /**
+     * The range in blocks, or a value of zero or less for unlimited.
+     */
+    public int getRange() {
+        return range;
+    }
+
+    /**
+     * Whether recipients must be within range of the sender.
+     */
+    public boolean isRanged() {
+        return rangeSquared > 0;
+    }
+
+    /**
+     * The squared range, compared against {@code Location.distanceSquared}.
+     */
+    public double getRangeSquared() {
+        return rangeSquared;
+    }
+
+    public boolean isCrossWorld() {
+        return crossWorld;
+    }
+
+    /**
+     * Whether the channel is limited to some worlds.
+     */
+    public boolean isWorldBound() {
+        return worlds != null;
+    }
+
+    /**
+     * The worlds the channel is bound to, or null when it is not world-bound.
+     */
+    public Set<String> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * Whether messages in the channel are relayed to the other servers.
+     */
+    public boolean isNetwork() {
+        return network;
+    }
+
+    /**
+     * Whether the channel is a party channel created at runtime.
+     */
+    public boolean isParty() {
+        return party;
+    }
+
+    /**
+     * The channel's anti-spam overrides; {@link SpamPolicy#DEFAULT} when none are set.
+     */
+    public SpamPolicy getSpamPolicy() {
+        return spamPolicy;
+    }
+
+    /**
+     * Whether players in a world may use the channel.
+     *
+     * @param world the world name
+     * @return true if the channel is not world-bound or is bound to the world
+     */
+    public boolean isAvailableIn(String world) {
+        return worlds == null || worlds.contains(world);
+    }
+}
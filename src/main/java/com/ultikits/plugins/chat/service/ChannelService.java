@@ -3,25 +3,92 @@ package com.ultikits.plugins.chat.service;
 import com.ultikits.plugins.chat.config.ChannelConfig;
 import com.ultikits.ultitools.annotations.Autowired;
 import com.ultikits.ultitools.annotations.Service;
-import org.bukkit.ChatColor;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages player channel assignments and channel-based recipient filtering.
  * 管理玩家频道分配和基于频道的消息接收者过滤。
+ * <p>
+ * Channels are compiled into an immutable table of dense ids, rebuilt when a
+ * reload replaces the config; party channels take the ids after it. Players
+ * are bucketed by world, listen sets are bitsets over the ids, and the
+ * audiences of unranged channels are cached until a membership change
+ * touches the channel. Cached channel access expires after a while and is
+ * dropped on quit, world change and before each join attempt, which rechecks
+ * permissions. Ranged channels with many candidates
+ * are filtered on a fork-join pool that is shut down on reload and disable.
  */
 @Service
 public class ChannelService {
 
+    /**
+     * Candidates each fork-join leaf checks sequentially.
+     */
+    private static final int FILTER_BATCH = 128;
+
+    private static final ForkJoinPool.ForkJoinWorkerThreadFactory FILTER_THREADS = pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("UltiChat-Recipients-" + thread.getPoolIndex());
+        return thread;
+    };
+
     @Autowired
     private ChannelConfig config;
 
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
+    private final PartyChannels parties = new PartyChannels();
+
     private final Map<UUID, String> playerChannels = new ConcurrentHashMap<>();
 
+    /**
+     * Channels each player subscribed to besides their active one; the sets
+     * are replaced on change, never modified.
+     */
+    private final Map<UUID, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<UUID, ListenSet> listenSets = new ConcurrentHashMap<>();
+    private final Map<UUID, ChannelAccess> accessCache = new ConcurrentHashMap<>();
+
+    private volatile ChannelTable table;
+
+    private final Map<String, Map<UUID, Player>> worldPlayers = new ConcurrentHashMap<>();
+    private final Map<UUID, String> playerWorlds = new ConcurrentHashMap<>();
+
+    /**
+     * Set once the world buckets hold every online player; until then
+     * recipients are filtered by comparing world names.
+     */
+    private volatile boolean worldsSeeded;
+
+    /**
+     * Clock of membership changes: who is online, in which world and which
+     * channels they hear. Audiences record the value they were built under.
+     */
+    private final AtomicLong membership = new AtomicLong();
+
+    /**
+     * Per channel name, the clock value of the last change that touched its
+     * audience; audiences built under an older value are stale.
+     */
+    private final Map<String, Long> channelChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Clock value of the last change that touched every channel.
+     */
+    private volatile long allChanged;
+
+    private volatile ForkJoinPool filterPool;
+
     /**
      * Get the channel a player is currently in.
      * Returns the default channel if the player has no assignment.
@@ -30,11 +97,101 @@ public class ChannelService {
         return playerChannels.getOrDefault(playerId, config.getDefaultChannel());
     }
 
+    /**
+     * Get the channel a player's messages are sent in, or null when the
+     * channel system is disabled.
+     */
+    public String getActiveChannel(UUID playerId) {
+        return config.isEnabled() ? getPlayerChannel(playerId) : null;
+    }
+
     /**
      * Set a player's active channel.
      */
     public void setPlayerChannel(UUID playerId, String channel) {
-        playerChannels.put(playerId, channel);
+        String previous = playerChannels.put(playerId, channel);
+        if (previous != null && !previous.equals(channel)) {
+            leaveParty(playerId, previous);
+        }
+        joinParty(playerId, channel);
+        touch(previous != null ? previous : config.getDefaultChannel());
+        touch(channel);
+    }
+
+    /**
+     * Listen to a channel in addition to the active one.
+     * 订阅频道（在当前频道之外同时收听）。
+     *
+     * @param playerId the player
+     * @param channel  the channel name
+     * @return false if the channel does not exist or is already subscribed
+     */
+    public boolean subscribe(UUID playerId, String channel) {
+        if (getChannel(channel) == null) {
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        subscriptions.compute(playerId, (id, current) -> {
+            if (current != null && current.contains(channel)) {
+                return current;
+            }
+            Set<String> updated = current == null ? new HashSet<String>() : new HashSet<>(current);
+            updated.add(channel);
+            added[0] = true;
+            return Collections.unmodifiableSet(updated);
+        });
+        if (added[0]) {
+            joinParty(playerId, channel);
+            touch(channel);
+        }
+        return added[0];
+    }
+
+    /**
+     * Stop listening to a subscribed channel.
+     * 取消订阅频道。
+     *
+     * @param playerId the player
+     * @param channel  the channel name
+     * @return false if the player was not subscribed to it
+     */
+    public boolean unsubscribe(UUID playerId, String channel) {
+        boolean[] removed = new boolean[1];
+        subscriptions.computeIfPresent(playerId, (id, current) -> {
+            if (!current.contains(channel)) {
+                return current;
+            }
+            removed[0] = true;
+            Set<String> updated = new HashSet<>(current);
+            updated.remove(channel);
+            return updated.isEmpty() ? null : Collections.unmodifiableSet(updated);
+        });
+        if (removed[0]) {
+            leaveParty(playerId, channel);
+            touch(channel);
+        }
+        return removed[0];
+    }
+
+    /**
+     * Get the channels a player subscribed to, not including the active one.
+     */
+    public Set<String> getSubscriptions(UUID playerId) {
+        Set<String> current = subscriptions.get(playerId);
+        return current == null ? Collections.<String>emptySet() : current;
+    }
+
+    /**
+     * Check if a player hears messages sent in a channel, either because it
+     * is their active channel or because they subscribed to it.
+     */
+    public boolean isListening(UUID playerId, String channel) {
+        ChannelTable current = table();
+        ChannelDefinition definition = lookup(channel, current);
+        if (definition == null) {
+            return channel != null && channel.equals(getPlayerChannel(playerId));
+        }
+        return listenSet(playerId, current).bits.get(definition.getId());
     }
 
     /**
@@ -53,15 +210,8 @@ public class ChannelService {
      * Returns the channel name if no display-name is configured.
      */
     public String getChannelDisplayName(String channel) {
-        Map<String, Object> def = getChannelDef(channel);
-        if (def == null) {
-            return channel;
-        }
-        Object displayName = def.get("display-name");
-        if (displayName == null) {
-            return channel;
-        }
-        return ChatColor.translateAlternateColorCodes('&', displayName.toString());
+        ChannelDefinition definition = getChannel(channel);
+        return definition == null ? channel : definition.getDisplayName();
     }
 
     /**
@@ -69,15 +219,122 @@ public class ChannelService {
      * Returns a default format if none is configured.
      */
     public String getChannelFormat(String channel) {
-        Map<String, Object> def = getChannelDef(channel);
-        if (def == null) {
-            return "{player}: {message}";
+        ChannelDefinition definition = getChannel(channel);
+        return definition == null ? ChannelDefinition.DEFAULT_FORMAT : definition.getFormat();
+    }
+
+    /**
+     * Get the compiled definition of a channel.
+     * 获取频道的编译定义。
+     *
+     * @param name the channel name
+     * @return the definition of the configured or party channel, or null if
+     *         the channel does not exist
+     */
+    public ChannelDefinition getChannel(String name) {
+        if (name == null) {
+            return null;
         }
-        Object format = def.get("format");
-        if (format == null) {
-            return "{player}: {message}";
+        return lookup(name, table());
+    }
+
+    /**
+     * Get a channel by its dense id.
+     *
+     * @param id an id from {@link #getChannelId(String)}
+     * @return the definition, or null if no channel has the id
+     */
+    public ChannelDefinition getChannel(int id) {
+        ChannelTable current = table();
+        ChannelDefinition[] channels = current.channels;
+        if (id >= 0 && id < channels.length) {
+            return channels[id];
         }
-        return format.toString();
+        PartyChannels.Party party = parties.get(id - channels.length);
+        return party == null ? null : party.definition(channels.length, config.getPartyDisplayName());
+    }
+
+    /**
+     * Get the dense id of a channel. Configured channels take ids 0 to
+     * {@link #getChannelCount()} - 1 in name order and party channels the
+     * ids after them; ids may change on reload.
+     *
+     * @param name the channel name
+     * @return the id, or -1 if the channel does not exist
+     */
+    public int getChannelId(String name) {
+        ChannelDefinition definition = getChannel(name);
+        return definition == null ? -1 : definition.getId();
+    }
+
+    /**
+     * Number of configured channels.
+     */
+    public int getChannelCount() {
+        return table().channels.length;
+    }
+
+    /**
+     * Number of party channels that currently exist.
+     */
+    public int getPartyCount() {
+        return parties.size();
+    }
+
+    /**
+     * Get a party channel.
+     *
+     * @param name the party name
+     * @return the definition, or null if no party has the name
+     */
+    public ChannelDefinition getParty(String name) {
+        ChannelDefinition definition = getChannel(name);
+        return definition != null && definition.isParty() ? definition : null;
+    }
+
+    /**
+     * Create a party channel and move its creator into it.
+     * 创建组队频道并让创建者加入。
+     *
+     * @param creator the first member
+     * @param name    the party name
+     * @return the party, or null if a channel or party already has the name
+     */
+    public ChannelDefinition createParty(Player creator, String name) {
+        ChannelTable current = table();
+        if (current.byName.containsKey(name)) {
+            return null;
+        }
+        PartyChannels.Party party = parties.create(name);
+        if (party == null) {
+            return null;
+        }
+        setPlayerChannel(creator.getUniqueId(), name);
+        return party.definition(current.channels.length, config.getPartyDisplayName());
+    }
+
+    /**
+     * Invite a player to a party; the invitation lets them join it once.
+     * 邀请玩家加入组队频道。
+     *
+     * @param name     the party name
+     * @param playerId the invited player
+     * @return false if the party does not exist, the player is already a
+     *         member or was already invited
+     */
+    public boolean invite(String name, UUID playerId) {
+        PartyChannels.Party party = parties.get(name);
+        return party != null && party.invite(playerId);
+    }
+
+    /**
+     * Number of members of a party.
+     *
+     * @return the member count, or 0 if the party does not exist
+     */
+    public int getPartySize(String name) {
+        PartyChannels.Party party = parties.get(name);
+        return party == null ? 0 : party.size();
     }
 
     /**
@@ -89,54 +346,149 @@ public class ChannelService {
      */
     public Set<Player> filterRecipients(Player sender, Set<Player> recipients) {
         String senderChannel = getPlayerChannel(sender.getUniqueId());
-        Map<String, Object> def = getChannelDef(senderChannel);
+        ChannelTable current = table();
+        ChannelDefinition definition = lookup(senderChannel, current);
 
-        boolean crossWorld = true;
-        int range = -1;
+        // Unknown channels behave like an unlimited global channel
+        boolean crossWorld = definition == null || definition.isCrossWorld();
+        boolean ranged = definition != null && definition.isRanged();
 
-        if (def != null) {
-            Object crossWorldObj = def.get("cross-world");
-            if (crossWorldObj instanceof Boolean) {
-                crossWorld = (Boolean) crossWorldObj;
+        Set<Player> filtered = new HashSet<>();
+        String senderWorld = sender.getWorld().getName();
+
+        if (!ranged && definition != null) {
+            Set<Player> audience = audience(sender.getUniqueId(), senderWorld, senderChannel, definition, current);
+            if (audience != null) {
+                // Walk the smaller side; a party is usually far smaller than the server
+                boolean audienceSmaller = audience.size() < recipients.size();
+                for (Player recipient : audienceSmaller ? audience : recipients) {
+                    if ((audienceSmaller ? recipients : audience).contains(recipient)) {
+                        filtered.add(recipient);
+                    }
+                }
+                return filtered;
             }
-            Object rangeObj = def.get("range");
-            if (rangeObj instanceof Number) {
-                range = ((Number) rangeObj).intValue();
+        }
+
+        RecipientCheck check = new RecipientCheck(sender, senderChannel, definition, current);
+        Collection<Player> candidates = recipients;
+        boolean sameWorld = false;
+        if (!crossWorld || ranged) {
+            Map<UUID, Player> bucket = worldsSeeded ? worldPlayers.get(senderWorld) : null;
+            if (bucket != null && bucket.containsKey(sender.getUniqueId())) {
+                // Everyone in the bucket shares the sender's world
+                candidates = bucket.values();
+                sameWorld = true;
             }
         }
 
-        Set<Player> filtered = new HashSet<>();
-        Location senderLoc = sender.getLocation();
+        int threshold = config.getParallelThreshold();
+        if (threshold > 0 && candidates.size() >= threshold && filterThreads() > 1) {
+            return filterParallel(check, candidates, recipients, sameWorld);
+        }
+        for (Player recipient : candidates) {
+            if ((!sameWorld || recipients.contains(recipient)) && check.test(recipient, sameWorld)) {
+                filtered.add(recipient);
+            }
+        }
+        return filtered;
+    }
 
-        for (Player recipient : recipients) {
-            // Must be in the same channel
-            String recipientChannel = getPlayerChannel(recipient.getUniqueId());
-            if (!senderChannel.equals(recipientChannel)) {
-                continue;
+    /**
+     * Run the recipient checks for a large audience on the filter pool.
+     * <p>
+     * The candidates' ids, and where the channel needs them their worlds and
+     * locations, are copied to arrays first, so the event's set and the
+     * players are only read from this thread. Each worker marks its slice of
+     * a shared flag array, so the only merge is a final walk over the flags.
+     */
+    private Set<Player> filterParallel(RecipientCheck check, Collection<Player> candidates,
+                                       Set<Player> recipients, boolean sameWorld) {
+        List<Player> pending = new ArrayList<>(candidates.size());
+        for (Player candidate : candidates) {
+            if (!sameWorld || recipients.contains(candidate)) {
+                pending.add(candidate);
+            }
+        }
+        Player[] players = pending.toArray(new Player[0]);
+        UUID[] ids = new UUID[players.length];
+        String[] worlds = check.checkWorld && !sameWorld ? new String[players.length] : null;
+        Location[] locations = check.ranged ? new Location[players.length] : null;
+        for (int i = 0; i < players.length; i++) {
+            ids[i] = players[i].getUniqueId();
+            if (worlds != null) {
+                worlds[i] = players[i].getWorld().getName();
             }
+            if (locations != null) {
+                locations[i] = players[i].getLocation();
+            }
+        }
+        boolean[] keep = new boolean[players.length];
+        filterPool().invoke(new FilterTask(check, ids, worlds, locations, keep, 0, players.length));
 
-            // Cross-world check
-            if (!crossWorld) {
-                if (!sender.getWorld().getName().equals(recipient.getWorld().getName())) {
-                    continue;
-                }
+        Set<Player> filtered = new HashSet<>();
+        for (int i = 0; i < players.length; i++) {
+            if (keep[i]) {
+                filtered.add(players[i]);
             }
+        }
+        return filtered;
+    }
 
-            // Range check (only applies if range > 0 and same world)
-            if (range > 0) {
-                if (!sender.getWorld().getName().equals(recipient.getWorld().getName())) {
-                    continue;
-                }
-                double distance = senderLoc.distance(recipient.getLocation());
-                if (distance > range) {
-                    continue;
+    /**
+     * Threads for parallel filtering; with one, filtering stays on the chat thread.
+     */
+    private int filterThreads() {
+        return config.getParallelThreads() > 0
+                ? config.getParallelThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * The pool for parallel filtering, created on first use and replaced when
+     * a reload changes its size.
+     */
+    private ForkJoinPool filterPool() {
+        int threads = filterThreads();
+        ForkJoinPool pool = filterPool;
+        if (pool != null && pool.getParallelism() == threads) {
+            return pool;
+        }
+        synchronized (this) {
+            pool = filterPool;
+            if (pool == null || pool.getParallelism() != threads) {
+                if (pool != null) {
+                    pool.shutdown();
                 }
+                pool = new ForkJoinPool(threads, FILTER_THREADS, null, false);
+                filterPool = pool;
             }
-
-            filtered.add(recipient);
+            return pool;
         }
+    }
 
-        return filtered;
+    /**
+     * Get everyone who hears the sender's channel, for channels without a range.
+     * 获取发送者所在频道的全部收听者（仅限无范围频道）。
+     * <p>
+     * The set is immutable and shared by every message in the same channel
+     * and world until the next membership change. It may contain players
+     * that another plugin removed from an event, so callers keep only event
+     * recipients that are in it.
+     *
+     * @param sender the message sender
+     * @return the audience, or null when the channel is ranged or unknown or
+     *         players are not tracked yet, and recipients must be filtered
+     *         with {@link #filterRecipients(Player, Set)}
+     */
+    public Set<Player> getAudience(Player sender) {
+        String senderChannel = getPlayerChannel(sender.getUniqueId());
+        ChannelTable current = table();
+        ChannelDefinition definition = lookup(senderChannel, current);
+        if (definition == null || definition.isRanged()) {
+            return null;
+        }
+        return audience(sender.getUniqueId(), sender.getWorld().getName(), senderChannel, definition, current);
     }
 
     /**
@@ -144,37 +496,686 @@ public class ChannelService {
      * Empty or null permission means everyone can access.
      */
     public boolean hasChannelPermission(Player player, String channel) {
-        Map<String, Object> def = getChannelDef(channel);
-        if (def == null) {
+        ChannelDefinition definition = getChannel(channel);
+        if (definition == null) {
             return false;
         }
-        Object permission = def.get("permission");
-        if (permission == null || permission.toString().isEmpty()) {
+        if (definition.isParty()) {
+            PartyChannels.Party party = parties.get(channel);
+            return party != null && (party.isMember(player.getUniqueId()) || party.isInvited(player.getUniqueId()));
+        }
+        if (definition.getPermission() == null) {
             return true;
         }
-        return player.hasPermission(permission.toString());
+        return player.hasPermission(definition.getPermission());
     }
 
     /**
-     * Get the list of channels the player has permission to access.
+     * Check if a channel can be used from the player's current world.
+     * Channels without a {@code worlds} list are available everywhere.
+     */
+    public boolean isChannelInWorld(Player player, String channel) {
+        ChannelDefinition definition = getChannel(channel);
+        return definition != null && (!definition.isWorldBound()
+                || definition.isAvailableIn(player.getWorld().getName()));
+    }
+
+    /**
+     * Get the list of channels the player has permission to access from
+     * their current world, followed by the parties they belong to or are
+     * invited to.
+     *
+     * @return the channel names in table order, then the parties by name; the list is unmodifiable
      */
     public List<String> getAvailableChannels(Player player) {
-        List<String> available = new ArrayList<>();
-        if (config.getChannels() == null) {
-            return available;
+        List<String> configured = access(player).available;
+        List<String> joinable = joinableParties(player.getUniqueId());
+        if (joinable.isEmpty()) {
+            return configured;
+        }
+        List<String> all = new ArrayList<>(configured.size() + joinable.size());
+        all.addAll(configured);
+        all.addAll(joinable);
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Get the usable channels whose names start with a prefix, ignoring case.
+     * 按前缀（忽略大小写）补全玩家可用的频道名。
+     *
+     * @param player the player completing
+     * @param prefix the typed prefix; empty for all channels
+     * @return the matching names in case-insensitive order
+     */
+    public List<String> completeChannels(Player player, String prefix) {
+        String key = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        List<String> matches = access(player).complete(key);
+        List<String> joinable = joinableParties(player.getUniqueId());
+        if (joinable.isEmpty()) {
+            return matches;
         }
-        for (String channelName : config.getChannels().keySet()) {
-            if (hasChannelPermission(player, channelName)) {
-                available.add(channelName);
+        for (String name : joinable) {
+            if (name.toLowerCase(Locale.ROOT).startsWith(key)) {
+                matches.add(name);
             }
         }
-        return available;
+        matches.sort(Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT)));
+        return matches;
+    }
+
+    /**
+     * Parties the player is a member of or invited to, by name. Not cached
+     * with the channel list, since invitations change at any time.
+     */
+    private List<String> joinableParties(UUID playerId) {
+        if (parties.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>();
+        for (PartyChannels.Party party : parties.all()) {
+            if (party.isMember(playerId) || party.isInvited(playerId)) {
+                names.add(party.getName());
+            }
+        }
+        names.sort(Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT)));
+        return names;
+    }
+
+    /**
+     * Forget a player's cached channel list, so the next listing rechecks
+     * their permissions. Called on quit and world change, and by commands
+     * before a join attempt so a granted or revoked node shows up right away.
+     * 清除玩家缓存的可用频道列表。
+     */
+    public void invalidateAccess(UUID playerId) {
+        accessCache.remove(playerId);
     }
 
     /**
-     * Remove a player's channel assignment (cleanup on quit).
+     * Remove a player's channel assignment and world entry (cleanup on quit).
      */
     public void removePlayer(UUID playerId) {
-        playerChannels.remove(playerId);
+        String active = playerChannels.remove(playerId);
+        Set<String> subscribed = subscriptions.remove(playerId);
+        listenSets.remove(playerId);
+        invalidateAccess(playerId);
+        if (!parties.isEmpty()) {
+            if (active != null) {
+                leaveParty(playerId, active);
+            }
+            if (subscribed != null) {
+                for (String channel : subscribed) {
+                    leaveParty(playerId, channel);
+                }
+            }
+        }
+        String world = playerWorlds.remove(playerId);
+        if (world != null) {
+            Map<UUID, Player> bucket = worldPlayers.get(world);
+            if (bucket != null) {
+                bucket.remove(playerId);
+            }
+        }
+        touch(active != null ? active : config.getDefaultChannel());
+        if (subscribed != null) {
+            for (String channel : subscribed) {
+                touch(channel);
+            }
+        }
+    }
+
+    /**
+     * Record the player's current world after a join or world change and
+     * apply world-bound channels.
+     * 记录玩家所在世界并应用世界绑定频道。
+     * <p>
+     * A player whose channel is not available in the new world moves to a
+     * channel bound to that world, or to the default channel. A player in the
+     * default channel also moves into the new world's bound channel.
+     *
+     * @param player the player, already in the new world
+     * @return the channel the player was switched to, or null if unchanged
+     */
+    public String enterWorld(Player player) {
+        seedWorlds();
+        UUID playerId = player.getUniqueId();
+        String world = player.getWorld().getName();
+        String previous = playerWorlds.put(playerId, world);
+        if (previous != null && !previous.equals(world)) {
+            Map<UUID, Player> bucket = worldPlayers.get(previous);
+            if (bucket != null) {
+                bucket.remove(playerId);
+            }
+            invalidateAccess(playerId);
+        }
+        worldPlayers.computeIfAbsent(world, w -> new ConcurrentHashMap<>()).put(playerId, player);
+
+        String current = getPlayerChannel(playerId);
+        touch(current);
+        for (String channel : getSubscriptions(playerId)) {
+            touch(channel);
+        }
+        ChannelDefinition definition = getChannel(current);
+        ChannelDefinition bound = getWorldChannel(player, world);
+        String target = null;
+        if (definition != null && !definition.isAvailableIn(world)) {
+            target = bound != null ? bound.getName() : config.getDefaultChannel();
+        } else if (bound != null && current.equals(config.getDefaultChannel())) {
+            target = bound.getName();
+        }
+        if (target == null || target.equals(current)) {
+            return null;
+        }
+        setPlayerChannel(playerId, target);
+        return target;
+    }
+
+    /**
+     * The first channel bound to a world that the player may join.
+     */
+    private ChannelDefinition getWorldChannel(Player player, String world) {
+        for (ChannelDefinition definition : table().channels) {
+            if (definition.isWorldBound() && definition.isAvailableIn(world)
+                    && (definition.getPermission() == null || player.hasPermission(definition.getPermission()))) {
+                return definition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a player to a party they just switched to or subscribed to.
+     */
+    private void joinParty(UUID playerId, String channel) {
+        PartyChannels.Party party = parties.get(channel);
+        if (party != null) {
+            party.join(playerId);
+        }
+    }
+
+    /**
+     * Take a player out of a party they no longer speak in or listen to, and
+     * remove the party with its history if they were the last member.
+     */
+    private void leaveParty(UUID playerId, String channel) {
+        PartyChannels.Party party = parties.get(channel);
+        if (party == null || channel.equals(playerChannels.get(playerId))
+                || getSubscriptions(playerId).contains(channel)) {
+            return;
+        }
+        if (party.leave(playerId) && parties.remove(party)) {
+            // A later party of the same name caches its audience on its own object
+            channelChanges.remove(channel);
+            if (chatHistoryService != null) {
+                chatHistoryService.forget(channel);
+            }
+        }
+    }
+
+    /**
+     * Record a membership change in a channel, after the change was made, so
+     * its cached audiences are rebuilt on their next use.
+     */
+    private void touch(String channel) {
+        if (channel != null) {
+            channelChanges.merge(channel, membership.incrementAndGet(), Math::max);
+        }
+    }
+
+    /**
+     * Audiences of a channel built under a clock value below this are stale.
+     */
+    private long changedSince(String channel) {
+        Long changed = channelChanges.get(channel);
+        return changed == null ? allChanged : Math.max(allChanged, changed);
+    }
+
+    /**
+     * A configured channel, or failing that a party, by name.
+     */
+    private ChannelDefinition lookup(String name, ChannelTable current) {
+        ChannelDefinition definition = current.byName.get(name);
+        if (definition != null || parties.isEmpty()) {
+            return definition;
+        }
+        PartyChannels.Party party = parties.get(name);
+        return party == null ? null : party.definition(current.channels.length, config.getPartyDisplayName());
+    }
+
+    /**
+     * The players online in a party, cached until the next membership change
+     * in the party.
+     *
+     * @return the audience, or null if the party was removed meanwhile
+     */
+    private Set<Player> partyAudience(String channel) {
+        PartyChannels.Party party = parties.get(channel);
+        if (party == null) {
+            return null;
+        }
+        Set<Player> cached = party.audience(changedSince(channel));
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = membership.get();
+        Set<Player> players = new HashSet<>();
+        for (UUID memberId : party.getMembers()) {
+            Player member = online(memberId);
+            if (member != null) {
+                players.add(member);
+            }
+        }
+        Set<Player> shared = Collections.unmodifiableSet(players);
+        party.cacheAudience(stamp, shared);
+        return shared;
+    }
+
+    /**
+     * An online player from the world buckets, or from the server before
+     * the buckets are seeded.
+     */
+    private Player online(UUID playerId) {
+        String world = playerWorlds.get(playerId);
+        Map<UUID, Player> bucket = world == null ? null : worldPlayers.get(world);
+        Player player = bucket == null ? null : bucket.get(playerId);
+        return player != null ? player : Bukkit.getPlayer(playerId);
+    }
+
+    private boolean hears(UUID playerId, String channel, ChannelDefinition definition, ChannelTable current) {
+        if (definition == null) {
+            // Channels missing from the config have no id to test
+            return channel.equals(getPlayerChannel(playerId));
+        }
+        return listenSet(playerId, current).bits.get(definition.getId());
+    }
+
+    /**
+     * The cached audience of an unranged channel as heard from the sender's
+     * world, rebuilt from the world buckets when a membership change touched
+     * the channel since it was built. The clock is read before the buckets,
+     * and changes are recorded after they are made, so a change that races
+     * with the rebuild leaves the new entry already stale.
+     *
+     * @return the audience, or null if the sender is not tracked yet
+     */
+    private Set<Player> audience(UUID senderId, String senderWorld, String channel,
+                                 ChannelDefinition definition, ChannelTable current) {
+        if (definition.isParty()) {
+            return partyAudience(channel);
+        }
+        if (!worldsSeeded) {
+            return null;
+        }
+        Map<UUID, Player> bucket = worldPlayers.get(senderWorld);
+        if (bucket == null || !bucket.containsKey(senderId)) {
+            return null;
+        }
+        // Cross-world audiences are the same from every world
+        String key = definition.isCrossWorld() ? "" : senderWorld;
+        Map<String, Audience> cache = current.audiences[definition.getId()];
+        Audience cached = cache.get(key);
+        if (cached != null && cached.stamp >= changedSince(channel)) {
+            return cached.players;
+        }
+        long stamp = membership.get();
+        Set<Player> players = new HashSet<>();
+        Collection<Map<UUID, Player>> buckets = definition.isCrossWorld()
+                ? worldPlayers.values()
+                : Collections.singletonList(bucket);
+        for (Map<UUID, Player> members : buckets) {
+            for (Player player : members.values()) {
+                if (hears(player.getUniqueId(), channel, definition, current)) {
+                    players.add(player);
+                }
+            }
+        }
+        Set<Player> shared = Collections.unmodifiableSet(players);
+        cache.put(key, new Audience(stamp, shared));
+        return shared;
+    }
+
+    /**
+     * The player's cached listen set, rebuilt from channel names when the
+     * table, the active channel or the subscriptions changed since it was built.
+     */
+    private ListenSet listenSet(UUID playerId, ChannelTable current) {
+        String active = playerChannels.get(playerId);
+        Set<String> subscribed = subscriptions.get(playerId);
+        ListenSet cached = listenSets.get(playerId);
+        if (cached != null && cached.table == current && cached.active == active && cached.subscribed == subscribed) {
+            return cached;
+        }
+        BitSet bits = new BitSet(current.channels.length);
+        ChannelDefinition activeDefinition = lookup(active != null ? active : config.getDefaultChannel(), current);
+        if (activeDefinition != null) {
+            bits.set(activeDefinition.getId());
+        }
+        if (subscribed != null) {
+            for (String name : subscribed) {
+                ChannelDefinition definition = lookup(name, current);
+                if (definition != null) {
+                    bits.set(definition.getId());
+                }
+            }
+        }
+        ListenSet built = new ListenSet(current, active, subscribed, bits);
+        // Only cache assigned players, so lookups for strangers do not pile up
+        if (active != null) {
+            listenSets.put(playerId, built);
+        }
+        return built;
+    }
+
+    /**
+     * The player's cached channel list, rebuilt when the table or the
+     * player's world changed or the entry expired.
+     */
+    private ChannelAccess access(Player player) {
+        ChannelTable current = table();
+        String world = player.getWorld().getName();
+        long now = System.currentTimeMillis();
+        ChannelAccess cached = accessCache.get(player.getUniqueId());
+        if (cached != null && cached.table == current && cached.world.equals(world) && now < cached.expiresAt) {
+            return cached;
+        }
+        BitSet bits = new BitSet(current.channels.length);
+        for (ChannelDefinition definition : current.channels) {
+            if (canUse(player, definition)) {
+                bits.set(definition.getId());
+            }
+        }
+        long ttl = Math.max(0, config.getAccessCacheSeconds()) * 1000L;
+        ChannelAccess built = new ChannelAccess(current, world, now + ttl, bits);
+        if (ttl > 0) {
+            accessCache.put(player.getUniqueId(), built);
+        }
+        return built;
+    }
+
+    private boolean canUse(Player player, ChannelDefinition definition) {
+        if (definition.getPermission() != null && !player.hasPermission(definition.getPermission())) {
+            return false;
+        }
+        return !definition.isWorldBound() || definition.isAvailableIn(player.getWorld().getName());
+    }
+
+    /**
+     * Put players who were online before the first join or world change
+     * (e.g. after a plugin reload) into their world buckets.
+     */
+    private void seedWorlds() {
+        if (worldsSeeded) {
+            return;
+        }
+        synchronized (worldPlayers) {
+            if (worldsSeeded) {
+                return;
+            }
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                String world = online.getWorld().getName();
+                playerWorlds.putIfAbsent(online.getUniqueId(), world);
+                worldPlayers.computeIfAbsent(world, w -> new ConcurrentHashMap<>())
+                        .put(online.getUniqueId(), online);
+            }
+            worldsSeeded = true;
+            allChanged = membership.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the compiled channel table so the next lookup rebuilds it, and
+     * stop the filter pool so a reload does not keep its threads.
+     */
+    public void invalidate() {
+        table = null;
+        shutdown();
+    }
+
+    /**
+     * Stop the parallel filter pool; called on disable. A later large
+     * message creates it again.
+     * 停止并行过滤线程池（插件停用时调用）。
+     */
+    public void shutdown() {
+        ForkJoinPool pool;
+        synchronized (this) {
+            pool = filterPool;
+            filterPool = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private ChannelTable table() {
+        Map<String, Map<String, Object>> channels = config.getChannels();
+        ChannelTable current = table;
+        if (current != null && current.isCurrent(channels)) {
+            return current;
+        }
+        current = new ChannelTable(channels);
+        table = current;
+        return current;
+    }
+
+    /**
+     * Immutable compiled view of the channel map it was built from.
+     */
+    private static final class ChannelTable {
+        private final Map<String, Map<String, Object>> source;
+        private final int sourceSize;
+        private final ChannelDefinition[] channels;
+        private final Map<String, ChannelDefinition> byName;
+
+        /**
+         * Per channel id, the cached audiences keyed by world; "" for cross-world channels.
+         */
+        private final Map<String, Audience>[] audiences;
+
+        @SuppressWarnings("unchecked")
+        ChannelTable(Map<String, Map<String, Object>> source) {
+            this.source = source;
+            this.sourceSize = source == null ? 0 : source.size();
+            List<String> names = source == null ? new ArrayList<String>() : new ArrayList<>(source.keySet());
+            Collections.sort(names);
+            this.channels = new ChannelDefinition[names.size()];
+            this.byName = new HashMap<>(names.size() * 2);
+            this.audiences = new Map[names.size()];
+            for (int id = 0; id < channels.length; id++) {
+                String name = names.get(id);
+                channels[id] = ChannelDefinition.compile(id, name, source.get(name));
+                byName.put(name, channels[id]);
+                audiences[id] = new ConcurrentHashMap<>();
+            }
+        }
+
+        /**
+         * A reload swaps the map instance; direct map edits at least change its size.
+         */
+        boolean isCurrent(Map<String, Map<String, Object>> channels) {
+            return channels == source && (channels == null ? 0 : channels.size()) == sourceSize;
+        }
+    }
+
+    /**
+     * Whether one recipient hears a message, for one sender and channel.
+     * Read-only once built, so fork-join workers can share it.
+     */
+    private final class RecipientCheck {
+        private final String channel;
+        private final ChannelDefinition definition;
+        private final ChannelTable table;
+        private final boolean checkWorld;
+        private final boolean ranged;
+        private final double rangeSquared;
+        private final Location senderLoc;
+        private final String senderWorld;
+
+        RecipientCheck(Player sender, String channel, ChannelDefinition definition, ChannelTable table) {
+            this.channel = channel;
+            this.definition = definition;
+            this.table = table;
+            // Unknown channels behave like an unlimited global channel
+            this.ranged = definition != null && definition.isRanged();
+            this.checkWorld = ranged || (definition != null && !definition.isCrossWorld());
+            this.rangeSquared = ranged ? definition.getRangeSquared() : -1;
+            this.senderLoc = ranged ? sender.getLocation() : null;
+            this.senderWorld = sender.getWorld().getName();
+        }
+
+        /**
+         * @param sameWorld true if the recipient is known to share the sender's world
+         */
+        boolean test(Player recipient, boolean sameWorld) {
+            // Must be in or subscribed to the sender's channel
+            if (!hears(recipient.getUniqueId(), channel, definition, table)) {
+                return false;
+            }
+            if (checkWorld && !sameWorld && !senderWorld.equals(recipient.getWorld().getName())) {
+                return false;
+            }
+            // Range check (only applies if range > 0 and same world)
+            return !ranged || senderLoc.distanceSquared(recipient.getLocation()) <= rangeSquared;
+        }
+
+        /**
+         * The same check on state read beforehand, for pool threads.
+         *
+         * @param world    the recipient's world, or null when it need not be checked
+         * @param location the recipient's location, or null when the channel is not ranged
+         */
+        boolean test(UUID recipientId, String world, Location location) {
+            if (!hears(recipientId, channel, definition, table)) {
+                return false;
+            }
+            if (world != null && !senderWorld.equals(world)) {
+                return false;
+            }
+            return location == null || senderLoc.distanceSquared(location) <= rangeSquared;
+        }
+    }
+
+    /**
+     * Checks a slice of candidates, splitting it in half until it is small.
+     */
+    private static final class FilterTask extends RecursiveAction {
+        private final RecipientCheck check;
+        private final UUID[] ids;
+        private final String[] worlds;
+        private final Location[] locations;
+        private final boolean[] keep;
+        private final int from;
+        private final int to;
+
+        FilterTask(RecipientCheck check, UUID[] ids, String[] worlds, Location[] locations, boolean[] keep,
+                   int from, int to) {
+            this.check = check;
+            this.ids = ids;
+            this.worlds = worlds;
+            this.locations = locations;
+            this.keep = keep;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILTER_BATCH) {
+                for (int i = from; i < to; i++) {
+                    keep[i] = check.test(ids[i], worlds == null ? null : worlds[i],
+                            locations == null ? null : locations[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FilterTask(check, ids, worlds, locations, keep, from, middle),
+                    new FilterTask(check, ids, worlds, locations, keep, middle, to));
+        }
+    }
+
+    /**
+     * Everyone hearing an unranged channel in one world, with the membership
+     * clock value it was built under.
+     */
+    private static final class Audience {
+        private final long stamp;
+        private final Set<Player> players;
+
+        Audience(long stamp, Set<Player> players) {
+            this.stamp = stamp;
+            this.players = players;
+        }
+    }
+
+    /**
+     * Channel ids a player hears, with the table, active channel and
+     * subscription set they were computed from.
+     */
+    private static final class ListenSet {
+        private final ChannelTable table;
+        private final String active;
+        private final Set<String> subscribed;
+        private final BitSet bits;
+
+        ListenSet(ChannelTable table, String active, Set<String> subscribed, BitSet bits) {
+            this.table = table;
+            this.active = active;
+            this.subscribed = subscribed;
+            this.bits = bits;
+        }
+    }
+
+    /**
+     * Channels a player may use in one world, as table-ordered names and as
+     * lower-cased names sorted for prefix search.
+     */
+    private static final class ChannelAccess {
+        private final ChannelTable table;
+        private final String world;
+        private final long expiresAt;
+        private final BitSet bits;
+        private final List<String> available;
+        private final String[] sortedKeys;
+        private final String[] sortedNames;
+
+        ChannelAccess(ChannelTable table, String world, long expiresAt, BitSet bits) {
+            this.table = table;
+            this.world = world;
+            this.expiresAt = expiresAt;
+            this.bits = bits;
+            String[] names = new String[bits.cardinality()];
+            int count = 0;
+            for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+                names[count++] = table.channels[id].getName();
+            }
+            this.available = Collections.unmodifiableList(Arrays.asList(names));
+            // Sorted by the lower-cased key itself so binary search agrees with the order
+            String[] byKey = names.clone();
+            Arrays.sort(byKey, Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT)));
+            this.sortedNames = byKey;
+            this.sortedKeys = new String[byKey.length];
+            for (int i = 0; i < byKey.length; i++) {
+                sortedKeys[i] = byKey[i].toLowerCase(Locale.ROOT);
+            }
+        }
+
+        /**
+         * Names whose lower-cased form starts with {@code prefix}; they sit in
+         * one run starting at the prefix's insertion point.
+         */
+        List<String> complete(String prefix) {
+            if (prefix.isEmpty()) {
+                return new ArrayList<>(Arrays.asList(sortedNames));
+            }
+            int index = Arrays.binarySearch(sortedKeys, prefix);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            List<String> matches = new ArrayList<>();
+            while (index < sortedKeys.length && sortedKeys[index].startsWith(prefix)) {
+                matches.add(sortedNames[index++]);
+            }
+            return matches;
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.ultikits.plugins.chat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed-size ring of recent lines in one channel.
+ * 单个频道最近消息的定长环形缓冲。
+ * <p>
+ * Every array is allocated once: sender halves, timestamps and byte offsets
+ * live in parallel primitive arrays indexed by slot, and the UTF-8 text of
+ * all lines shares one circular byte arena. Appending copies the bytes in,
+ * wrapping around the end of the arena if needed, after evicting the oldest
+ * lines until both a slot and enough bytes are free. Entry objects are only
+ * created when lines are read back.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class ChatHistory {
+
+    private final long[] senderHigh;
+    private final long[] senderLow;
+    private final long[] times;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final byte[] data;
+
+    private int head;
+    private int count;
+    private int writePos;
+    private int usedBytes;
+
+    /**
+     * @param lines the number of lines kept at most
+     * @param bytes the size of the text arena
+     */
+    ChatHistory(int lines, int bytes) {
+        this.senderHigh = new long[lines];
+        this.senderLow = new long[lines];
+        this.times = new long[lines];
+        this.offsets = new int[lines];
+        this.lengths = new int[lines];
+        this.data = new byte[bytes];
+    }
+
+    int capacity() {
+        return offsets.length;
+    }
+
+    int byteCapacity() {
+        return data.length;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    synchronized int usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Append a line, evicting the oldest lines to make room.
+     *
+     * @param sender the sender, or null when unknown
+     * @param time   the epoch millisecond timestamp
+     * @param text   the UTF-8 text
+     * @return false if the line alone is larger than the arena
+     */
+    synchronized boolean append(UUID sender, long time, byte[] text) {
+        int length = text.length;
+        if (offsets.length == 0 || length > data.length) {
+            return false;
+        }
+        while (count == offsets.length || usedBytes + length > data.length) {
+            usedBytes -= lengths[head];
+            head = (head + 1) % offsets.length;
+            count--;
+        }
+
+        int slot = (head + count) % offsets.length;
+        senderHigh[slot] = sender == null ? 0 : sender.getMostSignificantBits();
+        senderLow[slot] = sender == null ? 0 : sender.getLeastSignificantBits();
+        times[slot] = time;
+        offsets[slot] = writePos;
+        lengths[slot] = length;
+
+        int first = Math.min(length, data.length - writePos);
+        System.arraycopy(text, 0, data, writePos, first);
+        System.arraycopy(text, first, data, 0, length - first);
+        writePos = (writePos + length) % data.length;
+        usedBytes += length;
+        count++;
+        return true;
+    }
+
+    /**
+     * The most recent lines, oldest first.
+     *
+     * @param limit the number of lines wanted
+     * @return up to {@code limit} entries
+     */
+    synchronized List<ChatHistoryEntry> tail(int limit) {
+        int n = Math.min(limit, count);
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        List<ChatHistoryEntry> entries = new ArrayList<>(n);
+        for (int i = count - n; i < count; i++) {
+            int slot = (head + i) % offsets.length;
+            UUID sender = senderHigh[slot] == 0 && senderLow[slot] == 0
+                    ? null
+                    : new UUID(senderHigh[slot], senderLow[slot]);
+            entries.add(new ChatHistoryEntry(sender, times[slot], text(slot)));
+        }
+        return entries;
+    }
+
+    /**
+     * Forget every line.
+     */
+    synchronized void clear() {
+        head = 0;
+        count = 0;
+        writePos = 0;
+        usedBytes = 0;
+    }
+
+    private String text(int slot) {
+        int offset = offsets[slot];
+        int length = lengths[slot];
+        if (offset + length <= data.length) {
+            return new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+        // The line wraps around the end of the arena
+        byte[] joined = new byte[length];
+        int first = data.length - offset;
+        System.arraycopy(data, offset, joined, 0, first);
+        System.arraycopy(data, 0, joined, first, length - first);
+        return new String(joined, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ultikits.plugins.chat.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * A line read back from channel history.
+ * 从频道历史中读取的一条消息。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class ChatHistoryEntry {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final UUID sender;
+    private final long timestamp;
+    private final String text;
+
+    public ChatHistoryEntry(UUID sender, long timestamp, String text) {
+        this.sender = sender;
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    /**
+     * The sender, or null for lines relayed from another server.
+     */
+    public UUID getSender() {
+        return sender;
+    }
+
+    /**
+     * When the line was recorded, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The line as players saw it.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * The server-local time of day the line was recorded.
+     */
+    public String formatTime() {
+        return TIME.format(Instant.ofEpochMilli(timestamp));
+    }
+}
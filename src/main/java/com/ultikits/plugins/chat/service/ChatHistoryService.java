@@ -0,0 +1,120 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.entity.Player;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the recent lines of each channel for {@code /ch history} and join replay.
+ * 保存各频道最近的聊天记录，用于 {@code /ch history} 和进服回放。
+ * <p>
+ * Each channel gets a {@link ChatHistory} of {@code history.lines} slots and
+ * {@code history.bytes} of text, allocated on its first line, so memory is
+ * bounded by the channel count whatever the chat volume. A reload that
+ * changes either size replaces the buffers on the next line.
+ * <p>
+ * History of a channel limited by range or world holds lines that most
+ * members never received, so it is only shown to players with
+ * {@code ultichat.history.ranged}.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class ChatHistoryService {
+
+    public static final String RANGED_PERMISSION = "ultichat.history.ranged";
+
+    private final ChannelConfig config;
+    private final Map<String, ChatHistory> histories = new ConcurrentHashMap<>();
+
+    public ChatHistoryService(ChannelConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Record a line shown in a channel.
+     * 记录频道中显示的一条消息。
+     *
+     * @param channel the channel name
+     * @param sender  the sender, or null when unknown
+     * @param line    the line as players saw it
+     */
+    public void record(String channel, UUID sender, String line) {
+        if (!config.isHistoryEnabled() || config.getHistoryLines() <= 0) {
+            return;
+        }
+        int lines = config.getHistoryLines();
+        int bytes = config.getHistoryBytes();
+        ChatHistory history = histories.compute(channel, (name, current) ->
+                current != null && current.capacity() == lines && current.byteCapacity() == bytes
+                        ? current
+                        : new ChatHistory(lines, bytes));
+        history.append(sender, System.currentTimeMillis(), line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The most recent lines of a channel, oldest first.
+     * 获取频道最近的消息，按时间先后排列。
+     *
+     * @param channel the channel name
+     * @param limit   the number of lines wanted
+     * @return up to {@code limit} entries
+     */
+    public List<ChatHistoryEntry> getRecent(String channel, int limit) {
+        ChatHistory history = histories.get(channel);
+        if (history == null || !config.isHistoryEnabled()) {
+            return Collections.emptyList();
+        }
+        return history.tail(limit);
+    }
+
+    /**
+     * Whether a player may read a channel's history.
+     * 判断玩家能否查看频道历史。
+     *
+     * @param player     the player
+     * @param definition the channel, or null if it does not exist
+     * @return true if the channel exists and its lines were not limited to nearby players
+     */
+    public boolean canView(Player player, ChannelDefinition definition) {
+        if (definition == null) {
+            return false;
+        }
+        boolean local = definition.isRanged() || !definition.isCrossWorld();
+        return !local || player.hasPermission(RANGED_PERMISSION);
+    }
+
+    /**
+     * Number of lines held for a channel.
+     */
+    public int getSize(String channel) {
+        ChatHistory history = histories.get(channel);
+        return history == null ? 0 : history.size();
+    }
+
+    /**
+     * Forget the history of one channel, e.g. a party that was removed.
+     * 清空单个频道的历史记录。
+     *
+     * @param channel the channel name
+     */
+    public void forget(String channel) {
+        histories.remove(channel);
+    }
+
+    /**
+     * Forget the history of every channel.
+     * 清空所有频道的历史记录。
+     */
+    public void clear() {
+        histories.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable chat preferences of one player.
+ * 玩家聊天偏好（不可变）。
+ * <p>
+ * Every change produces a new profile, so the write-behind queue can hold
+ * the latest value without copying and chat threads can read it without locks.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class ChatProfile {
+
+    /**
+     * Profile of a player who never changed anything: no saved channel,
+     * mentions and announcements on.
+     */
+    public static final ChatProfile DEFAULT = new ChatProfile(null, Collections.<String>emptySet(), true, true);
+
+    private final String channel;
+    private final Set<String> subscriptions;
+    private final boolean mentions;
+    private final boolean announcements;
+
+    public ChatProfile(String channel, Collection<String> subscriptions, boolean mentions, boolean announcements) {
+        this.channel = channel;
+        this.subscriptions = subscriptions == null || subscriptions.isEmpty()
+                ? Collections.<String>emptySet()
+                : Collections.unmodifiableSet(new LinkedHashSet<>(subscriptions));
+        this.mentions = mentions;
+        this.announcements = announcements;
+    }
+
+    /**
+     * The channel the player last chose, or null to use the default channel.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    public Set<String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * Whether the player hears a sound when mentioned.
+     */
+    public boolean isMentions() {
+        return mentions;
+    }
+
+    /**
+     * Whether the player receives scheduled announcements.
+     */
+    public boolean isAnnouncements() {
+        return announcements;
+    }
+
+    public ChatProfile withChannel(String channel) {
+        return new ChatProfile(channel, subscriptions, mentions, announcements);
+    }
+
+    public ChatProfile withSubscriptions(Collection<String> subscriptions) {
+        return new ChatProfile(channel, subscriptions, mentions, announcements);
+    }
+
+    public ChatProfile withMentions(boolean mentions) {
+        return new ChatProfile(channel, subscriptions, mentions, announcements);
+    }
+
+    public ChatProfile withAnnouncements(boolean announcements) {
+        return new ChatProfile(channel, subscriptions, mentions, announcements);
+    }
+}
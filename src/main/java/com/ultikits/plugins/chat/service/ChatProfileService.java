@@ -0,0 +1,234 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.ChatConfig;
+import com.ultikits.plugins.chat.entity.ChatProfileEntity;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.annotations.Service;
+import com.ultikits.ultitools.interfaces.DataOperator;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-player chat profiles with preloading and write-behind.
+ * 玩家聊天偏好：登录前预加载，修改后延迟批量写回。
+ * <p>
+ * Profiles are read from the UltiTools data store on the async pre-login
+ * thread and kept in memory while the player is online, so the join tick
+ * and chat threads never touch storage. Changes are queued per player, with
+ * later changes replacing earlier ones, and one asynchronous task per save
+ * window writes the whole batch. A quit flushes right away; a player who
+ * rejoins before that write finishes is loaded from the queue, not storage.
+ * Failed writes stay queued and are retried one save window later.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class ChatProfileService {
+
+    private static final String SEPARATOR = ",";
+
+    private final UltiToolsPlugin plugin;
+    private final ChatConfig config;
+
+    private final Map<UUID, ChatProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<UUID, ChatProfile> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object writeLock = new Object();
+
+    private volatile DataOperator<ChatProfileEntity> dataOperator;
+
+    public ChatProfileService(UltiToolsPlugin plugin, ChatConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+
+    /**
+     * Load a player's profile into memory. Call off the main thread.
+     * 预加载玩家偏好（应在异步线程调用）。
+     *
+     * @param playerId the player about to join
+     * @return the loaded profile
+     */
+    public ChatProfile preload(UUID playerId) {
+        ChatProfile profile = dirty.get(playerId);
+        if (profile == null) {
+            profile = read(playerId);
+        }
+        profiles.put(playerId, profile);
+        return profile;
+    }
+
+    /**
+     * Get an online player's profile from memory.
+     *
+     * @return the profile, or {@link ChatProfile#DEFAULT} if it was not preloaded
+     */
+    public ChatProfile get(UUID playerId) {
+        ChatProfile profile = profiles.get(playerId);
+        return profile == null ? ChatProfile.DEFAULT : profile;
+    }
+
+    /**
+     * Change a player's profile and queue it for writing.
+     * 修改玩家偏好并加入写回队列。
+     *
+     * @param playerId the player
+     * @param change   derives the new profile from the current one
+     * @return the new profile
+     */
+    public ChatProfile update(UUID playerId, UnaryOperator<ChatProfile> change) {
+        ChatProfile updated = profiles.compute(playerId,
+                (id, current) -> change.apply(current == null ? ChatProfile.DEFAULT : current));
+        dirty.put(playerId, updated);
+        scheduleFlush(Math.max(0, config.getProfileSaveDelay()) * 20L);
+        return updated;
+    }
+
+    /**
+     * Drop a player's profile from memory after they quit, writing any
+     * pending change right away.
+     * 玩家退出时移出内存，并立即写回未保存的修改。
+     */
+    public void unload(UUID playerId) {
+        profiles.remove(playerId);
+        if (dirty.containsKey(playerId)) {
+            scheduleFlush(0);
+        }
+    }
+
+    /**
+     * Write every queued profile now.
+     * 立即写回所有待保存的偏好。
+     *
+     * @return the number of profiles written
+     */
+    public int flush() {
+        // Clear the flag first so a change racing with this write schedules another one
+        flushScheduled.set(false);
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        int written = 0;
+        boolean failed = false;
+        synchronized (writeLock) {
+            for (Map.Entry<UUID, ChatProfile> entry : new ArrayList<>(dirty.entrySet())) {
+                try {
+                    write(entry.getKey(), entry.getValue());
+                } catch (Exception e) {
+                    // Left queued for the next flush
+                    plugin.getLogger().warn("Failed to save chat profile " + entry.getKey() + ": " + e.getMessage());
+                    failed = true;
+                    continue;
+                }
+                // A newer change stays queued
+                dirty.remove(entry.getKey(), entry.getValue());
+                written++;
+            }
+        }
+        if (failed) {
+            retryLater();
+        }
+        return written;
+    }
+
+    /**
+     * Number of profiles waiting to be written.
+     */
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    private void scheduleFlush(long delayTicks) {
+        boolean alreadyScheduled = !flushScheduled.compareAndSet(false, true);
+        // A quit does not wait for an already scheduled save window
+        if (alreadyScheduled && delayTicks > 0) {
+            return;
+        }
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        if (bukkitPlugin == null) {
+            // Fallback: write immediately if UltiTools is not available
+            flush();
+            return;
+        }
+        runLater(bukkitPlugin, delayTicks);
+    }
+
+    /**
+     * Schedule another flush after a failed write, one save window later.
+     */
+    private void retryLater() {
+        Plugin bukkitPlugin = Bukkit.getPluginManager().getPlugin("UltiTools");
+        // Without a scheduler, or while disabling, the next change retries instead
+        if (bukkitPlugin == null || !bukkitPlugin.isEnabled() || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        runLater(bukkitPlugin, Math.max(1, config.getProfileSaveDelay()) * 20L);
+    }
+
+    private void runLater(Plugin bukkitPlugin, long delayTicks) {
+        Bukkit.getScheduler().runTaskLaterAsynchronously(bukkitPlugin, new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, delayTicks);
+    }
+
+    private ChatProfile read(UUID playerId) {
+        try {
+            ChatProfileEntity entity = operator().getById(playerId.toString());
+            return entity == null ? ChatProfile.DEFAULT : toProfile(entity);
+        } catch (Exception e) {
+            plugin.getLogger().warn("Failed to load chat profile " + playerId + ": " + e.getMessage());
+            return ChatProfile.DEFAULT;
+        }
+    }
+
+    private void write(UUID playerId, ChatProfile profile) throws IllegalAccessException {
+        DataOperator<ChatProfileEntity> operator = operator();
+        ChatProfileEntity entity = toEntity(playerId, profile);
+        if (operator.exist(entity.getId())) {
+            operator.update(entity);
+        } else {
+            operator.insert(entity);
+        }
+    }
+
+    private DataOperator<ChatProfileEntity> operator() {
+        DataOperator<ChatProfileEntity> operator = dataOperator;
+        if (operator == null) {
+            operator = plugin.getDataOperator(ChatProfileEntity.class);
+            dataOperator = operator;
+        }
+        return operator;
+    }
+
+    static ChatProfile toProfile(ChatProfileEntity entity) {
+        List<String> subscriptions = new ArrayList<>();
+        if (entity.getSubscriptions() != null) {
+            for (String name : entity.getSubscriptions().split(SEPARATOR)) {
+                if (!name.trim().isEmpty()) {
+                    subscriptions.add(name.trim());
+                }
+            }
+        }
+        String channel = entity.getChannel() == null || entity.getChannel().isEmpty() ? null : entity.getChannel();
+        return new ChatProfile(channel, subscriptions, entity.isMentions(), entity.isAnnouncements());
+    }
+
+    static ChatProfileEntity toEntity(UUID playerId, ChatProfile profile) {
+        ChatProfileEntity entity = new ChatProfileEntity();
+        entity.setId(playerId.toString());
+        entity.setChannel(profile.getChannel() == null ? "" : profile.getChannel());
+        entity.setSubscriptions(String.join(SEPARATOR, profile.getSubscriptions()));
+        entity.setMentions(profile.isMentions());
+        entity.setAnnouncements(profile.isAnnouncements());
+        return entity;
+    }
+}
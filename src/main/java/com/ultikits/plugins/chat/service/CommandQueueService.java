@@ -0,0 +1,169 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.ultitools.annotations.Autowired;
+import com.ultikits.ultitools.annotations.Scheduled;
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded console command queue for auto-reply rule actions.
+ * 自动回复规则命令的有界队列。
+ * <p>
+ * Chat threads enqueue commands; a single repeating main-thread task dispatches
+ * at most {@code command-queue.per-tick} of them per tick. Batches that would
+ * exceed the queue capacity or the rule's per-minute cap are dropped and counted.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class CommandQueueService {
+
+    private static final long RATE_WINDOW_MS = 60_000L;
+
+    @Autowired
+    private AutoReplyConfig config;
+
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Map<String, RateWindow> ruleWindows = new ConcurrentHashMap<>();
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong droppedOverflow = new AtomicLong();
+    private final AtomicLong droppedRateLimited = new AtomicLong();
+
+    /**
+     * Enqueue the commands of a fired rule, replacing {player} up front so the
+     * main thread only has to dispatch.
+     * 将规则命令加入队列。整批命令要么全部入队，要么全部丢弃。
+     *
+     * @param ruleName   the rule that fired, used for the per-rule rate cap
+     * @param playerName the triggering player's name
+     * @param commands   the raw command lines
+     * @return true if the batch was queued, false if it was empty or dropped
+     */
+    public boolean submit(String ruleName, String playerName, List<String> commands) {
+        if (commands == null || commands.isEmpty()) {
+            return false;
+        }
+        int count = commands.size();
+
+        // Reserve queue space first, so a batch dropped for overflow does not use up the rule's rate
+        int capacity = Math.max(1, config.getCommandQueueCapacity());
+        if (size.addAndGet(count) > capacity) {
+            size.addAndGet(-count);
+            droppedOverflow.addAndGet(count);
+            return false;
+        }
+
+        if (!acquireRate(ruleName, count)) {
+            size.addAndGet(-count);
+            droppedRateLimited.addAndGet(count);
+            return false;
+        }
+
+        for (String cmd : commands) {
+            queue.offer(playerName == null ? cmd : cmd.replace("{player}", playerName));
+        }
+        return true;
+    }
+
+    /**
+     * Dispatch queued commands on the main thread within the per-tick budget.
+     * 在主线程按每tick预算执行队列中的命令。
+     */
+    @Scheduled(period = 1, async = false)
+    public void drain() {
+        int budget = Math.max(1, config.getCommandsPerTick());
+        CommandSender console = null;
+        for (int i = 0; i < budget; i++) {
+            String cmd = queue.poll();
+            if (cmd == null) {
+                return;
+            }
+            size.decrementAndGet();
+            if (console == null) {
+                console = Bukkit.getConsoleSender();
+            }
+            try {
+                Bukkit.dispatchCommand(console, cmd);
+                dispatched.incrementAndGet();
+            } catch (RuntimeException e) {
+                // A broken command must not stall the rest of the queue
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Forget the rate window of a rule (call when the rule is removed).
+     * 移除规则时清理其速率窗口。
+     *
+     * @param ruleName the rule name
+     */
+    public void forgetRule(String ruleName) {
+        if (ruleName != null) {
+            ruleWindows.remove(ruleName);
+        }
+    }
+
+    public int getPending() {
+        return size.get();
+    }
+
+    public long getDispatched() {
+        return dispatched.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getDroppedOverflow() {
+        return droppedOverflow.get();
+    }
+
+    public long getDroppedRateLimited() {
+        return droppedRateLimited.get();
+    }
+
+    private boolean acquireRate(String ruleName, int count) {
+        int limit = config.getCommandRuleRate();
+        if (limit <= 0 || ruleName == null) {
+            return true;
+        }
+        RateWindow window = ruleWindows.computeIfAbsent(ruleName, k -> new RateWindow());
+        return window.tryAcquire(count, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Fixed one-minute window counter for a single rule.
+     */
+    private static final class RateWindow {
+        private long windowStart;
+        private int used;
+
+        synchronized boolean tryAcquire(int count, int limit, long now) {
+            if (now - windowStart >= RATE_WINDOW_MS) {
+                windowStart = now;
+                used = 0;
+            }
+            if (used + count > limit) {
+                return false;
+            }
+            used += count;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bigram candidate filter and bounded edit-distance verifier for fuzzy rules.
+ * 模糊匹配规则的二元组候选过滤与有界编辑距离校验。
+ * <p>
+ * A keyword that occurs in a message with at most {@code k} edits keeps all
+ * but {@code 2k} of its distinct bigrams, so a rule only reaches the verifier
+ * when the message contains at least {@code distinctBigrams - 2k} of them.
+ * Counting is one posting-list walk per distinct message bigram; the verifier
+ * is Sellers' approximate substring search with Ukkonen's cutoff, so it only
+ * fills the cells that can still end within {@code k}.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class FuzzyIndex {
+
+    static final FuzzyIndex EMPTY = new FuzzyIndex(new AutoReplyRule[0]);
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final int size;
+    private final int[] thresholds;
+    private final boolean hasInsensitive;
+    private final boolean hasSensitive;
+    private final GramTable insensitive;
+    private final GramTable sensitive;
+
+    /**
+     * @param rules the fuzzy rules; {@code rules[i]} gets slot {@code i}
+     */
+    FuzzyIndex(AutoReplyRule[] rules) {
+        this.size = rules.length;
+        this.thresholds = new int[size];
+
+        GramTable.Builder lower = new GramTable.Builder();
+        GramTable.Builder raw = new GramTable.Builder();
+        boolean anyInsensitive = false;
+        boolean anySensitive = false;
+        for (int slot = 0; slot < size; slot++) {
+            AutoReplyRule rule = rules[slot];
+            int[] grams = distinctGrams(rule.getMatchKeyword());
+            thresholds[slot] = grams.length - 2 * rule.getMaxEdits();
+            GramTable.Builder target = rule.isCaseSensitive() ? raw : lower;
+            for (int gram : grams) {
+                target.add(gram, slot);
+            }
+            if (rule.isCaseSensitive()) {
+                anySensitive = true;
+            } else {
+                anyInsensitive = true;
+            }
+        }
+        this.hasInsensitive = anyInsensitive;
+        this.hasSensitive = anySensitive;
+        this.insensitive = lower.build();
+        this.sensitive = raw.build();
+    }
+
+    /**
+     * Number of fuzzy rules in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Mark the fuzzy rules whose bigram count makes a match possible.
+     *
+     * @param message      the raw message
+     * @param lowerMessage the lower-cased message
+     * @return candidate flags indexed by fuzzy slot
+     */
+    boolean[] candidates(String message, String lowerMessage) {
+        int[] counts = new int[size];
+        if (hasInsensitive) {
+            insensitive.count(distinctGrams(lowerMessage), counts);
+        }
+        if (hasSensitive) {
+            sensitive.count(distinctGrams(message), counts);
+        }
+        boolean[] result = new boolean[size];
+        for (int slot = 0; slot < size; slot++) {
+            result[slot] = counts[slot] >= thresholds[slot];
+        }
+        return result;
+    }
+
+    /**
+     * Whether some substring of {@code text} is within {@code k} edits of
+     * {@code pattern}.
+     *
+     * @param pattern the keyword
+     * @param text    the message
+     * @param k       maximum number of insertions, deletions and substitutions
+     * @return true if the keyword occurs approximately
+     */
+    static boolean containsWithin(String pattern, String text, int k) {
+        int m = pattern.length();
+        if (m <= k) {
+            return true;
+        }
+        if (k == 0) {
+            return text.contains(pattern);
+        }
+        if (text.length() < m - k) {
+            return false;
+        }
+
+        // col[i] = best distance of pattern[0..i) ending at the current text position
+        int[] col = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            col[i] = i;
+        }
+        // Rows above `last` are known to exceed k and are not computed
+        int last = k + 1;
+        for (int j = 0, n = text.length(); j < n; j++) {
+            char c = text.charAt(j);
+            int diag = 0;
+            int up = 0;
+            for (int i = 1; i <= last; i++) {
+                int left = col[i];
+                int value = pattern.charAt(i - 1) == c
+                        ? diag
+                        : 1 + Math.min(Math.min(diag, left), up);
+                diag = left;
+                col[i] = value;
+                up = value;
+            }
+            while (col[last] > k) {
+                last--;
+            }
+            if (last == m) {
+                return true;
+            }
+            last++;
+        }
+        return false;
+    }
+
+    /**
+     * Distinct bigrams of a string, packed as {@code (first << 16) | second}.
+     */
+    static int[] distinctGrams(String text) {
+        int n = text.length() - 1;
+        if (n <= 0) {
+            return NO_POSTINGS;
+        }
+        int[] grams = new int[n];
+        for (int i = 0; i < n; i++) {
+            grams[i] = (text.charAt(i) << 16) | text.charAt(i + 1);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < n; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == n ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Open-addressing map from bigram to the fuzzy slots containing it.
+     */
+    private static final class GramTable {
+        private final int[] keys;
+        private final int[][] postings;
+        private final int mask;
+
+        private GramTable(int[] keys, int[][] postings) {
+            this.keys = keys;
+            this.postings = postings;
+            this.mask = keys.length - 1;
+        }
+
+        void count(int[] grams, int[] counts) {
+            if (postings.length == 0) {
+                return;
+            }
+            for (int gram : grams) {
+                for (int slot : lookup(gram)) {
+                    counts[slot]++;
+                }
+            }
+        }
+
+        private int[] lookup(int gram) {
+            int index = mix(gram) & mask;
+            while (postings[index] != null) {
+                if (keys[index] == gram) {
+                    return postings[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return NO_POSTINGS;
+        }
+
+        private static int mix(int gram) {
+            int h = gram * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        static final class Builder {
+            private final Map<Integer, List<Integer>> postings = new HashMap<>();
+
+            void add(int gram, int slot) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(slot);
+            }
+
+            GramTable build() {
+                if (postings.isEmpty()) {
+                    return new GramTable(new int[0], new int[0][]);
+                }
+                int capacity = Integer.highestOneBit(postings.size() * 2 - 1) << 1;
+                int[] keys = new int[capacity];
+                int[][] values = new int[capacity][];
+                int mask = capacity - 1;
+                for (Map.Entry<Integer, List<Integer>> entry : postings.entrySet()) {
+                    int gram = entry.getKey();
+                    List<Integer> slots = entry.getValue();
+                    int[] array = new int[slots.size()];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = slots.get(i);
+                    }
+                    int index = mix(gram) & mask;
+                    while (values[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = gram;
+                    values[index] = array;
+                }
+                return new GramTable(keys, values);
+            }
+        }
+    }
+}
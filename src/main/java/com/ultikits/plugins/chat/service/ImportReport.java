@@ -0,0 +1,97 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk auto-reply rule import.
+ * 批量导入自动回复规则的结果。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public class ImportReport {
+
+    private final int imported;
+    private final int totalRules;
+    private final List<Failure> failures;
+    private final long parseNanos;
+    private final long validateNanos;
+    private final long compileNanos;
+
+    ImportReport(int imported, int totalRules, List<Failure> failures,
+                 long parseNanos, long validateNanos, long compileNanos) {
+        this.imported = imported;
+        this.totalRules = totalRules;
+        this.failures = Collections.unmodifiableList(failures);
+        this.parseNanos = parseNanos;
+        this.validateNanos = validateNanos;
+        this.compileNanos = compileNanos;
+    }
+
+    /**
+     * Rules accepted from the file.
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * Rules in the rule set after the import.
+     */
+    public int getTotalRules() {
+        return totalRules;
+    }
+
+    /**
+     * Rows that were rejected, in file order.
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getValidateNanos() {
+        return validateNanos;
+    }
+
+    /**
+     * Time taken to compile the new matchers and swap them in.
+     */
+    public long getCompileNanos() {
+        return compileNanos;
+    }
+
+    /**
+     * A rejected row.
+     */
+    public static class Failure {
+        private final int line;
+        private final String ruleName;
+        private final String reason;
+
+        Failure(int line, String ruleName, String reason) {
+            this.line = line;
+            this.ruleName = ruleName;
+            this.reason = reason;
+        }
+
+        /**
+         * Line of a CSV record, or the position of a YAML rule (1-based).
+         */
+        public int getLine() {
+            return line;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of testing a message against the auto-reply rules.
+ * 测试消息匹配自动回复规则的结果。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public class MatchReport {
+
+    private final List<String> matches;
+    private final String winner;
+    private final long matchNanos;
+
+    MatchReport(List<String> matches, String winner, long matchNanos) {
+        this.matches = Collections.unmodifiableList(matches);
+        this.winner = winner;
+        this.matchNanos = matchNanos;
+    }
+
+    /**
+     * Every rule that matches on its own, in rule order.
+     */
+    public List<String> getMatches() {
+        return matches;
+    }
+
+    /**
+     * The rule a chat message would trigger, or null if none.
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * Time taken to find the winner, as a chat message would.
+     */
+    public long getMatchNanos() {
+        return matchNanos;
+    }
+}
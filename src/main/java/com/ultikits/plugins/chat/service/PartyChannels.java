@@ -0,0 +1,229 @@
+package com.ultikits.plugins.chat.service;
+
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registry of the party channels players created with {@code /ch create}.
+ * 玩家通过 {@code /ch create} 创建的组队频道登记表。
+ * <p>
+ * Parties continue the dense id space of the configured channels: the party
+ * in slot {@code s} has id {@code base + s}, where the base is the number of
+ * configured channels. A removed party's slot goes to the next party
+ * created, so ids never run past the most parties that existed at once.
+ * Every party holds its own members, so joining, leaving and building its
+ * audience only touch those members.
+ * <p>
+ * Parties are created and removed on the main thread; chat threads only read.
+ * A party is closed when its last member leaves and cannot be joined again.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class PartyChannels {
+
+    private static final int INITIAL_SLOTS = 16;
+
+    private final Map<String, Party> byName = new ConcurrentHashMap<>();
+    private volatile AtomicReferenceArray<Party> slots = new AtomicReferenceArray<>(INITIAL_SLOTS);
+
+    // Guarded by this
+    private int[] free = new int[INITIAL_SLOTS];
+    private int freeCount;
+    private int nextSlot;
+
+    /**
+     * Register a new party, reusing the most recently freed slot.
+     *
+     * @param name the party name
+     * @return the party, or null if the name is taken
+     */
+    synchronized Party create(String name) {
+        if (byName.containsKey(name)) {
+            return null;
+        }
+        int slot = freeCount > 0 ? free[--freeCount] : nextSlot++;
+        AtomicReferenceArray<Party> current = slots;
+        if (slot >= current.length()) {
+            AtomicReferenceArray<Party> grown = new AtomicReferenceArray<>(current.length() * 2);
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            slots = grown;
+            current = grown;
+        }
+        Party party = new Party(name, slot);
+        current.set(slot, party);
+        byName.put(name, party);
+        return party;
+    }
+
+    /**
+     * Unregister a closed party and free its slot.
+     *
+     * @return false if the party was already removed
+     */
+    synchronized boolean remove(Party party) {
+        if (!byName.remove(party.name, party)) {
+            return false;
+        }
+        slots.set(party.slot, null);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = party.slot;
+        return true;
+    }
+
+    Party get(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    /**
+     * @param slot an id minus the base
+     * @return the party, or null if the slot is empty or out of range
+     */
+    Party get(int slot) {
+        AtomicReferenceArray<Party> current = slots;
+        return slot >= 0 && slot < current.length() ? current.get(slot) : null;
+    }
+
+    /**
+     * Every registered party, as a live view.
+     */
+    Collection<Party> all() {
+        return byName.values();
+    }
+
+    int size() {
+        return byName.size();
+    }
+
+    boolean isEmpty() {
+        return byName.isEmpty();
+    }
+
+    /**
+     * One party: its members, pending invitations and cached compiled forms.
+     */
+    static final class Party {
+        private final String name;
+        private final int slot;
+        private final Set<UUID> members = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> invited = ConcurrentHashMap.newKeySet();
+        private boolean closed;
+        private volatile ChannelDefinition definition;
+        private volatile String displayName;
+        private volatile Snapshot audience;
+
+        Party(String name, int slot) {
+            this.name = name;
+            this.slot = slot;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getSlot() {
+            return slot;
+        }
+
+        /**
+         * Add a member, using up their invitation.
+         *
+         * @return false if the party already closed
+         */
+        synchronized boolean join(UUID playerId) {
+            if (closed) {
+                return false;
+            }
+            members.add(playerId);
+            invited.remove(playerId);
+            return true;
+        }
+
+        /**
+         * Remove a member, closing the party when it was the last one.
+         *
+         * @return true if the party closed and should be unregistered
+         */
+        synchronized boolean leave(UUID playerId) {
+            if (closed || !members.remove(playerId) || !members.isEmpty()) {
+                return false;
+            }
+            closed = true;
+            invited.clear();
+            return true;
+        }
+
+        /**
+         * @return false if the player is already a member or the party closed
+         */
+        synchronized boolean invite(UUID playerId) {
+            return !closed && !members.contains(playerId) && invited.add(playerId);
+        }
+
+        boolean isMember(UUID playerId) {
+            return members.contains(playerId);
+        }
+
+        boolean isInvited(UUID playerId) {
+            return invited.contains(playerId);
+        }
+
+        Set<UUID> getMembers() {
+            return members;
+        }
+
+        int size() {
+            return members.size();
+        }
+
+        /**
+         * The compiled channel, recompiled when a reload changed the base or
+         * the display name template.
+         */
+        ChannelDefinition definition(int base, String template) {
+            ChannelDefinition current = definition;
+            if (current != null && current.getId() == base + slot && template.equals(displayName)) {
+                return current;
+            }
+            current = ChannelDefinition.party(base + slot, name, template);
+            // Published first, so a reader that sees the template also sees its definition
+            definition = current;
+            displayName = template;
+            return current;
+        }
+
+        /**
+         * @param since the clock value of the party's last membership change
+         * @return the cached audience if it was built at or after {@code since}, else null
+         */
+        Set<Player> audience(long since) {
+            Snapshot current = audience;
+            return current != null && current.stamp >= since ? current.players : null;
+        }
+
+        void cacheAudience(long stamp, Set<Player> players) {
+            audience = new Snapshot(stamp, players);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long stamp;
+        private final Set<Player> players;
+
+        Snapshot(long stamp, Set<Player> players) {
+            this.stamp = stamp;
+            this.players = players;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.ultitools.annotations.Service;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks who has already seen a broadcast-once auto-reply.
+ * 记录已看到"只广播一次"自动回复的玩家。
+ * <p>
+ * For each rule, every player the answer was sent to is remembered until the
+ * window expires. A trigger from such a player is suppressed, and a new
+ * broadcast skips everyone who still remembers the previous one. A removed
+ * rule is forgotten with its entries, and a player who quits is forgotten
+ * in every rule.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@Service
+public class ReplyBroadcastService {
+
+    private final Map<String, Map<UUID, Long>> seenUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Decide who should receive a broadcast-once answer and mark them as having
+     * seen it.
+     * 计算需要接收回复的玩家并记录其已看到。
+     *
+     * @param ruleName the rule that fired
+     * @param sender   the player who triggered it
+     * @param audience everyone who can see the answer (the sender's channel or all players)
+     * @param windowMs how long a seen answer suppresses identical triggers
+     * @return the players to send the answer to; empty if the sender has already seen it
+     */
+    public List<Player> claim(String ruleName, Player sender, Collection<? extends Player> audience, long windowMs) {
+        Map<UUID, Long> seen = seenUntil.computeIfAbsent(ruleName, k -> new HashMap<>());
+        long now = System.currentTimeMillis();
+
+        // Concurrent triggers of the same rule must agree on who answers
+        synchronized (seen) {
+            Long senderUntil = seen.get(sender.getUniqueId());
+            if (senderUntil != null && senderUntil > now) {
+                return Collections.emptyList();
+            }
+
+            seen.values().removeIf(until -> until <= now);
+
+            long until = now + windowMs;
+            List<Player> targets = new ArrayList<>(audience.size() + 1);
+            if (!seen.containsKey(sender.getUniqueId())) {
+                seen.put(sender.getUniqueId(), until);
+                targets.add(sender);
+            }
+            for (Player player : audience) {
+                if (!seen.containsKey(player.getUniqueId())) {
+                    seen.put(player.getUniqueId(), until);
+                    targets.add(player);
+                }
+            }
+            return targets;
+        }
+    }
+
+    /**
+     * Forget who has seen a rule's answer; call when the rule is removed.
+     * 规则被删除时清除其记录。
+     *
+     * @param ruleName the removed rule
+     */
+    public void forgetRule(String ruleName) {
+        seenUntil.remove(ruleName);
+    }
+
+    /**
+     * Forget a player who quit, along with any expired entries.
+     * 玩家退出时清除其记录，并顺带清理过期项。
+     *
+     * @param playerId the player
+     */
+    public void forgetPlayer(UUID playerId) {
+        long now = System.currentTimeMillis();
+        for (Map<UUID, Long> seen : seenUntil.values()) {
+            synchronized (seen) {
+                seen.remove(playerId);
+                seen.values().removeIf(until -> until <= now);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ultikits.plugins.chat.service;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An auto-reply response compiled once per rule set.
+ * 预编译的自动回复内容模板。
+ * <p>
+ * Colour codes are translated at compile time and each line is split around
+ * its {@code {player}} slots, so rendering a line is a single concatenation.
+ * Lines containing {@code %...%} tokens are flagged for PlaceholderAPI.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class ResponseTemplate {
+
+    public static final ResponseTemplate EMPTY = new ResponseTemplate(new String[0][], false);
+
+    private static final String PLAYER_SLOT = "{player}";
+
+    /**
+     * Per line, the literal parts between {@code {player}} slots.
+     */
+    private final String[][] lines;
+    private final boolean placeholders;
+
+    private ResponseTemplate(String[][] lines, boolean placeholders) {
+        this.lines = lines;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compile a rule response.
+     * 编译规则回复内容。
+     *
+     * @param response a String, a List of lines, or null
+     * @return the compiled template, {@link #EMPTY} for null
+     */
+    public static ResponseTemplate compile(Object response) {
+        List<String> raw = new ArrayList<>();
+        if (response instanceof List) {
+            for (Object line : (List<?>) response) {
+                raw.add(String.valueOf(line));
+            }
+        } else if (response != null) {
+            raw.add(response.toString());
+        }
+        if (raw.isEmpty()) {
+            return EMPTY;
+        }
+
+        String[][] lines = new String[raw.size()][];
+        boolean placeholders = false;
+        for (int i = 0; i < lines.length; i++) {
+            String line = ChatColor.translateAlternateColorCodes('&', raw.get(i));
+            lines[i] = split(line);
+            placeholders |= hasPlaceholderToken(line);
+        }
+        return new ResponseTemplate(lines, placeholders);
+    }
+
+    /**
+     * Render every line for a player.
+     *
+     * @param playerName the value of {@code {player}}
+     * @return the rendered lines
+     */
+    public List<String> render(String playerName) {
+        if (lines.length == 0) {
+            return Collections.emptyList();
+        }
+        List<String> rendered = new ArrayList<>(lines.length);
+        for (String[] parts : lines) {
+            rendered.add(renderLine(parts, playerName));
+        }
+        return rendered;
+    }
+
+    /**
+     * Whether any line contains a {@code %...%} PlaceholderAPI token.
+     */
+    public boolean hasPlaceholders() {
+        return placeholders;
+    }
+
+    public boolean isEmpty() {
+        return lines.length == 0;
+    }
+
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    private static String renderLine(String[] parts, String playerName) {
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        int length = playerName.length() * (parts.length - 1);
+        for (String part : parts) {
+            length += part.length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            builder.append(playerName).append(parts[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String[] split(String line) {
+        int index = line.indexOf(PLAYER_SLOT);
+        if (index < 0) {
+            return new String[]{line};
+        }
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (index >= 0) {
+            parts.add(line.substring(start, index));
+            start = index + PLAYER_SLOT.length();
+            index = line.indexOf(PLAYER_SLOT, start);
+        }
+        parts.add(line.substring(start));
+        return parts.toArray(new String[0]);
+    }
+
+    /**
+     * A token is {@code %name%} with a non-empty name free of whitespace, so
+     * "100% sure, 50% off" is not mistaken for one.
+     */
+    private static boolean hasPlaceholderToken(String line) {
+        int open = line.indexOf('%');
+        while (open >= 0) {
+            int close = line.indexOf('%', open + 1);
+            if (close < 0) {
+                return false;
+            }
+            if (close > open + 1 && !containsWhitespace(line, open + 1, close)) {
+                return true;
+            }
+            open = close;
+        }
+        return false;
+    }
+
+    private static boolean containsWhitespace(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ultikits.plugins.chat.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming CSV reader and writer for auto-reply rules.
+ * 自动回复规则的流式 CSV 读写。
+ * <p>
+ * The first record is a header naming the rule keys, with {@code name} for
+ * the rule name. Fields follow RFC 4180 (quotes, doubled quotes, line breaks
+ * inside quotes). List values such as multi-line responses, channels,
+ * examples and commands are joined with {@code |}. Records are read one at a
+ * time, so a large sheet is never held as text in memory.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class RuleCsv {
+
+    static final String NAME_COLUMN = "name";
+
+    /**
+     * Columns written on export, in order. Other keys of a rule are appended.
+     */
+    static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+            NAME_COLUMN, "keyword", "mode", "response", "case-sensitive", "permission", "cooldown",
+            "channels", "examples", "threshold", "max-edits", "broadcast", "broadcast-window", "commands"));
+
+    private static final Set<String> LIST_KEYS = new HashSet<>(Arrays.asList(
+            "channels", "examples", "commands"));
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LIST_SEPARATOR = "|";
+
+    private RuleCsv() {
+    }
+
+    /**
+     * Reads records from a CSV stream.
+     */
+    static final class RecordReader {
+        private final Reader reader;
+        private int line = 1;
+        private int recordLine;
+        private int peeked = -2;
+
+        RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * The line the last record started on.
+         */
+        int getLine() {
+            return recordLine;
+        }
+
+        /**
+         * Read the next record.
+         *
+         * @return the fields, or null at the end of the stream
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            // Skip blank lines between records
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IOException("Unterminated quote in record starting on line " + recordLine);
+                    }
+                    if (c == QUOTE) {
+                        int following = read();
+                        if (following == QUOTE) {
+                            field.append(QUOTE);
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == QUOTE && field.length() == 0) {
+                    quoted = true;
+                } else if (c == SEPARATOR) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c < 0) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (peeked != -2) {
+                c = peeked;
+                peeked = -2;
+            } else {
+                c = reader.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private void unread(int c) {
+            if (c == '\n') {
+                line--;
+            }
+            peeked = c;
+        }
+    }
+
+    /**
+     * Build a rule map from a record, using the (lower-cased) header as keys.
+     * Empty cells are left out.
+     *
+     * @param header the header record
+     * @param record the data record
+     * @return the rule name and rule map
+     */
+    static Map.Entry<String, Map<String, Object>> toRule(List<String> header, List<String> record) {
+        String name = null;
+        Map<String, Object> rule = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < record.size(); i++) {
+            String key = header.get(i);
+            String value = record.get(i);
+            if (key.isEmpty() || value.isEmpty()) {
+                continue;
+            }
+            if (NAME_COLUMN.equals(key)) {
+                name = value.trim();
+            } else if (LIST_KEYS.contains(key)) {
+                rule.put(key, split(value));
+            } else if ("response".equals(key)) {
+                List<String> lines = split(value);
+                rule.put(key, lines.size() == 1 ? lines.get(0) : lines);
+            } else if ("case-sensitive".equals(key)) {
+                rule.put(key, Boolean.parseBoolean(value.trim()));
+            } else {
+                rule.put(key, value);
+            }
+        }
+        return new AbstractMap.SimpleImmutableEntry<>(name, rule);
+    }
+
+    /**
+     * Write the header for the given rules: the standard columns followed by
+     * any other keys they use.
+     *
+     * @return the header written
+     */
+    static List<String> writeHeader(Writer writer, Map<String, Map<String, Object>> rules) throws IOException {
+        List<String> header = new ArrayList<>(COLUMNS);
+        Set<String> known = new HashSet<>(COLUMNS);
+        for (Map<String, Object> rule : rules.values()) {
+            for (String key : rule.keySet()) {
+                if (known.add(key)) {
+                    header.add(key);
+                }
+            }
+        }
+        writeRecord(writer, header);
+        return header;
+    }
+
+    /**
+     * Write one rule as a record in header order.
+     */
+    static void writeRule(Writer writer, List<String> header, String name, Map<String, Object> rule)
+            throws IOException {
+        List<String> record = new ArrayList<>(header.size());
+        for (String key : header) {
+            Object value = NAME_COLUMN.equals(key) ? name : rule.get(key);
+            record.add(format(value));
+        }
+        writeRecord(writer, record);
+    }
+
+    private static void writeRecord(Writer writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            writer.write(quote(fields.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof List) {
+            StringBuilder joined = new StringBuilder();
+            for (Object item : (List<?>) value) {
+                if (joined.length() > 0) {
+                    joined.append(LIST_SEPARATOR);
+                }
+                joined.append(item);
+            }
+            return joined.toString();
+        }
+        return value.toString();
+    }
+
+    private static String quote(String field) {
+        boolean needsQuotes = field.indexOf(SEPARATOR) >= 0 || field.indexOf(QUOTE) >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return field;
+        }
+        return QUOTE + field.replace("\"", "\"\"") + QUOTE;
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split("\\|")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed);
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled first-match matcher over one channel's auto-reply rules.
+ * 单个频道自动回复规则的编译匹配器。
+ * <p>
+ * Holds the rules in order together with the fuzzy and semantic indexes built
+ * from just those rules, so matching a message costs in proportion to the
+ * rules of the channel it was sent in.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class RuleMatcher {
+
+    static final RuleMatcher EMPTY = new RuleMatcher(Collections.<AutoReplyRule>emptyList());
+
+    private static final int NOT_SCORED = -2;
+
+    private final AutoReplyRule[] rules;
+    /**
+     * Per rule, its slot in the fuzzy or semantic index, or -1.
+     */
+    private final int[] slots;
+    private final boolean[] semanticRules;
+    private final FuzzyIndex fuzzy;
+    private final SemanticIndex semantic;
+
+    RuleMatcher(List<AutoReplyRule> rules) {
+        this.rules = rules.toArray(new AutoReplyRule[0]);
+        this.slots = new int[this.rules.length];
+        this.semanticRules = new boolean[this.rules.length];
+
+        List<AutoReplyRule> fuzzyRules = new ArrayList<>();
+        List<List<String>> documents = new ArrayList<>();
+        List<Double> thresholds = new ArrayList<>();
+        for (int i = 0; i < this.rules.length; i++) {
+            AutoReplyRule rule = this.rules[i];
+            if ("fuzzy".equals(rule.getMode())) {
+                slots[i] = fuzzyRules.size();
+                fuzzyRules.add(rule);
+            } else if ("semantic".equals(rule.getMode())) {
+                slots[i] = documents.size();
+                semanticRules[i] = true;
+                documents.add(rule.getExamples());
+                thresholds.add(rule.getThreshold());
+            } else {
+                slots[i] = -1;
+            }
+        }
+
+        this.fuzzy = fuzzyRules.isEmpty()
+                ? FuzzyIndex.EMPTY
+                : new FuzzyIndex(fuzzyRules.toArray(new AutoReplyRule[0]));
+        if (documents.isEmpty()) {
+            this.semantic = SemanticIndex.EMPTY;
+        } else {
+            double[] thresholdArray = new double[thresholds.size()];
+            for (int i = 0; i < thresholdArray.length; i++) {
+                thresholdArray[i] = thresholds.get(i);
+            }
+            this.semantic = new SemanticIndex(documents, thresholdArray);
+        }
+    }
+
+    /**
+     * Number of rules in the matcher.
+     */
+    int size() {
+        return rules.length;
+    }
+
+    /**
+     * First rule in order that matches; semantic rules only win as the best
+     * scoring one.
+     *
+     * @param message      the raw message
+     * @param lowerMessage the lower-cased message
+     * @param timing       whether to record the evaluation time of each rule
+     * @param record       whether to record the hit
+     * @return the winning rule, or null
+     */
+    AutoReplyRule match(String message, String lowerMessage, boolean timing, boolean record) {
+        boolean[] fuzzyCandidates = null;
+        int semanticWinner = NOT_SCORED;
+
+        for (int i = 0; i < rules.length; i++) {
+            AutoReplyRule rule = rules[i];
+            int slot = slots[i];
+            if (semanticRules[i]) {
+                // One scoring pass picks the best semantic rule; its cost is
+                // charged to the first semantic rule reached
+                if (semanticWinner == NOT_SCORED) {
+                    long start = timing ? System.nanoTime() : 0L;
+                    semanticWinner = semantic.bestMatch(lowerMessage);
+                    if (timing) {
+                        rule.getStats().recordEvaluation(System.nanoTime() - start);
+                    }
+                }
+                if (slot == semanticWinner) {
+                    return hit(rule, record);
+                }
+                continue;
+            }
+            if (slot >= 0) {
+                // One bigram pass decides which fuzzy rules are worth verifying
+                if (fuzzyCandidates == null) {
+                    fuzzyCandidates = fuzzy.candidates(message, lowerMessage);
+                }
+                if (!fuzzyCandidates[slot]) {
+                    continue;
+                }
+            }
+
+            boolean hit;
+            if (timing) {
+                long start = System.nanoTime();
+                hit = rule.matches(message, lowerMessage);
+                rule.getStats().recordEvaluation(System.nanoTime() - start);
+            } else {
+                hit = rule.matches(message, lowerMessage);
+            }
+            if (hit) {
+                return hit(rule, record);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Every rule that matches on its own, in rule order. Semantic rules match
+     * at or above their threshold.
+     *
+     * @param message      the raw message
+     * @param lowerMessage the lower-cased message
+     * @return the names of the matching rules
+     */
+    List<String> matchAll(String message, String lowerMessage) {
+        List<String> matches = new ArrayList<>();
+        double[] semanticScores = null;
+        for (int i = 0; i < rules.length; i++) {
+            AutoReplyRule rule = rules[i];
+            boolean hit;
+            if (semanticRules[i]) {
+                if (semanticScores == null) {
+                    semanticScores = semantic.score(lowerMessage);
+                }
+                hit = semanticScores[slots[i]] >= semantic.threshold(slots[i]);
+            } else {
+                hit = rule.matches(message, lowerMessage);
+            }
+            if (hit) {
+                matches.add(rule.getName());
+            }
+        }
+        return matches;
+    }
+
+    private static AutoReplyRule hit(AutoReplyRule rule, boolean record) {
+        if (record) {
+            rule.getStats().recordHit(System.currentTimeMillis());
+        }
+        return rule;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Sorted index over rule names and keywords for listing and prefix search.
+ * 规则名与关键词的有序索引，用于分页列出与前缀搜索。
+ * <p>
+ * Names are kept in case-insensitive order so a page is an array slice.
+ * Lower-cased names and keywords are kept in a second sorted array, so a
+ * prefix search is a binary search followed by a scan of the matching run.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class RuleNameIndex {
+
+    static final RuleNameIndex EMPTY = new RuleNameIndex(Collections.<String, Map<String, Object>>emptyMap());
+
+    private final String[] names;
+    private final String[] keys;
+    private final String[] owners;
+
+    RuleNameIndex(Map<String, Map<String, Object>> rules) {
+        this.names = rules.keySet().toArray(new String[0]);
+        Arrays.sort(names, RuleNameIndex::compareNames);
+
+        Entry[] entries = new Entry[names.length * 2];
+        int count = 0;
+        for (Map.Entry<String, Map<String, Object>> rule : rules.entrySet()) {
+            String name = rule.getKey();
+            entries[count++] = new Entry(name.toLowerCase(), name);
+            Object keyword = rule.getValue() == null ? null : rule.getValue().get("keyword");
+            if (keyword != null && !keyword.toString().equalsIgnoreCase(name)) {
+                entries[count++] = new Entry(keyword.toString().toLowerCase(), name);
+            }
+        }
+        Arrays.sort(entries, 0, count, (a, b) -> a.key.compareTo(b.key));
+
+        this.keys = new String[count];
+        this.owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = entries[i].key;
+            owners[i] = entries[i].owner;
+        }
+    }
+
+    /**
+     * Number of rules in the index.
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Rule names in sorted order.
+     *
+     * @param offset index of the first name
+     * @param limit  maximum number of names
+     * @return the slice, empty if the offset is past the end
+     */
+    List<String> names(int offset, int limit) {
+        if (offset < 0 || offset >= names.length || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min((long) offset + limit, names.length);
+        return Collections.unmodifiableList(Arrays.asList(names).subList(offset, end));
+    }
+
+    /**
+     * Rules whose name or keyword starts with the prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return matching rule names in sorted order
+     */
+    List<String> search(String prefix) {
+        String lowerPrefix = prefix.toLowerCase();
+        int index = Arrays.binarySearch(keys, lowerPrefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        TreeSet<String> found = new TreeSet<>(RuleNameIndex::compareNames);
+        for (int i = index; i < keys.length && keys[i].startsWith(lowerPrefix); i++) {
+            found.add(owners[i]);
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Case-insensitive order, ties broken by the exact name so distinct rules
+     * never compare equal.
+     */
+    private static int compareNames(String a, String b) {
+        int result = String.CASE_INSENSITIVE_ORDER.compare(a, b);
+        return result != 0 ? result : a.compareTo(b);
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String owner;
+
+        Entry(String key, String owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+    }
+}
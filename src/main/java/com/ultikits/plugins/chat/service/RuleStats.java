@@ -0,0 +1,80 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and match-cost counters for a single auto-reply rule.
+ * 单条自动回复规则的命中与匹配耗时统计。
+ * <p>
+ * Counters are {@link LongAdder}s so concurrent chat threads update separate
+ * cells instead of contending on one field.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public class RuleStats {
+
+    private final String ruleName;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+    private volatile long lastHit;
+
+    public RuleStats(String ruleName) {
+        this.ruleName = ruleName;
+    }
+
+    void recordEvaluation(long nanos) {
+        evaluations.increment();
+        matchNanos.add(nanos);
+    }
+
+    void recordHit(long timeMillis) {
+        hits.increment();
+        lastHit = timeMillis;
+    }
+
+    void reset() {
+        hits.reset();
+        evaluations.reset();
+        matchNanos.reset();
+        lastHit = 0L;
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of timed match attempts (only counted while timing is enabled).
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Cumulative time spent matching this rule, in nanoseconds.
+     */
+    public long getMatchNanos() {
+        return matchNanos.sum();
+    }
+
+    /**
+     * Average cost of one match attempt in nanoseconds, or 0 if never timed.
+     */
+    public long getAverageNanos() {
+        long count = getEvaluations();
+        return count == 0 ? 0L : getMatchNanos() / count;
+    }
+
+    /**
+     * Last time this rule fired (epoch millis), or 0 if it never did.
+     */
+    public long getLastHit() {
+        return lastHit;
+    }
+}
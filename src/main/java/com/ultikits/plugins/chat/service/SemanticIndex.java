@@ -0,0 +1,333 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory TF-IDF index over the example questions of semantic rules.
+ * 语义规则示例问题的内存 TF-IDF 索引。
+ * <p>
+ * Every example (and the rule keyword) is one document. Document vectors are
+ * weighted with {@code (1 + ln tf) * ln(1 + N / df)} and normalised at build
+ * time, so scoring a message is one walk over the postings of its own terms
+ * followed by a division by the message norm. A rule scores the best cosine
+ * of its examples; the highest-scoring rule at or above its threshold wins.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class SemanticIndex {
+
+    static final SemanticIndex EMPTY = new SemanticIndex(new ArrayList<List<String>>(), new double[0]);
+
+    /**
+     * Returned by {@link #bestMatch(String)} when no rule reaches its threshold.
+     */
+    static final int NO_MATCH = -1;
+
+    /**
+     * Function words that a small FAQ corpus is too short to down-weight by IDF.
+     */
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "can", "do", "does", "for", "how", "i", "in", "is", "it",
+            "me", "my", "of", "on", "or", "the", "to", "what", "whats", "where", "wheres",
+            "which", "who", "why", "you", "s"));
+
+    /**
+     * Accumulator shared by every index on a thread, so a rule rebuild does
+     * not leave the old index's buffer pinned on each chat thread.
+     */
+    private static final ThreadLocal<Scores> SCRATCH = ThreadLocal.withInitial(Scores::new);
+
+    private final int size;
+    private final double[] thresholds;
+    private final int[] docRule;
+    private final Map<String, Posting> postings;
+    private final double unknownIdf;
+
+    /**
+     * @param documents  per semantic slot, the texts (keyword and examples) of that rule
+     * @param thresholds per semantic slot, the minimum cosine similarity
+     */
+    SemanticIndex(List<List<String>> documents, double[] thresholds) {
+        this.size = documents.size();
+        this.thresholds = thresholds;
+
+        List<Map<String, Integer>> termCounts = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            for (String text : documents.get(slot)) {
+                Map<String, Integer> counts = countTerms(text.toLowerCase());
+                if (counts.isEmpty()) {
+                    continue;
+                }
+                termCounts.add(counts);
+                owners.add(slot);
+                for (String term : counts.keySet()) {
+                    documentFrequency.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        int docCount = termCounts.size();
+        this.docRule = new int[docCount];
+        this.unknownIdf = Math.log(1.0 + docCount);
+
+        Map<String, Double> idf = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
+            idf.put(entry.getKey(), Math.log(1.0 + (double) docCount / entry.getValue()));
+        }
+
+        Map<String, Posting.Builder> builders = new HashMap<>();
+        for (int doc = 0; doc < docCount; doc++) {
+            docRule[doc] = owners.get(doc);
+            Map<String, Integer> counts = termCounts.get(doc);
+
+            double norm = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                double weight = (1.0 + Math.log(entry.getValue())) * idf.get(entry.getKey());
+                norm += weight * weight;
+            }
+            norm = Math.sqrt(norm);
+
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                String term = entry.getKey();
+                double termIdf = idf.get(term);
+                double weight = (1.0 + Math.log(entry.getValue())) * termIdf;
+                builders.computeIfAbsent(term, t -> new Posting.Builder(termIdf)).add(doc, weight / norm);
+            }
+        }
+
+        this.postings = new HashMap<>(builders.size() * 2);
+        for (Map.Entry<String, Posting.Builder> entry : builders.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().build());
+        }
+    }
+
+    /**
+     * Number of semantic rules in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Minimum similarity of a semantic rule.
+     */
+    double threshold(int slot) {
+        return thresholds[slot];
+    }
+
+    /**
+     * Number of distinct terms in the index.
+     */
+    int vocabularySize() {
+        return postings.size();
+    }
+
+    /**
+     * Find the semantic rule that best matches the message.
+     *
+     * @param lowerMessage the lower-cased message
+     * @return the winning semantic slot, or {@link #NO_MATCH}
+     */
+    int bestMatch(String lowerMessage) {
+        if (size == 0) {
+            return NO_MATCH;
+        }
+        Scores scores = accumulate(lowerMessage);
+        int best = NO_MATCH;
+        double bestScore = 0;
+        for (int i = 0; i < scores.touchedCount; i++) {
+            int doc = scores.touched[i];
+            double cosine = scores.dots[doc] / scores.queryNorm;
+            int slot = docRule[doc];
+            if (cosine >= thresholds[slot] && cosine > bestScore) {
+                best = slot;
+                bestScore = cosine;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Best cosine similarity of each semantic rule against the message.
+     *
+     * @param lowerMessage the lower-cased message
+     * @return scores indexed by semantic slot
+     */
+    double[] score(String lowerMessage) {
+        double[] ruleScores = new double[size];
+        Scores scores = accumulate(lowerMessage);
+        for (int i = 0; i < scores.touchedCount; i++) {
+            int doc = scores.touched[i];
+            double cosine = scores.dots[doc] / scores.queryNorm;
+            int slot = docRule[doc];
+            if (cosine > ruleScores[slot]) {
+                ruleScores[slot] = cosine;
+            }
+        }
+        return ruleScores;
+    }
+
+    /**
+     * Dot products of the message vector with every document sharing a term,
+     * visiting only the postings of the message's own terms. The accumulator
+     * is reused per thread, grown to the largest index seen, and only its
+     * touched cells are cleared.
+     */
+    private Scores accumulate(String lowerMessage) {
+        Scores scores = SCRATCH.get();
+        scores.reset(docRule.length);
+        Map<String, Integer> counts = countTerms(lowerMessage);
+        if (counts.isEmpty() || docRule.length == 0) {
+            return scores;
+        }
+
+        double queryNorm = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            double tf = 1.0 + Math.log(entry.getValue());
+            Posting posting = postings.get(entry.getKey());
+            // Unknown words still dilute the message vector
+            double weight = tf * (posting == null ? unknownIdf : posting.idf);
+            queryNorm += weight * weight;
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.docs.length; i++) {
+                int doc = posting.docs[i];
+                if (scores.dots[doc] == 0) {
+                    scores.touch(doc);
+                }
+                scores.dots[doc] += weight * posting.weights[i];
+            }
+        }
+        scores.queryNorm = Math.sqrt(queryNorm);
+        return scores;
+    }
+
+    /**
+     * Split lower-cased text into terms: runs of letters and digits, with runs
+     * of Han characters split into overlapping character pairs since Chinese
+     * has no spaces between words. Stop words are dropped.
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isHan(c)) {
+                int start = i;
+                while (i < length && isHan(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    terms.add(text.substring(start, i));
+                } else {
+                    for (int j = start; j + 1 < i; j++) {
+                        terms.add(text.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i)) && !isHan(text.charAt(i))) {
+                    i++;
+                }
+                String term = text.substring(start, i);
+                if (!STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+            } else {
+                i++;
+            }
+        }
+        return terms;
+    }
+
+    private static Map<String, Integer> countTerms(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : tokenize(text)) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static boolean isHan(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * Per-message accumulator of document dot products.
+     */
+    private static final class Scores {
+        private double[] dots = new double[0];
+        private int[] touched = new int[16];
+        private int touchedCount;
+        private double queryNorm;
+
+        void reset(int docCount) {
+            for (int i = 0; i < touchedCount; i++) {
+                dots[touched[i]] = 0;
+            }
+            touchedCount = 0;
+            queryNorm = 0;
+            if (dots.length < docCount) {
+                dots = new double[docCount];
+            }
+        }
+
+        void touch(int doc) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = doc;
+        }
+    }
+
+    /**
+     * Documents containing a term with their normalised weights.
+     */
+    private static final class Posting {
+        private final double idf;
+        private final int[] docs;
+        private final double[] weights;
+
+        private Posting(double idf, int[] docs, double[] weights) {
+            this.idf = idf;
+            this.docs = docs;
+            this.weights = weights;
+        }
+
+        static final class Builder {
+            private final double idf;
+            private final List<Integer> docs = new ArrayList<>();
+            private final List<Double> weights = new ArrayList<>();
+
+            Builder(double idf) {
+                this.idf = idf;
+            }
+
+            void add(int doc, double weight) {
+                docs.add(doc);
+                weights.add(weight);
+            }
+
+            Posting build() {
+                int[] docArray = new int[docs.size()];
+                double[] weightArray = new double[weights.size()];
+                for (int i = 0; i < docArray.length; i++) {
+                    docArray[i] = docs.get(i);
+                    weightArray[i] = weights.get(i);
+                }
+                return new Posting(idf, docArray, weightArray);
+            }
+        }
+    }
+}
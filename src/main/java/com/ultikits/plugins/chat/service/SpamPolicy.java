@@ -0,0 +1,114 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.Map;
+
+/**
+ * Per-channel anti-spam overrides, compiled with the channel.
+ * 频道级反刷屏覆盖设置，随频道一起编译。
+ * <p>
+ * Read from a channel's {@code anti-spam} key: {@code false} exempts the
+ * channel, and a section overrides {@code cooldown}, {@code max-duplicate}
+ * and {@code caps-limit} individually. Settings left out are {@link #INHERIT}
+ * and fall back to {@code anti-spam} in {@code config/chat.yml} when checked,
+ * so a reload of either file takes effect without recompiling the other.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+public final class SpamPolicy {
+
+    /**
+     * Marks a setting taken from the global anti-spam config.
+     */
+    public static final int INHERIT = -1;
+
+    /**
+     * Every setting inherited.
+     */
+    public static final SpamPolicy DEFAULT = new SpamPolicy(true, INHERIT, INHERIT, INHERIT);
+
+    /**
+     * Anti-spam switched off for the channel.
+     */
+    public static final SpamPolicy EXEMPT = new SpamPolicy(false, INHERIT, INHERIT, INHERIT);
+
+    private final boolean enabled;
+    private final int cooldown;
+    private final int maxDuplicate;
+    private final int capsLimit;
+
+    private SpamPolicy(boolean enabled, int cooldown, int maxDuplicate, int capsLimit) {
+        this.enabled = enabled;
+        this.cooldown = cooldown;
+        this.maxDuplicate = maxDuplicate;
+        this.capsLimit = capsLimit;
+    }
+
+    /**
+     * Compile a channel's {@code anti-spam} value.
+     * 编译频道的 {@code anti-spam} 配置。
+     *
+     * @param value a Boolean, a section map, or null
+     * @return the policy, {@link #DEFAULT} when nothing is overridden
+     */
+    public static SpamPolicy compile(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? DEFAULT : EXEMPT;
+        }
+        if (!(value instanceof Map)) {
+            return DEFAULT;
+        }
+        Map<?, ?> section = (Map<?, ?>) value;
+        Object enabledValue = section.get("enabled");
+        boolean enabled = !(enabledValue instanceof Boolean) || (Boolean) enabledValue;
+        int cooldown = setting(section.get("cooldown"));
+        int maxDuplicate = setting(section.get("max-duplicate"));
+        int capsLimit = setting(section.get("caps-limit"));
+        if (cooldown == INHERIT && maxDuplicate == INHERIT && capsLimit == INHERIT) {
+            return enabled ? DEFAULT : EXEMPT;
+        }
+        return new SpamPolicy(enabled, cooldown, maxDuplicate, capsLimit);
+    }
+
+    /**
+     * A non-negative number, or {@link #INHERIT} when missing or invalid.
+     */
+    private static int setting(Object value) {
+        if (!(value instanceof Number)) {
+            return INHERIT;
+        }
+        int number = ((Number) value).intValue();
+        return number < 0 ? INHERIT : number;
+    }
+
+    /**
+     * Whether anti-spam applies in the channel at all.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param fallback the global cooldown in seconds
+     * @return the channel's cooldown in seconds
+     */
+    public int getCooldown(int fallback) {
+        return cooldown == INHERIT ? fallback : cooldown;
+    }
+
+    /**
+     * @param fallback the global identical-message limit
+     * @return the channel's identical-message limit
+     */
+    public int getMaxDuplicate(int fallback) {
+        return maxDuplicate == INHERIT ? fallback : maxDuplicate;
+    }
+
+    /**
+     * @param fallback the global uppercase percentage limit
+     * @return the channel's uppercase percentage limit
+     */
+    public int getCapsLimit(int fallback) {
+        return capsLimit == INHERIT ? fallback : capsLimit;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ultikits.plugins.chat.service;
+
+import java.util.Arrays;
+
+/**
+ * One player's anti-spam state, one entry per channel they spoke in.
+ * 单个玩家的反刷屏状态，每个发过言的频道一项。
+ * <p>
+ * Entries are parallel primitive arrays: channel key, time of the last
+ * message, a 64-bit hash of it and how many identical messages in a row
+ * ended with it. That run length is all duplicate detection needs, since a
+ * message repeats the last {@code n} messages exactly when the run is at
+ * least {@code n}. Entries are only created when the player speaks in a
+ * channel, and at most {@link #MAX_CHANNELS} are kept; the least recently
+ * used one makes room, so lookups are a short scan whatever the channel count.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+final class SpamState {
+
+    /**
+     * Key of messages sent while the channel system is off.
+     */
+    static final int NO_CHANNEL = -1;
+
+    static final int MAX_CHANNELS = 8;
+
+    private int[] channels = new int[2];
+    private long[] times = new long[2];
+    private long[] hashes = new long[2];
+    private int[] runs = new int[2];
+    private int count;
+
+    /**
+     * Time of the last message in a channel.
+     *
+     * @return epoch millis, or 0 if the player has not spoken there
+     */
+    synchronized long lastTime(int channel) {
+        int index = indexOf(channel);
+        return index < 0 ? 0L : times[index];
+    }
+
+    /**
+     * How many messages in a row ending with the last one had this hash.
+     *
+     * @return the run length, or 0 if the last message differs
+     */
+    synchronized int run(int channel, long hash) {
+        int index = indexOf(channel);
+        return index >= 0 && hashes[index] == hash ? runs[index] : 0;
+    }
+
+    /**
+     * Record a message sent in a channel.
+     */
+    synchronized void record(int channel, long time, long hash) {
+        int index = indexOf(channel);
+        if (index < 0) {
+            index = add(channel);
+            hashes[index] = hash;
+            runs[index] = 1;
+        } else if (hashes[index] == hash) {
+            runs[index]++;
+        } else {
+            hashes[index] = hash;
+            runs[index] = 1;
+        }
+        times[index] = time;
+    }
+
+    /**
+     * Number of channels with an entry.
+     */
+    synchronized int size() {
+        return count;
+    }
+
+    private int indexOf(int channel) {
+        for (int i = 0; i < count; i++) {
+            if (channels[i] == channel) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int add(int channel) {
+        int index;
+        if (count < channels.length) {
+            index = count++;
+        } else if (count < MAX_CHANNELS) {
+            int capacity = Math.min(MAX_CHANNELS, channels.length * 2);
+            channels = Arrays.copyOf(channels, capacity);
+            times = Arrays.copyOf(times, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            runs = Arrays.copyOf(runs, capacity);
+            index = count++;
+        } else {
+            index = 0;
+            for (int i = 1; i < count; i++) {
+                if (times[i] < times[index]) {
+                    index = i;
+                }
+            }
+        }
+        channels[index] = channel;
+        return index;
+    }
+
+    /**
+     * A 64-bit polynomial hash, so unequal messages practically never collide.
+     */
+    static long hash(String message) {
+        long hash = 1125899906842597L;
+        for (int i = 0, n = message.length(); i < n; i++) {
+            hash = 31 * hash + message.charAt(i);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ultikits.plugins.chat;
+
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for UltiChat — the module's disable hook.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("UltiChat Tests")
+class UltiChatTest {
+
+    private UltiChat plugin;
+    private AutoReplyService autoReplyService;
+    private ChannelService channelService;
+    private ChatProfileService chatProfileService;
+    private AnnouncementService announcementService;
+
+    @BeforeEach
+    void setUp() {
+        AnnotationConfigApplicationContext context = mock(AnnotationConfigApplicationContext.class);
+        autoReplyService = mock(AutoReplyService.class);
+        channelService = mock(ChannelService.class);
+        chatProfileService = mock(ChatProfileService.class);
+        announcementService = mock(AnnouncementService.class);
+        when(context.getBean(AutoReplyService.class)).thenReturn(autoReplyService);
+        when(context.getBean(ChannelService.class)).thenReturn(channelService);
+        when(context.getBean(ChatProfileService.class)).thenReturn(chatProfileService);
+        when(context.getBean(AnnouncementService.class)).thenReturn(announcementService);
+
+        plugin = mock(UltiChat.class);
+        when(plugin.getContext()).thenReturn(context);
+        doCallRealMethod().when(plugin).unregisterSelf();
+    }
+
+    @Nested
+    @DisplayName("Unregister")
+    class UnregisterTests {
+
+        @Test
+        @DisplayName("Should write pending rule edits and profiles before shutting services down")
+        void shouldFlushPendingWritesFirst() {
+            plugin.unregisterSelf();
+
+            InOrder order = inOrder(autoReplyService, chatProfileService, channelService, announcementService);
+            order.verify(autoReplyService).flushPendingEdits();
+            order.verify(chatProfileService).flush();
+            order.verify(channelService).shutdown();
+            order.verify(announcementService).shutdown();
+        }
+    }
+}
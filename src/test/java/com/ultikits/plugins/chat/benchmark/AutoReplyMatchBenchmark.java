@@ -0,0 +1,87 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link AutoReplyService#findMatch(String)} with and
+ * without per-rule match timing, so the overhead of the statistics can be
+ * read directly from the two {@code timing} columns.
+ * 对比开启/关闭规则耗时统计时的匹配开销。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoReplyMatchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ruleCount;
+
+    @Param({"false", "true"})
+    public boolean timing;
+
+    private AutoReplyService service;
+    private String missMessage;
+    private String lastRuleMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        for (int i = 0; i < ruleCount; i++) {
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("keyword", "keyword" + i + "x");
+            rule.put("response", "Response " + i);
+            rule.put("mode", i % 10 == 0 ? "regex" : "contains");
+            rule.put("case-sensitive", false);
+            rules.put("rule" + i, rule);
+        }
+
+        AutoReplyConfig config = new AutoReplyConfig();
+        config.setRules(rules);
+        config.setStatsTiming(timing);
+
+        service = new AutoReplyService();
+        Field field = AutoReplyService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+
+        missMessage = "just an ordinary chat line without any trigger";
+        lastRuleMessage = "I typed KEYWORD" + (ruleCount - 1) + "X by accident";
+        // Compile the snapshot outside the measurement
+        service.findMatch(missMessage);
+    }
+
+    @Benchmark
+    public Object missAll() {
+        return service.findMatch(missMessage);
+    }
+
+    @Benchmark
+    public Object hitLast() {
+        return service.findMatch(lastRuleMessage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AutoReplyMatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
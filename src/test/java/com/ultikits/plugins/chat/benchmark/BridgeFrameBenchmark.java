@@ -0,0 +1,90 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.bridge.BridgeFrame;
+import com.ultikits.plugins.chat.bridge.BridgeMessage;
+import com.ultikits.plugins.chat.bridge.LoopbackTransport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding, decoding and loopback relay of one tick's worth of bridge traffic.
+ * 一个tick内跨服桥接消息的编码、解码与回环转发耗时。
+ * <p>
+ * {@code relay} packs the batch, sends it over a loopback link and decodes it
+ * on the far side, which is the per-tick cost of the bridge minus the proxy.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BridgeFrameBenchmark {
+
+    private static final String[] CHANNELS = {"global", "trade", "help"};
+
+    @Param({"1", "16", "128"})
+    public int batchSize;
+
+    private BridgeMessage[] messages;
+    private byte[] encoded;
+    private LoopbackTransport sender;
+    private int received;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        messages = new BridgeMessage[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            messages[i] = new BridgeMessage(i, CHANNELS[i % CHANNELS.length],
+                    "[Global] Player" + i + ": anyone selling diamonds near spawn?");
+        }
+        encoded = encode();
+
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        sender = hub.connect();
+        hub.connect().open(frame -> {
+            try {
+                received += BridgeFrame.decode(frame).getMessages().size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        BridgeFrame.Writer writer = new BridgeFrame.Writer(1L, 30000);
+        for (BridgeMessage message : messages) {
+            writer.add(message);
+        }
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return BridgeFrame.decode(encoded);
+    }
+
+    @Benchmark
+    public int relay() {
+        sender.send(encode());
+        return received;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BridgeFrameBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message latency of fuzzy auto-reply rules behind the bigram filter.
+ * 模糊匹配规则在二元组过滤下的单条消息耗时。
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyMatchBenchmark {
+
+    private static final String[] WORDS = {
+            "server", "spawn", "shop", "where", "how", "rank", "vote", "discord",
+            "warp", "home", "claim", "money", "trade", "event", "rules", "help"
+    };
+
+    @Param({"100", "500", "1000"})
+    public int ruleCount;
+
+    @Param({"false", "true"})
+    public boolean timing;
+
+    private AutoReplyService service;
+    private String missMessage;
+    private String typoMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        String lastKeyword = null;
+        for (int i = 0; i < ruleCount; i++) {
+            lastKeyword = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("keyword", lastKeyword);
+            rule.put("response", "Response " + i);
+            rule.put("mode", "fuzzy");
+            rule.put("case-sensitive", false);
+            rules.put("rule" + i, rule);
+        }
+
+        AutoReplyConfig config = new AutoReplyConfig();
+        config.setRules(rules);
+        config.setStatsTiming(timing);
+
+        service = new AutoReplyService();
+        Field field = AutoReplyService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+
+        missMessage = "anyone up for a game of bedwars tonight?";
+        // Drop one letter of the last rule's keyword
+        typoMessage = "hey " + lastKeyword.substring(1) + " please";
+        service.findMatch(missMessage);
+    }
+
+    @Benchmark
+    public Object miss() {
+        return service.findMatch(missMessage);
+    }
+
+    @Benchmark
+    public Object typoOfLastRule() {
+        return service.findMatch(typoMessage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FuzzyMatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
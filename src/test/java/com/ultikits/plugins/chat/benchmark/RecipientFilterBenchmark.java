@@ -0,0 +1,131 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelService;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against fork-join filtering of a ranged channel by audience size.
+ * 按接收者数量对比有范围频道的串行与并行过滤耗时。
+ * <p>
+ * Half of the players are in the ranged {@code local} channel, scattered
+ * within 200 blocks of the sender, so every candidate pays for the channel
+ * lookup and half of them for the distance check. The audience size where
+ * {@code parallel} overtakes {@code sequential} is the value to use for
+ * {@code channels.parallel.threshold}. Players are plain proxies so the
+ * numbers are not dominated by mocking overhead.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipientFilterBenchmark {
+
+    @Param({"250", "500", "1000", "2000", "4000"})
+    public int recipientCount;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ChannelService service;
+    private Player sender;
+    private Set<Player> recipients;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Map<String, Object>> channels = new HashMap<>();
+        Map<String, Object> local = new HashMap<>();
+        local.put("range", 100);
+        local.put("cross-world", false);
+        channels.put("local", local);
+        channels.put("global", new HashMap<String, Object>());
+
+        ChannelConfig config = new ChannelConfig();
+        config.setChannels(channels);
+        config.setParallelThreshold("parallel".equals(mode) ? 1 : 0);
+
+        service = new ChannelService();
+        Field field = ChannelService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+
+        World world = proxy(World.class, Collections.<String, Object>singletonMap("getName", "world"));
+        Random random = new Random(42);
+        recipients = new HashSet<>();
+        for (int i = 0; i < recipientCount; i++) {
+            Location location = new Location(world, random.nextInt(400) - 200, 64, random.nextInt(400) - 200);
+            Player player = player(world, location);
+            service.setPlayerChannel(player.getUniqueId(), i % 2 == 0 ? "local" : "global");
+            recipients.add(player);
+        }
+        sender = player(world, new Location(world, 0, 64, 0));
+        service.setPlayerChannel(sender.getUniqueId(), "local");
+        recipients.add(sender);
+    }
+
+    @Benchmark
+    public Set<Player> filter() {
+        return service.filterRecipients(sender, recipients);
+    }
+
+    private static Player player(World world, Location location) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getUniqueId", UUID.randomUUID());
+        answers.put("getWorld", world);
+        answers.put("getLocation", location);
+        return proxy(Player.class, answers);
+    }
+
+    /**
+     * An interface instance answering the named no-argument methods, with
+     * identity equality; every other method returns its type's default.
+     */
+    private static <T> T proxy(Class<T> type, Map<String, Object> answers) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            String name = method.getName();
+            if ("equals".equals(name)) {
+                return self == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(self);
+            }
+            if (answers.containsKey(name)) {
+                return answers.get(name);
+            }
+            Class<?> returns = method.getReturnType();
+            if (returns == boolean.class) {
+                return false;
+            }
+            if (returns.isPrimitive() && returns != void.class) {
+                return returns == double.class ? 0.0 : returns == float.class ? 0.0f
+                        : returns == long.class ? 0L : 0;
+            }
+            return null;
+        });
+        return type.cast(instance);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RecipientFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
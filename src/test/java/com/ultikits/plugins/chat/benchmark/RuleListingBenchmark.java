@@ -0,0 +1,88 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paginated listing, prefix search and the test bench over large rule sets.
+ * 大规则集下分页列出、前缀搜索与匹配测试的耗时。
+ * <p>
+ * {@code rebuild} drops the compiled snapshot and lists one page, so it
+ * reports the cost of recompiling the rules including the sorted name index.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleListingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000", "5000"})
+    public int ruleCount;
+
+    private AutoReplyService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        for (int i = 0; i < ruleCount; i++) {
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("keyword", "keyword" + i);
+            rule.put("response", "Response " + i);
+            rule.put("mode", "contains");
+            rules.put("rule" + i, rule);
+        }
+
+        AutoReplyConfig config = new AutoReplyConfig();
+        config.setRules(rules);
+
+        service = new AutoReplyService();
+        Field field = AutoReplyService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+        service.getRuleCount();
+    }
+
+    @Benchmark
+    public Object lastPage() {
+        return service.getRuleNames(ruleCount - PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object search() {
+        return service.searchRules("rule42");
+    }
+
+    @Benchmark
+    public Object test() {
+        return service.test("does anyone have keyword" + (ruleCount - 1));
+    }
+
+    @Benchmark
+    public Object rebuild() {
+        service.invalidate();
+        return service.getRuleNames(0, PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RuleListingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ultikits.plugins.chat.benchmark;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.service.AutoReplyService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index build time and per-message latency of semantic auto-reply rules.
+ * 语义规则的索引构建耗时与单条消息匹配耗时。
+ * <p>
+ * {@code rebuild} drops the compiled snapshot and matches once, so it reports
+ * the TF-IDF index build time (plus one lookup).
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticMatchBenchmark {
+
+    private static final String[] WORDS = {
+            "shop", "spawn", "server", "vote", "rank", "claim", "land", "money", "trade", "event",
+            "discord", "rules", "warp", "home", "pvp", "arena", "quest", "pet", "mine", "farm",
+            "buy", "sell", "join", "reset", "crate", "key", "kit", "team", "guild", "map"
+    };
+
+    private static final int EXAMPLES_PER_RULE = 5;
+
+    @Param({"100", "1000", "5000"})
+    public int ruleCount;
+
+    private AutoReplyService service;
+    private String hitMessage;
+    private String missMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        for (int i = 0; i < ruleCount; i++) {
+            List<String> examples = new ArrayList<>();
+            for (int e = 0; e < EXAMPLES_PER_RULE; e++) {
+                examples.add("how do I " + word(random) + " the " + word(random) + " " + word(random) + i);
+            }
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("keyword", word(random) + " " + word(random) + i);
+            rule.put("examples", examples);
+            rule.put("response", "Response " + i);
+            rule.put("mode", "semantic");
+            rules.put("rule" + i, rule);
+        }
+
+        AutoReplyConfig config = new AutoReplyConfig();
+        config.setRules(rules);
+
+        service = new AutoReplyService();
+        Field field = AutoReplyService.class.getDeclaredField("config");
+        field.setAccessible(true);
+        field.set(service, config);
+
+        @SuppressWarnings("unchecked")
+        List<String> lastExamples = (List<String>) rules.get("rule" + (ruleCount - 1)).get("examples");
+        hitMessage = "hey " + lastExamples.get(0) + " please";
+        missMessage = "anyone up for a game of bedwars tonight?";
+        service.findMatch(missMessage);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    @Benchmark
+    public Object hit() {
+        return service.findMatch(hitMessage);
+    }
+
+    @Benchmark
+    public Object miss() {
+        return service.findMatch(missMessage);
+    }
+
+    @Benchmark
+    public Object rebuild() {
+        service.invalidate();
+        return service.findMatch(missMessage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SemanticMatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ultikits.plugins.chat.bridge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for BridgeFrame — encoding, channel name reuse, size limits and malformed input.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("BridgeFrame Tests")
+class BridgeFrameTest {
+
+    private static byte[] encode(long session, int maxBytes, BridgeMessage... messages) {
+        BridgeFrame.Writer writer = new BridgeFrame.Writer(session, maxBytes);
+        for (BridgeMessage message : messages) {
+            assertThat(writer.add(message)).isTrue();
+        }
+        return writer.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should round-trip session, sequences, channels and text")
+    void shouldRoundTrip() throws IOException {
+        byte[] frame = encode(-42L, 30000,
+                new BridgeMessage(1000, "global", "Alice: hi"),
+                new BridgeMessage(1001, "trade", "Bob: 卖钻石"),
+                new BridgeMessage(1005, "global", ""));
+
+        BridgeFrame decoded = BridgeFrame.decode(frame);
+
+        assertThat(decoded.getSession()).isEqualTo(-42L);
+        List<BridgeMessage> messages = decoded.getMessages();
+        assertThat(messages).hasSize(3);
+        assertThat(messages.get(0).getSequence()).isEqualTo(1000);
+        assertThat(messages.get(1).getSequence()).isEqualTo(1001);
+        assertThat(messages.get(2).getSequence()).isEqualTo(1005);
+        assertThat(messages.get(1).getChannel()).isEqualTo("trade");
+        assertThat(messages.get(1).getText()).isEqualTo("Bob: 卖钻石");
+        assertThat(messages.get(2).getChannel()).isEqualTo("global");
+        assertThat(messages.get(2).getText()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should spell out a channel name only once per frame")
+    void shouldReuseChannelNames() {
+        byte[] one = encode(1, 30000, new BridgeMessage(0, "a-long-channel-name", "x"));
+        byte[] two = encode(1, 30000,
+                new BridgeMessage(0, "a-long-channel-name", "x"),
+                new BridgeMessage(1, "a-long-channel-name", "x"));
+
+        // Sequence delta, channel reference, text length and one character
+        assertThat(two.length - one.length).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should refuse messages beyond the size limit")
+    void shouldRefuseBeyondLimit() {
+        BridgeFrame.Writer writer = new BridgeFrame.Writer(1, 64);
+        char[] text = new char[30];
+        Arrays.fill(text, 'x');
+
+        assertThat(writer.add(new BridgeMessage(0, "c", new String(text)))).isTrue();
+        assertThat(writer.add(new BridgeMessage(1, "c", new String(text)))).isFalse();
+        assertThat(writer.size()).isEqualTo(1);
+        assertThat(writer.toByteArray().length).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should decode a frame without messages")
+    void shouldDecodeEmptyFrame() throws IOException {
+        byte[] frame = new BridgeFrame.Writer(7, 100).toByteArray();
+
+        assertThat(BridgeFrame.decode(frame).getMessages()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject truncated frames")
+    void shouldRejectTruncated() {
+        byte[] frame = encode(1, 30000, new BridgeMessage(0, "global", "hello"));
+
+        assertThatThrownBy(() -> BridgeFrame.decode(Arrays.copyOf(frame, frame.length - 2)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> BridgeFrame.decode(Arrays.copyOf(frame, 5)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject other versions and unknown channel references")
+    void shouldRejectMalformed() {
+        byte[] frame = encode(1, 30000, new BridgeMessage(0, "global", "hello"));
+        byte[] otherVersion = frame.clone();
+        otherVersion[0] = 9;
+        byte[] badReference = frame.clone();
+        badReference[BridgeFrame.HEADER_BYTES + 1] = 5;
+
+        assertThatThrownBy(() -> BridgeFrame.decode(otherVersion)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> BridgeFrame.decode(badReference)).isInstanceOf(IOException.class);
+    }
+}
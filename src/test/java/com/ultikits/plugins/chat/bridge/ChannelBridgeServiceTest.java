@@ -0,0 +1,327 @@
+package com.ultikits.plugins.chat.bridge;
+
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.interfaces.impl.logger.PluginLogger;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ChannelBridgeService — batching, delivery, duplicate filtering
+ * and backpressure over an in-process loopback link.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChannelBridgeService Tests")
+class ChannelBridgeServiceTest {
+
+    private ChannelConfig config;
+    private PluginLogger logger;
+    private ChannelService remoteChannels;
+    private ChatHistoryService remoteHistory;
+    private ChannelBridgeService local;
+    private ChannelBridgeService remote;
+    private LoopbackTransport localLink;
+    private Player listener;
+    private Player other;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        config = new ChannelConfig();
+        config.setBridgeEnabled(true);
+        config.setBridgeMaxPending(16);
+
+        logger = mock(PluginLogger.class);
+        UltiToolsPlugin plugin = mock(UltiToolsPlugin.class);
+        lenient().when(plugin.getLogger()).thenReturn(logger);
+
+        Map<String, Object> network = new HashMap<>();
+        network.put("network", true);
+        ChannelService localChannels = mock(ChannelService.class);
+        remoteChannels = mock(ChannelService.class);
+        lenient().when(remoteChannels.getChannel("global")).thenReturn(ChannelDefinition.compile(0, "global", network));
+        lenient().when(remoteChannels.getChannel("local")).thenReturn(ChannelDefinition.compile(1, "local", null));
+
+        listener = ChatTestHelper.createMockPlayer("Listener", UUID.randomUUID());
+        other = ChatTestHelper.createMockPlayer("Other", UUID.randomUUID());
+        lenient().when(remoteChannels.isListening(listener.getUniqueId(), "global")).thenReturn(true);
+        lenient().when(remoteChannels.isListening(listener.getUniqueId(), "local")).thenReturn(true);
+        doReturn(Arrays.asList(listener, other)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        remoteHistory = mock(ChatHistoryService.class);
+        local = new ChannelBridgeService(plugin, config, localChannels, mock(ChatHistoryService.class));
+        remote = new ChannelBridgeService(plugin, config, remoteChannels, remoteHistory);
+        localLink = hub.connect();
+        local.setTransport(localLink);
+        remote.setTransport(hub.connect());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    /**
+     * A link that keeps every frame instead of delivering it.
+     */
+    private static final class RecordingTransport implements BridgeTransport {
+        private final List<byte[]> frames = new ArrayList<>();
+
+        @Override
+        public void open(Consumer<byte[]> receiver) {
+        }
+
+        @Override
+        public boolean send(byte[] frame) {
+            frames.add(frame);
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // ==================== Delivery Tests ====================
+
+    @Nested
+    @DisplayName("Delivery")
+    class DeliveryTests {
+
+        @Test
+        @DisplayName("Should show relayed lines to players listening on the other server")
+        void shouldDeliverToListeners() {
+            assertThat(local.publish("global", "[Global] Alice: hi")).isTrue();
+
+            assertThat(local.flush()).isEqualTo(1);
+
+            verify(listener).sendMessage("[Global] Alice: hi");
+            verify(other, never()).sendMessage(anyString());
+            verify(remoteHistory).record("global", null, "[Global] Alice: hi");
+            assertThat(remote.getReceivedMessages()).isEqualTo(1);
+            assertThat(local.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should pack a burst into one frame and keep its order")
+        void shouldBatchBurst() {
+            for (int i = 0; i < 10; i++) {
+                local.publish("global", "line " + i);
+            }
+
+            local.flush();
+
+            assertThat(local.getSentFrames()).isEqualTo(1);
+            assertThat(local.getSentMessages()).isEqualTo(10);
+            InOrder order = inOrder(listener);
+            for (int i = 0; i < 10; i++) {
+                order.verify(listener).sendMessage("line " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Should ignore channels that are not network channels here")
+        void shouldIgnoreLocalChannels() {
+            local.publish("local", "hello");
+            local.publish("unknown", "hello");
+
+            local.flush();
+
+            verify(listener, never()).sendMessage(anyString());
+            verify(remoteHistory, never()).record(anyString(), any(), anyString());
+            assertThat(remote.getReceivedMessages()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should send nothing when the queue is empty")
+        void shouldSendNothingWhenIdle() {
+            assertThat(local.flush()).isZero();
+            assertThat(localLink.getSentFrames()).isZero();
+        }
+    }
+
+    // ==================== Duplicate Tests ====================
+
+    @Nested
+    @DisplayName("Duplicates")
+    class DuplicateTests {
+
+        @Test
+        @DisplayName("Should deliver a repeated frame once")
+        void shouldDeliverOnce() {
+            RecordingTransport recorder = new RecordingTransport();
+            local.setTransport(recorder);
+            local.publish("global", "hello");
+            local.flush();
+            byte[] frame = recorder.frames.get(0);
+
+            remote.receive(frame);
+            remote.receive(frame);
+
+            verify(listener, times(1)).sendMessage("hello");
+            assertThat(remote.getDuplicateMessages()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should ignore its own frames")
+        void shouldIgnoreOwnFrames() {
+            RecordingTransport recorder = new RecordingTransport();
+            remote.setTransport(recorder);
+            remote.publish("global", "echo");
+            remote.flush();
+
+            remote.receive(recorder.frames.get(0));
+
+            verify(listener, never()).sendMessage(anyString());
+            assertThat(remote.getReceivedMessages()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should log and skip malformed frames")
+        void shouldSkipMalformedFrames() {
+            remote.receive(new byte[]{1, 2, 3});
+
+            verify(logger).warn(contains("malformed"));
+            verify(listener, never()).sendMessage(anyString());
+        }
+    }
+
+    // ==================== Backpressure Tests ====================
+
+    @Nested
+    @DisplayName("Backpressure")
+    class BackpressureTests {
+
+        @Test
+        @DisplayName("Should hold messages while the link is busy and send them afterwards")
+        void shouldHoldWhileBusy() {
+            localLink.setWritable(false);
+            local.publish("global", "first");
+            local.publish("global", "second");
+
+            assertThat(local.flush()).isZero();
+            assertThat(local.getStalledTicks()).isEqualTo(1);
+            assertThat(local.getPendingCount()).isEqualTo(2);
+
+            localLink.setWritable(true);
+            local.publish("global", "third");
+            local.flush();
+            local.flush();
+
+            InOrder order = inOrder(listener);
+            order.verify(listener).sendMessage("first");
+            order.verify(listener).sendMessage("second");
+            order.verify(listener).sendMessage("third");
+            assertThat(local.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should drop and count messages beyond max-pending")
+        void shouldDropBeyondLimit() {
+            localLink.setWritable(false);
+            for (int i = 0; i < 16; i++) {
+                assertThat(local.publish("global", "line " + i)).isTrue();
+            }
+
+            assertThat(local.publish("global", "overflow")).isFalse();
+            assertThat(local.publish("global", "overflow")).isFalse();
+
+            assertThat(local.getDroppedMessages()).isEqualTo(2);
+            verify(logger, times(1)).warn(contains("falling behind"));
+        }
+
+        @Test
+        @DisplayName("Should send at most frames-per-tick frames per flush")
+        void shouldCapFramesPerTick() {
+            config.setBridgeFrameBytes(1024);
+            config.setBridgeFramesPerTick(2);
+            char[] text = new char[400];
+            Arrays.fill(text, 'x');
+            for (int i = 0; i < 8; i++) {
+                local.publish("global", new String(text));
+            }
+
+            assertThat(local.flush()).isEqualTo(2);
+            assertThat(local.getPendingCount()).isEqualTo(4);
+            assertThat(local.flush()).isEqualTo(2);
+            assertThat(local.getPendingCount()).isZero();
+            assertThat(remote.getReceivedMessages()).isEqualTo(8);
+        }
+
+        @Test
+        @DisplayName("Should drop a message larger than a whole frame")
+        void shouldDropOversizeMessage() {
+            config.setBridgeFrameBytes(1024);
+            char[] text = new char[2000];
+            Arrays.fill(text, 'x');
+            local.publish("global", new String(text));
+            local.publish("global", "small");
+
+            local.flush();
+
+            assertThat(local.getDroppedMessages()).isEqualTo(1);
+            verify(listener).sendMessage("small");
+            assertThat(local.getPendingCount()).isZero();
+        }
+    }
+
+    // ==================== Lifecycle Tests ====================
+
+    @Nested
+    @DisplayName("Lifecycle")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("Should refuse messages while disabled")
+        void shouldRefuseWhileDisabled() {
+            config.setBridgeEnabled(false);
+
+            assertThat(local.publish("global", "hello")).isFalse();
+            assertThat(local.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should close the link when the bridge is turned off")
+        void shouldCloseWhenDisabled() {
+            BridgeTransport transport = mock(BridgeTransport.class);
+            local.setTransport(transport);
+            config.setBridgeEnabled(false);
+
+            local.tick();
+
+            verify(transport).close();
+        }
+
+        @Test
+        @DisplayName("Should not open a link without the host plugin")
+        void shouldWaitForHostPlugin() {
+            local.setTransport(null);
+            local.publish("global", "hello");
+
+            local.tick();
+
+            assertThat(local.getPendingCount()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ultikits.plugins.chat.bridge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for LoopbackTransport — fan-out, refusal while unwritable and close.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("LoopbackTransport Tests")
+class LoopbackTransportTest {
+
+    @Test
+    @DisplayName("Should deliver frames to every other endpoint")
+    void shouldDeliverToOthers() {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        LoopbackTransport a = hub.connect();
+        LoopbackTransport b = hub.connect();
+        LoopbackTransport c = hub.connect();
+        List<byte[]> atA = new ArrayList<>();
+        List<byte[]> atB = new ArrayList<>();
+        List<byte[]> atC = new ArrayList<>();
+        a.open(atA::add);
+        b.open(atB::add);
+        c.open(atC::add);
+
+        assertThat(a.send(new byte[]{1})).isTrue();
+
+        assertThat(atA).isEmpty();
+        assertThat(atB).hasSize(1);
+        assertThat(atC).hasSize(1);
+        assertThat(a.getSentFrames()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse frames while unwritable")
+    void shouldRefuseWhileUnwritable() {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        LoopbackTransport a = hub.connect();
+        LoopbackTransport b = hub.connect();
+        List<byte[]> received = new ArrayList<>();
+        b.open(received::add);
+
+        a.setWritable(false);
+        assertThat(a.send(new byte[]{1})).isFalse();
+        a.setWritable(true);
+        assertThat(a.send(new byte[]{2})).isTrue();
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should stop delivering to closed endpoints")
+    void shouldStopAfterClose() {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        LoopbackTransport a = hub.connect();
+        LoopbackTransport b = hub.connect();
+        List<byte[]> received = new ArrayList<>();
+        b.open(received::add);
+
+        b.close();
+        a.send(new byte[]{1});
+
+        assertThat(received).isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ultikits.plugins.chat.bridge;
+
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.Messenger;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PluginMessageTransport — Forward wrapping, registration and filtering.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("PluginMessageTransport Tests")
+class PluginMessageTransportTest {
+
+    private Plugin plugin;
+    private Messenger messenger;
+    private PluginMessageTransport transport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+        plugin = mock(Plugin.class);
+        messenger = mock(Messenger.class);
+        when(ChatTestHelper.getMockServer().getMessenger()).thenReturn(messenger);
+        transport = new PluginMessageTransport(plugin);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    /**
+     * What the proxy hands to the other servers: the Forward target is stripped.
+     */
+    private static byte[] forwarded(byte[] sent) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(sent));
+        assertThat(in.readUTF()).isEqualTo("Forward");
+        assertThat(in.readUTF()).isEqualTo("ALL");
+        byte[] rest = new byte[in.available()];
+        in.readFully(rest);
+        return rest;
+    }
+
+    @Test
+    @DisplayName("Should register the BungeeCord channel when opened")
+    void shouldRegisterChannel() {
+        transport.open(frame -> { });
+
+        verify(messenger).registerOutgoingPluginChannel(plugin, "BungeeCord");
+        verify(messenger).registerIncomingPluginChannel(plugin, "BungeeCord", transport);
+    }
+
+    @Test
+    @DisplayName("Should report a busy link while nobody is online")
+    void shouldRefuseWithoutPlayers() {
+        assertThat(transport.send(new byte[]{1, 2, 3})).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forward frames through an online player")
+    void shouldSendThroughPlayer() throws IOException {
+        Player carrier = ChatTestHelper.createMockPlayer("Carrier", UUID.randomUUID());
+        doReturn(Collections.singletonList(carrier)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+        assertThat(transport.send(new byte[]{1, 2, 3})).isTrue();
+
+        org.mockito.ArgumentCaptor<byte[]> captor = org.mockito.ArgumentCaptor.forClass(byte[].class);
+        verify(carrier).sendPluginMessage(eq(plugin), eq("BungeeCord"), captor.capture());
+        assertThat(PluginMessageTransport.unwrap(forwarded(captor.getValue()))).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Should pass forwarded frames to the receiver")
+    void shouldReceiveFrames() throws IOException {
+        List<byte[]> received = new ArrayList<>();
+        transport.open(received::add);
+        byte[] message = forwarded(PluginMessageTransport.wrap(new byte[]{9, 8}));
+
+        transport.onPluginMessageReceived("BungeeCord", mock(Player.class), message);
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).containsExactly(9, 8);
+    }
+
+    @Test
+    @DisplayName("Should ignore other channels and subchannels")
+    void shouldIgnoreOtherMessages() throws IOException {
+        List<byte[]> received = new ArrayList<>();
+        transport.open(received::add);
+        byte[] message = forwarded(PluginMessageTransport.wrap(new byte[]{1}));
+
+        transport.onPluginMessageReceived("other:channel", mock(Player.class), message);
+        transport.onPluginMessageReceived("BungeeCord", mock(Player.class), new byte[]{0, 3, 'I', 'P', 's'});
+        transport.onPluginMessageReceived("BungeeCord", mock(Player.class), Arrays.copyOf(message, 4));
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should unregister when closed")
+    void shouldUnregisterOnClose() {
+        transport.open(frame -> { });
+        transport.close();
+
+        verify(messenger).unregisterIncomingPluginChannel(plugin, "BungeeCord");
+        verify(messenger).unregisterOutgoingPluginChannel(plugin, "BungeeCord");
+    }
+}
@@ -0,0 +1,60 @@
+package com.ultikits.plugins.chat.bridge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ReplayWindow — duplicate, late and stale sequence numbers.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ReplayWindow Tests")
+class ReplayWindowTest {
+
+    @Test
+    @DisplayName("Should accept each sequence once")
+    void shouldAcceptOnce() {
+        ReplayWindow window = new ReplayWindow();
+
+        assertThat(window.accept(0)).isTrue();
+        assertThat(window.accept(1)).isTrue();
+        assertThat(window.accept(1)).isFalse();
+        assertThat(window.accept(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should accept late messages inside the window once")
+    void shouldAcceptLateMessages() {
+        ReplayWindow window = new ReplayWindow();
+        window.accept(10);
+
+        assertThat(window.accept(7)).isTrue();
+        assertThat(window.accept(7)).isFalse();
+        assertThat(window.accept(11)).isTrue();
+        assertThat(window.accept(8)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat messages older than the window as duplicates")
+    void shouldRejectOlderThanWindow() {
+        ReplayWindow window = new ReplayWindow();
+        window.accept(200);
+
+        assertThat(window.accept(200 - ReplayWindow.SIZE + 1)).isTrue();
+        assertThat(window.accept(200 - ReplayWindow.SIZE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forget old bits after a large jump")
+    void shouldResetAfterJump() {
+        ReplayWindow window = new ReplayWindow();
+        window.accept(5);
+        window.accept(1000);
+
+        assertThat(window.accept(999)).isTrue();
+        assertThat(window.accept(1000)).isFalse();
+    }
+}
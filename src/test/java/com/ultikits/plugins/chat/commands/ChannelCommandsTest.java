@@ -1,14 +1,23 @@
 package com.ultikits.plugins.chat.commands;
 
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryEntry;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
 import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -25,6 +34,9 @@ class ChannelCommandsTest {
 
     private UltiToolsPlugin mockPlugin;
     private ChannelService mockChannelService;
+    private ChatProfileService mockProfileService;
+    private ChatHistoryService mockHistoryService;
+    private ChannelConfig channelConfig;
     private ChannelCommands commands;
 
     @BeforeEach
@@ -38,7 +50,21 @@ class ChannelCommandsTest {
         when(mockPlugin.i18n("channel_current")).thenReturn("Current: {0}");
         when(mockPlugin.i18n("channel_list_entry")).thenReturn("{0} ({1})");
 
-        commands = new ChannelCommands(mockPlugin, mockChannelService);
+        mockProfileService = mock(ChatProfileService.class);
+        mockHistoryService = mock(ChatHistoryService.class);
+        channelConfig = new ChannelConfig();
+        commands = new ChannelCommands(mockPlugin, mockChannelService, channelConfig,
+                mockProfileService, mockHistoryService);
+    }
+
+    /**
+     * The profile a single recorded update would produce from the default.
+     */
+    @SuppressWarnings("unchecked")
+    private ChatProfile savedProfile(UUID uuid) {
+        ArgumentCaptor<UnaryOperator<ChatProfile>> captor = ArgumentCaptor.forClass(UnaryOperator.class);
+        verify(mockProfileService).update(eq(uuid), captor.capture());
+        return captor.getValue().apply(ChatProfile.DEFAULT);
     }
 
     private void assertSentMessageContaining(CommandSender sender, String substring) {
@@ -130,6 +156,7 @@ class ChannelCommandsTest {
             channelDef.put("display-name", "&f[Global]");
             when(mockChannelService.getChannelDef("global")).thenReturn(channelDef);
             when(mockChannelService.hasChannelPermission(player, "global")).thenReturn(true);
+            when(mockChannelService.isChannelInWorld(player, "global")).thenReturn(true);
             when(mockChannelService.getChannelDisplayName("global")).thenReturn("[Global]");
 
             commands.onSwitch(player, "global");
@@ -138,6 +165,21 @@ class ChannelCommandsTest {
             assertSentMessageContaining(player, "Switched to");
         }
 
+        @Test
+        @DisplayName("Should save the new channel to the profile")
+        void shouldSaveChannel() {
+            Player player = mock(Player.class);
+            UUID uuid = UUID.randomUUID();
+            when(player.getUniqueId()).thenReturn(uuid);
+            when(mockChannelService.getChannelDef("trade")).thenReturn(new HashMap<String, Object>());
+            when(mockChannelService.hasChannelPermission(player, "trade")).thenReturn(true);
+            when(mockChannelService.isChannelInWorld(player, "trade")).thenReturn(true);
+
+            commands.onSwitch(player, "trade");
+
+            assertThat(savedProfile(uuid).getChannel()).isEqualTo("trade");
+        }
+
         @Test
         @DisplayName("Should send error for nonexistent channel")
         void shouldSendErrorForMissing() {
@@ -167,6 +209,39 @@ class ChannelCommandsTest {
             assertSentMessageContaining(player, "No permission");
         }
 
+        @Test
+        @DisplayName("Should recheck permissions instead of the cached channel list")
+        void shouldInvalidateAccessBeforeCheck() {
+            Player player = mock(Player.class);
+            UUID uuid = UUID.randomUUID();
+            when(player.getUniqueId()).thenReturn(uuid);
+            when(mockChannelService.getChannelDef("staff")).thenReturn(new HashMap<String, Object>());
+            when(mockChannelService.hasChannelPermission(player, "staff")).thenReturn(false);
+
+            commands.onSwitch(player, "staff");
+
+            InOrder order = inOrder(mockChannelService);
+            order.verify(mockChannelService).invalidateAccess(uuid);
+            order.verify(mockChannelService).hasChannelPermission(player, "staff");
+        }
+
+        @Test
+        @DisplayName("Should send error when the channel is bound to other worlds")
+        void shouldSendErrorWhenWrongWorld() {
+            Player player = mock(Player.class);
+            when(mockPlugin.i18n("channel_wrong_world")).thenReturn("{0} is not available here.");
+
+            when(mockChannelService.getChannelDef("nether")).thenReturn(new HashMap<String, Object>());
+            when(mockChannelService.hasChannelPermission(player, "nether")).thenReturn(true);
+            when(mockChannelService.isChannelInWorld(player, "nether")).thenReturn(false);
+            when(mockChannelService.getChannelDisplayName("nether")).thenReturn("[Nether]");
+
+            commands.onSwitch(player, "nether");
+
+            verify(mockChannelService, never()).setPlayerChannel(any(), anyString());
+            assertSentMessageContaining(player, "[Nether] is not available here.");
+        }
+
         @Test
         @DisplayName("Should skip 'list' as channel name")
         void shouldSkipListName() {
@@ -187,6 +262,21 @@ class ChannelCommandsTest {
             verify(mockChannelService, never()).getChannelDef(anyString());
         }
 
+        @Test
+        @DisplayName("Should show the usage of a bare subcommand instead of reporting a missing channel")
+        void shouldShowUsageOfBareSubcommand() {
+            when(mockPlugin.i18n("channel_usage")).thenReturn("Usage: {0}");
+            Player player = mock(Player.class);
+
+            commands.onSwitch(player, "subscribe");
+            commands.onSwitch(player, "Unsubscribe");
+
+            verify(mockChannelService, never()).getChannelDef(anyString());
+            verify(player).sendMessage("Usage: /ch subscribe <name>");
+            verify(player).sendMessage("Usage: /ch unsubscribe <name>");
+            verify(mockChannelService, never()).setPlayerChannel(any(), anyString());
+        }
+
         @Test
         @DisplayName("Should reject console sender")
         void shouldRejectConsole() {
@@ -227,40 +317,446 @@ class ChannelCommandsTest {
         }
     }
 
+    // ==================== History Tests ====================
+
+    @Nested
+    @DisplayName("History Command")
+    class HistoryTests {
+
+        private Player player;
+
+        @BeforeEach
+        void setUpChannel() {
+            player = mock(Player.class);
+            UUID uuid = UUID.randomUUID();
+            when(player.getUniqueId()).thenReturn(uuid);
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("global");
+            when(mockChannelService.getChannelDisplayName("global")).thenReturn("[Global]");
+            ChannelDefinition global = ChannelDefinition.compile(0, "global", null);
+            when(mockChannelService.getChannel("global")).thenReturn(global);
+            when(mockHistoryService.canView(player, global)).thenReturn(true);
+            when(mockPlugin.i18n("channel_history_entry")).thenReturn("[{0}] ");
+        }
+
+        @Test
+        @DisplayName("Should show the last ten lines of the current channel")
+        void shouldShowRecentLines() {
+            when(mockHistoryService.getRecent("global", 10)).thenReturn(Arrays.asList(
+                    new ChatHistoryEntry(null, 0, "Alice: hi"),
+                    new ChatHistoryEntry(null, 0, "Bob: hello")));
+
+            commands.onHistory(player);
+
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            verify(player, times(3)).sendMessage(captor.capture());
+            assertThat(captor.getAllValues().get(0)).contains("channel_history_header");
+            assertThat(captor.getAllValues().get(1)).endsWith("] Alice: hi");
+            assertThat(captor.getAllValues().get(2)).endsWith("] Bob: hello");
+        }
+
+        @Test
+        @DisplayName("Should honour the requested count")
+        void shouldHonourCount() {
+            when(mockHistoryService.getRecent("global", 3)).thenReturn(Collections.<ChatHistoryEntry>emptyList());
+
+            commands.onHistoryCount(player, "3");
+
+            verify(mockHistoryService).getRecent("global", 3);
+            assertSentMessageContaining(player, "channel_history_empty");
+        }
+
+        @Test
+        @DisplayName("Should fall back to ten lines for an invalid count")
+        void shouldFallBackForInvalidCount() {
+            when(mockHistoryService.getRecent(anyString(), anyInt())).thenReturn(Collections.<ChatHistoryEntry>emptyList());
+
+            commands.onHistoryCount(player, "lots");
+            commands.onHistoryCount(player, "-5");
+
+            verify(mockHistoryService).getRecent("global", 10);
+            verify(mockHistoryService).getRecent("global", 1);
+        }
+
+        @Test
+        @DisplayName("Should refuse history the player may not read")
+        void shouldRefuseRestrictedHistory() {
+            when(mockHistoryService.canView(eq(player), any(ChannelDefinition.class))).thenReturn(false);
+
+            commands.onHistory(player);
+
+            assertSentMessageContaining(player, "channel_history_denied");
+            verify(mockHistoryService, never()).getRecent(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should not treat history as a channel switch")
+        void shouldNotSwitchToHistory() {
+            commands.onSwitch(player, "history");
+
+            verify(mockChannelService, never()).setPlayerChannel(any(UUID.class), anyString());
+            verify(player, never()).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reject console sender")
+        void shouldRejectConsole() {
+            CommandSender console = mock(CommandSender.class);
+
+            commands.onHistory(console);
+
+            assertSentMessageContaining(console, "only be used by players");
+        }
+    }
+
     // ==================== Tab Completion Tests ====================
 
     @Nested
     @DisplayName("Tab Completion")
     class TabCompletionTests {
 
+        private List<String> complete(Player player, String... args) throws Exception {
+            Method method = ChannelCommands.class.getDeclaredMethod("getName", Player.class, String[].class);
+            method.setAccessible(true); // NOPMD
+
+            @SuppressWarnings("unchecked")
+            List<String> result = (List<String>) method.invoke(commands, player, args);
+            return result;
+        }
+
         @Test
         @DisplayName("Should return available channel names")
         void shouldReturnChannelNames() throws Exception {
             Player player = mock(Player.class);
-            when(mockChannelService.getAvailableChannels(player)).thenReturn(Arrays.asList("global", "local", "staff"));
+            when(mockChannelService.completeChannels(player, "")).thenReturn(Arrays.asList("global", "local", "staff"));
 
-            Method method = ChannelCommands.class.getDeclaredMethod("getName", Player.class);
-            method.setAccessible(true); // NOPMD
+            assertThat(complete(player, "")).containsExactly("global", "local", "staff");
+        }
 
-            @SuppressWarnings("unchecked")
-            List<String> result = (List<String>) method.invoke(commands, player);
+        @Test
+        @DisplayName("Should complete the last typed argument")
+        void shouldCompleteLastArgument() throws Exception {
+            Player player = mock(Player.class);
+            when(mockChannelService.completeChannels(player, "gl")).thenReturn(Collections.singletonList("global"));
 
-            assertThat(result).containsExactly("global", "local", "staff");
+            assertThat(complete(player, "subscribe", "gl")).containsExactly("global");
         }
 
         @Test
         @DisplayName("Should return empty list when no channels available")
         void shouldReturnEmptyList() throws Exception {
             Player player = mock(Player.class);
-            when(mockChannelService.getAvailableChannels(player)).thenReturn(Collections.<String>emptyList());
+            when(mockChannelService.completeChannels(player, "")).thenReturn(Collections.<String>emptyList());
 
-            Method method = ChannelCommands.class.getDeclaredMethod("getName", Player.class);
-            method.setAccessible(true); // NOPMD
+            assertThat(complete(player)).isEmpty();
+        }
+    }
 
-            @SuppressWarnings("unchecked")
-            List<String> result = (List<String>) method.invoke(commands, player);
+    // ==================== Subscribe Tests ====================
+
+    @Nested
+    @DisplayName("Subscribe Commands")
+    class SubscribeTests {
+
+        private Player player;
+        private UUID uuid;
+
+        @BeforeEach
+        void setUpPlayer() {
+            player = mock(Player.class);
+            uuid = UUID.randomUUID();
+            when(player.getUniqueId()).thenReturn(uuid);
+            when(mockPlugin.i18n("channel_subscribed")).thenReturn("Listening to {0}");
+            when(mockPlugin.i18n("channel_already_listening")).thenReturn("Already listening to {0}");
+            when(mockPlugin.i18n("channel_unsubscribed")).thenReturn("Stopped {0}");
+            when(mockPlugin.i18n("channel_not_subscribed")).thenReturn("Not subscribed to {0}");
+            when(mockChannelService.getChannelDisplayName("global")).thenReturn("[Global]");
+        }
+
+        private void allow(String channel) {
+            when(mockChannelService.getChannelDef(channel)).thenReturn(new HashMap<String, Object>());
+            when(mockChannelService.hasChannelPermission(player, channel)).thenReturn(true);
+            when(mockChannelService.isChannelInWorld(player, channel)).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("Should subscribe to a channel")
+        void shouldSubscribe() {
+            allow("global");
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("staff");
+            when(mockChannelService.subscribe(uuid, "global")).thenReturn(true);
+
+            commands.onSubscribe(player, "global");
+
+            verify(mockChannelService).subscribe(uuid, "global");
+            assertSentMessageContaining(player, "Listening to [Global]");
+        }
+
+        @Test
+        @DisplayName("Should save subscriptions to the profile")
+        void shouldSaveSubscriptions() {
+            allow("global");
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("staff");
+            when(mockChannelService.subscribe(uuid, "global")).thenReturn(true);
+            when(mockChannelService.getSubscriptions(uuid)).thenReturn(Collections.singleton("global"));
+
+            commands.onSubscribe(player, "global");
+
+            assertThat(savedProfile(uuid).getSubscriptions()).containsExactly("global");
+        }
+
+        @Test
+        @DisplayName("Should not subscribe to the active channel")
+        void shouldNotSubscribeToActive() {
+            allow("global");
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("global");
+
+            commands.onSubscribe(player, "global");
+
+            verify(mockChannelService, never()).subscribe(any(), anyString());
+            assertSentMessageContaining(player, "Already listening");
+        }
+
+        @Test
+        @DisplayName("Should report an existing subscription")
+        void shouldReportExistingSubscription() {
+            allow("global");
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("staff");
+            when(mockChannelService.subscribe(uuid, "global")).thenReturn(false);
+
+            commands.onSubscribe(player, "global");
+
+            assertSentMessageContaining(player, "Already listening");
+        }
+
+        @Test
+        @DisplayName("Should require permission to subscribe")
+        void shouldRequirePermission() {
+            when(mockChannelService.getChannelDef("staff")).thenReturn(new HashMap<String, Object>());
+            when(mockChannelService.hasChannelPermission(player, "staff")).thenReturn(false);
+
+            commands.onSubscribe(player, "staff");
+
+            verify(mockChannelService, never()).subscribe(any(), anyString());
+            assertSentMessageContaining(player, "No permission");
+        }
+
+        @Test
+        @DisplayName("Should reject unknown channels")
+        void shouldRejectUnknown() {
+            commands.onSubscribe(player, "nonexistent");
+
+            verify(mockChannelService, never()).subscribe(any(), anyString());
+            assertSentMessageContaining(player, "nonexistent");
+        }
+
+        @Test
+        @DisplayName("Should unsubscribe from a channel")
+        void shouldUnsubscribe() {
+            when(mockChannelService.unsubscribe(uuid, "global")).thenReturn(true);
+
+            commands.onUnsubscribe(player, "global");
+
+            assertSentMessageContaining(player, "Stopped [Global]");
+        }
+
+        @Test
+        @DisplayName("Should report a missing subscription")
+        void shouldReportMissingSubscription() {
+            commands.onUnsubscribe(player, "global");
+
+            assertSentMessageContaining(player, "Not subscribed to global");
+            verify(mockProfileService, never()).update(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should show subscriptions in the channel list")
+        void shouldListSubscriptions() {
+            when(mockPlugin.i18n("channel_listening")).thenReturn("Also: {0}");
+            when(mockChannelService.getAvailableChannels(player)).thenReturn(Collections.singletonList("global"));
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("staff");
+            when(mockChannelService.getSubscriptions(uuid)).thenReturn(Collections.singleton("global"));
+
+            commands.onList(player);
+
+            assertSentMessageContaining(player, "Also: [Global]");
+        }
+
+        @Test
+        @DisplayName("Should reject console senders")
+        void shouldRejectConsole() {
+            CommandSender console = mock(CommandSender.class);
+
+            commands.onSubscribe(console, "global");
+            commands.onUnsubscribe(console, "global");
+
+            verify(mockChannelService, never()).subscribe(any(), anyString());
+            verify(mockChannelService, never()).unsubscribe(any(), anyString());
+        }
+    }
+
+    // ==================== Party Tests ====================
+
+    @Nested
+    @DisplayName("Party Commands")
+    class PartyTests {
+
+        private Player player;
+        private UUID uuid;
+        private ChannelDefinition raid;
+
+        @BeforeEach
+        void setUpPlayer() throws Exception {
+            ChatTestHelper.setUp();
+            player = mock(Player.class);
+            uuid = UUID.randomUUID();
+            when(player.getUniqueId()).thenReturn(uuid);
+            when(player.getName()).thenReturn("Alice");
+            when(player.hasPermission(ChannelCommands.PARTY_PERMISSION)).thenReturn(true);
+            raid = ChannelDefinition.party(3, "raid", "[{name}]");
+        }
+
+        @AfterEach
+        void tearDown() throws Exception {
+            ChatTestHelper.tearDown();
+        }
+
+        @Test
+        @DisplayName("Should create a party")
+        void shouldCreateParty() {
+            when(mockChannelService.createParty(player, "raid")).thenReturn(raid);
+
+            commands.onCreate(player, "raid");
+
+            assertSentMessageContaining(player, "channel_party_created");
+        }
+
+        @Test
+        @DisplayName("Should report a taken name")
+        void shouldReportTakenName() {
+            commands.onCreate(player, "global");
+
+            assertSentMessageContaining(player, "channel_party_taken");
+        }
+
+        @Test
+        @DisplayName("Should reject invalid and reserved names")
+        void shouldRejectInvalidNames() {
+            commands.onCreate(player, "a");
+            commands.onCreate(player, "no spaces");
+            commands.onCreate(player, "History");
+
+            verify(mockChannelService, never()).createParty(any(), anyString());
+            verify(player, times(3)).sendMessage(contains("channel_party_invalid_name"));
+        }
+
+        @Test
+        @DisplayName("Should need the party permission and the feature enabled")
+        void shouldRequirePermission() {
+            when(player.hasPermission(ChannelCommands.PARTY_PERMISSION)).thenReturn(false);
+            commands.onCreate(player, "raid");
+
+            when(player.hasPermission(ChannelCommands.PARTY_PERMISSION)).thenReturn(true);
+            channelConfig.setPartyEnabled(false);
+            commands.onCreate(player, "raid");
+
+            verify(mockChannelService, never()).createParty(any(), anyString());
+            verify(player, times(2)).sendMessage(contains("channel_party_denied"));
+        }
+
+        @Test
+        @DisplayName("Should invite an online player to the current party")
+        void shouldInvite() {
+            Player guest = mock(Player.class);
+            UUID guestId = UUID.randomUUID();
+            when(guest.getUniqueId()).thenReturn(guestId);
+            when(guest.getName()).thenReturn("Bob");
+            when(ChatTestHelper.getMockServer().getPlayerExact("Bob")).thenReturn(guest);
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("raid");
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+            when(mockChannelService.invite("raid", guestId)).thenReturn(true);
+
+            commands.onInvite(player, "Bob");
+
+            assertSentMessageContaining(player, "channel_party_invite_sent");
+            assertSentMessageContaining(guest, "channel_party_invited");
+        }
+
+        @Test
+        @DisplayName("Should only invite from a party channel")
+        void shouldRequireParty() {
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("global");
+
+            commands.onInvite(player, "Bob");
+
+            verify(mockChannelService, never()).invite(anyString(), any());
+            assertSentMessageContaining(player, "channel_party_not_in");
+        }
+
+        @Test
+        @DisplayName("Should not invite into a full party")
+        void shouldRejectFullParty() {
+            Player guest = mock(Player.class);
+            when(ChatTestHelper.getMockServer().getPlayerExact("Bob")).thenReturn(guest);
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("raid");
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+            when(mockChannelService.getPartySize("raid")).thenReturn(channelConfig.getPartyMaxMembers());
+
+            commands.onInvite(player, "Bob");
+
+            verify(mockChannelService, never()).invite(anyString(), any());
+            assertSentMessageContaining(player, "channel_party_full");
+        }
+
+        @Test
+        @DisplayName("Should report players who are not online")
+        void shouldReportOfflinePlayer() {
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("raid");
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+
+            commands.onInvite(player, "Nobody");
+
+            assertSentMessageContaining(player, "channel_party_player_not_found");
+        }
+
+        @Test
+        @DisplayName("Should join an invited party without saving it to the profile")
+        void shouldJoinParty() {
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+            when(mockChannelService.hasChannelPermission(player, "raid")).thenReturn(true);
+
+            commands.onSwitch(player, "raid");
+
+            verify(mockChannelService).setPlayerChannel(uuid, "raid");
+            verify(mockProfileService, never()).update(any(), any());
+            assertSentMessageContaining(player, "Switched to [raid]");
+        }
+
+        @Test
+        @DisplayName("Should not join a party without an invitation")
+        void shouldRequireInvitation() {
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+
+            commands.onSwitch(player, "raid");
+
+            verify(mockChannelService, never()).setPlayerChannel(any(), anyString());
+            assertSentMessageContaining(player, "channel_party_not_invited");
+        }
+
+        @Test
+        @DisplayName("Should not save party subscriptions to the profile")
+        void shouldNotSavePartySubscriptions() {
+            when(mockChannelService.getParty("raid")).thenReturn(raid);
+            when(mockChannelService.hasChannelPermission(player, "raid")).thenReturn(true);
+            when(mockChannelService.isChannelInWorld(player, "raid")).thenReturn(true);
+            when(mockChannelService.getPlayerChannel(uuid)).thenReturn("global");
+            when(mockChannelService.subscribe(uuid, "raid")).thenReturn(true);
+            when(mockChannelService.isListening(uuid, "raid")).thenReturn(true);
+            when(mockChannelService.getSubscriptions(uuid)).thenReturn(new HashSet<>(Arrays.asList("raid", "staff")));
+            when(mockChannelService.getChannelDisplayName("raid")).thenReturn("[raid]");
+
+            commands.onSubscribe(player, "raid");
 
-            assertThat(result).isEmpty();
+            assertThat(savedProfile(uuid).getSubscriptions()).containsExactly("staff");
         }
     }
 }
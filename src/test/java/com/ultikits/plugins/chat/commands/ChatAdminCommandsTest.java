@@ -1,11 +1,27 @@
 package com.ultikits.plugins.chat.commands;
 
+import com.ultikits.plugins.chat.bridge.ChannelBridgeService;
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.AutoReplyImportService;
 import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.CommandQueueService;
+import com.ultikits.plugins.chat.service.ImportReport;
+import com.ultikits.plugins.chat.service.MatchReport;
+import com.ultikits.plugins.chat.service.RuleStats;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
 import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -13,7 +29,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
- * Tests for ChatAdminCommands — reload, autoreply list/add/remove.
+ * Tests for ChatAdminCommands — reload, autoreply list/search/test/add/remove/stats
+ * and import/export.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -23,19 +40,38 @@ class ChatAdminCommandsTest {
 
     private UltiToolsPlugin mockPlugin;
     private AutoReplyService mockAutoReplyService;
+    private CommandQueueService mockCommandQueueService;
+    private ChannelService mockChannelService;
+    private AutoReplyImportService mockImportService;
+    private ChannelBridgeService mockBridgeService;
+    private AnnouncementService mockAnnouncementService;
     private ChatAdminCommands commands;
 
     @BeforeEach
     void setUp() {
         mockPlugin = mock(UltiToolsPlugin.class);
         mockAutoReplyService = mock(AutoReplyService.class);
+        mockCommandQueueService = mock(CommandQueueService.class);
+        mockChannelService = mock(ChannelService.class);
+        mockImportService = mock(AutoReplyImportService.class);
+        mockBridgeService = mock(ChannelBridgeService.class);
+        mockAnnouncementService = mock(AnnouncementService.class);
         when(mockPlugin.i18n(anyString())).thenAnswer(inv -> inv.getArgument(0));
         when(mockPlugin.i18n("autoreply_added")).thenReturn("Rule '{0}' added.");
         when(mockPlugin.i18n("autoreply_removed")).thenReturn("Rule '{0}' removed.");
         when(mockPlugin.i18n("autoreply_not_found")).thenReturn("Rule '{0}' not found.");
         when(mockPlugin.i18n("autoreply_list_entry")).thenReturn("{0}: {1} [{2}]");
-
-        commands = new ChatAdminCommands(mockPlugin, mockAutoReplyService);
+        when(mockPlugin.i18n("autoreply_list_page")).thenReturn("page {0}/{1} {2}");
+        when(mockPlugin.i18n("autoreply_search_header")).thenReturn("search {0}");
+        when(mockPlugin.i18n("autoreply_test_matches")).thenReturn("matches {0} {1}");
+        when(mockPlugin.i18n("autoreply_test_winner")).thenReturn("winner {0} {1}");
+        when(mockPlugin.i18n("autoreply_test_no_winner")).thenReturn("none {0}");
+        when(mockPlugin.i18n("autoreply_stats_entry")).thenReturn("{0}. {1} {2} {3} {4} {5}");
+        when(mockPlugin.i18n("autoreply_stats_unused")).thenReturn("unused {0}/{1}");
+        when(mockPlugin.i18n("autoreply_stats_queue")).thenReturn("queue {0} {1} {2} {3}");
+
+        commands = new ChatAdminCommands(mockPlugin, mockAutoReplyService, mockCommandQueueService,
+                mockChannelService, mockImportService, mockBridgeService, mockAnnouncementService);
     }
 
     private void assertSentMessageContaining(CommandSender sender, String substring) {
@@ -70,10 +106,47 @@ class ChatAdminCommandsTest {
 
             assertSentMessageContaining(sender, "config_reloaded");
         }
+
+        @Test
+        @DisplayName("Should flush pending auto-reply edits before reloading")
+        void shouldFlushBeforeReload() {
+            CommandSender sender = mock(CommandSender.class);
+
+            commands.onReload(sender);
+
+            InOrder order = inOrder(mockAutoReplyService, mockPlugin);
+            order.verify(mockAutoReplyService).flushPendingEdits();
+            order.verify(mockPlugin).reloadSelf();
+        }
+
+        @Test
+        @DisplayName("Should recompile channels after reloading")
+        void shouldInvalidateChannelsAfterReload() {
+            CommandSender sender = mock(CommandSender.class);
+
+            commands.onReload(sender);
+
+            InOrder order = inOrder(mockPlugin, mockChannelService);
+            order.verify(mockPlugin).reloadSelf();
+            order.verify(mockChannelService).invalidate();
+        }
     }
 
     // ==================== AutoReply List Tests ====================
 
+    private Map<String, Object> rule(String keyword, String mode) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("keyword", keyword);
+        rule.put("mode", mode);
+        return rule;
+    }
+
+    private List<String> sentMessages(CommandSender sender) {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(sender, atLeastOnce()).sendMessage(captor.capture());
+        return captor.getAllValues();
+    }
+
     @Nested
     @DisplayName("AutoReply List Command")
     class AutoReplyListTests {
@@ -82,7 +155,7 @@ class ChatAdminCommandsTest {
         @DisplayName("Should show header and empty message when no rules")
         void shouldShowEmptyMessage() {
             CommandSender sender = mock(CommandSender.class);
-            when(mockAutoReplyService.getRules()).thenReturn(Collections.<String, Map<String, Object>>emptyMap());
+            when(mockAutoReplyService.getRuleCount()).thenReturn(0);
 
             commands.onAutoReplyList(sender);
 
@@ -93,44 +166,170 @@ class ChatAdminCommandsTest {
         }
 
         @Test
-        @DisplayName("Should list all rules with details")
-        void shouldListAllRules() {
+        @DisplayName("Should list the first page of rules with details")
+        void shouldListFirstPage() {
             CommandSender sender = mock(CommandSender.class);
 
             Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
-            Map<String, Object> rule1 = new HashMap<>();
-            rule1.put("keyword", "hello");
-            rule1.put("mode", "contains");
-            rules.put("greeting", rule1);
+            rules.put("greeting", rule("hello", "contains"));
+            rules.put("rules-info", rule("rules", "exact"));
+            when(mockAutoReplyService.getRules()).thenReturn(rules);
+            when(mockAutoReplyService.getRuleCount()).thenReturn(2);
+            when(mockAutoReplyService.getRuleNames(0, 10)).thenReturn(Arrays.asList("greeting", "rules-info"));
 
-            Map<String, Object> rule2 = new HashMap<>();
-            rule2.put("keyword", "rules");
-            rule2.put("mode", "exact");
-            rules.put("rules-info", rule2);
+            commands.onAutoReplyList(sender);
 
+            // header + 2 entries + page footer
+            assertThat(sentMessages(sender)).containsExactly(
+                    "autoreply_list_header", "greeting: hello [contains]", "rules-info: rules [exact]",
+                    "page 1/1 2");
+        }
+
+        @Test
+        @DisplayName("Should request the slice of the given page")
+        void shouldListGivenPage() {
+            CommandSender sender = mock(CommandSender.class);
+            Map<String, Map<String, Object>> rules = new HashMap<>();
+            rules.put("rule25", rule("k", "contains"));
             when(mockAutoReplyService.getRules()).thenReturn(rules);
+            when(mockAutoReplyService.getRuleCount()).thenReturn(25);
+            when(mockAutoReplyService.getRuleNames(20, 10)).thenReturn(Collections.singletonList("rule25"));
 
-            commands.onAutoReplyList(sender);
+            commands.onAutoReplyListPage(sender, "3");
+
+            assertThat(sentMessages(sender)).contains("rule25: k [contains]", "page 3/3 25");
+        }
+
+        @Test
+        @DisplayName("Should clamp out-of-range and invalid pages")
+        void shouldClampPages() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.getRules()).thenReturn(Collections.<String, Map<String, Object>>emptyMap());
+            when(mockAutoReplyService.getRuleCount()).thenReturn(15);
+
+            commands.onAutoReplyListPage(sender, "99");
+            commands.onAutoReplyListPage(sender, "abc");
 
-            // header + 2 entries = 3 messages
-            verify(sender, times(3)).sendMessage(anyString());
+            verify(mockAutoReplyService).getRuleNames(10, 10);
+            verify(mockAutoReplyService).getRuleNames(0, 10);
         }
+    }
+
+    // ==================== AutoReply Search Tests ====================
+
+    @Nested
+    @DisplayName("AutoReply Search Command")
+    class AutoReplySearchTests {
 
         @Test
-        @DisplayName("Should show header even with rules")
-        void shouldShowHeader() {
+        @DisplayName("Should list matching rules")
+        void shouldListMatches() {
             CommandSender sender = mock(CommandSender.class);
+            Map<String, Map<String, Object>> rules = new HashMap<>();
+            rules.put("spawn", rule("where is spawn", "fuzzy"));
+            when(mockAutoReplyService.getRules()).thenReturn(rules);
+            when(mockAutoReplyService.searchRules("sp")).thenReturn(Collections.singletonList("spawn"));
 
+            commands.onAutoReplySearch(sender, "sp");
+
+            assertThat(sentMessages(sender)).containsExactly(
+                    "search sp", "spawn: where is spawn [fuzzy]", "page 1/1 1");
+        }
+
+        @Test
+        @DisplayName("Should page search results")
+        void shouldPageResults() {
+            CommandSender sender = mock(CommandSender.class);
             Map<String, Map<String, Object>> rules = new HashMap<>();
-            Map<String, Object> rule = new HashMap<>();
-            rule.put("keyword", "test");
-            rule.put("mode", "contains");
-            rules.put("test-rule", rule);
+            List<String> found = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                rules.put("r" + i, rule("k" + i, "contains"));
+                found.add("r" + i);
+            }
             when(mockAutoReplyService.getRules()).thenReturn(rules);
+            when(mockAutoReplyService.searchRules("r")).thenReturn(found);
 
-            commands.onAutoReplyList(sender);
+            commands.onAutoReplySearchPage(sender, "r", "2");
 
-            assertSentMessageContaining(sender, "autoreply_list_header");
+            assertThat(sentMessages(sender)).containsExactly(
+                    "search r", "r10: k10 [contains]", "r11: k11 [contains]", "page 2/2 12");
+        }
+
+        @Test
+        @DisplayName("Should report when nothing matches")
+        void shouldReportNoMatches() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.searchRules("zz")).thenReturn(Collections.<String>emptyList());
+
+            commands.onAutoReplySearch(sender, "zz");
+
+            assertThat(sentMessages(sender)).containsExactly("search zz", "autoreply_search_empty");
+        }
+    }
+
+    // ==================== AutoReply Test Tests ====================
+
+    @Nested
+    @DisplayName("AutoReply Test Command")
+    class AutoReplyTestTests {
+
+        @Test
+        @DisplayName("Should report matches, winner and time")
+        void shouldReportMatches() {
+            CommandSender sender = mock(CommandSender.class);
+            MatchReport report = mock(MatchReport.class);
+            when(report.getMatches()).thenReturn(Arrays.asList("first", "third"));
+            when(report.getWinner()).thenReturn("first");
+            when(report.getMatchNanos()).thenReturn(12_500L);
+            when(mockAutoReplyService.test("spawn", null)).thenReturn(report);
+
+            commands.onAutoReplyTest(sender, "spawn");
+
+            assertThat(sentMessages(sender)).containsExactly(
+                    "autoreply_test_header", "matches 2 first, third", "winner first 12.5");
+        }
+
+        @Test
+        @DisplayName("Should report when no rule matches")
+        void shouldReportNoMatch() {
+            CommandSender sender = mock(CommandSender.class);
+            MatchReport report = mock(MatchReport.class);
+            when(report.getMatches()).thenReturn(Collections.<String>emptyList());
+            when(mockAutoReplyService.test("hello", null)).thenReturn(report);
+
+            commands.onAutoReplyTest(sender, "hello");
+
+            assertThat(sentMessages(sender)).containsExactly(
+                    "autoreply_test_header", "autoreply_test_none", "none 0.0");
+        }
+
+        @Test
+        @DisplayName("Should test a player's message against their channel")
+        void shouldUsePlayerChannel() {
+            Player sender = mock(Player.class);
+            UUID uuid = UUID.randomUUID();
+            when(sender.getUniqueId()).thenReturn(uuid);
+            when(mockChannelService.getActiveChannel(uuid)).thenReturn("staff");
+            MatchReport report = mock(MatchReport.class);
+            when(report.getMatches()).thenReturn(Collections.<String>emptyList());
+            when(mockAutoReplyService.test("hello", "staff")).thenReturn(report);
+
+            commands.onAutoReplyTest(sender, "hello");
+
+            verify(mockAutoReplyService).test("hello", "staff");
+        }
+
+        @Test
+        @DisplayName("Should test every remaining argument as one message")
+        void shouldJoinWords() {
+            CommandSender sender = mock(CommandSender.class);
+            MatchReport report = mock(MatchReport.class);
+            when(report.getMatches()).thenReturn(Collections.<String>emptyList());
+            when(mockAutoReplyService.test("wher is spawn", null)).thenReturn(report);
+
+            commands.onAutoReplyTest(sender, "wher", "is", "spawn");
+
+            verify(mockAutoReplyService).test("wher is spawn", null);
         }
     }
 
@@ -209,6 +408,319 @@ class ChatAdminCommandsTest {
         }
     }
 
+    // ==================== AutoReply Stats Tests ====================
+
+    @Nested
+    @DisplayName("AutoReply Stats Command")
+    class AutoReplyStatsTests {
+
+        private RuleStats stats(String name, long hits, long nanos) {
+            RuleStats stats = mock(RuleStats.class);
+            when(stats.getRuleName()).thenReturn(name);
+            when(stats.getHits()).thenReturn(hits);
+            when(stats.getMatchNanos()).thenReturn(nanos);
+            return stats;
+        }
+
+        private List<String> sentMessages(CommandSender sender) {
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            verify(sender, atLeastOnce()).sendMessage(captor.capture());
+            return captor.getAllValues();
+        }
+
+        @Test
+        @DisplayName("Should rank rules by hits and by match time")
+        void shouldRankRules() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.getRuleStats()).thenReturn(Arrays.asList(
+                    stats("cheap", 1, 1_000), stats("popular", 50, 2_000), stats("slow", 5, 9_000_000)));
+
+            commands.onAutoReplyStatsTop(sender, "1");
+
+            List<String> messages = sentMessages(sender);
+            assertThat(messages).contains("autoreply_stats_by_hits", "autoreply_stats_by_cost");
+            assertThat(messages).anyMatch(msg -> msg.startsWith("1. popular 50"));
+            assertThat(messages).anyMatch(msg -> msg.startsWith("1. slow 5 9.00"));
+            assertThat(messages).noneMatch(msg -> msg.contains("cheap"));
+        }
+
+        @Test
+        @DisplayName("Should count rules that never fired")
+        void shouldCountUnusedRules() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.getRuleStats()).thenReturn(Arrays.asList(
+                    stats("a", 0, 0), stats("b", 3, 0), stats("c", 0, 0)));
+
+            commands.onAutoReplyStats(sender);
+
+            assertThat(sentMessages(sender)).contains("unused 2/3");
+        }
+
+        @Test
+        @DisplayName("Should report command queue counters")
+        void shouldReportQueueCounters() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.getRuleStats()).thenReturn(Collections.<RuleStats>emptyList());
+            when(mockCommandQueueService.getPending()).thenReturn(4);
+            when(mockCommandQueueService.getDispatched()).thenReturn(10L);
+            when(mockCommandQueueService.getDroppedOverflow()).thenReturn(2L);
+            when(mockCommandQueueService.getDroppedRateLimited()).thenReturn(1L);
+
+            commands.onAutoReplyStats(sender);
+
+            List<String> messages = sentMessages(sender);
+            assertThat(messages).contains("autoreply_list_empty", "queue 4 10 2 1");
+        }
+
+        @Test
+        @DisplayName("Should reset statistics")
+        void shouldResetStats() {
+            CommandSender sender = mock(CommandSender.class);
+
+            commands.onAutoReplyStatsTop(sender, "reset");
+
+            verify(mockAutoReplyService).resetStats();
+            verify(mockAutoReplyService, never()).getRuleStats();
+            assertSentMessageContaining(sender, "autoreply_stats_reset");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the default count for a non-numeric argument")
+        void shouldFallBackToDefaultCount() {
+            CommandSender sender = mock(CommandSender.class);
+            when(mockAutoReplyService.getRuleStats()).thenReturn(Collections.<RuleStats>emptyList());
+
+            commands.onAutoReplyStatsTop(sender, "abc");
+
+            verify(mockAutoReplyService, never()).resetStats();
+            assertSentMessageContaining(sender, "autoreply_stats_header");
+        }
+    }
+
+    // ==================== AutoReply Import/Export Tests ====================
+
+    @Nested
+    @DisplayName("AutoReply Import/Export Commands")
+    class AutoReplyImportExportTests {
+
+        @TempDir
+        File tempDir;
+
+        private CommandSender sender;
+        private File csv;
+
+        @BeforeEach
+        void setUpImport() throws Exception {
+            ChatTestHelper.setUp();
+            sender = mock(CommandSender.class);
+            csv = new File(tempDir, "faq.csv");
+            when(mockPlugin.i18n("autoreply_import_done")).thenReturn("done {0} {1} {2}");
+            when(mockPlugin.i18n("autoreply_import_failure")).thenReturn("fail {0} {1} {2}");
+            when(mockPlugin.i18n("autoreply_import_more")).thenReturn("more {0}");
+            when(mockPlugin.i18n("autoreply_import_error")).thenReturn("error {0}");
+            when(mockPlugin.i18n("autoreply_export_done")).thenReturn("exported {0} {1}");
+        }
+
+        @AfterEach
+        void tearDownImport() throws Exception {
+            ChatTestHelper.tearDown();
+        }
+
+        private ImportReport report(int imported, int total, int failures) {
+            List<ImportReport.Failure> failureList = new ArrayList<>();
+            for (int i = 0; i < failures; i++) {
+                ImportReport.Failure failure = mock(ImportReport.Failure.class);
+                when(failure.getLine()).thenReturn(i + 2);
+                when(failure.getRuleName()).thenReturn("r" + i);
+                when(failure.getReason()).thenReturn("missing keyword");
+                failureList.add(failure);
+            }
+            ImportReport report = mock(ImportReport.class);
+            when(report.getImported()).thenReturn(imported);
+            when(report.getTotalRules()).thenReturn(total);
+            when(report.getFailures()).thenReturn(failureList);
+            return report;
+        }
+
+        @Test
+        @DisplayName("Should reject file names outside the import folder")
+        void shouldRejectInvalidName() {
+            when(mockImportService.resolve("../secret.csv")).thenReturn(null);
+
+            commands.onAutoReplyImport(sender, "../secret.csv");
+
+            assertSentMessageContaining(sender, "autoreply_file_invalid");
+            verifyNoMoreInteractions(mockAutoReplyService);
+        }
+
+        @Test
+        @DisplayName("Should report a missing file")
+        void shouldReportMissingFile() throws IOException {
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            assertSentMessageContaining(sender, "autoreply_file_not_found");
+            verify(mockImportService, never()).importRules(any(File.class), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should merge by default and report counts and failures")
+        void shouldMergeAndReport() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            ImportReport report = report(8, 10, 2);
+            when(mockImportService.importRules(csv, false)).thenReturn(report);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            assertThat(sentMessages(sender)).containsExactly(
+                    "autoreply_import_started", "done 8 2 10",
+                    "fail 2 r0 missing keyword", "fail 3 r1 missing keyword");
+        }
+
+        @Test
+        @DisplayName("Should replace existing rules in replace mode")
+        void shouldReplace() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            ImportReport report = report(1, 1, 0);
+            when(mockImportService.importRules(csv, true)).thenReturn(report);
+
+            commands.onAutoReplyImportMode(sender, "faq.csv", "replace");
+
+            verify(mockImportService).importRules(csv, true);
+        }
+
+        @Test
+        @DisplayName("Should reject an import while another one is running")
+        void shouldRejectConcurrentImport() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            when(mockImportService.isImporting()).thenReturn(true);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            assertThat(sentMessages(sender)).containsExactly("autoreply_import_busy");
+            verify(mockImportService, never()).importRules(any(File.class), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should report an import that lost the race to another one")
+        void shouldReportLostRace() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            when(mockImportService.importRules(csv, false)).thenReturn(null);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            assertThat(sentMessages(sender)).containsExactly("autoreply_import_started", "autoreply_import_busy");
+        }
+
+        @Test
+        @DisplayName("Should list at most ten failures")
+        void shouldTruncateFailures() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            ImportReport report = report(0, 0, 13);
+            when(mockImportService.importRules(csv, false)).thenReturn(report);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            List<String> messages = sentMessages(sender);
+            assertThat(messages).filteredOn(msg -> msg.startsWith("fail ")).hasSize(10);
+            assertThat(messages).contains("more 3");
+        }
+
+        @Test
+        @DisplayName("Should report an unreadable file")
+        void shouldReportImportError() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            when(mockImportService.importRules(csv, false)).thenThrow(new IOException("Missing 'name' column"));
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            assertSentMessageContaining(sender, "error Missing 'name' column");
+        }
+
+        @Test
+        @DisplayName("Should run the import asynchronously when UltiTools is available")
+        void shouldImportAsync() throws IOException {
+            assertThat(csv.createNewFile()).isTrue();
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            Plugin ultiTools = mock(Plugin.class);
+            when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(ultiTools);
+
+            commands.onAutoReplyImport(sender, "faq.csv");
+
+            verify(Bukkit.getScheduler()).runTaskAsynchronously(eq(ultiTools), any(Runnable.class));
+            verify(mockImportService, never()).importRules(any(File.class), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should export rules")
+        void shouldExport() throws IOException {
+            when(mockImportService.resolve("faq.csv")).thenReturn(csv);
+            when(mockImportService.exportRules(csv)).thenReturn(42);
+
+            commands.onAutoReplyExport(sender, "faq.csv");
+
+            assertSentMessageContaining(sender, "exported 42 faq.csv");
+        }
+    }
+
+    // ==================== Bridge Tests ====================
+
+    @Nested
+    @DisplayName("Bridge Command")
+    class BridgeTests {
+
+        @Test
+        @DisplayName("Should show bridge counters")
+        void shouldShowCounters() {
+            when(mockPlugin.i18n("bridge_status")).thenReturn("{0} {1} {2} {3} {4} {5} {6}");
+            when(mockBridgeService.getPendingCount()).thenReturn(7);
+            when(mockBridgeService.getSentFrames()).thenReturn(2L);
+            when(mockBridgeService.getSentMessages()).thenReturn(40L);
+            when(mockBridgeService.getReceivedMessages()).thenReturn(35L);
+            when(mockBridgeService.getDuplicateMessages()).thenReturn(1L);
+            when(mockBridgeService.getDroppedMessages()).thenReturn(3L);
+            when(mockBridgeService.getStalledTicks()).thenReturn(5L);
+            CommandSender sender = mock(CommandSender.class);
+
+            commands.onBridge(sender);
+
+            verify(sender).sendMessage("7 2 40 35 1 3 5");
+        }
+    }
+
+    // ==================== Announcement Tests ====================
+
+    @Nested
+    @DisplayName("Announcements Command")
+    class AnnouncementTests {
+
+        @Test
+        @DisplayName("Should show delivery counters with times in microseconds and failed runs")
+        void shouldShowCounters() {
+            when(mockPlugin.i18n("announcement_status")).thenReturn("{0} {1} {2} {3} {4} {5} {6} {7}");
+            when(mockAnnouncementService.getPendingPlayers()).thenReturn(400);
+            when(mockAnnouncementService.getDeliveredPlayers()).thenReturn(1100L);
+            when(mockAnnouncementService.getDeliveryTicks()).thenReturn(11L);
+            when(mockAnnouncementService.getLastTickPlayers()).thenReturn(100);
+            when(mockAnnouncementService.getLastTickNanos()).thenReturn(250_000L);
+            when(mockAnnouncementService.getMaxTickPlayers()).thenReturn(100);
+            when(mockAnnouncementService.getMaxTickNanos()).thenReturn(900_500L);
+            when(mockAnnouncementService.getFailed()).thenReturn(2L);
+            CommandSender sender = mock(CommandSender.class);
+
+            commands.onAnnouncements(sender);
+
+            verify(sender).sendMessage("400 1100 11 100 250 100 900 2");
+        }
+    }
+
     // ==================== Help Tests ====================
 
     @Nested
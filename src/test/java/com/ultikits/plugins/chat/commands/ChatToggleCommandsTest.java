@@ -0,0 +1,119 @@
+package com.ultikits.plugins.chat.commands;
+
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ChatToggleCommands — mention and announcement toggles.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChatToggleCommands Tests")
+class ChatToggleCommandsTest {
+
+    private UltiToolsPlugin mockPlugin;
+    private ChatProfileService mockProfileService;
+    private AnnouncementService mockAnnouncementService;
+    private ChatToggleCommands commands;
+    private Player player;
+    private UUID uuid;
+    private ChatProfile current;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mockPlugin = mock(UltiToolsPlugin.class);
+        when(mockPlugin.i18n(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        mockProfileService = mock(ChatProfileService.class);
+        current = ChatProfile.DEFAULT;
+        // Apply the change to the current profile like the real service
+        when(mockProfileService.update(any(UUID.class), any(UnaryOperator.class))).thenAnswer(inv -> {
+            current = ((UnaryOperator<ChatProfile>) inv.getArgument(1)).apply(current);
+            return current;
+        });
+        mockAnnouncementService = mock(AnnouncementService.class);
+        commands = new ChatToggleCommands(mockPlugin, mockProfileService, mockAnnouncementService);
+
+        player = mock(Player.class);
+        uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+    }
+
+    private String lastMessage(CommandSender sender) {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(sender, atLeastOnce()).sendMessage(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Should turn mention sounds off and back on")
+    void shouldToggleMentions() {
+        commands.onMentions(player);
+        assertThat(current.isMentions()).isFalse();
+        assertThat(lastMessage(player)).isEqualTo("toggle_mentions_off");
+
+        commands.onMentions(player);
+        assertThat(current.isMentions()).isTrue();
+        assertThat(lastMessage(player)).isEqualTo("toggle_mentions_on");
+    }
+
+    @Test
+    @DisplayName("Should turn announcements off and back on")
+    void shouldToggleAnnouncements() {
+        commands.onAnnouncements(player);
+        assertThat(current.isAnnouncements()).isFalse();
+        assertThat(lastMessage(player)).isEqualTo("toggle_announcements_off");
+
+        commands.onAnnouncements(player);
+        assertThat(current.isAnnouncements()).isTrue();
+        assertThat(lastMessage(player)).isEqualTo("toggle_announcements_on");
+        verify(mockAnnouncementService, times(2)).refreshBossBar(player);
+    }
+
+    @Test
+    @DisplayName("Should only change the toggled preference")
+    void shouldKeepOtherPreferences() {
+        current = ChatProfile.DEFAULT.withChannel("trade");
+
+        commands.onMentions(player);
+
+        assertThat(current.getChannel()).isEqualTo("trade");
+        assertThat(current.isAnnouncements()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject console senders")
+    void shouldRejectConsole() {
+        CommandSender console = mock(CommandSender.class);
+
+        commands.onMentions(console);
+        commands.onAnnouncements(console);
+
+        verify(mockProfileService, never()).update(any(), any());
+        assertThat(lastMessage(console)).contains("only be used by players");
+    }
+
+    @Test
+    @DisplayName("Should display help")
+    void shouldDisplayHelp() {
+        CommandSender sender = mock(CommandSender.class);
+
+        commands.handleHelp(sender);
+
+        verify(sender, atLeast(3)).sendMessage(anyString());
+    }
+}
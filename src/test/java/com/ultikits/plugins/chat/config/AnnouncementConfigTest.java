@@ -77,6 +77,12 @@ class AnnouncementConfigTest {
             assertThat(config.getBossBarDuration()).isEqualTo(10);
         }
 
+        @Test
+        @DisplayName("Should not animate the boss bar by default")
+        void shouldNotAnimateBossBar() {
+            assertThat(config.isBossBarAnimate()).isFalse();
+        }
+
         @Test
         @DisplayName("Should have default boss bar color BLUE")
         void shouldHaveDefaultBossBarColor() {
@@ -135,6 +141,23 @@ class AnnouncementConfigTest {
         }
     }
 
+    @Nested
+    @DisplayName("Delivery Defaults")
+    class DeliveryDefaults {
+
+        @Test
+        @DisplayName("Should send to at least 100 players per tick")
+        void shouldHaveDefaultPerTick() {
+            assertThat(config.getDeliveryPerTick()).isEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("Should spread an announcement over at most 20 ticks")
+        void shouldHaveDefaultSpreadTicks() {
+            assertThat(config.getDeliverySpreadTicks()).isEqualTo(20);
+        }
+    }
+
     @Nested
     @DisplayName("Setter Tests")
     class SetterTests {
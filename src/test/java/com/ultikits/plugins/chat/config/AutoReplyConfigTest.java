@@ -39,6 +39,50 @@ class AutoReplyConfigTest {
             assertThat(config.getCooldown()).isEqualTo(10);
         }
 
+        @Test
+        @DisplayName("Should have default command queue limits")
+        void shouldHaveDefaultCommandQueueLimits() {
+            assertThat(config.getCommandQueueCapacity()).isEqualTo(1024);
+            assertThat(config.getCommandsPerTick()).isEqualTo(20);
+            assertThat(config.getCommandRuleRate()).isEqualTo(60);
+        }
+
+        @Test
+        @DisplayName("Should have default save delay of 2 seconds")
+        void shouldHaveDefaultSaveDelay() {
+            assertThat(config.getSaveDelay()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should time rule matches by default")
+        void shouldTimeMatchesByDefault() {
+            assertThat(config.isStatsTiming()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should tolerate two edits in fuzzy rules by default")
+        void shouldHaveDefaultFuzzyMaxEdits() {
+            assertThat(config.getFuzzyMaxEdits()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should have default semantic threshold of 0.4")
+        void shouldHaveDefaultSemanticThreshold() {
+            assertThat(config.getSemanticThreshold()).isEqualTo(0.4);
+        }
+
+        @Test
+        @DisplayName("Should have default broadcast window of 10 seconds")
+        void shouldHaveDefaultBroadcastWindow() {
+            assertThat(config.getBroadcastWindow()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should resolve placeholders asynchronously by default")
+        void shouldResolvePlaceholdersAsyncByDefault() {
+            assertThat(config.isPlaceholdersAsync()).isTrue();
+        }
+
         @Test
         @DisplayName("Should have default rules")
         void shouldHaveDefaultRules() {
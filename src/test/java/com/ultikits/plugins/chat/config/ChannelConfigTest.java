@@ -81,6 +81,32 @@ class ChannelConfigTest {
             assertThat(staff.get("range")).isEqualTo(-1);
             assertThat(staff.get("cross-world")).isEqualTo(true);
         }
+
+        @Test
+        @DisplayName("Should keep a bounded history without join replay")
+        void shouldHaveHistoryDefaults() {
+            assertThat(config.isHistoryEnabled()).isTrue();
+            assertThat(config.getHistoryLines()).isEqualTo(100);
+            assertThat(config.getHistoryBytes()).isEqualTo(16384);
+            assertThat(config.getHistoryJoinReplay()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should allow party channels by default")
+        void shouldHavePartyDefaults() {
+            assertThat(config.isPartyEnabled()).isTrue();
+            assertThat(config.getPartyMaxMembers()).isEqualTo(20);
+            assertThat(config.getPartyDisplayName()).isEqualTo("&d[{name}]");
+        }
+
+        @Test
+        @DisplayName("Should keep the bridge off with bounded defaults")
+        void shouldHaveBridgeDefaults() {
+            assertThat(config.isBridgeEnabled()).isFalse();
+            assertThat(config.getBridgeMaxPending()).isEqualTo(1024);
+            assertThat(config.getBridgeFramesPerTick()).isEqualTo(4);
+            assertThat(config.getBridgeFrameBytes()).isEqualTo(30000);
+        }
     }
 
     @Nested
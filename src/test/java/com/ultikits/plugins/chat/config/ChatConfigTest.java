@@ -340,5 +340,13 @@ class ChatConfigTest {
             config.setAntiSpamCapsLimit(50);
             assertThat(config.getAntiSpamCapsLimit()).isEqualTo(50);
         }
+
+        @Test
+        @DisplayName("Should update profile save delay")
+        void shouldUpdateProfileSaveDelay() {
+            assertThat(config.getProfileSaveDelay()).isEqualTo(5);
+            config.setProfileSaveDelay(30);
+            assertThat(config.getProfileSaveDelay()).isEqualTo(30);
+        }
     }
 }
@@ -0,0 +1,57 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.service.AnnouncementService;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.jupiter.api.*;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AnnouncementListener — boss bar attach on join and detach on quit.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("AnnouncementListener Tests")
+class AnnouncementListenerTest {
+
+    private AnnouncementService announcementService;
+    private AnnouncementListener listener;
+    private Player player;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        announcementService = mock(AnnouncementService.class);
+        listener = new AnnouncementListener();
+        ChatTestHelper.setField(listener, "announcementService", announcementService);
+        player = ChatTestHelper.createMockPlayer("TestPlayer", UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    @Test
+    @DisplayName("Should attach a joining player to the boss bar")
+    void shouldAttachOnJoin() {
+        listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+        verify(announcementService).refreshBossBar(player);
+    }
+
+    @Test
+    @DisplayName("Should detach a leaving player from the boss bar")
+    void shouldDetachOnQuit() {
+        listener.onPlayerQuit(new PlayerQuitEvent(player, "left"));
+
+        verify(announcementService).removeFromBossBar(player);
+    }
+}
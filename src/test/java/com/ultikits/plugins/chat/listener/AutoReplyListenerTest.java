@@ -2,15 +2,21 @@ package com.ultikits.plugins.chat.listener;
 
 import com.ultikits.plugins.chat.config.AutoReplyConfig;
 import com.ultikits.plugins.chat.service.AutoReplyService;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.CommandQueueService;
+import com.ultikits.plugins.chat.service.ReplyBroadcastService;
+import com.ultikits.plugins.chat.service.ResponseTemplate;
 import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.plugin.PluginManager;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,7 +27,8 @@ import static org.mockito.Mockito.*;
 
 /**
  * Tests for AutoReplyListener — match dispatch, cooldown, bypass,
- * multi-line response, placeholder replacement, and command execution.
+ * multi-line response, placeholder replacement, command execution,
+ * broadcast-once answers, precompiled templates, and channel scoping.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -32,6 +39,8 @@ class AutoReplyListenerTest {
     private AutoReplyListener listener;
     private AutoReplyConfig config;
     private AutoReplyService autoReplyService;
+    private CommandQueueService commandQueueService;
+    private ChannelService channelService;
     private Player player;
     private UUID playerUuid;
 
@@ -44,10 +53,15 @@ class AutoReplyListenerTest {
         config.setCooldown(10);
 
         autoReplyService = mock(AutoReplyService.class);
+        commandQueueService = mock(CommandQueueService.class);
+        channelService = mock(ChannelService.class);
 
         listener = new AutoReplyListener();
         ChatTestHelper.setField(listener, "config", config);
         ChatTestHelper.setField(listener, "autoReplyService", autoReplyService);
+        ChatTestHelper.setField(listener, "commandQueueService", commandQueueService);
+        ChatTestHelper.setField(listener, "replyBroadcastService", new ReplyBroadcastService());
+        ChatTestHelper.setField(listener, "channelService", channelService);
 
         playerUuid = UUID.randomUUID();
         player = ChatTestHelper.createMockPlayer("TestPlayer", playerUuid);
@@ -96,7 +110,7 @@ class AutoReplyListenerTest {
         @DisplayName("Should send reply when match found")
         void shouldSendReplyOnMatch() {
             Map<String, Object> rule = createSimpleRule("Hello, welcome!");
-            when(autoReplyService.findMatch("test message")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test message", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Hello, welcome!");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -110,7 +124,7 @@ class AutoReplyListenerTest {
         @Test
         @DisplayName("Should not send reply when no match")
         void shouldNotSendReplyWhenNoMatch() {
-            when(autoReplyService.findMatch(anyString())).thenReturn(null);
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(null);
 
             listener.onPlayerChat(createChatEvent("random message"));
 
@@ -121,7 +135,7 @@ class AutoReplyListenerTest {
         @DisplayName("Should translate color codes in response")
         void shouldTranslateColorCodes() {
             Map<String, Object> rule = createSimpleRule("&aGreen &cRed");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("&aGreen &cRed");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -150,7 +164,7 @@ class AutoReplyListenerTest {
 
             listener.onPlayerChat(createChatEvent("test message"));
 
-            verify(autoReplyService, never()).findMatch(anyString());
+            verify(autoReplyService, never()).findMatch(anyString(), any());
             verify(player, never()).sendMessage(anyString());
         }
     }
@@ -170,7 +184,7 @@ class AutoReplyListenerTest {
 
             listener.onPlayerChat(createChatEvent("test message"));
 
-            verify(autoReplyService, never()).findMatch(anyString());
+            verify(autoReplyService, never()).findMatch(anyString(), any());
             verify(player, never()).sendMessage(anyString());
         }
 
@@ -178,11 +192,11 @@ class AutoReplyListenerTest {
         @DisplayName("Should proceed when player does not have bypass permission")
         void shouldProceedWithoutBypass() {
             when(player.hasPermission("ultichat.autoreply.bypass")).thenReturn(false);
-            when(autoReplyService.findMatch(anyString())).thenReturn(null);
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(null);
 
             listener.onPlayerChat(createChatEvent("test message"));
 
-            verify(autoReplyService).findMatch("test message");
+            verify(autoReplyService).findMatch("test message", null);
         }
     }
 
@@ -200,7 +214,7 @@ class AutoReplyListenerTest {
             config.setCooldown(60);
 
             Map<String, Object> rule = createSimpleRule("Response");
-            when(autoReplyService.findMatch(anyString())).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -219,7 +233,7 @@ class AutoReplyListenerTest {
             config.setCooldown(0);
 
             Map<String, Object> rule = createSimpleRule("Response");
-            when(autoReplyService.findMatch(anyString())).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -235,7 +249,7 @@ class AutoReplyListenerTest {
             config.setCooldown(60);
 
             Map<String, Object> rule = createSimpleRule("Response");
-            when(autoReplyService.findMatch(anyString())).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -257,7 +271,7 @@ class AutoReplyListenerTest {
             config.setCooldown(60);
 
             Map<String, Object> rule = createSimpleRule("Response");
-            when(autoReplyService.findMatch(anyString())).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -269,7 +283,7 @@ class AutoReplyListenerTest {
         @Test
         @DisplayName("Should not record cooldown when no match")
         void shouldNotRecordCooldownWhenNoMatch() {
-            when(autoReplyService.findMatch(anyString())).thenReturn(null);
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(null);
 
             listener.onPlayerChat(createChatEvent("no match"));
 
@@ -290,7 +304,7 @@ class AutoReplyListenerTest {
         void shouldSendMultipleLines() {
             Map<String, Object> rule = createSimpleRule("placeholder");
             List<String> lines = Arrays.asList("Line 1", "Line 2", "Line 3");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn(lines);
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -306,7 +320,7 @@ class AutoReplyListenerTest {
         void shouldTranslateColorsInMultiLine() {
             Map<String, Object> rule = createSimpleRule("placeholder");
             List<String> lines = Arrays.asList("&aLine 1", "&bLine 2");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn(lines);
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -331,7 +345,7 @@ class AutoReplyListenerTest {
         @DisplayName("Should replace {player} with player name in response")
         void shouldReplacePlaceholder() {
             Map<String, Object> rule = createSimpleRule("Hello, {player}!");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Hello, {player}!");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -347,7 +361,7 @@ class AutoReplyListenerTest {
         void shouldReplacePlaceholderInMultiLine() {
             Map<String, Object> rule = createSimpleRule("placeholder");
             List<String> lines = Arrays.asList("Welcome {player}", "Enjoy {player}");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn(lines);
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -372,7 +386,7 @@ class AutoReplyListenerTest {
         void shouldSkipWhenLacksPermission() {
             Map<String, Object> rule = createSimpleRule("VIP response");
             rule.put("permission", "ultichat.vip");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(player.hasPermission("ultichat.vip")).thenReturn(false);
 
             listener.onPlayerChat(createChatEvent("test"));
@@ -385,7 +399,7 @@ class AutoReplyListenerTest {
         void shouldSendWhenHasPermission() {
             Map<String, Object> rule = createSimpleRule("VIP response");
             rule.put("permission", "ultichat.vip");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("VIP response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
             when(player.hasPermission("ultichat.vip")).thenReturn(true);
@@ -402,7 +416,7 @@ class AutoReplyListenerTest {
         void shouldNotCheckWhenNoPermission() {
             Map<String, Object> rule = createSimpleRule("Public response");
             // no "permission" key
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Public response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -416,7 +430,7 @@ class AutoReplyListenerTest {
         void shouldTreatEmptyPermissionAsNone() {
             Map<String, Object> rule = createSimpleRule("Response");
             rule.put("permission", "");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -435,35 +449,28 @@ class AutoReplyListenerTest {
     class ConsoleCommandTests {
 
         @Test
-        @DisplayName("Should dispatch commands via scheduler when UltiTools plugin present")
-        void shouldDispatchCommands() {
+        @DisplayName("Should submit commands to the command queue with rule and player name")
+        void shouldSubmitCommandsToQueue() {
             Map<String, Object> rule = createSimpleRule("Response");
             List<String> commands = Arrays.asList("say hello", "give {player} diamond 1");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(commands);
 
-            Plugin mockBukkitPlugin = mock(Plugin.class);
-            PluginManager pm = Bukkit.getPluginManager();
-            when(pm.getPlugin("UltiTools")).thenReturn(mockBukkitPlugin);
-
-            BukkitScheduler scheduler = Bukkit.getScheduler();
-
             listener.onPlayerChat(createChatEvent("test"));
 
-            verify(scheduler).runTask(eq(mockBukkitPlugin), any(Runnable.class));
+            verify(commandQueueService).submit("r1", "TestPlayer", commands);
         }
 
         @Test
-        @DisplayName("Should not dispatch when UltiTools plugin is not present")
-        void shouldNotDispatchWhenNoPlugin() {
+        @DisplayName("Should not schedule a task per trigger")
+        void shouldNotSchedulePerTrigger() {
             Map<String, Object> rule = createSimpleRule("Response");
             List<String> commands = Arrays.asList("say hello");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn("Response");
             when(autoReplyService.getCommands(rule)).thenReturn(commands);
 
-            // Plugin returns null (default from ChatTestHelper)
             BukkitScheduler scheduler = Bukkit.getScheduler();
 
             listener.onPlayerChat(createChatEvent("test"));
@@ -472,18 +479,15 @@ class AutoReplyListenerTest {
         }
 
         @Test
-        @DisplayName("Should not schedule when commands list is empty")
-        void shouldNotScheduleWhenNoCommands() {
+        @DisplayName("Should not submit commands when rule permission is missing")
+        void shouldNotSubmitWithoutPermission() {
             Map<String, Object> rule = createSimpleRule("Response");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
-            when(autoReplyService.getResponse(rule)).thenReturn("Response");
-            when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
-
-            BukkitScheduler scheduler = Bukkit.getScheduler();
+            rule.put("permission", "ultichat.vip");
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
 
             listener.onPlayerChat(createChatEvent("test"));
 
-            verify(scheduler, never()).runTask(any(Plugin.class), any(Runnable.class));
+            verify(commandQueueService, never()).submit(anyString(), anyString(), anyList());
         }
     }
 
@@ -499,7 +503,7 @@ class AutoReplyListenerTest {
         @DisplayName("Should not send message when response is null")
         void shouldNotSendWhenResponseNull() {
             Map<String, Object> rule = createSimpleRule("irrelevant");
-            when(autoReplyService.findMatch("test")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
             when(autoReplyService.getResponse(rule)).thenReturn(null);
             when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
 
@@ -508,4 +512,243 @@ class AutoReplyListenerTest {
             verify(player, never()).sendMessage(anyString());
         }
     }
+
+    // ============================
+    // Channel scoping
+    // ============================
+
+    @Nested
+    @DisplayName("Channel Scoping")
+    class ChannelScopingTests {
+
+        @Test
+        @DisplayName("Should match against the rules of the sender's channel")
+        void shouldMatchSenderChannel() {
+            Map<String, Object> rule = createSimpleRule("Staff only");
+            when(channelService.getActiveChannel(playerUuid)).thenReturn("staff");
+            when(autoReplyService.findMatch("test", "staff")).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.getResponse(rule)).thenReturn("Staff only");
+            when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
+
+            listener.onPlayerChat(createChatEvent("test"));
+
+            verify(player).sendMessage("Staff only");
+            verify(autoReplyService, never()).findMatch("test", null);
+        }
+
+        @Test
+        @DisplayName("Should match unscoped rules when channels are disabled")
+        void shouldMatchUnscopedWhenDisabled() {
+            when(channelService.getActiveChannel(playerUuid)).thenReturn(null);
+
+            listener.onPlayerChat(createChatEvent("test"));
+
+            verify(autoReplyService).findMatch("test", null);
+        }
+    }
+
+    // ============================
+    // Precompiled templates
+    // ============================
+
+    @Nested
+    @DisplayName("Response Templates")
+    class ResponseTemplateTests {
+
+        private Map<String, Object> rule;
+
+        @BeforeEach
+        void setUpTemplates() {
+            rule = createSimpleRule("ignored");
+            when(autoReplyService.findMatch("test", null)).thenReturn(createMatchEntry("r1", rule));
+            when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
+        }
+
+        @Test
+        @DisplayName("Should render the compiled template without reading the raw response")
+        void shouldRenderCompiledTemplate() {
+            when(autoReplyService.getTemplate("r1")).thenReturn(ResponseTemplate.compile("&aHi {player}"));
+
+            listener.onPlayerChat(createChatEvent("test"));
+
+            verify(player).sendMessage("\u00a7aHi TestPlayer");
+            verify(autoReplyService, never()).getResponse(rule);
+        }
+
+        @Test
+        @DisplayName("Should resolve PlaceholderAPI tokens asynchronously when enabled")
+        void shouldResolvePlaceholdersAsync() {
+            when(autoReplyService.getTemplate("r1")).thenReturn(ResponseTemplate.compile("Coins: %vault_eco_balance%"));
+            Plugin ultiTools = mock(Plugin.class);
+            when(Bukkit.getPluginManager().getPlugin("PlaceholderAPI")).thenReturn(mock(Plugin.class));
+            when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(ultiTools);
+
+            listener.onPlayerChat(createChatEvent("test"));
+
+            ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+            verify(Bukkit.getScheduler()).runTaskAsynchronously(eq(ultiTools), task.capture());
+            verify(player, never()).sendMessage(anyString());
+
+            try (MockedStatic<PlaceholderAPI> papi = mockStatic(PlaceholderAPI.class)) {
+                papi.when(() -> PlaceholderAPI.setPlaceholders(player, "Coins: %vault_eco_balance%"))
+                        .thenReturn("Coins: &e42");
+                task.getValue().run();
+            }
+            verify(player).sendMessage("Coins: \u00a7e42");
+        }
+
+        @Test
+        @DisplayName("Should resolve PlaceholderAPI tokens inline when async is off")
+        void shouldResolvePlaceholdersInline() {
+            config.setPlaceholdersAsync(false);
+            when(autoReplyService.getTemplate("r1")).thenReturn(ResponseTemplate.compile("Online: %server_online%"));
+            when(Bukkit.getPluginManager().getPlugin("PlaceholderAPI")).thenReturn(mock(Plugin.class));
+
+            try (MockedStatic<PlaceholderAPI> papi = mockStatic(PlaceholderAPI.class)) {
+                papi.when(() -> PlaceholderAPI.setPlaceholders(player, "Online: %server_online%"))
+                        .thenReturn("Online: 7");
+                listener.onPlayerChat(createChatEvent("test"));
+            }
+
+            verify(player).sendMessage("Online: 7");
+            verify(Bukkit.getScheduler(), never()).runTaskAsynchronously(any(Plugin.class), any(Runnable.class));
+        }
+
+        @Test
+        @DisplayName("Should send tokens verbatim without PlaceholderAPI")
+        void shouldSendVerbatimWithoutPlaceholderApi() {
+            when(autoReplyService.getTemplate("r1")).thenReturn(ResponseTemplate.compile("Online: %server_online%"));
+
+            listener.onPlayerChat(createChatEvent("test"));
+
+            verify(player).sendMessage("Online: %server_online%");
+        }
+    }
+
+    // ============================
+    // Broadcast-once answers
+    // ============================
+
+    @Nested
+    @DisplayName("Broadcast Once")
+    class BroadcastOnceTests {
+
+        private Player other;
+        private Map<String, Object> rule;
+
+        @BeforeEach
+        void setUpBroadcast() {
+            other = ChatTestHelper.createMockPlayer("Other", UUID.randomUUID());
+            lenient().when(other.hasPermission(anyString())).thenReturn(false);
+
+            rule = createSimpleRule("&aIP: play.example.com (asked by {player})");
+            rule.put("broadcast", "channel");
+            when(autoReplyService.findMatch(anyString(), any())).thenReturn(createMatchEntry("ip", rule));
+            when(autoReplyService.getResponse(rule)).thenReturn(rule.get("response"));
+            when(autoReplyService.getCommands(rule)).thenReturn(Collections.<String>emptyList());
+            when(autoReplyService.getBroadcastWindowMillis(rule)).thenReturn(10_000L);
+        }
+
+        private AsyncPlayerChatEvent chat(Player sender, Player... recipients) {
+            return new AsyncPlayerChatEvent(true, sender, "ip?", new HashSet<>(Arrays.asList(recipients)));
+        }
+
+        @Test
+        @DisplayName("Should answer the whole channel once")
+        void shouldAnswerChannelOnce() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+
+            listener.onPlayerChat(chat(player, player, other));
+
+            verify(player, times(1)).sendMessage("\u00a7aIP: play.example.com (asked by TestPlayer)");
+            verify(other, times(1)).sendMessage("\u00a7aIP: play.example.com (asked by TestPlayer)");
+        }
+
+        @Test
+        @DisplayName("Should suppress identical triggers from players who saw the answer")
+        void shouldSuppressForAudience() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+
+            listener.onPlayerChat(chat(player, player, other));
+            listener.onPlayerChat(chat(other, player, other));
+
+            verify(player, times(1)).sendMessage(anyString());
+            verify(other, times(1)).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not queue rule commands when the answer is suppressed")
+        void shouldNotQueueCommandsWhenSuppressed() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+
+            listener.onPlayerChat(chat(player, player, other));
+            listener.onPlayerChat(chat(other, player, other));
+
+            verify(commandQueueService).submit(eq("ip"), eq("TestPlayer"), anyList());
+            verify(commandQueueService, never()).submit(eq("ip"), eq("Other"), anyList());
+        }
+
+        @Test
+        @DisplayName("Should answer a player again after they quit and rejoin")
+        void shouldForgetOnQuit() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+
+            listener.onPlayerChat(chat(player, player, other));
+            listener.onPlayerQuit(new PlayerQuitEvent(other, "left"));
+            AutoReplyListener.LAST_REPLY_TIME.clear();
+            listener.onPlayerChat(chat(other, player, other));
+
+            verify(other, times(2)).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not put the player on cooldown when the answer is suppressed")
+        void shouldNotCooldownWhenSuppressed() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+
+            listener.onPlayerChat(chat(player, player, other));
+            listener.onPlayerChat(chat(other, player, other));
+
+            assertThat(AutoReplyListener.LAST_REPLY_TIME).containsKey(player.getUniqueId());
+            assertThat(AutoReplyListener.LAST_REPLY_TIME).doesNotContainKey(other.getUniqueId());
+        }
+
+        @Test
+        @DisplayName("Should only reach new players on a later broadcast")
+        void shouldOnlyReachNewPlayers() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("channel");
+            Player third = ChatTestHelper.createMockPlayer("Third", UUID.randomUUID());
+            lenient().when(third.hasPermission(anyString())).thenReturn(false);
+
+            listener.onPlayerChat(chat(player, player));
+            listener.onPlayerChat(chat(other, player, other));
+
+            verify(player, times(1)).sendMessage(anyString());
+            verify(other, times(1)).sendMessage("\u00a7aIP: play.example.com (asked by Other)");
+            verify(third, never()).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should answer every online player for global broadcasts")
+        void shouldAnswerEveryoneGlobally() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn("global");
+            doReturn(Arrays.asList(player, other)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+            listener.onPlayerChat(chat(player));
+
+            verify(player, times(1)).sendMessage(anyString());
+            verify(other, times(1)).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should answer privately when broadcast is off")
+        void shouldAnswerPrivately() {
+            when(autoReplyService.getBroadcast(rule)).thenReturn(null);
+
+            listener.onPlayerChat(chat(player, player, other));
+
+            verify(player, times(1)).sendMessage(anyString());
+            verify(other, never()).sendMessage(anyString());
+        }
+    }
 }
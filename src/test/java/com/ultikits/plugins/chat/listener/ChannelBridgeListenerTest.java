@@ -0,0 +1,103 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.bridge.ChannelBridgeService;
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
+import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ChannelBridgeListener — which chat lines reach the bridge and how they are rendered.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChannelBridgeListener Tests")
+class ChannelBridgeListenerTest {
+
+    private ChannelBridgeService bridgeService;
+    private ChannelService channelService;
+    private ChannelConfig channelConfig;
+    private ChannelBridgeListener listener;
+    private Player player;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        bridgeService = mock(ChannelBridgeService.class);
+        channelService = mock(ChannelService.class);
+        channelConfig = new ChannelConfig();
+        channelConfig.setBridgeEnabled(true);
+
+        Map<String, Object> network = new HashMap<>();
+        network.put("network", true);
+        lenient().when(channelService.getChannel("global")).thenReturn(ChannelDefinition.compile(0, "global", network));
+        lenient().when(channelService.getChannel("local")).thenReturn(ChannelDefinition.compile(1, "local", null));
+
+        player = ChatTestHelper.createMockPlayer("Alice", UUID.randomUUID());
+
+        listener = new ChannelBridgeListener();
+        ChatTestHelper.setField(listener, "bridgeService", bridgeService);
+        ChatTestHelper.setField(listener, "channelService", channelService);
+        ChatTestHelper.setField(listener, "channelConfig", channelConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    private AsyncPlayerChatEvent chat(String channel, String format, String message) {
+        when(channelService.getPlayerChannel(player.getUniqueId())).thenReturn(channel);
+        AsyncPlayerChatEvent event = new AsyncPlayerChatEvent(true, player, message, new HashSet<Player>());
+        event.setFormat(format);
+        event.setMessage(message);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Should relay network channel lines as rendered locally")
+    void shouldRelayRenderedLine() {
+        listener.onChat(chat("global", "[G] %1$s: %2$s", "hello"));
+
+        verify(bridgeService).publish("global", "[G] Alice: hello");
+    }
+
+    @Test
+    @DisplayName("Should not relay channels without the network flag")
+    void shouldSkipLocalChannels() {
+        listener.onChat(chat("local", "%1$s: %2$s", "hello"));
+
+        verify(bridgeService, never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not relay while the bridge is disabled")
+    void shouldSkipWhenDisabled() {
+        channelConfig.setBridgeEnabled(false);
+
+        listener.onChat(chat("global", "%1$s: %2$s", "hello"));
+
+        verify(bridgeService, never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should skip lines whose format another plugin broke")
+    void shouldSkipBrokenFormat() {
+        listener.onChat(chat("global", "%1$s: %2$d", "hello"));
+
+        verify(bridgeService, never()).publish(anyString(), anyString());
+    }
+}
@@ -3,7 +3,11 @@ package com.ultikits.plugins.chat.listener;
 import com.ultikits.plugins.chat.config.ChatConfig;
 import com.ultikits.plugins.chat.config.ChannelConfig;
 import com.ultikits.plugins.chat.service.AntiSpamService;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
 import com.ultikits.plugins.chat.service.EmojiService;
 import com.ultikits.plugins.chat.utils.ChatTestHelper;
 import org.bukkit.Bukkit;
@@ -33,6 +37,8 @@ class ChatListenerTest {
     private AntiSpamService antiSpamService;
     private ChannelService channelService;
     private EmojiService emojiService;
+    private ChatProfileService chatProfileService;
+    private ChatHistoryService chatHistoryService;
     private Player player;
     private UUID playerUuid;
 
@@ -45,10 +51,15 @@ class ChatListenerTest {
         antiSpamService = mock(AntiSpamService.class);
         channelService = mock(ChannelService.class);
         emojiService = mock(EmojiService.class);
+        chatProfileService = mock(ChatProfileService.class);
+        lenient().when(chatProfileService.get(any(UUID.class))).thenReturn(ChatProfile.DEFAULT);
+
+        chatHistoryService = mock(ChatHistoryService.class);
 
         listener = new ChatListener(
                 chatConfig, channelConfig,
-                antiSpamService, channelService, emojiService
+                antiSpamService, channelService, emojiService, chatProfileService,
+                chatHistoryService
         );
 
         playerUuid = UUID.randomUUID();
@@ -83,7 +94,7 @@ class ChatListenerTest {
         @DisplayName("Should cancel event when spam detected")
         void shouldCancelWhenSpamDetected() {
             chatConfig.setAntiSpamEnabled(true);
-            when(antiSpamService.checkSpam(player, "spam message")).thenReturn("spam reason");
+            when(antiSpamService.checkSpam(player, null, "spam message")).thenReturn("spam reason");
 
             AsyncPlayerChatEvent event = createChatEvent("spam message");
             listener.onChat(event);
@@ -98,7 +109,7 @@ class ChatListenerTest {
         @DisplayName("Should send reason to player when spam detected")
         void shouldSendReasonWhenSpam() {
             chatConfig.setAntiSpamEnabled(true);
-            when(antiSpamService.checkSpam(player, "fast")).thenReturn("Too fast!");
+            when(antiSpamService.checkSpam(player, null, "fast")).thenReturn("Too fast!");
 
             AsyncPlayerChatEvent event = createChatEvent("fast");
             listener.onChat(event);
@@ -112,12 +123,12 @@ class ChatListenerTest {
         @DisplayName("Should record message when not spam")
         void shouldRecordMessageWhenNotSpam() {
             chatConfig.setAntiSpamEnabled(true);
-            when(antiSpamService.checkSpam(player, "hello")).thenReturn(null);
+            when(antiSpamService.checkSpam(player, null, "hello")).thenReturn(null);
 
             AsyncPlayerChatEvent event = createChatEvent("hello");
             listener.onChat(event);
 
-            verify(antiSpamService).recordMessage(playerUuid, "hello");
+            verify(antiSpamService).recordMessage(playerUuid, null, "hello");
             assertThat(event.isCancelled()).isFalse();
         }
 
@@ -130,7 +141,7 @@ class ChatListenerTest {
             AsyncPlayerChatEvent event = createChatEvent("message");
             listener.onChat(event);
 
-            verify(antiSpamService, never()).checkSpam(any(), anyString());
+            verify(antiSpamService, never()).checkSpam(any(), any(), anyString());
             assertThat(event.isCancelled()).isFalse();
         }
 
@@ -142,20 +153,35 @@ class ChatListenerTest {
             AsyncPlayerChatEvent event = createChatEvent("message");
             listener.onChat(event);
 
-            verify(antiSpamService, never()).checkSpam(any(), anyString());
-            verify(antiSpamService, never()).recordMessage(any(), anyString());
+            verify(antiSpamService, never()).checkSpam(any(), any(), anyString());
+            verify(antiSpamService, never()).recordMessage(any(), any(), anyString());
         }
 
         @Test
         @DisplayName("Should not record message when spam cancelled")
         void shouldNotRecordWhenCancelled() {
             chatConfig.setAntiSpamEnabled(true);
-            when(antiSpamService.checkSpam(player, "spam")).thenReturn("blocked");
+            when(antiSpamService.checkSpam(player, null, "spam")).thenReturn("blocked");
 
             AsyncPlayerChatEvent event = createChatEvent("spam");
             listener.onChat(event);
 
-            verify(antiSpamService, never()).recordMessage(any(), anyString());
+            verify(antiSpamService, never()).recordMessage(any(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should check and record against the sender's channel")
+        void shouldUseSenderChannel() {
+            chatConfig.setAntiSpamEnabled(true);
+            ChannelDefinition staff = ChannelDefinition.compile(1, "staff", null);
+            when(channelService.getActiveChannel(playerUuid)).thenReturn("staff");
+            when(channelService.getChannel("staff")).thenReturn(staff);
+
+            AsyncPlayerChatEvent event = createChatEvent("hello");
+            listener.onChat(event);
+
+            verify(antiSpamService).checkSpam(player, staff, "hello");
+            verify(antiSpamService).recordMessage(playerUuid, staff, "hello");
         }
     }
 
@@ -223,6 +249,53 @@ class ChatListenerTest {
             assertThat(event.getRecipients()).containsExactly(player);
         }
 
+        @Test
+        @DisplayName("Should keep only recipients in the cached channel audience")
+        void shouldUseCachedAudience() {
+            channelConfig.setEnabled(true);
+            chatConfig.setChatFormatEnabled(false);
+            chatConfig.setAntiSpamEnabled(false);
+            chatConfig.setMentionsEnabled(false);
+
+            Player other = ChatTestHelper.createMockPlayer("Other", UUID.randomUUID());
+            Player offscreen = ChatTestHelper.createMockPlayer("Offscreen", UUID.randomUUID());
+            Set<Player> original = new HashSet<>(Arrays.asList(player, other));
+            Set<Player> audience = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(player, offscreen)));
+            when(channelService.getAudience(player)).thenReturn(audience);
+
+            AsyncPlayerChatEvent event = createChatEventWithRecipients("hello", original);
+            listener.onChat(event);
+
+            assertThat(event.getRecipients()).containsExactly(player);
+            assertThat(audience).containsExactlyInAnyOrder(player, offscreen);
+            verify(channelService, never()).filterRecipients(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should walk a small audience instead of every recipient")
+        void shouldKeepSmallAudience() {
+            channelConfig.setEnabled(true);
+            chatConfig.setChatFormatEnabled(false);
+            chatConfig.setAntiSpamEnabled(false);
+            chatConfig.setMentionsEnabled(false);
+
+            Set<Player> original = new HashSet<>();
+            original.add(player);
+            for (int i = 0; i < 10; i++) {
+                original.add(ChatTestHelper.createMockPlayer("P" + i, UUID.randomUUID()));
+            }
+            Player partner = ChatTestHelper.createMockPlayer("Partner", UUID.randomUUID());
+            original.add(partner);
+            Player offline = ChatTestHelper.createMockPlayer("Offline", UUID.randomUUID());
+            Set<Player> audience = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(player, partner, offline)));
+            when(channelService.getAudience(player)).thenReturn(audience);
+
+            AsyncPlayerChatEvent event = createChatEventWithRecipients("hello", original);
+            listener.onChat(event);
+
+            assertThat(event.getRecipients()).containsExactlyInAnyOrder(player, partner);
+        }
+
         @Test
         @DisplayName("Should not filter when channels disabled")
         void shouldNotFilterWhenDisabled() {
@@ -315,6 +388,25 @@ class ChatListenerTest {
             assertThat(event.getFormat()).contains("FancyPlayer");
         }
 
+        @Test
+        @DisplayName("Should pick up a reloaded chat format")
+        void shouldRecompileReloadedFormat() {
+            chatConfig.setChatFormatEnabled(true);
+            chatConfig.setChatFormat("&a{player}: {message}");
+            chatConfig.setAntiSpamEnabled(false);
+            chatConfig.setMentionsEnabled(false);
+            channelConfig.setEnabled(false);
+
+            AsyncPlayerChatEvent first = createChatEvent("hello");
+            listener.onChat(first);
+            chatConfig.setChatFormat("&c{player} > {message}");
+            AsyncPlayerChatEvent second = createChatEvent("hello");
+            listener.onChat(second);
+
+            assertThat(first.getFormat()).isEqualTo("\u00a7a%1$s: %2$s");
+            assertThat(second.getFormat()).isEqualTo("\u00a7c%1$s > %2$s");
+        }
+
         @Test
         @DisplayName("Should not apply format when disabled")
         void shouldNotApplyFormatWhenDisabled() {
@@ -414,6 +506,32 @@ class ChatListenerTest {
             verify(mentioned).playSound(any(org.bukkit.Location.class), any(org.bukkit.Sound.class), anyFloat(), anyFloat());
         }
 
+        @Test
+        @DisplayName("Should not play sound to a player who muted mentions")
+        void shouldRespectMutedMentions() {
+            chatConfig.setChatFormatEnabled(false);
+            chatConfig.setAntiSpamEnabled(false);
+            chatConfig.setMentionsEnabled(true);
+            chatConfig.setMentionFormat("&e@{player}&r");
+            chatConfig.setMentionSound("ENTITY_EXPERIENCE_ORB_PICKUP");
+            chatConfig.setSelfMention(false);
+            channelConfig.setEnabled(false);
+
+            UUID mentionedUuid = UUID.randomUUID();
+            Player mentioned = ChatTestHelper.createMockPlayer("Alice", mentionedUuid);
+            when(chatProfileService.get(mentionedUuid)).thenReturn(ChatProfile.DEFAULT.withMentions(false));
+
+            List<Player> onlinePlayers = Arrays.asList(player, mentioned);
+            doReturn(onlinePlayers).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+            AsyncPlayerChatEvent event = createChatEvent("Hey @Alice");
+            listener.onChat(event);
+
+            // Still highlighted, just silent
+            assertThat(event.getMessage()).contains("@Alice");
+            verify(mentioned, never()).playSound(any(org.bukkit.Location.class), any(org.bukkit.Sound.class), anyFloat(), anyFloat());
+        }
+
         @Test
         @DisplayName("Should block self-mention when disabled")
         void shouldBlockSelfMention() {
@@ -520,6 +638,49 @@ class ChatListenerTest {
 
     // ==================== Format String Escaping ====================
 
+    @Nested
+    @DisplayName("History")
+    class HistoryTests {
+
+        @Test
+        @DisplayName("Should record the rendered line in the sender's channel")
+        void shouldRecordRenderedLine() {
+            when(channelService.getPlayerChannel(playerUuid)).thenReturn("local");
+            AsyncPlayerChatEvent event = createChatEvent("hello");
+            event.setFormat("[L] %1$s: %2$s");
+            event.setMessage("hello");
+
+            listener.onChatRecorded(event);
+
+            verify(chatHistoryService).record("local", playerUuid, "[L] TestPlayer: hello");
+        }
+
+        @Test
+        @DisplayName("Should not record while channels are disabled")
+        void shouldNotRecordWithoutChannels() {
+            channelConfig.setEnabled(false);
+            AsyncPlayerChatEvent event = createChatEvent("hello");
+            event.setFormat("%1$s: %2$s");
+
+            listener.onChatRecorded(event);
+
+            verify(chatHistoryService, never()).record(anyString(), any(UUID.class), anyString());
+        }
+
+        @Test
+        @DisplayName("Should skip lines with a broken format")
+        void shouldSkipBrokenFormat() {
+            AsyncPlayerChatEvent event = createChatEvent("hello");
+            event.setFormat("%1$s: %2$d");
+            event.setMessage("hello");
+
+            assertThat(ChatListener.render(event)).isNull();
+            listener.onChatRecorded(event);
+
+            verify(chatHistoryService, never()).record(anyString(), any(UUID.class), anyString());
+        }
+    }
+
     @Nested
     @DisplayName("Format String Escaping")
     class FormatEscapingTests {
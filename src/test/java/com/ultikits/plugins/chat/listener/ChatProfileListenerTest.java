@@ -0,0 +1,115 @@
+package com.ultikits.plugins.chat.listener;
+
+import com.ultikits.plugins.chat.service.ChatProfileService;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChatProfileListener Tests")
+class ChatProfileListenerTest {
+
+    private ChatProfileService chatProfileService;
+    private ChatProfileListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        chatProfileService = mock(ChatProfileService.class);
+        listener = new ChatProfileListener();
+        ChatTestHelper.setField(listener, "chatProfileService", chatProfileService);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    private AsyncPlayerPreLoginEvent preLogin(UUID uuid, AsyncPlayerPreLoginEvent.Result result) {
+        AsyncPlayerPreLoginEvent event = mock(AsyncPlayerPreLoginEvent.class);
+        lenient().when(event.getUniqueId()).thenReturn(uuid);
+        when(event.getLoginResult()).thenReturn(result);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Should preload the profile of an allowed login")
+    void shouldPreloadAllowedLogin() {
+        UUID uuid = UUID.randomUUID();
+
+        listener.onPreLogin(preLogin(uuid, AsyncPlayerPreLoginEvent.Result.ALLOWED));
+
+        verify(chatProfileService).preload(uuid);
+    }
+
+    @Test
+    @DisplayName("Should not load profiles for denied logins")
+    void shouldSkipDeniedLogin() {
+        listener.onPreLogin(preLogin(UUID.randomUUID(), AsyncPlayerPreLoginEvent.Result.KICK_BANNED));
+
+        verify(chatProfileService, never()).preload(any());
+    }
+
+    private PlayerLoginEvent login(Player player, PlayerLoginEvent.Result result) {
+        PlayerLoginEvent event = mock(PlayerLoginEvent.class);
+        lenient().when(event.getPlayer()).thenReturn(player);
+        when(event.getResult()).thenReturn(result);
+        return event;
+    }
+
+    @Test
+    @DisplayName("Should unload the profile of a login denied after pre-login")
+    void shouldUnloadDeniedLogin() {
+        UUID uuid = UUID.randomUUID();
+        Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+
+        listener.onLogin(login(player, PlayerLoginEvent.Result.KICK_WHITELIST));
+
+        verify(chatProfileService).unload(uuid);
+    }
+
+    @Test
+    @DisplayName("Should keep the profile of an allowed login")
+    void shouldKeepAllowedLogin() {
+        Player player = ChatTestHelper.createMockPlayer("TestPlayer", UUID.randomUUID());
+
+        listener.onLogin(login(player, PlayerLoginEvent.Result.ALLOWED));
+
+        verify(chatProfileService, never()).unload(any());
+    }
+
+    @Test
+    @DisplayName("Should keep the profile of the online player when a second login is denied")
+    void shouldKeepOnlinePlayer() {
+        UUID uuid = UUID.randomUUID();
+        Player online = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+        Player second = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+        when(ChatTestHelper.getMockServer().getPlayer(uuid)).thenReturn(online);
+
+        listener.onLogin(login(second, PlayerLoginEvent.Result.KICK_OTHER));
+
+        verify(chatProfileService, never()).unload(any());
+    }
+
+    @Test
+    @DisplayName("Should unload the profile on quit")
+    void shouldUnloadOnQuit() {
+        UUID uuid = UUID.randomUUID();
+        Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+
+        listener.onPlayerQuit(new PlayerQuitEvent(player, "left"));
+
+        verify(chatProfileService).unload(uuid);
+    }
+}
@@ -1,17 +1,32 @@
 package com.ultikits.plugins.chat.listener;
 
 import com.ultikits.plugins.chat.config.ChannelConfig;
+import com.ultikits.plugins.chat.service.ChannelDefinition;
 import com.ultikits.plugins.chat.service.ChannelService;
+import com.ultikits.plugins.chat.service.ChatHistoryEntry;
+import com.ultikits.plugins.chat.service.ChatHistoryService;
+import com.ultikits.plugins.chat.service.ChatProfile;
+import com.ultikits.plugins.chat.service.ChatProfileService;
 import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +35,9 @@ class PlayerChannelListenerTest {
 
     private ChannelService channelService;
     private ChannelConfig channelConfig;
+    private ChatProfileService chatProfileService;
+    private ChatHistoryService chatHistoryService;
+    private UltiToolsPlugin plugin;
     private PlayerChannelListener listener;
 
     @BeforeEach
@@ -30,9 +48,20 @@ class PlayerChannelListenerTest {
         channelConfig = mock(ChannelConfig.class);
         lenient().when(channelConfig.getDefaultChannel()).thenReturn("global");
 
+        chatProfileService = mock(ChatProfileService.class);
+        lenient().when(chatProfileService.get(any(UUID.class))).thenReturn(ChatProfile.DEFAULT);
+
+        chatHistoryService = mock(ChatHistoryService.class);
+
+        plugin = mock(UltiToolsPlugin.class);
+        lenient().when(plugin.i18n("channel_world_switched")).thenReturn("Moved to {0}");
+
         listener = new PlayerChannelListener();
         ChatTestHelper.setField(listener, "channelService", channelService);
         ChatTestHelper.setField(listener, "channelConfig", channelConfig);
+        ChatTestHelper.setField(listener, "chatProfileService", chatProfileService);
+        ChatTestHelper.setField(listener, "chatHistoryService", chatHistoryService);
+        ChatTestHelper.setField(listener, "plugin", plugin);
     }
 
     @AfterEach
@@ -86,6 +115,141 @@ class PlayerChannelListenerTest {
             verify(channelService).setPlayerChannel(uuid1, "global");
             verify(channelService).setPlayerChannel(uuid2, "global");
         }
+
+        @Test
+        @DisplayName("Should record the joining player's world after assigning the default")
+        void shouldEnterWorldAfterDefault() {
+            UUID uuid = UUID.randomUUID();
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            InOrder order = inOrder(channelService);
+            order.verify(channelService).setPlayerChannel(uuid, "global");
+            order.verify(channelService).enterWorld(player);
+        }
+
+        @Test
+        @DisplayName("Should restore the saved channel and subscriptions")
+        void shouldRestoreProfile() {
+            UUID uuid = UUID.randomUUID();
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+            when(chatProfileService.get(uuid)).thenReturn(
+                    new ChatProfile("trade", Arrays.asList("staff", "local"), true, true));
+            when(channelService.hasChannelPermission(player, "trade")).thenReturn(true);
+            when(channelService.hasChannelPermission(player, "local")).thenReturn(true);
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            InOrder order = inOrder(channelService);
+            order.verify(channelService).setPlayerChannel(uuid, "trade");
+            order.verify(channelService).subscribe(uuid, "local");
+            order.verify(channelService).enterWorld(player);
+            verify(channelService, never()).subscribe(uuid, "staff");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the default when the saved channel is no longer allowed")
+        void shouldFallBackWithoutPermission() {
+            UUID uuid = UUID.randomUUID();
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+            when(chatProfileService.get(uuid)).thenReturn(ChatProfile.DEFAULT.withChannel("staff"));
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            verify(channelService).setPlayerChannel(uuid, "global");
+        }
+    }
+
+    // ==================== Join Replay Tests ====================
+
+    @Nested
+    @DisplayName("Join Replay Tests")
+    class JoinReplayTests {
+
+        private Player player;
+        private ChannelDefinition global;
+
+        @BeforeEach
+        void setUpReplay() {
+            UUID uuid = UUID.randomUUID();
+            player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+            global = ChannelDefinition.compile(0, "global", null);
+            when(channelConfig.getHistoryJoinReplay()).thenReturn(2);
+            when(channelService.getPlayerChannel(uuid)).thenReturn("global");
+            when(channelService.getChannel("global")).thenReturn(global);
+            lenient().when(channelService.getChannelDisplayName("global")).thenReturn("[Global]");
+            lenient().when(plugin.i18n("channel_history_replay")).thenReturn("Recent in {0}:");
+            lenient().when(plugin.i18n("channel_history_entry")).thenReturn("[{0}] ");
+        }
+
+        @Test
+        @DisplayName("Should show the last lines of the joined channel")
+        void shouldReplayRecentLines() {
+            when(chatHistoryService.canView(player, global)).thenReturn(true);
+            when(chatHistoryService.getRecent("global", 2)).thenReturn(Arrays.asList(
+                    new ChatHistoryEntry(null, 0, "Alice: hi"),
+                    new ChatHistoryEntry(null, 0, "Bob: hello")));
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            InOrder order = inOrder(player);
+            order.verify(player).sendMessage("Recent in [Global]:");
+            order.verify(player).sendMessage(endsWith("] Alice: hi"));
+            order.verify(player).sendMessage(endsWith("] Bob: hello"));
+        }
+
+        @Test
+        @DisplayName("Should stay quiet when the channel has no history")
+        void shouldStayQuietWithoutHistory() {
+            when(chatHistoryService.canView(player, global)).thenReturn(true);
+            when(chatHistoryService.getRecent("global", 2)).thenReturn(Collections.<ChatHistoryEntry>emptyList());
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            verify(player, never()).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not replay history the player may not read")
+        void shouldSkipRestrictedHistory() {
+            when(chatHistoryService.canView(player, global)).thenReturn(false);
+
+            listener.onPlayerJoin(new PlayerJoinEvent(player, "joined"));
+
+            verify(chatHistoryService, never()).getRecent(anyString(), anyInt());
+            verify(player, never()).sendMessage(anyString());
+        }
+    }
+
+    // ==================== onWorldChange Tests ====================
+
+    @Nested
+    @DisplayName("onWorldChange Tests")
+    class OnWorldChangeTests {
+
+        @Test
+        @DisplayName("Should tell the player when a world-bound channel switches them")
+        void shouldNotifyOnSwitch() {
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", UUID.randomUUID());
+            when(channelService.enterWorld(player)).thenReturn("nether");
+            when(channelService.getChannelDisplayName("nether")).thenReturn("[Nether]");
+
+            listener.onWorldChange(new PlayerChangedWorldEvent(player, mock(World.class)));
+
+            verify(player).sendMessage("Moved to [Nether]");
+        }
+
+        @Test
+        @DisplayName("Should stay quiet when the channel is unchanged")
+        void shouldStayQuietWithoutSwitch() {
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", UUID.randomUUID());
+            when(channelService.enterWorld(player)).thenReturn(null);
+
+            listener.onWorldChange(new PlayerChangedWorldEvent(player, mock(World.class)));
+
+            verify(player, never()).sendMessage(anyString());
+        }
     }
 
     // ==================== onPlayerQuit Tests ====================
@@ -0,0 +1,85 @@
+package com.ultikits.plugins.chat.service;
+
+import org.bukkit.boss.BarColor;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AnnouncementMessages — compiling announcement lists once per load.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("AnnouncementMessages Tests")
+class AnnouncementMessagesTest {
+
+    @Test
+    @DisplayName("Should prepend the prefix and translate colours")
+    void shouldCompileChat() {
+        AnnouncementMessages messages = AnnouncementMessages.chat(Arrays.asList("&aOne", "Two"), "&6[A] ");
+
+        assertThat(messages.size()).isEqualTo(2);
+        assertThat(messages.line(0)).isEqualTo("§6[A] §aOne");
+        assertThat(messages.line(1)).isEqualTo("§6[A] Two");
+    }
+
+    @Test
+    @DisplayName("Should treat a null prefix as none")
+    void shouldAllowNullPrefix() {
+        AnnouncementMessages messages = AnnouncementMessages.chat(Collections.singletonList("Hi"), null);
+
+        assertThat(messages.line(0)).isEqualTo("Hi");
+    }
+
+    @Test
+    @DisplayName("Should split titles at the separator")
+    void shouldSplitTitles() {
+        AnnouncementMessages messages = AnnouncementMessages.title(Arrays.asList("&eTop||&7Bottom", "Only"));
+
+        assertThat(messages.line(0)).isEqualTo("§eTop");
+        assertThat(messages.subtitle(0)).isEqualTo("§7Bottom");
+        assertThat(messages.line(1)).isEqualTo("Only");
+        assertThat(messages.subtitle(1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should resolve the boss bar colour once")
+    void shouldResolveColor() {
+        assertThat(AnnouncementMessages.bossBar(Collections.singletonList("x"), "RED").getColor())
+                .isEqualTo(BarColor.RED);
+        assertThat(AnnouncementMessages.bossBar(Collections.singletonList("x"), "NOPE").getColor())
+                .isEqualTo(BarColor.BLUE);
+        assertThat(AnnouncementMessages.bossBar(Collections.singletonList("x"), null).getColor())
+                .isEqualTo(BarColor.BLUE);
+    }
+
+    @Test
+    @DisplayName("Should compile a missing list as empty")
+    void shouldCompileNullAsEmpty() {
+        AnnouncementMessages messages = AnnouncementMessages.chat(null, "");
+
+        assertThat(messages.isEmpty()).isTrue();
+        assertThat(AnnouncementMessages.EMPTY.isCurrent(null, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should go stale when the list or key is replaced or resized")
+    void shouldDetectReload() {
+        List<String> source = new ArrayList<>(Arrays.asList("a", "b"));
+        String prefix = "&6";
+        AnnouncementMessages messages = AnnouncementMessages.chat(source, prefix);
+
+        assertThat(messages.isCurrent(source, prefix)).isTrue();
+        assertThat(messages.isCurrent(new ArrayList<>(source), prefix)).isFalse();
+        assertThat(messages.isCurrent(source, new String("&6"))).isFalse();
+
+        source.add("c");
+        assertThat(messages.isCurrent(source, prefix)).isFalse();
+    }
+}
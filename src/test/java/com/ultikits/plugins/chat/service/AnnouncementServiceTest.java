@@ -3,10 +3,9 @@ package com.ultikits.plugins.chat.service;
 import com.ultikits.plugins.chat.config.AnnouncementConfig;
 import com.ultikits.plugins.chat.utils.ChatTestHelper;
 import org.bukkit.Bukkit;
+import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
@@ -30,13 +29,16 @@ class AnnouncementServiceTest {
 
     private AnnouncementService service;
     private AnnouncementConfig config;
+    private ChatProfileService chatProfileService;
 
     @BeforeEach
     void setUp() throws Exception {
         ChatTestHelper.setUp();
 
         config = new AnnouncementConfig();
-        service = new AnnouncementService(config);
+        chatProfileService = mock(ChatProfileService.class);
+        lenient().when(chatProfileService.get(any(java.util.UUID.class))).thenReturn(ChatProfile.DEFAULT);
+        service = new AnnouncementService(ChatTestHelper.getMockPlugin(), config, chatProfileService);
     }
 
     @AfterEach
@@ -44,6 +46,80 @@ class AnnouncementServiceTest {
         ChatTestHelper.tearDown();
     }
 
+    // ==================== Compiled Message Tests ====================
+
+    @Nested
+    @DisplayName("Compiled Messages")
+    class CompiledMessageTests {
+
+        private Player player;
+
+        @BeforeEach
+        void setUpPlayer() {
+            config.setChatEnabled(true);
+            config.setChatPrefix("");
+            player = ChatTestHelper.createMockPlayer("TestPlayer", java.util.UUID.randomUUID());
+            doReturn(Collections.singletonList(player)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+        }
+
+        @Test
+        @DisplayName("Should pick up a reloaded message list")
+        void shouldRecompileOnReload() {
+            config.setChatMessages(Arrays.asList("Old"));
+            service.broadcastChat();
+
+            config.setChatMessages(Arrays.asList("New1", "New2"));
+            service.broadcastChat();
+
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            verify(player, times(2)).sendMessage(captor.capture());
+            assertThat(captor.getAllValues().get(0)).isEqualTo("Old");
+            assertThat(captor.getAllValues().get(1)).isIn("New1", "New2");
+        }
+
+        @Test
+        @DisplayName("Should pick up a reloaded prefix")
+        void shouldRecompileOnPrefixChange() {
+            config.setChatMessages(Arrays.asList("Msg"));
+            service.broadcastChat();
+
+            config.setChatPrefix("[A] ");
+            service.broadcastChat();
+
+            verify(player).sendMessage("Msg");
+            verify(player).sendMessage("[A] Msg");
+        }
+
+        @Test
+        @DisplayName("Should rotate evenly when broadcasts race")
+        void shouldRotateAcrossThreads() throws Exception {
+            config.setChatMessages(Arrays.asList("A", "B"));
+            java.util.Map<String, java.util.concurrent.atomic.AtomicInteger> counts =
+                    new java.util.concurrent.ConcurrentHashMap<>();
+            doAnswer(invocation -> {
+                counts.computeIfAbsent(invocation.getArgument(0), k -> new java.util.concurrent.atomic.AtomicInteger())
+                        .incrementAndGet();
+                return null;
+            }).when(player).sendMessage(anyString());
+
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        service.broadcastChat();
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertThat(counts.get("A").get()).isEqualTo(100);
+            assertThat(counts.get("B").get()).isEqualTo(100);
+        }
+    }
+
     // ==================== Chat Broadcast Tests ====================
 
     @Nested
@@ -148,6 +224,25 @@ class AnnouncementServiceTest {
             verify(p1).sendMessage("Hello");
             verify(p2).sendMessage("Hello");
         }
+
+        @Test
+        @DisplayName("Should skip players who turned announcements off")
+        void shouldSkipOptedOut() {
+            config.setChatEnabled(true);
+            config.setChatPrefix("");
+            config.setChatMessages(Arrays.asList("Hello"));
+
+            java.util.UUID quietUuid = java.util.UUID.randomUUID();
+            Player listening = ChatTestHelper.createMockPlayer("Player1", java.util.UUID.randomUUID());
+            Player quiet = ChatTestHelper.createMockPlayer("Player2", quietUuid);
+            when(chatProfileService.get(quietUuid)).thenReturn(ChatProfile.DEFAULT.withAnnouncements(false));
+            doReturn(Arrays.asList(listening, quiet)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+            service.broadcastChat();
+
+            verify(listening).sendMessage("Hello");
+            verify(quiet, never()).sendMessage(anyString());
+        }
     }
 
     // ==================== BossBar Broadcast Tests ====================
@@ -187,37 +282,148 @@ class AnnouncementServiceTest {
         }
 
         @Test
-        @DisplayName("Should create boss bar and schedule removal")
-        void shouldCreateBossBarAndScheduleRemoval() {
+        @DisplayName("Should create the boss bar once and update it in place")
+        void shouldReuseBossBar() {
             config.setBossBarEnabled(true);
-            config.setBossBarMessages(Arrays.asList("BossBar Message"));
-            config.setBossBarDuration(10);
-            config.setBossBarColor("BLUE");
+            config.setBossBarMessages(Arrays.asList("&eFirst", "Second"));
+            config.setBossBarColor("RED");
 
             Player player = ChatTestHelper.createMockPlayer("TestPlayer", java.util.UUID.randomUUID());
             List<Player> onlinePlayers = Collections.singletonList(player);
-            doReturn(onlinePlayers).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
-
             BossBar mockBossBar = mock(BossBar.class);
 
             try (MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
                 bukkit.when(Bukkit::getOnlinePlayers).thenReturn(onlinePlayers);
                 bukkit.when(() -> Bukkit.createBossBar(anyString(), any(), any())).thenReturn(mockBossBar);
 
-                Plugin mockBukkitPlugin = mock(Plugin.class);
-                org.bukkit.plugin.PluginManager pm = mock(org.bukkit.plugin.PluginManager.class);
-                bukkit.when(Bukkit::getPluginManager).thenReturn(pm);
-                when(pm.getPlugin("UltiTools")).thenReturn(mockBukkitPlugin);
+                service.broadcastBossBar();
+                service.broadcastBossBar();
+
+                bukkit.verify(() -> Bukkit.createBossBar(eq("\u00a7eFirst"), eq(BarColor.RED), any()), times(1));
+                verify(mockBossBar, times(1)).addPlayer(player);
+                verify(mockBossBar).setTitle("Second");
+                verify(mockBossBar, times(2)).setVisible(true);
+            }
+        }
+    }
+
+    // ==================== Persistent BossBar Tests ====================
 
-                BukkitScheduler scheduler = mock(BukkitScheduler.class);
-                bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+    @Nested
+    @DisplayName("Persistent BossBar")
+    class PersistentBossBarTests {
 
-                service.broadcastBossBar();
+        private MockedStatic<Bukkit> bukkit;
+        private BossBar mockBossBar;
+        private Player player;
+
+        @BeforeEach
+        void setUpBar() {
+            config.setChatEnabled(false);
+            config.setBossBarEnabled(true);
+            config.setBossBarInterval(60);
+            config.setBossBarDuration(5);
+            config.setBossBarMessages(Arrays.asList("Hello"));
+
+            player = ChatTestHelper.createMockPlayer("TestPlayer", java.util.UUID.randomUUID());
+            mockBossBar = mock(BossBar.class);
+            bukkit = mockStatic(Bukkit.class);
+            bukkit.when(Bukkit::getOnlinePlayers).thenReturn(Collections.singletonList(player));
+            bukkit.when(() -> Bukkit.createBossBar(anyString(), any(), any())).thenReturn(mockBossBar);
+        }
 
-                verify(mockBossBar).addPlayer(player);
-                verify(scheduler).runTaskLater(eq(mockBukkitPlugin), any(Runnable.class), eq(200L));
+        @AfterEach
+        void closeBar() {
+            bukkit.close();
+        }
+
+        private void ticks(int count) {
+            for (int i = 0; i < count; i++) {
+                service.tick();
             }
         }
+
+        @Test
+        @DisplayName("Should hide the bar after its duration without scheduling tasks")
+        void shouldHideAfterDuration() {
+            service.broadcastBossBar();
+
+            ticks(99);
+            verify(mockBossBar, never()).setVisible(false);
+
+            ticks(1);
+            verify(mockBossBar).setVisible(false);
+            verify(mockBossBar, never()).removeAll();
+            bukkit.verify(Bukkit::getScheduler, never());
+        }
+
+        @Test
+        @DisplayName("Should count the progress down when animated")
+        void shouldAnimateProgress() {
+            config.setBossBarAnimate(true);
+            service.broadcastBossBar();
+
+            ticks(10);
+            verify(mockBossBar).setProgress(0.9);
+
+            ticks(40);
+            verify(mockBossBar).setProgress(0.5);
+
+            ticks(50);
+            verify(mockBossBar).setVisible(false);
+        }
+
+        @Test
+        @DisplayName("Should hide the bar when the track is turned off")
+        void shouldHideWhenDisabled() {
+            service.broadcastBossBar();
+            config.setBossBarEnabled(false);
+
+            ticks(1);
+
+            verify(mockBossBar).setVisible(false);
+        }
+
+        @Test
+        @DisplayName("Should attach and detach players by their preference")
+        void shouldRefreshPlayers() {
+            java.util.UUID uuid = java.util.UUID.randomUUID();
+            Player joining = ChatTestHelper.createMockPlayer("Joining", uuid);
+
+            // No bar yet: nothing to attach to
+            service.refreshBossBar(joining);
+            service.broadcastBossBar();
+
+            service.refreshBossBar(joining);
+            verify(mockBossBar).addPlayer(joining);
+
+            when(chatProfileService.get(uuid)).thenReturn(ChatProfile.DEFAULT.withAnnouncements(false));
+            service.refreshBossBar(joining);
+            verify(mockBossBar).removePlayer(joining);
+
+            service.removeFromBossBar(player);
+            verify(mockBossBar).removePlayer(player);
+        }
+
+        @Test
+        @DisplayName("Should remove the bar from every player on shutdown")
+        void shouldRemoveOnShutdown() throws Exception {
+            service.broadcastBossBar();
+
+            service.shutdown();
+
+            verify(mockBossBar).setVisible(false);
+            verify(mockBossBar).removeAll();
+            assertThat(ChatTestHelper.getField(service, "bossBar")).isNull();
+            AnnouncementWheel.Timer frame =
+                    (AnnouncementWheel.Timer) ChatTestHelper.getField(service, "bossBarFrame");
+            assertThat(frame.isScheduled()).isFalse();
+
+            // A later join finds no bar to attach to
+            Player joining = ChatTestHelper.createMockPlayer("Joining", java.util.UUID.randomUUID());
+            service.refreshBossBar(joining);
+            verify(mockBossBar, never()).addPlayer(joining);
+        }
     }
 
     // ==================== Title Broadcast Tests ====================
@@ -267,6 +473,22 @@ class AnnouncementServiceTest {
             assertThat(subtitleCaptor.getValue()).contains("Enjoy your stay");
         }
 
+        @Test
+        @DisplayName("Should not show titles to players who turned announcements off")
+        void shouldSkipOptedOut() {
+            config.setTitleEnabled(true);
+            config.setTitleMessages(Arrays.asList("Welcome!"));
+
+            java.util.UUID uuid = java.util.UUID.randomUUID();
+            Player player = ChatTestHelper.createMockPlayer("TestPlayer", uuid);
+            when(chatProfileService.get(uuid)).thenReturn(ChatProfile.DEFAULT.withAnnouncements(false));
+            doReturn(Collections.singletonList(player)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+            service.broadcastTitle();
+
+            verify(player, never()).sendTitle(anyString(), anyString(), anyInt(), anyInt(), anyInt());
+        }
+
         @Test
         @DisplayName("Should handle message without separator")
         void shouldHandleNoSeparator() {
@@ -320,4 +542,191 @@ class AnnouncementServiceTest {
             service.broadcastTitle();
         }
     }
+
+    // ==================== Scheduling Tests ====================
+
+    @Nested
+    @DisplayName("Scheduling")
+    class SchedulingTests {
+
+        private Player player;
+
+        @BeforeEach
+        void setUpTrack() {
+            config.setChatEnabled(true);
+            config.setChatPrefix("");
+            config.setChatMessages(Arrays.asList("Hello"));
+            config.setChatInterval(10);
+            player = ChatTestHelper.createMockPlayer("TestPlayer", java.util.UUID.randomUUID());
+            doReturn(Collections.singletonList(player)).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+        }
+
+        private void ticks(int count) {
+            for (int i = 0; i < count; i++) {
+                service.tick();
+            }
+        }
+
+        @Test
+        @DisplayName("Should broadcast at the configured interval")
+        void shouldUseConfiguredInterval() {
+            ticks(199);
+            verify(player, never()).sendMessage(anyString());
+
+            ticks(1);
+            verify(player).sendMessage("Hello");
+
+            ticks(200);
+            verify(player, times(2)).sendMessage("Hello");
+        }
+
+        @Test
+        @DisplayName("Should pick up a changed interval and keep the time already waited")
+        void shouldRescheduleOnReload() {
+            ticks(100);
+            config.setChatInterval(20);
+
+            ticks(299);
+            verify(player, never()).sendMessage(anyString());
+
+            ticks(1);
+            verify(player).sendMessage("Hello");
+        }
+
+        @Test
+        @DisplayName("Should stop a track that was turned off")
+        void shouldCancelDisabledTrack() {
+            ticks(100);
+            config.setChatEnabled(false);
+
+            ticks(400);
+
+            verify(player, never()).sendMessage(anyString());
+        }
+
+        @Test
+        @DisplayName("Should leave disabled tracks unscheduled")
+        void shouldSkipDisabledTracks() throws Exception {
+            config.setTitleEnabled(false);
+            config.setBossBarEnabled(false);
+            ticks(1);
+
+            AnnouncementWheel.Timer title = (AnnouncementWheel.Timer) ChatTestHelper.getField(service, "titleTrack");
+            AnnouncementWheel.Timer chat = (AnnouncementWheel.Timer) ChatTestHelper.getField(service, "chatTrack");
+            assertThat(title.isScheduled()).isFalse();
+            assertThat(chat.getPeriod()).isEqualTo(200L);
+        }
+
+        @Test
+        @DisplayName("Should log a failing track once by name and count every failure")
+        void shouldReportFailingTrack() {
+            config.setTitleEnabled(false);
+            config.setBossBarEnabled(false);
+            doThrow(new IllegalStateException("boom")).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+
+            ticks(400);
+
+            verify(ChatTestHelper.getMockLogger())
+                    .warn(argThat(msg -> msg.contains("track chat") && msg.contains("boom")));
+            assertThat(service.getFailed()).isEqualTo(2);
+        }
+    }
+
+    // ==================== Staggered Delivery Tests ====================
+
+    @Nested
+    @DisplayName("Staggered Delivery")
+    class DeliveryTests {
+
+        private List<Player> players;
+        private java.util.concurrent.atomic.AtomicInteger sent;
+
+        @BeforeEach
+        void setUpPlayers() {
+            config.setChatEnabled(true);
+            config.setChatPrefix("");
+            config.setChatMessages(Arrays.asList("Hello"));
+            players = new java.util.ArrayList<>();
+            sent = new java.util.concurrent.atomic.AtomicInteger();
+            for (int i = 0; i < 5; i++) {
+                Player player = ChatTestHelper.createMockPlayer("Player" + i, java.util.UUID.randomUUID());
+                doAnswer(inv -> sent.incrementAndGet()).when(player).sendMessage(anyString());
+                players.add(player);
+            }
+            doReturn(players).when(ChatTestHelper.getMockServer()).getOnlinePlayers();
+        }
+
+        private int received() {
+            return sent.get();
+        }
+
+        @Test
+        @DisplayName("Should send to the per-tick budget each tick")
+        void shouldSliceByBudget() {
+            config.setDeliveryPerTick(2);
+            config.setDeliverySpreadTicks(20);
+
+            service.broadcastChat();
+            assertThat(received()).isEqualTo(2);
+            assertThat(service.getPendingPlayers()).isEqualTo(3);
+
+            service.tick();
+            assertThat(received()).isEqualTo(4);
+
+            service.tick();
+            assertThat(received()).isEqualTo(5);
+            assertThat(service.getPendingPlayers()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should raise the budget to finish within the spread")
+        void shouldFinishWithinSpread() {
+            config.setDeliveryPerTick(1);
+            config.setDeliverySpreadTicks(2);
+
+            service.broadcastChat();
+            assertThat(received()).isEqualTo(3);
+
+            service.tick();
+            assertThat(received()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should skip players who quit or opted out before their turn")
+        void shouldSkipLeftPlayers() {
+            config.setDeliveryPerTick(1);
+            config.setDeliverySpreadTicks(20);
+            service.broadcastChat();
+
+            when(players.get(1).isOnline()).thenReturn(false);
+            when(chatProfileService.get(players.get(2).getUniqueId()))
+                    .thenReturn(ChatProfile.DEFAULT.withAnnouncements(false));
+            for (int i = 0; i < 4; i++) {
+                service.tick();
+            }
+
+            verify(players.get(1), never()).sendMessage(anyString());
+            verify(players.get(2), never()).sendMessage(anyString());
+            verify(players.get(4)).sendMessage("Hello");
+        }
+
+        @Test
+        @DisplayName("Should record the players and time of each delivery tick")
+        void shouldRecordMetrics() {
+            config.setDeliveryPerTick(2);
+            config.setDeliverySpreadTicks(20);
+
+            // A broadcast outside the tick task counts towards the next tick
+            service.broadcastChat();
+            service.tick();
+            service.tick();
+            service.tick();
+
+            assertThat(service.getDeliveredPlayers()).isEqualTo(5);
+            assertThat(service.getDeliveryTicks()).isEqualTo(2);
+            assertThat(service.getLastTickPlayers()).isEqualTo(1);
+            assertThat(service.getMaxTickPlayers()).isBetween(1, 4);
+            assertThat(service.getMaxTickNanos()).isGreaterThanOrEqualTo(service.getLastTickNanos());
+        }
+    }
 }
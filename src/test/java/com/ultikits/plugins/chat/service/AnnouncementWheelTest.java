@@ -0,0 +1,151 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AnnouncementWheel — firing, long periods, rescheduling and cancelling.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("AnnouncementWheel Tests")
+class AnnouncementWheelTest {
+
+    private static List<Long> advance(AnnouncementWheel wheel, AtomicInteger runs, int ticks) {
+        List<Long> fired = new ArrayList<>();
+        for (int i = 0; i < ticks; i++) {
+            int before = runs.get();
+            wheel.advance();
+            if (runs.get() > before) {
+                fired.add(wheel.now());
+            }
+        }
+        return fired;
+    }
+
+    @Test
+    @DisplayName("Should fire every period")
+    void shouldFireEveryPeriod() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        AnnouncementWheel.Timer timer = new AnnouncementWheel.Timer(runs::incrementAndGet);
+
+        wheel.schedule(timer, 3);
+
+        assertThat(advance(wheel, runs, 10)).containsExactly(3L, 6L, 9L);
+    }
+
+    @Test
+    @DisplayName("Should wait out periods longer than one turn of the wheel")
+    void shouldHandleLongPeriods() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(new AnnouncementWheel.Timer(runs::incrementAndGet), 20);
+
+        assertThat(advance(wheel, runs, 45)).containsExactly(20L, 40L);
+    }
+
+    @Test
+    @DisplayName("Should keep the phase when the period changes")
+    void shouldKeepPhase() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        AnnouncementWheel.Timer timer = new AnnouncementWheel.Timer(runs::incrementAndGet);
+        wheel.schedule(timer, 10);
+        advance(wheel, runs, 4);
+
+        wheel.schedule(timer, 6);
+
+        assertThat(advance(wheel, runs, 10)).containsExactly(6L, 12L);
+    }
+
+    @Test
+    @DisplayName("Should fire on the next tick when a shorter period is already overdue")
+    void shouldNotScheduleIntoThePast() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        AnnouncementWheel.Timer timer = new AnnouncementWheel.Timer(runs::incrementAndGet);
+        wheel.schedule(timer, 10);
+        advance(wheel, runs, 8);
+
+        wheel.schedule(timer, 2);
+
+        assertThat(advance(wheel, runs, 3)).containsExactly(9L, 11L);
+    }
+
+    @Test
+    @DisplayName("Should stop a cancelled timer")
+    void shouldCancel() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        AnnouncementWheel.Timer timer = new AnnouncementWheel.Timer(runs::incrementAndGet);
+        wheel.schedule(timer, 2);
+
+        wheel.schedule(timer, 0);
+
+        assertThat(advance(wheel, runs, 10)).isEmpty();
+        assertThat(timer.isScheduled()).isFalse();
+        assertThat(timer.getPeriod()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should run timers sharing a slot independently")
+    void shouldShareSlots() {
+        AnnouncementWheel wheel = new AnnouncementWheel(4);
+        AtomicInteger a = new AtomicInteger();
+        AtomicInteger b = new AtomicInteger();
+        wheel.schedule(new AnnouncementWheel.Timer(a::incrementAndGet), 4);
+        wheel.schedule(new AnnouncementWheel.Timer(b::incrementAndGet), 8);
+
+        for (int i = 0; i < 16; i++) {
+            wheel.advance();
+        }
+
+        assertThat(a.get()).isEqualTo(4);
+        assertThat(b.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep firing other timers when one throws")
+    void shouldIsolateFailures() {
+        AnnouncementWheel wheel = new AnnouncementWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        AnnouncementWheel.Timer broken = new AnnouncementWheel.Timer(() -> {
+            throw new IllegalStateException("boom");
+        });
+        wheel.schedule(broken, 2);
+        wheel.schedule(new AnnouncementWheel.Timer(runs::incrementAndGet), 2);
+
+        assertThat(wheel.advance()).isZero();
+        assertThat(wheel.advance()).isEqualTo(2);
+
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(wheel.getFailed()).isEqualTo(1);
+        assertThat(broken.isScheduled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hand each failure to the handler with the failing timer")
+    void shouldReportFailures() {
+        List<String> reports = new ArrayList<>();
+        AnnouncementWheel wheel = new AnnouncementWheel(8,
+                (timer, e) -> reports.add(timer.getName() + ":" + timer.getFailed() + ":" + e.getMessage()));
+        AnnouncementWheel.Timer broken = new AnnouncementWheel.Timer("title", () -> {
+            throw new IllegalStateException("boom");
+        });
+        wheel.schedule(broken, 1);
+
+        wheel.advance();
+        wheel.advance();
+
+        assertThat(reports).containsExactly("title:1:boom", "title:2:boom");
+        assertThat(broken.getFailed()).isEqualTo(2);
+    }
+}
@@ -5,10 +5,9 @@ import com.ultikits.plugins.chat.utils.ChatTestHelper;
 import org.bukkit.entity.Player;
 import org.junit.jupiter.api.*;
 
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -47,6 +46,27 @@ class AntiSpamServiceTest {
         return ChatTestHelper.createMockPlayer("TestPlayer", uuid);
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<UUID, SpamState> states() throws Exception {
+        return (Map<UUID, SpamState>) ChatTestHelper.getField(service, "states");
+    }
+
+    /**
+     * Record messages sent {@code ago} milliseconds in the past, with no channel.
+     */
+    private void history(UUID playerId, long ago, String... messages) throws Exception {
+        SpamState state = states().computeIfAbsent(playerId, id -> new SpamState());
+        for (String message : messages) {
+            state.record(SpamState.NO_CHANNEL, System.currentTimeMillis() - ago, SpamState.hash(message));
+        }
+    }
+
+    private ChannelDefinition channel(int id, Object antiSpam) {
+        Map<String, Object> def = new HashMap<>();
+        def.put("anti-spam", antiSpam);
+        return ChannelDefinition.compile(id, "channel" + id, def);
+    }
+
     // -------------------------------------------------------------------------
     // checkSpam
     // -------------------------------------------------------------------------
@@ -151,9 +171,7 @@ class AntiSpamServiceTest {
             UUID playerId = player.getUniqueId();
 
             // Simulate a recent message
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            lastMessageTime.put(playerId, System.currentTimeMillis());
+            history(playerId, 0, "earlier");
 
             String reason = service.checkSpam(player, "too fast");
             assertThat(reason).isEqualTo("发送消息太快了！");
@@ -165,10 +183,8 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
             // Set last message to 3 seconds ago (cooldown is 2s)
-            lastMessageTime.put(playerId, System.currentTimeMillis() - 3000);
+            history(playerId, 3000, "earlier");
 
             String reason = service.checkSpam(player, "allowed now");
             assertThat(reason).isNull();
@@ -189,9 +205,7 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            lastMessageTime.put(playerId, System.currentTimeMillis());
+            history(playerId, 0, "earlier");
 
             // 0 second cooldown means message is never too fast
             String reason = service.checkSpam(player, "immediate");
@@ -213,15 +227,8 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            // Simulate 3 identical messages in history (maxDuplicate is 3)
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = new LinkedList<String>();
-            messages.add("spam");
-            messages.add("spam");
-            messages.add("spam");
-            recentMessages.put(playerId, messages);
+            // 3 identical messages in history (maxDuplicate is 3)
+            history(playerId, 10000, "spam", "spam", "spam");
 
             String reason = service.checkSpam(player, "spam");
             assertThat(reason).isEqualTo("请不要发送重复消息！");
@@ -233,14 +240,8 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = new LinkedList<String>();
-            messages.add("spam");
-            messages.add("spam");
             // Only 2 duplicates, threshold is 3
-            recentMessages.put(playerId, messages);
+            history(playerId, 10000, "spam", "spam");
 
             String reason = service.checkSpam(player, "spam");
             assertThat(reason).isNull();
@@ -252,37 +253,27 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = new LinkedList<String>();
-            messages.add("message1");
-            messages.add("message2");
-            messages.add("message3");
-            recentMessages.put(playerId, messages);
+            history(playerId, 10000, "message1", "message2", "message3");
 
             String reason = service.checkSpam(player, "message4");
             assertThat(reason).isNull();
         }
 
         @Test
-        @DisplayName("should handle empty recent messages")
-        void shouldHandleEmptyRecentMessages() throws Exception {
+        @DisplayName("should handle empty state")
+        void shouldHandleEmptyState() throws Exception {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            recentMessages.put(playerId, new LinkedList<String>());
+            states().put(playerId, new SpamState());
 
             String reason = service.checkSpam(player, "hello");
             assertThat(reason).isNull();
         }
 
         @Test
-        @DisplayName("should handle no recent messages entry")
-        void shouldHandleNoRecentMessagesEntry() {
+        @DisplayName("should handle no state entry")
+        void shouldHandleNoStateEntry() {
             Player player = createPlayer();
             String reason = service.checkSpam(player, "hello");
             assertThat(reason).isNull();
@@ -295,14 +286,7 @@ class AntiSpamServiceTest {
             Player player = createPlayer();
             UUID playerId = player.getUniqueId();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = new LinkedList<String>();
-            messages.add("spam");
-            messages.add("spam");
-            messages.add("spam");
-            recentMessages.put(playerId, messages);
+            history(playerId, 10000, "spam", "spam", "spam");
 
             String reason = service.checkSpam(player, "spam");
             // maxDuplicate <= 0 means duplicate check is disabled
@@ -452,47 +436,38 @@ class AntiSpamServiceTest {
     class RecordMessageTests {
 
         @Test
-        @DisplayName("should update lastMessageTime")
+        @DisplayName("should update the last message time")
         void shouldUpdateLastMessageTime() throws Exception {
             UUID playerId = UUID.randomUUID();
             long before = System.currentTimeMillis();
             service.recordMessage(playerId, "hello");
             long after = System.currentTimeMillis();
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            assertThat(lastMessageTime.get(playerId)).isBetween(before, after);
+            assertThat(states().get(playerId).lastTime(SpamState.NO_CHANNEL)).isBetween(before, after);
         }
 
         @Test
-        @DisplayName("should add message to recent messages")
-        void shouldAddMessageToRecentMessages() throws Exception {
+        @DisplayName("should start a run for a new message")
+        void shouldStartRun() throws Exception {
             UUID playerId = UUID.randomUUID();
             service.recordMessage(playerId, "hello");
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            assertThat(recentMessages.get(playerId)).containsExactly("hello");
+            assertThat(states().get(playerId).run(SpamState.NO_CHANNEL, SpamState.hash("hello"))).isEqualTo(1);
         }
 
         @Test
-        @DisplayName("should maintain bounded list of recent messages")
-        void shouldMaintainBoundedList() throws Exception {
+        @DisplayName("should only count the trailing run of identical messages")
+        void shouldCountTrailingRun() throws Exception {
             UUID playerId = UUID.randomUUID();
-            config.setAntiSpamMaxDuplicate(3);
 
-            service.recordMessage(playerId, "msg1");
-            service.recordMessage(playerId, "msg2");
-            service.recordMessage(playerId, "msg3");
-            service.recordMessage(playerId, "msg4");
+            service.recordMessage(playerId, "spam");
+            service.recordMessage(playerId, "msg");
+            service.recordMessage(playerId, "spam");
+            service.recordMessage(playerId, "spam");
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = recentMessages.get(playerId);
-            assertThat(messages).hasSize(3);
-            assertThat(messages).containsExactly("msg2", "msg3", "msg4");
+            SpamState state = states().get(playerId);
+            assertThat(state.run(SpamState.NO_CHANNEL, SpamState.hash("spam"))).isEqualTo(2);
+            assertThat(state.run(SpamState.NO_CHANNEL, SpamState.hash("msg"))).isZero();
         }
 
         @Test
@@ -510,21 +485,25 @@ class AntiSpamServiceTest {
         }
 
         @Test
-        @DisplayName("should use default max duplicate when config is zero")
-        void shouldUseDefaultMaxDuplicateWhenZero() throws Exception {
-            config.setAntiSpamMaxDuplicate(0);
+        @DisplayName("should keep one entry per channel however many messages are sent")
+        void shouldKeepOneEntryPerChannel() throws Exception {
             UUID playerId = UUID.randomUUID();
 
             for (int i = 0; i < 5; i++) {
                 service.recordMessage(playerId, "msg" + i);
             }
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = recentMessages.get(playerId);
-            // Default is 3 when config is 0
-            assertThat(messages).hasSize(3);
+            assertThat(states().get(playerId).size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should keep no state in an exempt channel")
+        void shouldSkipExemptChannel() throws Exception {
+            UUID playerId = UUID.randomUUID();
+
+            service.recordMessage(playerId, channel(0, false), "hello");
+
+            assertThat(states()).doesNotContainKey(playerId);
         }
     }
 
@@ -610,23 +589,17 @@ class AntiSpamServiceTest {
             service.mutePlayer(playerId);
 
             // Verify state exists
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
+            Map<UUID, SpamState> states = states();
             @SuppressWarnings("unchecked")
             Map<UUID, Long> mutedUntil = (Map<UUID, Long>) ChatTestHelper.getField(service, "mutedUntil");
 
-            assertThat(lastMessageTime).containsKey(playerId);
-            assertThat(recentMessages).containsKey(playerId);
+            assertThat(states).containsKey(playerId);
             assertThat(mutedUntil).containsKey(playerId);
 
             // Cleanup
             service.cleanup(playerId);
 
-            assertThat(lastMessageTime).doesNotContainKey(playerId);
-            assertThat(recentMessages).doesNotContainKey(playerId);
+            assertThat(states).doesNotContainKey(playerId);
             assertThat(mutedUntil).doesNotContainKey(playerId);
         }
 
@@ -657,23 +630,116 @@ class AntiSpamServiceTest {
 
             service.cleanup(player1);
 
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
+            Map<UUID, SpamState> states = states();
             @SuppressWarnings("unchecked")
             Map<UUID, Long> mutedUntil = (Map<UUID, Long>) ChatTestHelper.getField(service, "mutedUntil");
 
-            assertThat(lastMessageTime).doesNotContainKey(player1);
-            assertThat(lastMessageTime).containsKey(player2);
-            assertThat(recentMessages).doesNotContainKey(player1);
-            assertThat(recentMessages).containsKey(player2);
+            assertThat(states).doesNotContainKey(player1);
+            assertThat(states).containsKey(player2);
             assertThat(mutedUntil).doesNotContainKey(player1);
             assertThat(mutedUntil).containsKey(player2);
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Per-channel policy
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("Per-channel policy")
+    class ChannelPolicyTests {
+
+        @Test
+        @DisplayName("should let an exempt channel through")
+        void shouldExemptChannel() {
+            Player player = createPlayer();
+            ChannelDefinition exempt = channel(0, false);
+            service.recordMessage(player.getUniqueId(), "hello");
+
+            assertThat(service.checkSpam(player, exempt, "HELLOWORLD")).isNull();
+        }
+
+        @Test
+        @DisplayName("should still block a muted player in an exempt channel")
+        void shouldNotExemptFromMute() {
+            Player player = createPlayer();
+            service.mutePlayer(player.getUniqueId());
+
+            assertThat(service.checkSpam(player, channel(0, false), "hello")).isEqualTo("你已被临时禁言！");
+        }
+
+        @Test
+        @DisplayName("should keep cooldowns separate per channel")
+        void shouldSeparateCooldowns() {
+            Player player = createPlayer();
+            ChannelDefinition global = channel(0, null);
+            ChannelDefinition staff = channel(1, null);
+
+            service.recordMessage(player.getUniqueId(), global, "hello");
+
+            assertThat(service.checkSpam(player, global, "again")).isEqualTo("发送消息太快了！");
+            assertThat(service.checkSpam(player, staff, "again")).isNull();
+        }
+
+        @Test
+        @DisplayName("should apply a channel's slow mode over the global cooldown")
+        void shouldApplySlowMode() throws Exception {
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("cooldown", 10);
+            ChannelDefinition slow = channel(0, overrides);
+            Player player = createPlayer();
+            SpamState state = new SpamState();
+            ChannelDefinition normal = channel(1, null);
+            state.record(slow.getKey(), System.currentTimeMillis() - 5000, SpamState.hash("hello"));
+            state.record(normal.getKey(), System.currentTimeMillis() - 5000, SpamState.hash("hello"));
+            states().put(player.getUniqueId(), state);
+
+            // 5 seconds ago passes the global 2s cooldown but not the channel's 10s
+            assertThat(service.checkSpam(player, slow, "again")).isEqualTo("发送消息太快了！");
+            assertThat(service.checkSpam(player, normal, "again")).isNull();
+        }
+
+        @Test
+        @DisplayName("should not carry state over to another channel given the same id")
+        void shouldNotCarryStateAcrossReusedId() {
+            Player player = createPlayer();
+            ChannelDefinition before = channel(0, null);
+            ChannelDefinition reloaded = channel(0, null);
+            ChannelDefinition party = ChannelDefinition.party(0, "raid", "{name}");
+
+            service.recordMessage(player.getUniqueId(), before, "hello");
+
+            assertThat(service.checkSpam(player, before, "again")).isEqualTo("发送消息太快了！");
+            assertThat(service.checkSpam(player, reloaded, "again")).isNull();
+            assertThat(service.checkSpam(player, party, "again")).isNull();
+        }
+
+        @Test
+        @DisplayName("should apply a channel's duplicate limit")
+        void shouldApplyDuplicateLimit() {
+            config.setAntiSpamCooldown(0);
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("max-duplicate", 1);
+            ChannelDefinition strict = channel(0, overrides);
+            Player player = createPlayer();
+
+            service.recordMessage(player.getUniqueId(), strict, "hello");
+
+            assertThat(service.checkSpam(player, strict, "hello")).isEqualTo("请不要发送重复消息！");
+        }
+
+        @Test
+        @DisplayName("should apply a channel's caps limit")
+        void shouldApplyCapsLimit() {
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("caps-limit", 0);
+            Player player = createPlayer();
+
+            // A limit of 0 turns the caps check off for the channel
+            assertThat(service.checkSpam(player, channel(0, overrides), "HELLOWORLD")).isNull();
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Integration scenarios
     // -------------------------------------------------------------------------
@@ -733,18 +799,7 @@ class AntiSpamServiceTest {
 
             // Set up ALL conditions: muted + cooldown + duplicate + caps
             service.mutePlayer(playerId);
-            @SuppressWarnings("unchecked")
-            Map<UUID, Long> lastMessageTime = (Map<UUID, Long>) ChatTestHelper.getField(service, "lastMessageTime");
-            lastMessageTime.put(playerId, System.currentTimeMillis());
-
-            @SuppressWarnings("unchecked")
-            Map<UUID, LinkedList<String>> recentMessages =
-                    (Map<UUID, LinkedList<String>>) ChatTestHelper.getField(service, "recentMessages");
-            LinkedList<String> messages = new LinkedList<String>();
-            messages.add("SPAM");
-            messages.add("SPAM");
-            messages.add("SPAM");
-            recentMessages.put(playerId, messages);
+            history(playerId, 0, "SPAM", "SPAM", "SPAM");
 
             // Mute should be checked first
             assertThat(service.checkSpam(player, "SPAM")).isEqualTo("你已被临时禁言！");
@@ -0,0 +1,340 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AutoReplyImportService — file name resolution, CSV and YAML
+ * import with validation failures, merge and replace, and export.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("AutoReplyImportService Tests")
+class AutoReplyImportServiceTest {
+
+    @TempDir
+    File tempDir;
+
+    private AutoReplyConfig config;
+    private AutoReplyService autoReplyService;
+    private AutoReplyPersistenceService persistenceService;
+    private AutoReplyImportService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        UltiToolsPlugin plugin = mock(UltiToolsPlugin.class);
+        lenient().when(plugin.getConfigFolder()).thenReturn(tempDir.getAbsolutePath());
+
+        config = new AutoReplyConfig();
+        config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+        persistenceService = mock(AutoReplyPersistenceService.class);
+        autoReplyService = new AutoReplyService();
+        ChatTestHelper.setField(autoReplyService, "config", config);
+        ChatTestHelper.setField(autoReplyService, "persistenceService", persistenceService);
+        ChatTestHelper.setField(autoReplyService, "commandQueueService", mock(CommandQueueService.class));
+        ChatTestHelper.setField(autoReplyService, "replyBroadcastService", mock(ReplyBroadcastService.class));
+
+        service = new AutoReplyImportService(plugin, autoReplyService);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = service.resolve(name);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void addExisting(String name, String keyword) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("keyword", keyword);
+        rule.put("response", "Existing " + name);
+        config.getRules().put(name, rule);
+    }
+
+    @Nested
+    @DisplayName("File Names")
+    class FileNameTests {
+
+        @Test
+        @DisplayName("Should resolve supported names inside the autoreply folder")
+        void shouldResolveSupportedNames() {
+            File expected = new File(new File(tempDir, "autoreply"), "faq.csv");
+
+            assertThat(service.resolve("faq.csv")).isEqualTo(expected);
+            assertThat(service.resolve("faq.yml")).isNotNull();
+            assertThat(service.resolve("FAQ.YAML")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should reject paths and unsupported extensions")
+        void shouldRejectUnsafeNames() {
+            assertThat(service.resolve("../config/autoreply.yml")).isNull();
+            assertThat(service.resolve("sub\\faq.csv")).isNull();
+            assertThat(service.resolve(".hidden.csv")).isNull();
+            assertThat(service.resolve("faq.txt")).isNull();
+            assertThat(service.resolve("")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV Import")
+    class CsvImportTests {
+
+        @Test
+        @DisplayName("Should import valid rows and make them matchable")
+        void shouldImportValidRows() throws IOException {
+            File file = write("faq.csv", "name,keyword,mode,response\n"
+                    + "spawn,where is spawn,fuzzy,Use /spawn\n"
+                    + "shop,shop,contains,\"Go to /warp shop|Open 24/7\"\n");
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getImported()).isEqualTo(2);
+            assertThat(report.getFailures()).isEmpty();
+            assertThat(report.getTotalRules()).isEqualTo(2);
+            assertThat(autoReplyService.findMatch("wher is spawn").getKey()).isEqualTo("spawn");
+            assertThat(autoReplyService.getTemplate("shop").getLineCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should report invalid rows with their line and reason")
+        void shouldReportFailures() throws IOException {
+            File file = write("faq.csv", "Name,Keyword,Mode,Response,Threshold\n"
+                    + "ok,hello,contains,Hi,\n"
+                    + "badregex,[oops,regex,Hi,\n"
+                    + "nokeyword,,contains,Hi,\n"
+                    + "badmode,x,wildcard,Hi,\n"
+                    + "badthreshold,x,semantic,Hi,2\n"
+                    + "noresponse,x,contains,,\n"
+                    + "ok,again,contains,Hi,\n");
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getImported()).isEqualTo(1);
+            List<String> reasons = new ArrayList<>();
+            for (ImportReport.Failure failure : report.getFailures()) {
+                reasons.add(failure.getLine() + " " + failure.getRuleName() + " " + failure.getReason());
+            }
+            assertThat(reasons).hasSize(6);
+            assertThat(reasons.get(0)).startsWith("3 badregex bad regex");
+            assertThat(reasons.subList(1, 6)).containsExactly(
+                    "4 nokeyword missing keyword",
+                    "5 badmode unknown mode 'wildcard'",
+                    "6 badthreshold threshold must be between 0 and 1",
+                    "7 noresponse missing response",
+                    "8 ok duplicate rule name");
+        }
+
+        @Test
+        @DisplayName("Should fail without a name column")
+        void shouldRequireNameColumn() throws IOException {
+            File file = write("faq.csv", "keyword,response\nhello,Hi\n");
+
+            assertThatThrownBy(() -> service.importRules(file, false))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("name");
+        }
+
+        @Test
+        @DisplayName("Should add to existing rules by default")
+        void shouldMerge() throws IOException {
+            addExisting("old", "old");
+            addExisting("shop", "store");
+            File file = write("faq.csv", "name,keyword,response\nshop,shop,New shop\nspawn,spawn,Spawn\n");
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getTotalRules()).isEqualTo(3);
+            assertThat(config.getRules().keySet()).containsExactly("old", "shop", "spawn");
+            assertThat(config.getRules().get("shop").get("keyword")).isEqualTo("shop");
+        }
+
+        @Test
+        @DisplayName("Should keep a rule added while the import was merging")
+        void shouldKeepConcurrentEdit() throws Exception {
+            addExisting("old", "old");
+            AutoReplyService racing = spy(autoReplyService);
+            ChatTestHelper.setField(service, "autoReplyService", racing);
+            AtomicBoolean raced = new AtomicBoolean();
+            doAnswer(inv -> {
+                // An admin adds a rule between the merge and the swap
+                if (raced.compareAndSet(false, true)) {
+                    racing.addRule("added", "added", "Added");
+                }
+                return inv.callRealMethod();
+            }).when(racing).replaceRules(anyMap(), anyMap());
+            File file = write("faq.csv", "name,keyword,response\nspawn,spawn,Spawn\n");
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getTotalRules()).isEqualTo(3);
+            assertThat(racing.getRules().keySet()).containsExactly("old", "added", "spawn");
+            verify(racing, times(2)).replaceRules(anyMap(), anyMap());
+        }
+
+        @Test
+        @DisplayName("Should not start a second import while one is running")
+        void shouldRejectConcurrentImport() throws Exception {
+            File file = write("faq.csv", "name,keyword,response\nspawn,spawn,Spawn\n");
+            ((AtomicBoolean) ChatTestHelper.getField(service, "importing")).set(true);
+
+            assertThat(service.isImporting()).isTrue();
+            assertThat(service.importRules(file, false)).isNull();
+            assertThat(config.getRules()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should drop existing rules in replace mode")
+        void shouldReplace() throws IOException {
+            addExisting("old", "old");
+            File file = write("faq.csv", "name,keyword,response\nspawn,spawn,Spawn\n");
+
+            service.importRules(file, true);
+
+            assertThat(config.getRules().keySet()).containsExactly("spawn");
+            assertThat(autoReplyService.findMatch("old")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should persist the imported rule set")
+        void shouldPersist() throws IOException {
+            File file = write("faq.csv", "name,keyword,response\nspawn,spawn,Spawn\n");
+
+            service.importRules(file, false);
+
+            verify(persistenceService).save(config.getRules());
+        }
+
+        @Test
+        @DisplayName("Should validate a large sheet across fork-join tasks")
+        void shouldValidateLargeSheet() throws IOException {
+            StringBuilder csv = new StringBuilder("name,keyword,mode,response\n");
+            for (int i = 0; i < 2000; i++) {
+                String mode = i % 100 == 0 ? "regex" : "contains";
+                String keyword = i % 100 == 0 ? "[broken" + i : "topic" + i + "end";
+                csv.append("rule").append(i).append(',').append(keyword).append(',')
+                        .append(mode).append(",Response ").append(i).append('\n');
+            }
+            File file = write("big.csv", csv.toString());
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getImported()).isEqualTo(1980);
+            assertThat(report.getFailures()).hasSize(20);
+            assertThat(report.getFailures().get(1).getLine()).isEqualTo(102);
+            assertThat(autoReplyService.findMatch("need topic1999end please").getKey()).isEqualTo("rule1999");
+        }
+    }
+
+    @Nested
+    @DisplayName("YAML Import")
+    class YamlImportTests {
+
+        @Test
+        @DisplayName("Should import a rules section")
+        void shouldImportRulesSection() throws IOException {
+            File file = write("faq.yml", "rules:\n"
+                    + "  spawn:\n"
+                    + "    keyword: spawn\n"
+                    + "    response: Use /spawn\n"
+                    + "    max-edits: '1'\n"
+                    + "  broken:\n"
+                    + "    response: No keyword\n");
+
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getImported()).isEqualTo(1);
+            assertThat(report.getFailures()).hasSize(1);
+            assertThat(report.getFailures().get(0).getRuleName()).isEqualTo("broken");
+            assertThat(config.getRules().get("spawn").get("max-edits")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should accept a copy of config/autoreply.yml")
+        void shouldImportConfigCopy() throws IOException {
+            File file = write("backup.yml", "autoreply:\n"
+                    + "  rules:\n"
+                    + "    spawn:\n"
+                    + "      keyword: spawn\n"
+                    + "      response: Use /spawn\n");
+
+            assertThat(service.importRules(file, false).getImported()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should fail without a rules section")
+        void shouldRequireRulesSection() throws IOException {
+            File file = write("faq.yml", "other: 1\n");
+
+            assertThatThrownBy(() -> service.importRules(file, false)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Export")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should export to CSV and import the same rules back")
+        void shouldRoundTripCsv() throws IOException {
+            addExisting("spawn", "where, is spawn");
+            config.getRules().get("spawn").put("response", Arrays.asList("Line 1", "Line 2"));
+            addExisting("shop", "shop");
+
+            File file = service.resolve("export.csv");
+            assertThat(service.exportRules(file)).isEqualTo(2);
+
+            config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+            ImportReport report = service.importRules(file, false);
+
+            assertThat(report.getImported()).isEqualTo(2);
+            assertThat(config.getRules().get("spawn").get("keyword")).isEqualTo("where, is spawn");
+            assertThat(config.getRules().get("spawn").get("response")).isEqualTo(Arrays.asList("Line 1", "Line 2"));
+        }
+
+        @Test
+        @DisplayName("Should export to YAML and import the same rules back")
+        void shouldRoundTripYaml() throws IOException {
+            addExisting("spawn", "spawn");
+
+            File file = service.resolve("export.yml");
+            assertThat(service.exportRules(file)).isEqualTo(1);
+
+            config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+            assertThat(service.importRules(file, false).getImported()).isEqualTo(1);
+            assertThat(config.getRules()).containsKey("spawn");
+        }
+
+        @Test
+        @DisplayName("Should not leave a temp file behind")
+        void shouldNotLeaveTempFile() throws IOException {
+            addExisting("spawn", "spawn");
+
+            service.exportRules(service.resolve("export.csv"));
+
+            assertThat(new File(new File(tempDir, "autoreply"), "export.csv.tmp")).doesNotExist();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.interfaces.impl.logger.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AutoReplyPersistenceService — immediate fallback write, debounce
+ * coalescing, snapshot isolation and preservation of unrelated keys.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("AutoReplyPersistenceService Tests")
+class AutoReplyPersistenceServiceTest {
+
+    @TempDir
+    File tempDir;
+
+    private AutoReplyConfig config;
+    private AutoReplyPersistenceService service;
+    private File target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        UltiToolsPlugin plugin = mock(UltiToolsPlugin.class);
+        lenient().when(plugin.getConfigFolder()).thenReturn(tempDir.getAbsolutePath());
+        lenient().when(plugin.getLogger()).thenReturn(mock(PluginLogger.class));
+
+        config = new AutoReplyConfig();
+        config.setSaveDelay(2);
+        service = new AutoReplyPersistenceService(plugin, config);
+        target = new File(tempDir, "config/autoreply.yml");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    private Map<String, Map<String, Object>> rules(String... names) {
+        Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        for (String name : names) {
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("keyword", name);
+            rule.put("response", "Response " + name);
+            rule.put("mode", "contains");
+            rules.put(name, rule);
+        }
+        return rules;
+    }
+
+    private Set<String> writtenRuleNames() {
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(target);
+        return yaml.getConfigurationSection("autoreply.rules").getKeys(false);
+    }
+
+    @Test
+    @DisplayName("Should write immediately when UltiTools is not available")
+    void shouldWriteImmediatelyWithoutScheduler() {
+        service.save(rules("a", "b"));
+
+        assertThat(target).exists();
+        assertThat(writtenRuleNames()).containsExactly("a", "b");
+        assertThat(service.hasPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not leave the temp file behind")
+    void shouldNotLeaveTempFile() {
+        service.save(rules("a"));
+
+        assertThat(new File(tempDir, "config/autoreply.yml.tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should preserve unrelated keys and replace the rule section")
+    void shouldPreserveOtherKeys() throws Exception {
+        target.getParentFile().mkdirs();
+        String existing = "autoreply:\n  enabled: false\n  cooldown: 42\n  rules:\n    old:\n      keyword: old\n";
+        Files.write(target.toPath(), existing.getBytes(StandardCharsets.UTF_8));
+
+        service.save(rules("new"));
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(target);
+        assertThat(yaml.getBoolean("autoreply.enabled")).isFalse();
+        assertThat(yaml.getInt("autoreply.cooldown")).isEqualTo(42);
+        assertThat(writtenRuleNames()).containsExactly("new");
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst of edits into one scheduled write of the latest snapshot")
+    void shouldCoalesceBurst() {
+        Plugin bukkitPlugin = mock(Plugin.class);
+        when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(bukkitPlugin);
+        BukkitScheduler scheduler = Bukkit.getScheduler();
+
+        service.save(rules("a"));
+        service.save(rules("a", "b"));
+        service.save(rules("a", "b", "c"));
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).runTaskLaterAsynchronously(eq(bukkitPlugin), captor.capture(), eq(40L));
+        assertThat(target).doesNotExist();
+        assertThat(service.hasPending()).isTrue();
+
+        captor.getValue().run();
+
+        assertThat(writtenRuleNames()).containsExactly("a", "b", "c");
+        assertThat(service.hasPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should write the snapshot taken at save time")
+    void shouldIsolateSnapshot() {
+        Plugin bukkitPlugin = mock(Plugin.class);
+        when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(bukkitPlugin);
+
+        Map<String, Map<String, Object>> live = rules("a");
+        service.save(live);
+        live.put("late", new HashMap<String, Object>());
+
+        service.flush();
+
+        assertThat(writtenRuleNames()).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Should schedule again after a flush")
+    void shouldScheduleAgainAfterFlush() {
+        Plugin bukkitPlugin = mock(Plugin.class);
+        when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(bukkitPlugin);
+        BukkitScheduler scheduler = Bukkit.getScheduler();
+
+        service.save(rules("a"));
+        service.flush();
+        service.save(rules("b"));
+
+        verify(scheduler, times(2)).runTaskLaterAsynchronously(eq(bukkitPlugin), any(Runnable.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should leave the newest snapshot on disk when flushes interleave")
+    void shouldKeepNewestOnInterleavedFlush() throws Exception {
+        Plugin bukkitPlugin = mock(Plugin.class);
+        when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(bukkitPlugin);
+
+        // The first write stalls until released, the way a slow async flush would
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UltiToolsPlugin plugin = mock(UltiToolsPlugin.class);
+        when(plugin.getLogger()).thenReturn(mock(PluginLogger.class));
+        when(plugin.getConfigFolder()).thenAnswer(invocation -> {
+            if (stalled.getCount() > 0) {
+                stalled.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return tempDir.getAbsolutePath();
+        });
+        service = new AutoReplyPersistenceService(plugin, config);
+
+        service.save(rules("old"));
+        Thread debounced = new Thread(service::flush);
+        debounced.start();
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        service.save(rules("new"));
+        Thread reload = new Thread(service::flush);
+        reload.start();
+        while (reload.getState() != Thread.State.BLOCKED && reload.isAlive()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        debounced.join(5000);
+        reload.join(5000);
+
+        assertThat(writtenRuleNames()).containsExactly("new");
+        assertThat(service.hasPending()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Flush should report false when nothing is pending")
+    void flushShouldReturnFalseWhenIdle() {
+        assertThat(service.flush()).isFalse();
+    }
+}
@@ -9,10 +9,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests for AutoReplyService — match modes, case sensitivity, pattern cache,
- * rule CRUD, and null safety.
+ * rule CRUD, hit statistics, and null safety.
  *
  * @author wisdomme
  * @version 1.0.0
@@ -22,6 +23,9 @@ class AutoReplyServiceTest {
 
     private AutoReplyService service;
     private AutoReplyConfig config;
+    private AutoReplyPersistenceService persistenceService;
+    private CommandQueueService commandQueueService;
+    private ReplyBroadcastService replyBroadcastService;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -30,8 +34,15 @@ class AutoReplyServiceTest {
         config = new AutoReplyConfig();
         config.setRules(new HashMap<String, Map<String, Object>>());
 
+        persistenceService = mock(AutoReplyPersistenceService.class);
+
         service = new AutoReplyService();
         ChatTestHelper.setField(service, "config", config);
+        ChatTestHelper.setField(service, "persistenceService", persistenceService);
+        commandQueueService = mock(CommandQueueService.class);
+        ChatTestHelper.setField(service, "commandQueueService", commandQueueService);
+        replyBroadcastService = mock(ReplyBroadcastService.class);
+        ChatTestHelper.setField(service, "replyBroadcastService", replyBroadcastService);
     }
 
     @AfterEach
@@ -224,6 +235,192 @@ class AutoReplyServiceTest {
         }
     }
 
+    // ============================
+    // Fuzzy match mode
+    // ============================
+
+    @Nested
+    @DisplayName("Fuzzy Mode")
+    class FuzzyModeTests {
+
+        @Test
+        @DisplayName("Should tolerate a missing letter")
+        void shouldTolerateMissingLetter() {
+            addRule("ip", "server ip", "play.example.com", "fuzzy", false);
+
+            assertThat(service.findMatch("sever ip?")).isNotNull();
+            assertThat(service.findMatch("what is the SERVR IP")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should tolerate a typo inside a longer message")
+        void shouldTolerateTypoInSentence() {
+            addRule("spawn", "where is spawn", "Use /spawn", "fuzzy", false);
+
+            assertThat(service.findMatch("hey wher is spawn")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should reject messages beyond the edit budget")
+        void shouldRejectBeyondBudget() {
+            addRule("spawn", "where is spawn", "Use /spawn", "fuzzy", false);
+
+            assertThat(service.findMatch("how do I get home")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should honour a per-rule max-edits")
+        void shouldHonourRuleMaxEdits() {
+            addRule("ip", "server ip", "play.example.com", "fuzzy", false);
+            config.getRules().get("ip").put("max-edits", 0);
+
+            assertThat(service.findMatch("sever ip")).isNull();
+            assertThat(service.findMatch("server ip")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should parse max-edits given as a string")
+        void shouldParseStringMaxEdits() {
+            addRule("ip", "server ip", "play.example.com", "fuzzy", false);
+            config.getRules().get("ip").put("max-edits", "0");
+
+            assertThat(service.findMatch("sever ip")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should use the configured default edit budget")
+        void shouldUseConfiguredDefault() {
+            config.setFuzzyMaxEdits(0);
+            addRule("ip", "server ip", "play.example.com", "fuzzy", false);
+
+            assertThat(service.findMatch("sever ip")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should require exact text for short keywords")
+        void shouldNotFuzzShortKeywords() {
+            addRule("ip", "ip", "play.example.com", "fuzzy", false);
+
+            assertThat(service.findMatch("i")).isNull();
+            assertThat(service.findMatch("ok")).isNull();
+            assertThat(service.findMatch("ip?")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should respect case sensitivity")
+        void shouldRespectCaseSensitivity() {
+            addRule("shop", "Shop Location", "Go to /warp shop", "fuzzy", true);
+            config.getRules().get("shop").put("max-edits", 1);
+
+            assertThat(service.findMatch("Shop Locaton")).isNotNull();
+            assertThat(service.findMatch("shop locaton")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep first-match order across fuzzy and other rules")
+        void shouldKeepRuleOrder() {
+            LinkedHashMap<String, Map<String, Object>> ordered = new LinkedHashMap<>();
+            config.setRules(ordered);
+            addRule("first", "spawn", "contains", "contains", false);
+            addRule("second", "spawn", "fuzzy", "fuzzy", false);
+
+            assertThat(service.findMatch("spawn").getKey()).isEqualTo("first");
+            assertThat(service.findMatch("spwn").getKey()).isEqualTo("second");
+        }
+
+        @Test
+        @DisplayName("Should count fuzzy hits in rule statistics")
+        void shouldCountFuzzyHits() {
+            addRule("ip", "server ip", "play.example.com", "fuzzy", false);
+
+            service.findMatch("sever ip");
+
+            assertThat(service.getRuleStats().get(0).getHits()).isEqualTo(1);
+        }
+    }
+
+    // ============================
+    // Semantic match mode
+    // ============================
+
+    @Nested
+    @DisplayName("Semantic Mode")
+    class SemanticModeTests {
+
+        private void addSemanticRule(String name, String keyword, String... examples) {
+            addRule(name, keyword, "Response " + name, "semantic", false);
+            config.getRules().get(name).put("examples", Arrays.asList(examples));
+        }
+
+        @BeforeEach
+        void setUpRules() {
+            config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+            addSemanticRule("shop", "shop location", "where is the shop", "how do I get to the shop");
+            addSemanticRule("ip", "server ip", "what is the server address", "how do I join the server");
+            addSemanticRule("claim", "claim land", "how do I protect my house");
+        }
+
+        @Test
+        @DisplayName("Should match a paraphrase of an example")
+        void shouldMatchParaphrase() {
+            assertThat(service.findMatch("how can I reach the shop?").getKey()).isEqualTo("shop");
+            assertThat(service.findMatch("whats the server address").getKey()).isEqualTo("ip");
+            assertThat(service.findMatch("how do i protect my base").getKey()).isEqualTo("claim");
+        }
+
+        @Test
+        @DisplayName("Should not match unrelated or function-word-only messages")
+        void shouldNotMatchUnrelated() {
+            assertThat(service.findMatch("hello everyone")).isNull();
+            assertThat(service.findMatch("how do I")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should honour a per-rule threshold")
+        void shouldHonourRuleThreshold() {
+            config.getRules().get("shop").put("threshold", 0.9);
+
+            assertThat(service.findMatch("how can I reach the shop?")).isNull();
+            assertThat(service.findMatch("where is the shop")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should use the configured default threshold")
+        void shouldUseConfiguredThreshold() {
+            config.setSemanticThreshold(0.95);
+
+            assertThat(service.findMatch("how can I reach the shop?")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should accept a single example string")
+        void shouldAcceptSingleExample() {
+            addRule("vote", "vote links", "Response vote", "semantic", false);
+            config.getRules().get("vote").put("examples", "where can I vote for the server");
+
+            assertThat(service.findMatch("where do I vote").getKey()).isEqualTo("vote");
+        }
+
+        @Test
+        @DisplayName("Should let earlier non-semantic rules win")
+        void shouldKeepRuleOrder() {
+            LinkedHashMap<String, Map<String, Object>> ordered = new LinkedHashMap<>();
+            config.setRules(ordered);
+            addRule("first", "shop", "contains", "contains", false);
+            addSemanticRule("shop", "shop location", "where is the shop");
+
+            assertThat(service.findMatch("where is the shop").getKey()).isEqualTo("first");
+        }
+
+        @Test
+        @DisplayName("Should count semantic hits in rule statistics")
+        void shouldCountSemanticHits() {
+            service.findMatch("where is the shop");
+
+            assertThat(service.getRuleStats().get(0).getHits()).isEqualTo(1);
+        }
+    }
+
     // ============================
     // Case sensitivity
     // ============================
@@ -336,6 +533,297 @@ class AutoReplyServiceTest {
         }
     }
 
+    // ============================
+    // Compiled response templates
+    // ============================
+
+    @Nested
+    @DisplayName("Response Templates")
+    class ResponseTemplateTests {
+
+        @Test
+        @DisplayName("Should compile the rule response into a template")
+        void shouldCompileTemplate() {
+            addRule("greet", "hello", "&aHi {player}!", "contains", false);
+
+            ResponseTemplate template = service.getTemplate("greet");
+
+            assertThat(template).isNotNull();
+            assertThat(template.render("Steve")).containsExactly("§aHi Steve!");
+        }
+
+        @Test
+        @DisplayName("Should return null for an unknown rule")
+        void shouldReturnNullForUnknownRule() {
+            addRule("greet", "hello", "Hi", "contains", false);
+
+            assertThat(service.getTemplate("missing")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should recompile after a rule is replaced")
+        void shouldRecompileAfterReplace() {
+            addRule("greet", "hello", "Hi", "contains", false);
+            service.getTemplate("greet");
+
+            service.addRule("greet", "hello", "Welcome");
+
+            assertThat(service.getTemplate("greet").render("Steve")).containsExactly("Welcome");
+        }
+    }
+
+    // ============================
+    // Channel-scoped rules
+    // ============================
+
+    @Nested
+    @DisplayName("Channel Scoping")
+    class ChannelScopingTests {
+
+        private void addScopedRule(String name, String keyword, Object channels) {
+            addRule(name, keyword, "Response " + name, "contains", false);
+            config.getRules().get(name).put("channels", channels);
+        }
+
+        @BeforeEach
+        void setUpRules() {
+            config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+            addScopedRule("staff-ban", "ban", Arrays.asList("staff"));
+            addScopedRule("public-ban", "ban", "global, local");
+            addRule("spawn", "spawn", "Use /spawn", "contains", false);
+        }
+
+        @Test
+        @DisplayName("Should match only the rules of the sender's channel")
+        void shouldMatchChannelRules() {
+            assertThat(service.findMatch("how to ban", "staff").getKey()).isEqualTo("staff-ban");
+            assertThat(service.findMatch("how to ban", "global").getKey()).isEqualTo("public-ban");
+            assertThat(service.findMatch("how to ban", "local").getKey()).isEqualTo("public-ban");
+        }
+
+        @Test
+        @DisplayName("Should apply unscoped rules in every channel")
+        void shouldApplyUnscopedEverywhere() {
+            assertThat(service.findMatch("spawn?", "staff").getKey()).isEqualTo("spawn");
+            assertThat(service.findMatch("spawn?", "trade").getKey()).isEqualTo("spawn");
+            assertThat(service.findMatch("spawn?").getKey()).isEqualTo("spawn");
+        }
+
+        @Test
+        @DisplayName("Should not match scoped rules outside their channels")
+        void shouldNotLeakScopedRules() {
+            assertThat(service.findMatch("how to ban", "trade")).isNull();
+            assertThat(service.findMatch("how to ban")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should test against the channel's rules")
+        void shouldTestChannelRules() {
+            MatchReport report = service.test("ban spawn", "staff");
+
+            assertThat(report.getMatches()).containsExactly("staff-ban", "spawn");
+            assertThat(report.getWinner()).isEqualTo("staff-ban");
+        }
+
+        @Test
+        @DisplayName("Should index fuzzy and semantic rules per channel")
+        void shouldIndexPerChannel() {
+            addRule("staff-fuzzy", "where is spawn", "A", "fuzzy", false);
+            config.getRules().get("staff-fuzzy").put("channels", "staff");
+            addRule("shop", "shop location", "B", "semantic", false);
+            config.getRules().get("shop").put("examples", Arrays.asList("where is the shop"));
+            config.getRules().get("shop").put("channels", Arrays.asList("global"));
+
+            assertThat(service.findMatch("wher is spwn", "staff").getKey()).isEqualTo("staff-fuzzy");
+            assertThat(service.findMatch("wher is spwn", "global")).isNull();
+            assertThat(service.findMatch("where is the shop", "global").getKey()).isEqualTo("shop");
+            assertThat(service.findMatch("where is the shop", "staff")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should share statistics across channel matchers")
+        void shouldShareStats() {
+            service.findMatch("spawn", "staff");
+            service.findMatch("spawn", "global");
+
+            RuleStats spawn = service.getRuleStats().get(2);
+            assertThat(spawn.getRuleName()).isEqualTo("spawn");
+            assertThat(spawn.getHits()).isEqualTo(2);
+        }
+    }
+
+    // ============================
+    // Test bench
+    // ============================
+
+    @Nested
+    @DisplayName("Test Bench")
+    class TestBenchTests {
+
+        @BeforeEach
+        void setUpRules() {
+            config.setRules(new LinkedHashMap<String, Map<String, Object>>());
+        }
+
+        @Test
+        @DisplayName("Should report every matching rule and the first-match winner")
+        void shouldReportMatchesAndWinner() {
+            addRule("first", "spawn", "A", "contains", false);
+            addRule("second", "spawn", "B", "exact", false);
+            addRule("third", "where", "C", "contains", false);
+            addRule("other", "shop", "D", "contains", false);
+
+            MatchReport report = service.test("where spawn");
+
+            assertThat(report.getMatches()).containsExactly("first", "third");
+            assertThat(report.getWinner()).isEqualTo("first");
+            assertThat(report.getMatchNanos()).isGreaterThanOrEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Should report no winner when nothing matches")
+        void shouldReportNoWinner() {
+            addRule("r1", "spawn", "A", "contains", false);
+
+            MatchReport report = service.test("hello");
+
+            assertThat(report.getMatches()).isEmpty();
+            assertThat(report.getWinner()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should report semantic rules above their threshold")
+        void shouldReportSemanticMatches() {
+            addRule("shop", "shop location", "A", "semantic", false);
+            config.getRules().get("shop").put("examples", Arrays.asList("where is the shop"));
+            addRule("ip", "server ip", "B", "semantic", false);
+
+            MatchReport report = service.test("where is the shop");
+
+            assertThat(report.getMatches()).containsExactly("shop");
+            assertThat(report.getWinner()).isEqualTo("shop");
+        }
+
+        @Test
+        @DisplayName("Should report fuzzy matches")
+        void shouldReportFuzzyMatches() {
+            addRule("spawn", "where is spawn", "A", "fuzzy", false);
+
+            assertThat(service.test("wher is spawn?").getWinner()).isEqualTo("spawn");
+        }
+
+        @Test
+        @DisplayName("Should not record statistics")
+        void shouldNotRecordStats() {
+            addRule("r1", "spawn", "A", "contains", false);
+
+            service.test("spawn");
+
+            assertThat(service.getRuleStats().get(0).getHits()).isZero();
+            assertThat(service.getRuleStats().get(0).getEvaluations()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should handle null and empty messages")
+        void shouldHandleEmptyMessages() {
+            addRule("r1", "spawn", "A", "contains", false);
+
+            assertThat(service.test(null).getMatches()).isEmpty();
+            assertThat(service.test("").getWinner()).isNull();
+        }
+    }
+
+    // ============================
+    // Listing and search
+    // ============================
+
+    @Nested
+    @DisplayName("Listing And Search")
+    class ListingTests {
+
+        @Test
+        @DisplayName("Should page rule names in sorted order")
+        void shouldPageSortedNames() {
+            addRule("charlie", "c", "C", "contains", false);
+            addRule("alpha", "a", "A", "contains", false);
+            addRule("Bravo", "b", "B", "contains", false);
+
+            assertThat(service.getRuleCount()).isEqualTo(3);
+            assertThat(service.getRuleNames(0, 2)).containsExactly("alpha", "Bravo");
+            assertThat(service.getRuleNames(2, 2)).containsExactly("charlie");
+        }
+
+        @Test
+        @DisplayName("Should search by name or keyword prefix")
+        void shouldSearchByPrefix() {
+            addRule("spawn", "where is spawn", "A", "contains", false);
+            addRule("shop", "buy", "B", "contains", false);
+
+            assertThat(service.searchRules("sp")).containsExactly("spawn");
+            assertThat(service.searchRules("WHERE")).containsExactly("spawn");
+            assertThat(service.searchRules("")).isEmpty();
+            assertThat(service.searchRules(null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reflect added and removed rules")
+        void shouldReflectEdits() {
+            addRule("alpha", "a", "A", "contains", false);
+            assertThat(service.getRuleCount()).isEqualTo(1);
+
+            service.addRule("beta", "b", "B");
+            assertThat(service.getRuleNames(0, 10)).containsExactly("alpha", "beta");
+
+            service.removeRule("alpha");
+            assertThat(service.getRuleNames(0, 10)).containsExactly("beta");
+        }
+    }
+
+    // ============================
+    // Broadcast-once settings
+    // ============================
+
+    @Nested
+    @DisplayName("Broadcast Settings")
+    class BroadcastSettingsTests {
+
+        private Map<String, Object> rule(String key, Object value) {
+            Map<String, Object> rule = new HashMap<>();
+            if (value != null) {
+                rule.put(key, value);
+            }
+            return rule;
+        }
+
+        @Test
+        @DisplayName("Should answer privately by default")
+        void shouldDefaultToPrivate() {
+            assertThat(service.getBroadcast(rule("broadcast", null))).isNull();
+            assertThat(service.getBroadcast(rule("broadcast", false))).isNull();
+            assertThat(service.getBroadcast(null)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should parse channel and global scopes")
+        void shouldParseScopes() {
+            assertThat(service.getBroadcast(rule("broadcast", true))).isEqualTo("channel");
+            assertThat(service.getBroadcast(rule("broadcast", "channel"))).isEqualTo("channel");
+            assertThat(service.getBroadcast(rule("broadcast", "GLOBAL"))).isEqualTo("global");
+            assertThat(service.getBroadcast(rule("broadcast", "none"))).isNull();
+        }
+
+        @Test
+        @DisplayName("Should use the rule window or the config default")
+        void shouldResolveWindow() {
+            config.setBroadcastWindow(7);
+
+            assertThat(service.getBroadcastWindowMillis(rule("broadcast-window", 3))).isEqualTo(3000L);
+            assertThat(service.getBroadcastWindowMillis(rule("broadcast-window", "4"))).isEqualTo(4000L);
+            assertThat(service.getBroadcastWindowMillis(rule("broadcast-window", "x"))).isEqualTo(7000L);
+            assertThat(service.getBroadcastWindowMillis(rule("broadcast-window", null))).isEqualTo(7000L);
+        }
+    }
+
     // ============================
     // Rule CRUD
     // ============================
@@ -367,6 +855,22 @@ class AutoReplyServiceTest {
             assertThat(service.getRules()).isEmpty();
         }
 
+        @Test
+        @DisplayName("Should swap in an edited copy instead of changing the map chat threads read")
+        void shouldCopyOnWrite() {
+            addRule("r1", "test", "Response", "contains", false);
+            Map<String, Map<String, Object>> before = service.getRules();
+
+            service.addRule("r2", "other", "Other");
+            Map<String, Map<String, Object>> added = service.getRules();
+            service.removeRule("r1");
+
+            assertThat(before).containsOnlyKeys("r1");
+            assertThat(added).isNotSameAs(before).containsOnlyKeys("r1", "r2");
+            assertThat(service.getRules()).isNotSameAs(added).containsOnlyKeys("r2");
+            assertThat(service.findMatch("other").getKey()).isEqualTo("r2");
+        }
+
         @Test
         @DisplayName("Should handle remove of non-existent rule gracefully")
         void shouldHandleRemoveNonExistent() {
@@ -400,6 +904,100 @@ class AutoReplyServiceTest {
             assertThat(service.getRules()).hasSize(1);
         }
 
+        @Test
+        @DisplayName("Should persist the rules after adding")
+        void shouldPersistAfterAdd() {
+            service.addRule("greeting", "hi", "Hello there!");
+
+            verify(persistenceService).save(config.getRules());
+        }
+
+        @Test
+        @DisplayName("Should persist the rules after removing")
+        void shouldPersistAfterRemove() {
+            addRule("r1", "test", "Response", "contains", false);
+
+            service.removeRule("r1");
+
+            verify(persistenceService).save(config.getRules());
+        }
+
+        @Test
+        @DisplayName("Should swap in a replacement rule set and persist it")
+        void shouldReplaceRules() {
+            addRule("old", "old", "Old", "contains", false);
+            Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+            Map<String, Object> rule = new HashMap<>();
+            rule.put("keyword", "new");
+            rule.put("response", "New");
+            rules.put("fresh", rule);
+
+            service.replaceRules(rules);
+
+            assertThat(service.findMatch("old")).isNull();
+            assertThat(service.findMatch("brand new").getKey()).isEqualTo("fresh");
+            assertThat(service.getRuleCount()).isEqualTo(1);
+            verify(persistenceService).save(rules);
+        }
+
+        @Test
+        @DisplayName("Should not replace rules that were edited after they were read")
+        void shouldRefuseStaleReplace() {
+            addRule("old", "old", "Old", "contains", false);
+            Map<String, Map<String, Object>> read = service.getRules();
+            service.addRule("added", "added", "Added");
+            Map<String, Map<String, Object>> merged = new LinkedHashMap<>(read);
+
+            assertThat(service.replaceRules(read, merged)).isFalse();
+            assertThat(service.getRules()).containsKey("added");
+
+            Map<String, Map<String, Object>> current = service.getRules();
+            assertThat(service.replaceRules(current, new LinkedHashMap<>(current))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should forget the command rate window of a removed rule")
+        void shouldForgetRateWindowOnRemove() {
+            addRule("r1", "test", "Response", "contains", false);
+
+            service.removeRule("r1");
+
+            verify(commandQueueService).forgetRule("r1");
+            verify(replyBroadcastService).forgetRule("r1");
+        }
+
+        @Test
+        @DisplayName("Should forget the command rate windows of rules dropped by a replace")
+        void shouldForgetRateWindowsOnReplace() {
+            addRule("kept", "a", "A", "contains", false);
+            addRule("dropped", "b", "B", "contains", false);
+            Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+            rules.put("kept", new HashMap<>(service.getRules().get("kept")));
+
+            service.replaceRules(rules);
+
+            verify(commandQueueService).forgetRule("dropped");
+            verify(commandQueueService, never()).forgetRule("kept");
+            verify(replyBroadcastService).forgetRule("dropped");
+            verify(replyBroadcastService, never()).forgetRule("kept");
+        }
+
+        @Test
+        @DisplayName("Should not persist when removing a non-existent rule")
+        void shouldNotPersistWhenNothingRemoved() {
+            service.removeRule("nonexistent");
+
+            verify(persistenceService, never()).save(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should delegate flush to the persistence service")
+        void shouldDelegateFlush() {
+            service.flushPendingEdits();
+
+            verify(persistenceService).flush();
+        }
+
         @Test
         @DisplayName("Remove should clear pattern cache for that rule")
         @SuppressWarnings("unchecked")
@@ -419,6 +1017,113 @@ class AutoReplyServiceTest {
         }
     }
 
+    // ============================
+    // Hit statistics
+    // ============================
+
+    @Nested
+    @DisplayName("Rule Statistics")
+    class StatsTests {
+
+        private RuleStats statsOf(String name) {
+            for (RuleStats stats : service.getRuleStats()) {
+                if (stats.getRuleName().equals(name)) {
+                    return stats;
+                }
+            }
+            return null;
+        }
+
+        @Test
+        @DisplayName("Should count hits of the matching rule only")
+        void shouldCountHits() {
+            addRule("first", "hello", "Hi", "contains", false);
+            addRule("second", "bye", "Bye", "contains", false);
+
+            service.findMatch("hello");
+            service.findMatch("hello again");
+            service.findMatch("nothing");
+
+            assertThat(statsOf("first").getHits()).isEqualTo(2);
+            assertThat(statsOf("first").getLastHit()).isPositive();
+            assertThat(statsOf("second").getHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should time every evaluated rule when timing is enabled")
+        void shouldTimeEvaluations() {
+            config.setStatsTiming(true);
+            addRule("r1", "hello", "Hi", "contains", false);
+
+            service.findMatch("hello");
+            service.findMatch("other");
+
+            assertThat(statsOf("r1").getEvaluations()).isEqualTo(2);
+            assertThat(statsOf("r1").getMatchNanos()).isGreaterThanOrEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Should still count hits but skip timing when disabled")
+        void shouldSkipTimingWhenDisabled() {
+            config.setStatsTiming(false);
+            addRule("r1", "hello", "Hi", "contains", false);
+
+            service.findMatch("hello");
+
+            assertThat(statsOf("r1").getHits()).isEqualTo(1);
+            assertThat(statsOf("r1").getEvaluations()).isZero();
+            assertThat(statsOf("r1").getAverageNanos()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep statistics across recompiles")
+        void shouldKeepStatsAcrossRecompile() {
+            addRule("r1", "hello", "Hi", "contains", false);
+            service.findMatch("hello");
+
+            addRule("r2", "bye", "Bye", "contains", false);
+            service.findMatch("hello");
+
+            assertThat(statsOf("r1").getHits()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should restart statistics when a rule is replaced")
+        void shouldRestartStatsOnReplace() {
+            service.addRule("r1", "hello", "Hi");
+            service.findMatch("hello");
+
+            service.addRule("r1", "hey", "Hey");
+
+            assertThat(statsOf("r1").getHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should drop statistics of removed rules")
+        void shouldDropStatsOfRemovedRules() {
+            service.addRule("r1", "hello", "Hi");
+            service.addRule("r2", "bye", "Bye");
+            service.findMatch("hello");
+
+            service.removeRule("r1");
+
+            assertThat(service.getRuleStats()).extracting(RuleStats::getRuleName).containsExactly("r2");
+        }
+
+        @Test
+        @DisplayName("Should reset all counters")
+        void shouldResetStats() {
+            addRule("r1", "hello", "Hi", "contains", false);
+            service.findMatch("hello");
+
+            service.resetStats();
+
+            assertThat(statsOf("r1").getHits()).isZero();
+            assertThat(statsOf("r1").getEvaluations()).isZero();
+            assertThat(statsOf("r1").getLastHit()).isZero();
+        }
+    }
+
     // ============================
     // Null safety
     // ============================
@@ -542,7 +1247,7 @@ class AutoReplyServiceTest {
         @Test
         @DisplayName("Should treat unknown mode as contains")
         void shouldTreatUnknownModeAsContains() {
-            addRule("r1", "test", "Response", "fuzzy", false);
+            addRule("r1", "test", "Response", "wildcard", false);
 
             assertThat(service.findMatch("test message")).isNotNull();
         }
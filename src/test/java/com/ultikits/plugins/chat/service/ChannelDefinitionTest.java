@@ -0,0 +1,146 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ChannelDefinition — compiling a raw channel entry.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChannelDefinition Tests")
+class ChannelDefinitionTest {
+
+    private Map<String, Object> local() {
+        Map<String, Object> def = new HashMap<>();
+        def.put("display-name", "&a[Local]");
+        def.put("format", "{display}&7: {message}");
+        def.put("permission", "");
+        def.put("range", 100);
+        def.put("cross-world", false);
+        return def;
+    }
+
+    @Test
+    @DisplayName("Should compile every field of an entry")
+    void shouldCompileEntry() {
+        ChannelDefinition definition = ChannelDefinition.compile(3, "local", local());
+
+        assertThat(definition.getId()).isEqualTo(3);
+        assertThat(definition.getName()).isEqualTo("local");
+        assertThat(definition.getDisplayName()).isEqualTo("§a[Local]");
+        assertThat(definition.getFormat()).isEqualTo("{display}&7: {message}");
+        assertThat(definition.getPermission()).isNull();
+        assertThat(definition.getRange()).isEqualTo(100);
+        assertThat(definition.isRanged()).isTrue();
+        assertThat(definition.getRangeSquared()).isEqualTo(10000.0);
+        assertThat(definition.isCrossWorld()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a non-empty permission")
+    void shouldKeepPermission() {
+        Map<String, Object> def = local();
+        def.put("permission", "ultichat.channel.staff");
+
+        assertThat(ChannelDefinition.compile(0, "staff", def).getPermission()).isEqualTo("ultichat.channel.staff");
+    }
+
+    @Test
+    @DisplayName("Should treat a zero or negative range as unlimited")
+    void shouldTreatNonPositiveRangeAsUnlimited() {
+        Map<String, Object> def = local();
+        def.put("range", 0);
+
+        assertThat(ChannelDefinition.compile(0, "local", def).isRanged()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should fall back to defaults for missing or mistyped values")
+    void shouldFallBackToDefaults() {
+        Map<String, Object> def = new HashMap<>();
+        def.put("range", "far");
+        def.put("cross-world", "no");
+
+        ChannelDefinition definition = ChannelDefinition.compile(0, "plain", def);
+
+        assertThat(definition.getDisplayName()).isEqualTo("plain");
+        assertThat(definition.getFormat()).isEqualTo(ChannelDefinition.DEFAULT_FORMAT);
+        assertThat(definition.isRanged()).isFalse();
+        assertThat(definition.isCrossWorld()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should compile a null entry as a global channel")
+    void shouldCompileNullEntry() {
+        ChannelDefinition definition = ChannelDefinition.compile(1, "empty", null);
+
+        assertThat(definition.getDisplayName()).isEqualTo("empty");
+        assertThat(definition.getPermission()).isNull();
+        assertThat(definition.isCrossWorld()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should mark network channels")
+    void shouldMarkNetworkChannels() {
+        Map<String, Object> def = local();
+        assertThat(ChannelDefinition.compile(0, "local", def).isNetwork()).isFalse();
+
+        def.put("network", true);
+        assertThat(ChannelDefinition.compile(0, "local", def).isNetwork()).isTrue();
+
+        def.put("network", "yes");
+        assertThat(ChannelDefinition.compile(0, "local", def).isNetwork()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should compile a party as a global channel under its own name")
+    void shouldCompileParty() {
+        ChannelDefinition definition = ChannelDefinition.party(5, "raid", "&d[{name}]");
+
+        assertThat(definition.getId()).isEqualTo(5);
+        assertThat(definition.getName()).isEqualTo("raid");
+        assertThat(definition.getDisplayName()).isEqualTo("§d[raid]");
+        assertThat(definition.isParty()).isTrue();
+        assertThat(definition.getPermission()).isNull();
+        assertThat(definition.isRanged()).isFalse();
+        assertThat(definition.isCrossWorld()).isTrue();
+        assertThat(definition.isWorldBound()).isFalse();
+        assertThat(definition.isNetwork()).isFalse();
+        assertThat(ChannelDefinition.compile(0, "local", local()).isParty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should give each compiled definition its own key, even under a reused id")
+    void shouldKeyEachDefinition() {
+        ChannelDefinition first = ChannelDefinition.compile(0, "local", local());
+        ChannelDefinition reloaded = ChannelDefinition.compile(0, "local", local());
+        ChannelDefinition party = ChannelDefinition.party(0, "raid", "{name}");
+
+        assertThat(first.getKey()).isPositive();
+        assertThat(reloaded.getKey()).isNotEqualTo(first.getKey());
+        assertThat(party.getKey()).isNotEqualTo(first.getKey()).isNotEqualTo(reloaded.getKey());
+    }
+
+    @Test
+    @DisplayName("Should compile the anti-spam overrides")
+    void shouldCompileSpamPolicy() {
+        Map<String, Object> def = local();
+        assertThat(ChannelDefinition.compile(0, "local", def).getSpamPolicy()).isSameAs(SpamPolicy.DEFAULT);
+        assertThat(ChannelDefinition.compile(0, "local", null).getSpamPolicy()).isSameAs(SpamPolicy.DEFAULT);
+        assertThat(ChannelDefinition.party(0, "raid", "{name}").getSpamPolicy()).isSameAs(SpamPolicy.DEFAULT);
+
+        def.put("anti-spam", false);
+        assertThat(ChannelDefinition.compile(0, "local", def).getSpamPolicy()).isSameAs(SpamPolicy.EXEMPT);
+
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("cooldown", 10);
+        def.put("anti-spam", overrides);
+        assertThat(ChannelDefinition.compile(0, "local", def).getSpamPolicy().getCooldown(2)).isEqualTo(10);
+    }
+}
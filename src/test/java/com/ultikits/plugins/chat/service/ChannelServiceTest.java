@@ -10,8 +10,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -100,6 +103,33 @@ class ChannelServiceTest {
         }
     }
 
+    // ==================== getActiveChannel Tests ====================
+
+    @Nested
+    @DisplayName("getActiveChannel Tests")
+    class GetActiveChannelTests {
+
+        @Test
+        @DisplayName("Should return the player's channel when channels are enabled")
+        void shouldReturnChannelWhenEnabled() {
+            when(config.isEnabled()).thenReturn(true);
+            UUID playerId = UUID.randomUUID();
+            service.setPlayerChannel(playerId, "staff");
+
+            assertThat(service.getActiveChannel(playerId)).isEqualTo("staff");
+        }
+
+        @Test
+        @DisplayName("Should return null when channels are disabled")
+        void shouldReturnNullWhenDisabled() {
+            when(config.isEnabled()).thenReturn(false);
+            UUID playerId = UUID.randomUUID();
+            service.setPlayerChannel(playerId, "staff");
+
+            assertThat(service.getActiveChannel(playerId)).isNull();
+        }
+    }
+
     // ==================== setPlayerChannel Tests ====================
 
     @Nested
@@ -195,6 +225,71 @@ class ChannelServiceTest {
         }
     }
 
+    // ==================== Channel Table Tests ====================
+
+    @Nested
+    @DisplayName("Channel Table Tests")
+    class ChannelTableTests {
+
+        @Test
+        @DisplayName("Should assign dense ids in name order")
+        void shouldAssignDenseIds() {
+            assertThat(service.getChannelCount()).isEqualTo(3);
+            assertThat(service.getChannelId("global")).isEqualTo(0);
+            assertThat(service.getChannelId("local")).isEqualTo(1);
+            assertThat(service.getChannelId("staff")).isEqualTo(2);
+            assertThat(service.getChannel(1).getName()).isEqualTo("local");
+        }
+
+        @Test
+        @DisplayName("Should return null or -1 for unknown channels and ids")
+        void shouldHandleUnknown() {
+            assertThat(service.getChannel("unknown")).isNull();
+            assertThat(service.getChannel((String) null)).isNull();
+            assertThat(service.getChannelId("unknown")).isEqualTo(-1);
+            assertThat(service.getChannel(3)).isNull();
+            assertThat(service.getChannel(-1)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reuse the compiled definition between lookups")
+        void shouldReuseDefinitions() {
+            ChannelDefinition first = service.getChannel("local");
+
+            assertThat(service.getChannel("local")).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("Should recompile when the config map is replaced by a reload")
+        void shouldRecompileOnReload() {
+            ChannelDefinition before = service.getChannel("global");
+            Map<String, Map<String, Object>> channels = createDefaultChannels();
+            channels.get("global").put("display-name", "&e[World]");
+            when(config.getChannels()).thenReturn(channels);
+
+            assertThat(service.getChannel("global")).isNotSameAs(before);
+            assertThat(service.getChannelDisplayName("global")).contains("[World]");
+        }
+
+        @Test
+        @DisplayName("Should recompile after invalidate")
+        void shouldRecompileAfterInvalidate() {
+            ChannelDefinition before = service.getChannel("global");
+
+            service.invalidate();
+
+            assertThat(service.getChannel("global")).isNotSameAs(before);
+        }
+
+        @Test
+        @DisplayName("Should be empty when channels map is null")
+        void shouldBeEmptyWhenChannelsNull() {
+            when(config.getChannels()).thenReturn(null);
+
+            assertThat(service.getChannelCount()).isZero();
+        }
+    }
+
     // ==================== getChannelFormat Tests ====================
 
     @Nested
@@ -312,6 +407,237 @@ class ChannelServiceTest {
         }
     }
 
+    // ==================== Channel Access Cache Tests ====================
+
+    @Nested
+    @DisplayName("Channel Access Cache Tests")
+    class ChannelAccessTests {
+
+        private Player player;
+
+        @BeforeEach
+        void setUpCache() {
+            when(config.getAccessCacheSeconds()).thenReturn(30);
+            player = ChatTestHelper.createMockPlayer("Test", UUID.randomUUID());
+        }
+
+        @Test
+        @DisplayName("Should reuse the channel list instead of rechecking permissions")
+        void shouldReuseList() {
+            service.getAvailableChannels(player);
+            service.completeChannels(player, "s");
+            service.getAvailableChannels(player);
+
+            verify(player, times(1)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should recheck after a reload")
+        void shouldRecheckAfterReload() {
+            service.getAvailableChannels(player);
+            service.invalidate();
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should recheck after the player changes world")
+        void shouldRecheckAfterWorldChange() {
+            service.getAvailableChannels(player);
+            World nether = ChatTestHelper.createMockWorld("world_nether");
+            when(player.getWorld()).thenReturn(nether);
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should recheck after the cached list is forgotten")
+        void shouldRecheckAfterInvalidateAccess() {
+            service.getAvailableChannels(player);
+            service.invalidateAccess(player.getUniqueId());
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should not cache when the cache is disabled")
+        void shouldNotCacheWhenDisabled() {
+            when(config.getAccessCacheSeconds()).thenReturn(0);
+
+            service.getAvailableChannels(player);
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should leave the cached list alone when checking a permission")
+        void shouldNotDropOnPermissionCheck() {
+            assertThat(service.getAvailableChannels(player)).doesNotContain("staff");
+            when(player.hasPermission("ultichat.channel.staff")).thenReturn(true);
+
+            assertThat(service.hasChannelPermission(player, "staff")).isTrue();
+            assertThat(service.getAvailableChannels(player)).doesNotContain("staff");
+
+            service.invalidateAccess(player.getUniqueId());
+            assertThat(service.getAvailableChannels(player)).contains("staff");
+        }
+
+        @Test
+        @DisplayName("Should forget the cached list on quit")
+        void shouldDropOnQuit() {
+            service.getAvailableChannels(player);
+            service.removePlayer(player.getUniqueId());
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+
+        @Test
+        @DisplayName("Should complete names by prefix ignoring case")
+        void shouldCompleteByPrefix() {
+            Map<String, Map<String, Object>> channels = createDefaultChannels();
+            channels.put("Trade", new HashMap<String, Object>());
+            channels.put("t_help", new HashMap<String, Object>());
+            when(config.getChannels()).thenReturn(channels);
+
+            assertThat(service.completeChannels(player, "")).containsExactly("global", "local", "t_help", "Trade");
+            assertThat(service.completeChannels(player, "TR")).containsExactly("Trade");
+            assertThat(service.completeChannels(player, "t")).containsExactly("t_help", "Trade");
+            assertThat(service.completeChannels(player, "gl")).containsExactly("global");
+            assertThat(service.completeChannels(player, "s")).isEmpty();
+            assertThat(service.completeChannels(player, "zzz")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return a list callers cannot modify")
+        void shouldReturnUnmodifiableList() {
+            List<String> available = service.getAvailableChannels(player);
+
+            assertThatThrownBy(() -> available.add("staff")).isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should forget the cached list on quit")
+        void shouldForgetOnQuit() {
+            service.getAvailableChannels(player);
+            service.removePlayer(player.getUniqueId());
+            service.getAvailableChannels(player);
+
+            verify(player, times(2)).hasPermission("ultichat.channel.staff");
+        }
+    }
+
+    // ==================== Subscription Tests ====================
+
+    @Nested
+    @DisplayName("Subscription Tests")
+    class SubscriptionTests {
+
+        private World world;
+
+        @BeforeEach
+        void setUpWorld() {
+            world = ChatTestHelper.createMockWorld("world");
+        }
+
+        @Test
+        @DisplayName("Should add and remove subscriptions")
+        void shouldSubscribeAndUnsubscribe() {
+            UUID playerId = UUID.randomUUID();
+
+            assertThat(service.subscribe(playerId, "global")).isTrue();
+            assertThat(service.subscribe(playerId, "global")).isFalse();
+            assertThat(service.getSubscriptions(playerId)).containsExactly("global");
+
+            assertThat(service.unsubscribe(playerId, "global")).isTrue();
+            assertThat(service.unsubscribe(playerId, "global")).isFalse();
+            assertThat(service.getSubscriptions(playerId)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should not subscribe to unknown channels")
+        void shouldRejectUnknownChannel() {
+            assertThat(service.subscribe(UUID.randomUUID(), "nonexistent")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should listen to the active channel and subscriptions")
+        void shouldListenToActiveAndSubscribed() {
+            UUID playerId = UUID.randomUUID();
+            service.setPlayerChannel(playerId, "staff");
+            service.subscribe(playerId, "global");
+
+            assertThat(service.isListening(playerId, "staff")).isTrue();
+            assertThat(service.isListening(playerId, "global")).isTrue();
+            assertThat(service.isListening(playerId, "local")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should follow channel switches and unsubscribes")
+        void shouldFollowChanges() {
+            UUID playerId = UUID.randomUUID();
+            service.setPlayerChannel(playerId, "staff");
+            service.subscribe(playerId, "global");
+            assertThat(service.isListening(playerId, "staff")).isTrue();
+
+            service.setPlayerChannel(playerId, "local");
+            service.unsubscribe(playerId, "global");
+
+            assertThat(service.isListening(playerId, "staff")).isFalse();
+            assertThat(service.isListening(playerId, "global")).isFalse();
+            assertThat(service.isListening(playerId, "local")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should deliver a channel's messages to its subscribers")
+        void shouldDeliverToSubscribers() {
+            Player sender = ChatTestHelper.createMockPlayerAt("Sender", UUID.randomUUID(), world, 0, 64, 0);
+            Player staff = ChatTestHelper.createMockPlayerAt("Staff", UUID.randomUUID(), world, 10, 64, 0);
+            Player other = ChatTestHelper.createMockPlayerAt("Other", UUID.randomUUID(), world, 20, 64, 0);
+            service.setPlayerChannel(sender.getUniqueId(), "global");
+            service.setPlayerChannel(staff.getUniqueId(), "staff");
+            service.setPlayerChannel(other.getUniqueId(), "local");
+            service.subscribe(staff.getUniqueId(), "global");
+
+            Set<Player> filtered = service.filterRecipients(sender, new HashSet<>(Arrays.asList(sender, staff, other)));
+
+            assertThat(filtered).containsExactlyInAnyOrder(sender, staff);
+        }
+
+        @Test
+        @DisplayName("Should keep subscriptions when a reload renumbers channels")
+        void shouldSurviveReload() {
+            UUID playerId = UUID.randomUUID();
+            service.setPlayerChannel(playerId, "global");
+            service.subscribe(playerId, "staff");
+            assertThat(service.isListening(playerId, "staff")).isTrue();
+
+            Map<String, Map<String, Object>> channels = createDefaultChannels();
+            channels.put("admin", new HashMap<String, Object>());
+            when(config.getChannels()).thenReturn(channels);
+
+            assertThat(service.getChannelId("global")).isEqualTo(1);
+            assertThat(service.isListening(playerId, "staff")).isTrue();
+            assertThat(service.isListening(playerId, "admin")).isFalse();
+            assertThat(service.isListening(playerId, "local")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should forget subscriptions when the player leaves")
+        void shouldClearOnRemove() {
+            UUID playerId = UUID.randomUUID();
+            service.subscribe(playerId, "global");
+
+            service.removePlayer(playerId);
+
+            assertThat(service.getSubscriptions(playerId)).isEmpty();
+        }
+    }
+
     // ==================== removePlayer Tests ====================
 
     @Nested
@@ -532,4 +858,640 @@ class ChannelServiceTest {
             assertThat(filtered).doesNotContain(recipient);
         }
     }
+
+    // ==================== World Tests ====================
+
+    @Nested
+    @DisplayName("World Tests")
+    class WorldTests {
+
+        private World world;
+        private World nether;
+
+        @BeforeEach
+        void setUpWorlds() {
+            world = ChatTestHelper.createMockWorld("world");
+            nether = ChatTestHelper.createMockWorld("world_nether");
+
+            Map<String, Map<String, Object>> channels = createDefaultChannels();
+            Map<String, Object> netherChannel = new HashMap<>();
+            netherChannel.put("display-name", "&4[Nether]");
+            netherChannel.put("worlds", Collections.singletonList("world_nether"));
+            channels.put("nether", netherChannel);
+            when(config.getChannels()).thenReturn(channels);
+        }
+
+        private Player playerIn(World in, double x) {
+            return ChatTestHelper.createMockPlayerAt("P" + x, UUID.randomUUID(), in, x, 64, 0);
+        }
+
+        @Test
+        @DisplayName("Should move a default-channel player into the world's bound channel")
+        void shouldSwitchIntoBoundChannel() {
+            Player player = playerIn(nether, 0);
+
+            assertThat(service.enterWorld(player)).isEqualTo("nether");
+            assertThat(service.getPlayerChannel(player.getUniqueId())).isEqualTo("nether");
+        }
+
+        @Test
+        @DisplayName("Should move a player out of a bound channel when leaving its world")
+        void shouldSwitchOutOfBoundChannel() {
+            Player player = playerIn(world, 0);
+            service.setPlayerChannel(player.getUniqueId(), "nether");
+
+            assertThat(service.enterWorld(player)).isEqualTo("global");
+            assertThat(service.getPlayerChannel(player.getUniqueId())).isEqualTo("global");
+        }
+
+        @Test
+        @DisplayName("Should keep a player's chosen unbound channel")
+        void shouldKeepChosenChannel() {
+            Player player = playerIn(nether, 0);
+            service.setPlayerChannel(player.getUniqueId(), "local");
+
+            assertThat(service.enterWorld(player)).isNull();
+            assertThat(service.getPlayerChannel(player.getUniqueId())).isEqualTo("local");
+        }
+
+        @Test
+        @DisplayName("Should not switch into a bound channel the player lacks permission for")
+        void shouldRespectPermissionOfBoundChannel() {
+            config.getChannels().get("nether").put("permission", "ultichat.channel.nether");
+            service.invalidate();
+            Player player = playerIn(nether, 0);
+
+            assertThat(service.enterWorld(player)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should only offer bound channels inside their worlds")
+        void shouldFilterAvailableChannelsByWorld() {
+            assertThat(service.getAvailableChannels(playerIn(world, 0))).doesNotContain("nether");
+            assertThat(service.getAvailableChannels(playerIn(nether, 0))).contains("nether", "global");
+            assertThat(service.isChannelInWorld(playerIn(world, 0), "nether")).isFalse();
+            assertThat(service.isChannelInWorld(playerIn(nether, 0), "nether")).isTrue();
+            assertThat(service.isChannelInWorld(playerIn(world, 0), "global")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should filter a world-locked channel from the sender's world bucket")
+        void shouldFilterFromWorldBucket() {
+            Player sender = playerIn(world, 0);
+            Player near = playerIn(world, 10);
+            Player far = playerIn(world, 500);
+            Player elsewhere = playerIn(nether, 0);
+            for (Player player : Arrays.asList(sender, near, far, elsewhere)) {
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                service.enterWorld(player);
+            }
+            clearInvocations(near, far, elsewhere);
+
+            Set<Player> recipients = new HashSet<>(Arrays.asList(sender, near, far, elsewhere));
+            Set<Player> filtered = service.filterRecipients(sender, recipients);
+
+            assertThat(filtered).containsExactlyInAnyOrder(sender, near);
+            verify(near, never()).getWorld();
+            verify(elsewhere, never()).getLocation();
+        }
+
+        @Test
+        @DisplayName("Should only include bucketed players that are event recipients")
+        void shouldRespectEventRecipients() {
+            Player sender = playerIn(world, 0);
+            Player hidden = playerIn(world, 5);
+            for (Player player : Arrays.asList(sender, hidden)) {
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                service.enterWorld(player);
+            }
+
+            Set<Player> filtered = service.filterRecipients(sender, new HashSet<>(Collections.singletonList(sender)));
+
+            assertThat(filtered).containsExactly(sender);
+        }
+
+        @Test
+        @DisplayName("Should drop a player from their world bucket on quit")
+        void shouldRemoveFromBucketOnQuit() {
+            Player sender = playerIn(world, 0);
+            Player gone = playerIn(world, 5);
+            for (Player player : Arrays.asList(sender, gone)) {
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                service.enterWorld(player);
+            }
+
+            service.removePlayer(gone.getUniqueId());
+            service.setPlayerChannel(gone.getUniqueId(), "local");
+
+            Set<Player> filtered = service.filterRecipients(sender, new HashSet<>(Arrays.asList(sender, gone)));
+            assertThat(filtered).containsExactly(sender);
+        }
+
+        @Test
+        @DisplayName("Should move a player between buckets on world change")
+        void shouldMoveBetweenBuckets() {
+            Player sender = playerIn(world, 0);
+            Player traveller = playerIn(world, 5);
+            for (Player player : Arrays.asList(sender, traveller)) {
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                service.enterWorld(player);
+            }
+            when(traveller.getWorld()).thenReturn(nether);
+            service.enterWorld(traveller);
+
+            Set<Player> filtered = service.filterRecipients(sender, new HashSet<>(Arrays.asList(sender, traveller)));
+            assertThat(filtered).containsExactly(sender);
+        }
+    }
+
+    // ==================== Audience Tests ====================
+
+    @Nested
+    @DisplayName("Audience Tests")
+    class AudienceTests {
+
+        private World world;
+        private World nether;
+
+        @BeforeEach
+        void setUpWorlds() {
+            world = ChatTestHelper.createMockWorld("world");
+            nether = ChatTestHelper.createMockWorld("world_nether");
+
+            Map<String, Map<String, Object>> channels = createDefaultChannels();
+            Map<String, Object> worldChat = new HashMap<>();
+            worldChat.put("range", -1);
+            worldChat.put("cross-world", false);
+            channels.put("worldchat", worldChat);
+            lenient().when(config.getChannels()).thenReturn(channels);
+        }
+
+        private Player join(World in, String channel) {
+            Player player = ChatTestHelper.createMockPlayerAt("P", UUID.randomUUID(), in, 0, 64, 0);
+            service.setPlayerChannel(player.getUniqueId(), channel);
+            service.enterWorld(player);
+            return player;
+        }
+
+        @Test
+        @DisplayName("Should share one immutable set between messages")
+        void shouldShareAudience() {
+            Player sender = join(world, "global");
+            Player other = join(nether, "global");
+            join(world, "staff");
+
+            Set<Player> first = service.getAudience(sender);
+            Set<Player> second = service.getAudience(other);
+
+            assertThat(first).containsExactlyInAnyOrder(sender, other);
+            assertThat(second).isSameAs(first);
+            assertThatThrownBy(() -> first.add(sender)).isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        @DisplayName("Should rebuild after a channel switch")
+        void shouldRebuildAfterSwitch() {
+            Player sender = join(world, "global");
+            Player switcher = join(world, "staff");
+            Set<Player> before = service.getAudience(sender);
+
+            service.setPlayerChannel(switcher.getUniqueId(), "global");
+
+            assertThat(before).containsExactly(sender);
+            assertThat(service.getAudience(sender)).containsExactlyInAnyOrder(sender, switcher);
+        }
+
+        @Test
+        @DisplayName("Should keep other channels' audiences when one channel changes")
+        void shouldKeepUntouchedChannels() {
+            Player sender = join(world, "global");
+            Player staff = join(world, "staff");
+            Player mover = join(world, "worldchat");
+            Set<Player> global = service.getAudience(sender);
+            Set<Player> staffAudience = service.getAudience(staff);
+
+            service.setPlayerChannel(mover.getUniqueId(), "staff");
+            service.subscribe(mover.getUniqueId(), "worldchat");
+
+            assertThat(service.getAudience(sender)).isSameAs(global);
+            assertThat(service.getAudience(staff)).isNotSameAs(staffAudience)
+                    .containsExactlyInAnyOrder(staff, mover);
+        }
+
+        @Test
+        @DisplayName("Should rebuild after subscription changes")
+        void shouldRebuildAfterSubscriptions() {
+            Player sender = join(world, "global");
+            Player listener = join(world, "staff");
+
+            service.subscribe(listener.getUniqueId(), "global");
+            assertThat(service.getAudience(sender)).containsExactlyInAnyOrder(sender, listener);
+
+            service.unsubscribe(listener.getUniqueId(), "global");
+            assertThat(service.getAudience(sender)).containsExactly(sender);
+        }
+
+        @Test
+        @DisplayName("Should rebuild after a quit")
+        void shouldRebuildAfterQuit() {
+            Player sender = join(world, "global");
+            Player leaver = join(world, "global");
+            assertThat(service.getAudience(sender)).hasSize(2);
+
+            service.removePlayer(leaver.getUniqueId());
+
+            assertThat(service.getAudience(sender)).containsExactly(sender);
+        }
+
+        @Test
+        @DisplayName("Should keep one audience per world for world-locked channels")
+        void shouldKeepPerWorld() {
+            Player here = join(world, "worldchat");
+            Player there = join(nether, "worldchat");
+
+            assertThat(service.getAudience(here)).containsExactly(here);
+            assertThat(service.getAudience(there)).containsExactly(there);
+
+            when(there.getWorld()).thenReturn(world);
+            service.enterWorld(there);
+
+            assertThat(service.getAudience(here)).containsExactlyInAnyOrder(here, there);
+        }
+
+        @Test
+        @DisplayName("Should not cache ranged channels or untracked senders")
+        void shouldSkipRangedAndUntracked() {
+            Player ranged = join(world, "local");
+            Player untracked = ChatTestHelper.createMockPlayerAt("U", UUID.randomUUID(), world, 0, 64, 0);
+
+            assertThat(service.getAudience(ranged)).isNull();
+            assertThat(service.getAudience(untracked)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should start over after a reload")
+        void shouldRebuildAfterReload() {
+            Player sender = join(world, "global");
+            Set<Player> before = service.getAudience(sender);
+
+            service.invalidate();
+
+            assertThat(service.getAudience(sender)).isNotSameAs(before).containsExactly(sender);
+        }
+
+        @Test
+        @DisplayName("Should still limit filterRecipients to the event recipients")
+        void shouldIntersectWithRecipients() {
+            Player sender = join(world, "global");
+            Player hidden = join(world, "global");
+            Player stranger = join(world, "staff");
+
+            Set<Player> filtered = service.filterRecipients(sender,
+                    new HashSet<>(Arrays.asList(sender, stranger)));
+
+            assertThat(filtered).containsExactly(sender);
+            assertThat(service.getAudience(sender)).contains(hidden);
+        }
+    }
+
+    // ==================== Parallel Filtering Tests ====================
+
+    @Nested
+    @DisplayName("Parallel Filtering Tests")
+    class ParallelTests {
+
+        private World world;
+        private World nether;
+
+        @BeforeEach
+        void setUpWorlds() {
+            world = ChatTestHelper.createMockWorld("world");
+            nether = ChatTestHelper.createMockWorld("world_nether");
+            lenient().when(config.getParallelThreads()).thenReturn(2);
+        }
+
+        /**
+         * A crowd around the origin: even players in local, odd in global,
+         * every fifth in the nether, spread along x.
+         */
+        private List<Player> crowd(int size) {
+            List<Player> players = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                World in = i % 5 == 0 ? nether : world;
+                Player player = ChatTestHelper.createMockPlayerAt("P" + i, UUID.randomUUID(), in, i % 300, 64, 0);
+                service.setPlayerChannel(player.getUniqueId(), i % 2 == 0 ? "local" : "global");
+                players.add(player);
+            }
+            return players;
+        }
+
+        @Test
+        @DisplayName("Should match the sequential result for a large ranged audience")
+        void shouldMatchSequential() {
+            List<Player> players = crowd(600);
+            Player sender = players.get(2);
+            Set<Player> recipients = new HashSet<>(players);
+
+            Set<Player> sequential = service.filterRecipients(sender, recipients);
+            when(config.getParallelThreshold()).thenReturn(100);
+            Set<Player> parallel = service.filterRecipients(sender, recipients);
+
+            assertThat(sequential).isNotEmpty();
+            assertThat(parallel).isEqualTo(sequential);
+        }
+
+        @Test
+        @DisplayName("Should hand large audiences to the recipient pool")
+        void shouldUsePool() {
+            when(config.getParallelThreshold()).thenReturn(10);
+            Player sender = ChatTestHelper.createMockPlayerAt("Sender", UUID.randomUUID(), world, 0, 64, 0);
+            service.setPlayerChannel(sender.getUniqueId(), "local");
+            Set<Player> recipients = new HashSet<>();
+            for (int i = 0; i < 20; i++) {
+                Player player = ChatTestHelper.createMockPlayerAt("P" + i, UUID.randomUUID(), world, i * 10, 64, 0);
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                recipients.add(player);
+            }
+
+            // Within 100 blocks: x = 0..100
+            assertThat(service.filterRecipients(sender, recipients)).hasSize(11);
+            verify(config, atLeastOnce()).getParallelThreads();
+        }
+
+        @Test
+        @DisplayName("Should read recipient locations and worlds on the calling thread only")
+        void shouldReadEntityStateOnCaller() {
+            when(config.getParallelThreshold()).thenReturn(10);
+            Player sender = ChatTestHelper.createMockPlayerAt("Sender", UUID.randomUUID(), world, 0, 64, 0);
+            service.setPlayerChannel(sender.getUniqueId(), "local");
+            Set<Thread> readers = ConcurrentHashMap.newKeySet();
+            Set<Player> recipients = new HashSet<>();
+            for (int i = 0; i < 300; i++) {
+                Location location = new Location(world, i, 64, 0);
+                Player player = ChatTestHelper.createMockPlayerAt("P" + i, UUID.randomUUID(), world, i, 64, 0);
+                when(player.getLocation()).thenAnswer(invocation -> {
+                    readers.add(Thread.currentThread());
+                    return location;
+                });
+                when(player.getWorld()).thenAnswer(invocation -> {
+                    readers.add(Thread.currentThread());
+                    return world;
+                });
+                service.setPlayerChannel(player.getUniqueId(), "local");
+                recipients.add(player);
+            }
+
+            assertThat(service.filterRecipients(sender, recipients)).hasSize(101);
+            assertThat(readers).containsExactly(Thread.currentThread());
+        }
+
+        @Test
+        @DisplayName("Should stay on the calling thread with a single filter thread")
+        void shouldStaySequentialWithOneThread() throws Exception {
+            when(config.getParallelThreads()).thenReturn(1);
+            when(config.getParallelThreshold()).thenReturn(10);
+            List<Player> players = crowd(50);
+
+            service.filterRecipients(players.get(2), new HashSet<>(players));
+
+            assertThat(ChatTestHelper.getField(service, "filterPool")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should shut the pool down on reload and on disable")
+        void shouldShutDownPool() throws Exception {
+            when(config.getParallelThreshold()).thenReturn(10);
+            List<Player> players = crowd(50);
+            service.filterRecipients(players.get(2), new HashSet<>(players));
+            ForkJoinPool first = (ForkJoinPool) ChatTestHelper.getField(service, "filterPool");
+
+            service.invalidate();
+
+            assertThat(first).isNotNull();
+            assertThat(first.isShutdown()).isTrue();
+            assertThat(ChatTestHelper.getField(service, "filterPool")).isNull();
+
+            service.filterRecipients(players.get(2), new HashSet<>(players));
+            ForkJoinPool second = (ForkJoinPool) ChatTestHelper.getField(service, "filterPool");
+            service.shutdown();
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.isShutdown()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should stay on the calling thread below the threshold")
+        void shouldStaySequentialBelowThreshold() {
+            when(config.getParallelThreshold()).thenReturn(1000);
+            List<Player> players = crowd(50);
+
+            service.filterRecipients(players.get(2), new HashSet<>(players));
+
+            verify(config, never()).getParallelThreads();
+        }
+
+        @Test
+        @DisplayName("Should keep only event recipients when filtering a world bucket in parallel")
+        void shouldRespectRecipientsInBucket() {
+            when(config.getParallelThreshold()).thenReturn(10);
+            List<Player> players = crowd(200);
+            for (Player player : players) {
+                service.enterWorld(player);
+            }
+            Player sender = players.get(2);
+            Set<Player> recipients = new HashSet<>(players.subList(0, 20));
+
+            Set<Player> filtered = service.filterRecipients(sender, recipients);
+
+            assertThat(filtered).isNotEmpty();
+            assertThat(recipients).containsAll(filtered);
+        }
+    }
+
+    // ==================== Party Channel Tests ====================
+
+    @Nested
+    @DisplayName("Party Channel Tests")
+    class PartyTests {
+
+        private World world;
+        private World nether;
+        private ChatHistoryService history;
+
+        @BeforeEach
+        void setUpParties() throws Exception {
+            world = ChatTestHelper.createMockWorld("world");
+            nether = ChatTestHelper.createMockWorld("world_nether");
+            lenient().when(config.getPartyDisplayName()).thenReturn("&d[{name}]");
+            history = mock(ChatHistoryService.class);
+            ChatTestHelper.setField(service, "chatHistoryService", history);
+        }
+
+        private Player join(World in, String channel) {
+            Player player = ChatTestHelper.createMockPlayerAt("P", UUID.randomUUID(), in, 0, 64, 0);
+            service.setPlayerChannel(player.getUniqueId(), channel);
+            service.enterWorld(player);
+            return player;
+        }
+
+        @Test
+        @DisplayName("Should give a party the first id after the configured channels")
+        void shouldCreateParty() {
+            Player creator = join(world, "global");
+
+            ChannelDefinition party = service.createParty(creator, "raid");
+
+            assertThat(party.isParty()).isTrue();
+            assertThat(party.getId()).isEqualTo(3);
+            assertThat(party.getDisplayName()).isEqualTo("§d[raid]");
+            assertThat(service.getChannelId("raid")).isEqualTo(3);
+            assertThat(service.getChannel(3).getName()).isEqualTo("raid");
+            assertThat(service.getParty("raid")).isNotNull();
+            assertThat(service.getParty("global")).isNull();
+            assertThat(service.getPlayerChannel(creator.getUniqueId())).isEqualTo("raid");
+            assertThat(service.isListening(creator.getUniqueId(), "raid")).isTrue();
+            assertThat(service.getPartySize("raid")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not create a party over an existing name")
+        void shouldRejectTakenNames() {
+            Player creator = join(world, "global");
+
+            assertThat(service.createParty(creator, "global")).isNull();
+            assertThat(service.createParty(creator, "raid")).isNotNull();
+            assertThat(service.createParty(join(world, "global"), "raid")).isNull();
+            assertThat(service.getPartyCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should let only members and invited players in")
+        void shouldRequireInvitation() {
+            Player creator = join(world, "global");
+            Player guest = join(world, "global");
+            service.createParty(creator, "raid");
+
+            assertThat(service.hasChannelPermission(creator, "raid")).isTrue();
+            assertThat(service.hasChannelPermission(guest, "raid")).isFalse();
+
+            assertThat(service.invite("raid", guest.getUniqueId())).isTrue();
+            assertThat(service.hasChannelPermission(guest, "raid")).isTrue();
+
+            service.setPlayerChannel(guest.getUniqueId(), "raid");
+            assertThat(service.getPartySize("raid")).isEqualTo(2);
+            assertThat(service.invite("raid", guest.getUniqueId())).isFalse();
+            assertThat(service.invite("missing", guest.getUniqueId())).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should list and complete the parties a player belongs to or is invited to")
+        void shouldOfferJoinableParties() {
+            Player creator = join(world, "global");
+            Player guest = join(world, "global");
+            Player outsider = join(world, "global");
+            service.createParty(creator, "raid");
+            service.getAvailableChannels(guest);
+
+            // Invited after the channel list was cached
+            service.invite("raid", guest.getUniqueId());
+
+            assertThat(service.getAvailableChannels(creator)).endsWith("raid");
+            assertThat(service.getAvailableChannels(guest)).contains("global", "raid");
+            assertThat(service.getAvailableChannels(outsider)).doesNotContain("raid");
+            assertThat(service.completeChannels(guest, "R")).containsExactly("raid");
+            assertThat(service.completeChannels(guest, "")).containsExactly("global", "local", "raid");
+            assertThat(service.completeChannels(outsider, "r")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should deliver only to members, in any world")
+        void shouldDeliverToMembers() {
+            Player creator = join(world, "global");
+            Player guest = join(nether, "global");
+            Player outsider = join(world, "global");
+            service.createParty(creator, "raid");
+            service.invite("raid", guest.getUniqueId());
+            service.setPlayerChannel(guest.getUniqueId(), "raid");
+
+            Set<Player> audience = service.getAudience(creator);
+            Set<Player> all = new HashSet<>(Arrays.asList(creator, guest, outsider));
+
+            assertThat(audience).containsExactlyInAnyOrder(creator, guest);
+            assertThat(service.getAudience(guest)).isSameAs(audience);
+            assertThat(service.filterRecipients(creator, all)).containsExactlyInAnyOrder(creator, guest);
+            assertThat(service.getAudience(outsider)).doesNotContain(guest);
+        }
+
+        @Test
+        @DisplayName("Should count subscribers as members")
+        void shouldCountSubscribers() {
+            Player creator = join(world, "global");
+            Player listener = join(world, "global");
+            service.createParty(creator, "raid");
+            service.invite("raid", listener.getUniqueId());
+
+            assertThat(service.subscribe(listener.getUniqueId(), "raid")).isTrue();
+
+            assertThat(service.getPartySize("raid")).isEqualTo(2);
+            assertThat(service.getAudience(creator)).containsExactlyInAnyOrder(creator, listener);
+        }
+
+        @Test
+        @DisplayName("Should remove the party and its history with the last member")
+        void shouldReclaimEmptyParty() {
+            Player creator = join(world, "global");
+            Player guest = join(world, "global");
+            service.createParty(creator, "raid");
+            service.invite("raid", guest.getUniqueId());
+            service.subscribe(guest.getUniqueId(), "raid");
+
+            service.removePlayer(creator.getUniqueId());
+            assertThat(service.getParty("raid")).isNotNull();
+
+            service.unsubscribe(guest.getUniqueId(), "raid");
+
+            assertThat(service.getParty("raid")).isNull();
+            assertThat(service.getPartyCount()).isZero();
+            assertThat(service.getChannel(3)).isNull();
+            verify(history).forget("raid");
+        }
+
+        @Test
+        @DisplayName("Should remove the party when its creator switches away")
+        void shouldReclaimOnSwitch() {
+            Player creator = join(world, "global");
+            service.createParty(creator, "raid");
+
+            service.setPlayerChannel(creator.getUniqueId(), "global");
+
+            assertThat(service.getParty("raid")).isNull();
+            assertThat(service.isListening(creator.getUniqueId(), "global")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should hand a freed id to the next party")
+        void shouldReuseIds() {
+            Player first = join(world, "global");
+            Player second = join(world, "global");
+            service.createParty(first, "alpha");
+            service.createParty(second, "beta");
+            service.setPlayerChannel(first.getUniqueId(), "global");
+
+            ChannelDefinition gamma = service.createParty(first, "gamma");
+
+            assertThat(gamma.getId()).isEqualTo(3);
+            assertThat(service.getChannelId("beta")).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should keep parties apart from the configured audiences")
+        void shouldNotLeakIntoConfiguredAudience() {
+            Player creator = join(world, "global");
+            Player other = join(world, "global");
+
+            service.createParty(creator, "raid");
+
+            assertThat(service.getAudience(other)).containsExactly(other);
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.ChannelConfig;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ChatHistoryService — per-channel recording, config changes and read access.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChatHistoryService Tests")
+class ChatHistoryServiceTest {
+
+    private ChannelConfig config;
+    private ChatHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new ChannelConfig();
+        service = new ChatHistoryService(config);
+    }
+
+    private static ChannelDefinition channel(String key, Object value) {
+        Map<String, Object> def = new HashMap<>();
+        def.put(key, value);
+        return ChannelDefinition.compile(0, "test", def);
+    }
+
+    @Nested
+    @DisplayName("Recording")
+    class RecordingTests {
+
+        @Test
+        @DisplayName("Should keep lines per channel")
+        void shouldKeepPerChannel() {
+            UUID sender = UUID.randomUUID();
+            service.record("global", sender, "Alice: hi");
+            service.record("local", sender, "Alice: psst");
+            service.record("global", null, "Bob: hello");
+
+            List<ChatHistoryEntry> global = service.getRecent("global", 10);
+            assertThat(global).hasSize(2);
+            assertThat(global.get(0).getText()).isEqualTo("Alice: hi");
+            assertThat(global.get(0).getSender()).isEqualTo(sender);
+            assertThat(global.get(1).getText()).isEqualTo("Bob: hello");
+            assertThat(service.getSize("local")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep at most the configured number of lines")
+        void shouldRespectLineLimit() {
+            config.setHistoryLines(5);
+            for (int i = 0; i < 20; i++) {
+                service.record("global", null, "line " + i);
+            }
+
+            assertThat(service.getSize("global")).isEqualTo(5);
+            assertThat(service.getRecent("global", 1).get(0).getText()).isEqualTo("line 19");
+        }
+
+        @Test
+        @DisplayName("Should record nothing while disabled")
+        void shouldSkipWhenDisabled() {
+            config.setHistoryEnabled(false);
+            service.record("global", null, "hi");
+
+            assertThat(service.getSize("global")).isZero();
+            assertThat(service.getRecent("global", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should record nothing when lines is zero")
+        void shouldSkipWithoutLines() {
+            config.setHistoryLines(0);
+            service.record("global", null, "hi");
+
+            assertThat(service.getSize("global")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should start over when a reload changes the sizes")
+        void shouldResizeOnReload() {
+            service.record("global", null, "before");
+            config.setHistoryBytes(4096);
+            service.record("global", null, "after");
+
+            assertThat(service.getSize("global")).isEqualTo(1);
+            assertThat(service.getRecent("global", 10).get(0).getText()).isEqualTo("after");
+        }
+
+        @Test
+        @DisplayName("Should forget every channel when cleared")
+        void shouldClear() {
+            service.record("global", null, "hi");
+            service.clear();
+
+            assertThat(service.getRecent("global", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should forget a single channel")
+        void shouldForgetChannel() {
+            service.record("global", null, "hi");
+            service.record("raid", null, "party");
+
+            service.forget("raid");
+
+            assertThat(service.getSize("raid")).isZero();
+            assertThat(service.getSize("global")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Access")
+    class AccessTests {
+
+        @Test
+        @DisplayName("Should let anyone read server-wide channels")
+        void shouldAllowGlobal() {
+            Player player = mock(Player.class);
+
+            assertThat(service.canView(player, ChannelDefinition.compile(0, "global", null))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should require the ranged permission for ranged or single-world channels")
+        void shouldRestrictLocalChannels() {
+            Player player = mock(Player.class);
+            Player staff = mock(Player.class);
+            when(staff.hasPermission(ChatHistoryService.RANGED_PERMISSION)).thenReturn(true);
+
+            assertThat(service.canView(player, channel("range", 100))).isFalse();
+            assertThat(service.canView(player, channel("cross-world", false))).isFalse();
+            assertThat(service.canView(staff, channel("range", 100))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should refuse unknown channels")
+        void shouldRefuseUnknown() {
+            assertThat(service.canView(mock(Player.class), null)).isFalse();
+        }
+    }
+}
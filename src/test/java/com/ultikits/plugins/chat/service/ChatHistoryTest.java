@@ -0,0 +1,131 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ChatHistory — slot and byte eviction, wrap-around and read-back.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChatHistory Tests")
+class ChatHistoryTest {
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String texts(List<ChatHistoryEntry> entries) {
+        StringBuilder builder = new StringBuilder();
+        for (ChatHistoryEntry entry : entries) {
+            builder.append(entry.getText()).append('|');
+        }
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should return the most recent lines oldest first")
+    void shouldReturnTail() {
+        ChatHistory history = new ChatHistory(10, 1024);
+        history.append(null, 1, utf8("a"));
+        history.append(null, 2, utf8("b"));
+        history.append(null, 3, utf8("c"));
+
+        assertThat(texts(history.tail(2))).isEqualTo("b|c|");
+        assertThat(texts(history.tail(10))).isEqualTo("a|b|c|");
+        assertThat(history.tail(0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest line when every slot is used")
+    void shouldEvictBySlots() {
+        ChatHistory history = new ChatHistory(3, 1024);
+        for (String text : new String[]{"1", "2", "3", "4", "5"}) {
+            history.append(null, 0, utf8(text));
+        }
+
+        assertThat(history.size()).isEqualTo(3);
+        assertThat(texts(history.tail(3))).isEqualTo("3|4|5|");
+        assertThat(history.usedBytes()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest lines when the byte budget is used")
+    void shouldEvictByBytes() {
+        ChatHistory history = new ChatHistory(10, 16);
+        history.append(null, 0, utf8("aaaaaa"));
+        history.append(null, 0, utf8("bbbbbb"));
+        history.append(null, 0, utf8("cccccc"));
+
+        assertThat(texts(history.tail(10))).isEqualTo("bbbbbb|cccccc|");
+        assertThat(history.usedBytes()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should read back lines that wrap around the end of the arena")
+    void shouldReadWrappedLines() {
+        ChatHistory history = new ChatHistory(10, 16);
+        history.append(null, 0, utf8("0123456789"));
+        history.append(null, 0, utf8("abcdefghij"));
+
+        // The second line starts at byte 10 and continues from byte 0
+        assertThat(texts(history.tail(10))).isEqualTo("abcdefghij|");
+        history.append(null, 0, utf8("xyz"));
+        assertThat(texts(history.tail(10))).isEqualTo("abcdefghij|xyz|");
+    }
+
+    @Test
+    @DisplayName("Should keep multi-byte text intact")
+    void shouldKeepUtf8() {
+        ChatHistory history = new ChatHistory(4, 32);
+        history.append(null, 0, utf8("你好，世界"));
+        history.append(null, 0, utf8("卖钻石"));
+
+        assertThat(texts(history.tail(2))).isEqualTo("你好，世界|卖钻石|");
+    }
+
+    @Test
+    @DisplayName("Should refuse a line larger than the arena")
+    void shouldRefuseOversizeLine() {
+        ChatHistory history = new ChatHistory(4, 8);
+        history.append(null, 0, utf8("keep"));
+
+        assertThat(history.append(null, 0, utf8("far too long"))).isFalse();
+        assertThat(texts(history.tail(4))).isEqualTo("keep|");
+    }
+
+    @Test
+    @DisplayName("Should keep sender and timestamp")
+    void shouldKeepSenderAndTime() {
+        ChatHistory history = new ChatHistory(4, 64);
+        UUID sender = UUID.randomUUID();
+        history.append(sender, 1234L, utf8("hi"));
+        history.append(null, 5678L, utf8("relayed"));
+
+        List<ChatHistoryEntry> entries = history.tail(2);
+        assertThat(entries.get(0).getSender()).isEqualTo(sender);
+        assertThat(entries.get(0).getTimestamp()).isEqualTo(1234L);
+        assertThat(entries.get(1).getSender()).isNull();
+        assertThat(entries.get(1).getTimestamp()).isEqualTo(5678L);
+    }
+
+    @Test
+    @DisplayName("Should forget everything when cleared")
+    void shouldClear() {
+        ChatHistory history = new ChatHistory(4, 64);
+        history.append(null, 0, utf8("hi"));
+
+        history.clear();
+        history.append(null, 0, utf8("again"));
+
+        assertThat(texts(history.tail(4))).isEqualTo("again|");
+        assertThat(history.usedBytes()).isEqualTo(5);
+    }
+}
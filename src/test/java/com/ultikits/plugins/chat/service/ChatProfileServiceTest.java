@@ -0,0 +1,292 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.ChatConfig;
+import com.ultikits.plugins.chat.entity.ChatProfileEntity;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import com.ultikits.ultitools.abstracts.UltiToolsPlugin;
+import com.ultikits.ultitools.interfaces.DataOperator;
+import com.ultikits.ultitools.interfaces.impl.logger.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ChatProfileService — preloading, in-memory reads, coalesced
+ * write-behind and flush on quit.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ChatProfileService Tests")
+class ChatProfileServiceTest {
+
+    private DataOperator<ChatProfileEntity> operator;
+    private ChatConfig config;
+    private ChatProfileService service;
+    private UUID uuid;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+
+        operator = mock(DataOperator.class);
+        UltiToolsPlugin plugin = mock(UltiToolsPlugin.class);
+        lenient().when(plugin.getDataOperator(ChatProfileEntity.class)).thenReturn(operator);
+        lenient().when(plugin.getLogger()).thenReturn(mock(PluginLogger.class));
+
+        config = new ChatConfig();
+        config.setProfileSaveDelay(5);
+        service = new ChatProfileService(plugin, config);
+        uuid = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    private ChatProfileEntity stored(String channel, String subscriptions, boolean mentions) {
+        ChatProfileEntity entity = new ChatProfileEntity();
+        entity.setId(uuid.toString());
+        entity.setChannel(channel);
+        entity.setSubscriptions(subscriptions);
+        entity.setMentions(mentions);
+        entity.setAnnouncements(true);
+        return entity;
+    }
+
+    private Plugin useScheduler() {
+        Plugin bukkitPlugin = mock(Plugin.class);
+        when(Bukkit.getPluginManager().getPlugin("UltiTools")).thenReturn(bukkitPlugin);
+        return bukkitPlugin;
+    }
+
+    // ==================== Preload Tests ====================
+
+    @Nested
+    @DisplayName("Preload")
+    class PreloadTests {
+
+        @Test
+        @DisplayName("Should load the stored profile into memory")
+        void shouldLoadStoredProfile() {
+            when(operator.getById(uuid.toString())).thenReturn(stored("trade", "staff,local", false));
+
+            service.preload(uuid);
+            ChatProfile profile = service.get(uuid);
+
+            assertThat(profile.getChannel()).isEqualTo("trade");
+            assertThat(profile.getSubscriptions()).containsExactlyInAnyOrder("staff", "local");
+            assertThat(profile.isMentions()).isFalse();
+            assertThat(profile.isAnnouncements()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should use defaults for a new player")
+        void shouldDefaultNewPlayer() {
+            assertThat(service.preload(uuid)).isSameAs(ChatProfile.DEFAULT);
+        }
+
+        @Test
+        @DisplayName("Should use defaults when storage fails")
+        void shouldDefaultOnFailure() {
+            when(operator.getById(anyString())).thenThrow(new IllegalStateException("down"));
+
+            assertThat(service.preload(uuid)).isSameAs(ChatProfile.DEFAULT);
+        }
+
+        @Test
+        @DisplayName("Should prefer a change that has not been written yet")
+        void shouldPreferPendingChange() {
+            useScheduler();
+            service.update(uuid, p -> p.withChannel("trade"));
+            service.unload(uuid);
+            when(operator.getById(uuid.toString())).thenReturn(stored("global", "", true));
+
+            assertThat(service.preload(uuid).getChannel()).isEqualTo("trade");
+        }
+
+        @Test
+        @DisplayName("Should return defaults for a player that was never loaded")
+        void shouldDefaultWhenNotLoaded() {
+            assertThat(service.get(uuid)).isSameAs(ChatProfile.DEFAULT);
+            verifyNoInteractions(operator);
+        }
+    }
+
+    // ==================== Write-Behind Tests ====================
+
+    @Nested
+    @DisplayName("Write-Behind")
+    class WriteBehindTests {
+
+        @Test
+        @DisplayName("Should write immediately when UltiTools is not available")
+        void shouldWriteImmediatelyWithoutScheduler() throws Exception {
+            service.update(uuid, p -> p.withMentions(false));
+
+            ArgumentCaptor<ChatProfileEntity> captor = ArgumentCaptor.forClass(ChatProfileEntity.class);
+            verify(operator).insert(captor.capture());
+            assertThat(captor.getValue().getId()).isEqualTo(uuid.toString());
+            assertThat(captor.getValue().isMentions()).isFalse();
+            assertThat(service.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should update an existing row")
+        void shouldUpdateExistingRow() throws Exception {
+            when(operator.exist(uuid.toString())).thenReturn(true);
+
+            service.update(uuid, p -> p.withChannel("trade"));
+
+            verify(operator).update(any(ChatProfileEntity.class));
+            verify(operator, never()).insert(any());
+        }
+
+        @Test
+        @DisplayName("Should coalesce a burst of changes into one scheduled write")
+        void shouldCoalesceBurst() throws Exception {
+            Plugin bukkitPlugin = useScheduler();
+            BukkitScheduler scheduler = Bukkit.getScheduler();
+            UUID other = UUID.randomUUID();
+
+            service.update(uuid, p -> p.withChannel("trade"));
+            service.update(uuid, p -> p.withMentions(false));
+            service.update(other, p -> p.withAnnouncements(false));
+
+            ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+            verify(scheduler, times(1)).runTaskLaterAsynchronously(eq(bukkitPlugin), captor.capture(), eq(100L));
+            assertThat(service.getPendingCount()).isEqualTo(2);
+            verify(operator, never()).insert(any());
+
+            captor.getValue().run();
+
+            ArgumentCaptor<ChatProfileEntity> written = ArgumentCaptor.forClass(ChatProfileEntity.class);
+            verify(operator, times(2)).insert(written.capture());
+            ChatProfileEntity mine = written.getAllValues().stream()
+                    .filter(e -> e.getId().equals(uuid.toString()))
+                    .findFirst().get();
+            assertThat(mine.getChannel()).isEqualTo("trade");
+            assertThat(mine.isMentions()).isFalse();
+            assertThat(service.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should keep a failed write queued for the next flush")
+        void shouldRetryFailedWrite() throws Exception {
+            useScheduler();
+            doThrow(new IllegalStateException("locked")).doNothing().when(operator).insert(any());
+            service.update(uuid, p -> p.withChannel("trade"));
+
+            assertThat(service.flush()).isZero();
+            assertThat(service.getPendingCount()).isEqualTo(1);
+
+            assertThat(service.flush()).isEqualTo(1);
+            assertThat(service.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should schedule a retry one save window after a failed write")
+        void shouldScheduleRetryAfterFailure() throws Exception {
+            Plugin bukkitPlugin = useScheduler();
+            when(bukkitPlugin.isEnabled()).thenReturn(true);
+            BukkitScheduler scheduler = Bukkit.getScheduler();
+            doThrow(new IllegalStateException("locked")).doNothing().when(operator).insert(any());
+            service.update(uuid, p -> p.withChannel("trade"));
+            ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+            verify(scheduler).runTaskLaterAsynchronously(eq(bukkitPlugin), captor.capture(), eq(100L));
+
+            captor.getValue().run();
+
+            // The failed write scheduled a second task, which writes the change
+            verify(scheduler, times(2)).runTaskLaterAsynchronously(eq(bukkitPlugin), captor.capture(), eq(100L));
+            captor.getValue().run();
+            verify(operator, times(2)).insert(any());
+            assertThat(service.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not schedule a retry while the plugin is disabling")
+        void shouldNotRetryWhileDisabling() {
+            useScheduler();
+            doThrow(new IllegalStateException("locked")).when(operator).insert(any());
+            service.update(uuid, p -> p.withChannel("trade"));
+            clearInvocations(Bukkit.getScheduler());
+
+            assertThat(service.flush()).isZero();
+
+            verify(Bukkit.getScheduler(), never()).runTaskLaterAsynchronously(any(Plugin.class), any(Runnable.class), anyLong());
+            assertThat(service.getPendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should flush right away when a player with pending changes quits")
+        void shouldFlushOnQuit() {
+            Plugin bukkitPlugin = useScheduler();
+            BukkitScheduler scheduler = Bukkit.getScheduler();
+
+            service.update(uuid, p -> p.withChannel("trade"));
+            service.unload(uuid);
+
+            verify(scheduler).runTaskLaterAsynchronously(eq(bukkitPlugin), any(Runnable.class), eq(100L));
+            verify(scheduler).runTaskLaterAsynchronously(eq(bukkitPlugin), any(Runnable.class), eq(0L));
+            assertThat(service.get(uuid)).isSameAs(ChatProfile.DEFAULT);
+        }
+
+        @Test
+        @DisplayName("Should not schedule anything when a clean player quits")
+        void shouldSkipCleanQuit() {
+            useScheduler();
+
+            service.unload(uuid);
+
+            verify(Bukkit.getScheduler(), never()).runTaskLaterAsynchronously(any(Plugin.class), any(Runnable.class), anyLong());
+        }
+
+        @Test
+        @DisplayName("Flush should report zero when nothing is pending")
+        void flushShouldReturnZeroWhenIdle() {
+            assertThat(service.flush()).isZero();
+        }
+    }
+
+    // ==================== Mapping Tests ====================
+
+    @Nested
+    @DisplayName("Mapping")
+    class MappingTests {
+
+        @Test
+        @DisplayName("Should round-trip a profile through the entity")
+        void shouldRoundTrip() {
+            ChatProfile profile = new ChatProfile("trade", Arrays.asList("staff", "local"), false, true);
+
+            ChatProfile restored = ChatProfileService.toProfile(ChatProfileService.toEntity(uuid, profile));
+
+            assertThat(restored.getChannel()).isEqualTo("trade");
+            assertThat(restored.getSubscriptions()).containsExactlyInAnyOrder("staff", "local");
+            assertThat(restored.isMentions()).isFalse();
+            assertThat(restored.isAnnouncements()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should map an empty channel back to none")
+        void shouldMapEmptyChannel() {
+            ChatProfile restored = ChatProfileService.toProfile(
+                    ChatProfileService.toEntity(uuid, ChatProfile.DEFAULT));
+
+            assertThat(restored.getChannel()).isNull();
+            assertThat(restored.getSubscriptions()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.config.AutoReplyConfig;
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.Server;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CommandQueueService — per-tick budget, capacity overflow,
+ * per-rule rate caps and placeholder replacement.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("CommandQueueService Tests")
+class CommandQueueServiceTest {
+
+    private CommandQueueService service;
+    private AutoReplyConfig config;
+    private Server server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ChatTestHelper.setUp();
+        server = ChatTestHelper.getMockServer();
+
+        config = new AutoReplyConfig();
+        config.setCommandQueueCapacity(10);
+        config.setCommandsPerTick(2);
+        config.setCommandRuleRate(0);
+
+        service = new CommandQueueService();
+        ChatTestHelper.setField(service, "config", config);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ChatTestHelper.tearDown();
+    }
+
+    @Nested
+    @DisplayName("Submit")
+    class SubmitTests {
+
+        @Test
+        @DisplayName("Should queue commands without dispatching them")
+        void shouldQueueWithoutDispatching() {
+            assertThat(service.submit("r1", "Steve", Arrays.asList("say a", "say b"))).isTrue();
+
+            assertThat(service.getPending()).isEqualTo(2);
+            verify(server, never()).dispatchCommand(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should ignore empty and null command lists")
+        void shouldIgnoreEmpty() {
+            assertThat(service.submit("r1", "Steve", Collections.<String>emptyList())).isFalse();
+            assertThat(service.submit("r1", "Steve", null)).isFalse();
+            assertThat(service.getPending()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should drop the whole batch when it would exceed capacity")
+        void shouldDropOnOverflow() {
+            config.setCommandQueueCapacity(3);
+
+            assertThat(service.submit("r1", "Steve", Arrays.asList("a", "b"))).isTrue();
+            assertThat(service.submit("r1", "Steve", Arrays.asList("c", "d"))).isFalse();
+
+            assertThat(service.getPending()).isEqualTo(2);
+            assertThat(service.getDroppedOverflow()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should enforce per-rule rate cap")
+        void shouldEnforceRuleRate() {
+            config.setCommandRuleRate(3);
+
+            assertThat(service.submit("r1", "Steve", Arrays.asList("a", "b"))).isTrue();
+            assertThat(service.submit("r1", "Alex", Arrays.asList("c", "d"))).isFalse();
+            assertThat(service.submit("r2", "Alex", Arrays.asList("e", "f"))).isTrue();
+
+            assertThat(service.getDroppedRateLimited()).isEqualTo(2);
+            assertThat(service.getPending()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should not charge the rate window for a batch dropped on overflow")
+        void shouldNotChargeRateOnOverflow() {
+            config.setCommandQueueCapacity(2);
+            config.setCommandRuleRate(3);
+
+            assertThat(service.submit("r1", "Steve", Arrays.asList("a", "b"))).isTrue();
+            assertThat(service.submit("r1", "Steve", Arrays.asList("c", "d"))).isFalse();
+            service.drain();
+
+            assertThat(service.submit("r1", "Steve", Collections.singletonList("e"))).isTrue();
+            assertThat(service.getDroppedOverflow()).isEqualTo(2);
+            assertThat(service.getDroppedRateLimited()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should release reserved capacity when a batch is rate limited")
+        void shouldReleaseCapacityOnRateLimit() {
+            config.setCommandRuleRate(1);
+
+            assertThat(service.submit("r1", "Steve", Arrays.asList("a", "b"))).isFalse();
+
+            assertThat(service.getPending()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reset the rate window when a rule is forgotten")
+        void shouldResetRateWindowOnForget() {
+            config.setCommandRuleRate(1);
+
+            assertThat(service.submit("r1", "Steve", Collections.singletonList("a"))).isTrue();
+            assertThat(service.submit("r1", "Steve", Collections.singletonList("b"))).isFalse();
+
+            service.forgetRule("r1");
+            assertThat(service.submit("r1", "Steve", Collections.singletonList("c"))).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Drain")
+    class DrainTests {
+
+        @Test
+        @DisplayName("Should dispatch at most the per-tick budget")
+        void shouldRespectPerTickBudget() {
+            service.submit("r1", "Steve", Arrays.asList("a", "b", "c"));
+
+            service.drain();
+            verify(server, times(2)).dispatchCommand(any(), anyString());
+            assertThat(service.getPending()).isEqualTo(1);
+
+            service.drain();
+            verify(server, times(3)).dispatchCommand(any(), anyString());
+            assertThat(service.getPending()).isZero();
+            assertThat(service.getDispatched()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should replace {player} before dispatch")
+        void shouldReplacePlayerPlaceholder() {
+            service.submit("r1", "Steve", Collections.singletonList("give {player} diamond 1"));
+
+            service.drain();
+
+            verify(server).dispatchCommand(any(), eq("give Steve diamond 1"));
+        }
+
+        @Test
+        @DisplayName("Should keep draining after a failing command")
+        void shouldContinueAfterFailure() {
+            when(server.dispatchCommand(any(), eq("broken"))).thenThrow(new IllegalStateException("boom"));
+            service.submit("r1", "Steve", Arrays.asList("broken", "ok"));
+
+            service.drain();
+
+            verify(server).dispatchCommand(any(), eq("ok"));
+            assertThat(service.getFailed()).isEqualTo(1);
+            assertThat(service.getDispatched()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should do nothing when the queue is empty")
+        void shouldNoopWhenEmpty() {
+            service.drain();
+
+            verify(server, never()).dispatchCommand(any(), anyString());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for FuzzyIndex — bounded approximate substring search, bigram
+ * extraction and the candidate filter.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("FuzzyIndex Tests")
+class FuzzyIndexTest {
+
+    private static AutoReplyRule fuzzyRule(String keyword, boolean caseSensitive, int maxEdits, int slot) {
+        Map<String, Object> source = new HashMap<>();
+        source.put("keyword", keyword);
+        return new AutoReplyRule("r" + slot, source, keyword, "fuzzy", caseSensitive, null,
+                maxEdits, Collections.<String>emptyList(), 0, Collections.<String>emptyList(),
+                ResponseTemplate.EMPTY, new RuleStats("r" + slot));
+    }
+
+    @Nested
+    @DisplayName("Verifier")
+    class VerifierTests {
+
+        @Test
+        @DisplayName("Should find exact occurrences")
+        void shouldFindExact() {
+            assertThat(FuzzyIndex.containsWithin("spawn", "where is spawn", 1)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should accept insertions, deletions and substitutions within k")
+        void shouldAcceptEditsWithinK() {
+            assertThat(FuzzyIndex.containsWithin("server", "my sever", 1)).isTrue();
+            assertThat(FuzzyIndex.containsWithin("server", "my serrver", 1)).isTrue();
+            assertThat(FuzzyIndex.containsWithin("server", "my sarver", 1)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject occurrences needing more than k edits")
+        void shouldRejectBeyondK() {
+            assertThat(FuzzyIndex.containsWithin("server", "my svr", 1)).isFalse();
+            assertThat(FuzzyIndex.containsWithin("server", "my svr", 3)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should fall back to plain contains with zero edits")
+        void shouldUseContainsForZeroEdits() {
+            assertThat(FuzzyIndex.containsWithin("ip", "ip?", 0)).isTrue();
+            assertThat(FuzzyIndex.containsWithin("ip", "i p", 0)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject text that is too short")
+        void shouldRejectShortText() {
+            assertThat(FuzzyIndex.containsWithin("teleport", "tp", 2)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Bigrams")
+    class BigramTests {
+
+        @Test
+        @DisplayName("Should return distinct bigrams")
+        void shouldReturnDistinctBigrams() {
+            assertThat(FuzzyIndex.distinctGrams("aaaa")).hasSize(1);
+            assertThat(FuzzyIndex.distinctGrams("abab")).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for strings shorter than two characters")
+        void shouldHandleShortStrings() {
+            assertThat(FuzzyIndex.distinctGrams("")).isEmpty();
+            assertThat(FuzzyIndex.distinctGrams("a")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Candidate Filter")
+    class CandidateTests {
+
+        @Test
+        @DisplayName("Should keep rules sharing enough bigrams and drop the rest")
+        void shouldFilterCandidates() {
+            FuzzyIndex index = new FuzzyIndex(new AutoReplyRule[]{
+                    fuzzyRule("where is spawn", false, 1, 0),
+                    fuzzyRule("server ip", false, 1, 1)
+            });
+
+            boolean[] candidates = index.candidates("wher is spawn", "wher is spawn");
+
+            assertThat(index.size()).isEqualTo(2);
+            assertThat(candidates[0]).isTrue();
+            assertThat(candidates[1]).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should count case-sensitive rules against the raw message")
+        void shouldUseRawMessageForCaseSensitive() {
+            FuzzyIndex index = new FuzzyIndex(new AutoReplyRule[]{
+                    fuzzyRule("Shop Location", true, 0, 0),
+                    fuzzyRule("shop location", false, 0, 1)
+            });
+
+            boolean[] candidates = index.candidates("SHOP LOCATION", "shop location");
+
+            assertThat(candidates[0]).isFalse();
+            assertThat(candidates[1]).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should always keep keywords without enough bigrams to filter on")
+        void shouldKeepTinyKeywords() {
+            FuzzyIndex index = new FuzzyIndex(new AutoReplyRule[]{fuzzyRule("a", false, 0, 0)});
+
+            assertThat(index.candidates("zzz", "zzz")[0]).isTrue();
+        }
+
+        @Test
+        @DisplayName("Empty index should report no candidates")
+        void emptyIndex() {
+            assertThat(FuzzyIndex.EMPTY.size()).isZero();
+            assertThat(FuzzyIndex.EMPTY.candidates("anything", "anything")).isEmpty();
+        }
+    }
+}
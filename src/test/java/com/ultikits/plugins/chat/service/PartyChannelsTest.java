@@ -0,0 +1,113 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for PartyChannels — slot reuse, membership and closing.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("PartyChannels Tests")
+class PartyChannelsTest {
+
+    @Test
+    @DisplayName("Should reject a name that is already registered")
+    void shouldRejectDuplicateName() {
+        PartyChannels parties = new PartyChannels();
+
+        assertThat(parties.create("raid")).isNotNull();
+        assertThat(parties.create("raid")).isNull();
+        assertThat(parties.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reuse the slot of a removed party")
+    void shouldReuseSlots() {
+        PartyChannels parties = new PartyChannels();
+        PartyChannels.Party first = parties.create("a");
+        PartyChannels.Party second = parties.create("b");
+        assertThat(first.getSlot()).isEqualTo(0);
+        assertThat(second.getSlot()).isEqualTo(1);
+
+        assertThat(parties.remove(first)).isTrue();
+        PartyChannels.Party third = parties.create("c");
+
+        assertThat(third.getSlot()).isEqualTo(0);
+        assertThat(parties.get(0)).isSameAs(third);
+        assertThat(parties.get("a")).isNull();
+        assertThat(parties.remove(first)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial slots")
+    void shouldGrow() {
+        PartyChannels parties = new PartyChannels();
+        for (int i = 0; i < 100; i++) {
+            parties.create("p" + i);
+        }
+
+        assertThat(parties.size()).isEqualTo(100);
+        assertThat(parties.get(99).getName()).isEqualTo("p99");
+        assertThat(parties.get(100)).isNull();
+        assertThat(parties.get(-1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should use up an invitation on join")
+    void shouldConsumeInvitation() {
+        PartyChannels.Party party = new PartyChannels().create("raid");
+        UUID owner = UUID.randomUUID();
+        UUID guest = UUID.randomUUID();
+        party.join(owner);
+
+        assertThat(party.invite(owner)).isFalse();
+        assertThat(party.invite(guest)).isTrue();
+        assertThat(party.invite(guest)).isFalse();
+        assertThat(party.isInvited(guest)).isTrue();
+
+        party.join(guest);
+
+        assertThat(party.isMember(guest)).isTrue();
+        assertThat(party.isInvited(guest)).isFalse();
+        assertThat(party.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should close when the last member leaves")
+    void shouldCloseWhenEmpty() {
+        PartyChannels.Party party = new PartyChannels().create("raid");
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        party.join(a);
+        party.join(b);
+
+        assertThat(party.leave(a)).isFalse();
+        assertThat(party.leave(a)).isFalse();
+        assertThat(party.leave(b)).isTrue();
+
+        assertThat(party.join(a)).isFalse();
+        assertThat(party.invite(a)).isFalse();
+        assertThat(party.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should renumber the definition when the base changes")
+    void shouldRenumberDefinition() {
+        PartyChannels parties = new PartyChannels();
+        parties.create("a");
+        PartyChannels.Party party = parties.create("b");
+
+        ChannelDefinition definition = party.definition(3, "[{name}]");
+        assertThat(definition.getId()).isEqualTo(4);
+        assertThat(party.definition(3, "[{name}]")).isSameAs(definition);
+
+        assertThat(party.definition(5, "[{name}]").getId()).isEqualTo(6);
+        assertThat(party.definition(5, "<{name}>").getDisplayName()).isEqualTo("<b>");
+    }
+}
@@ -0,0 +1,114 @@
+package com.ultikits.plugins.chat.service;
+
+import com.ultikits.plugins.chat.utils.ChatTestHelper;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ReplyBroadcastService — audience claiming, suppression and
+ * window expiry.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ReplyBroadcastService Tests")
+class ReplyBroadcastServiceTest {
+
+    private ReplyBroadcastService service;
+    private Player alice;
+    private Player bob;
+    private Player carol;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReplyBroadcastService();
+        alice = ChatTestHelper.createMockPlayer("Alice", UUID.randomUUID());
+        bob = ChatTestHelper.createMockPlayer("Bob", UUID.randomUUID());
+        carol = ChatTestHelper.createMockPlayer("Carol", UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("Should send to the sender and the whole audience the first time")
+    void shouldClaimWholeAudience() {
+        assertThat(service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L))
+                .containsExactly(alice, bob);
+    }
+
+    @Test
+    @DisplayName("Should include the sender even if not in the audience")
+    void shouldIncludeSender() {
+        assertThat(service.claim("ip", alice, Collections.singletonList(bob), 10_000L))
+                .containsExactly(alice, bob);
+    }
+
+    @Test
+    @DisplayName("Should suppress a trigger from someone who already saw the answer")
+    void shouldSuppressSeen() {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L);
+
+        assertThat(service.claim("ip", bob, Arrays.asList(alice, bob), 10_000L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only reach players who have not seen the answer")
+    void shouldSkipSeenPlayers() {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L);
+
+        assertThat(service.claim("ip", carol, Arrays.asList(alice, bob, carol), 10_000L))
+                .containsExactly(carol);
+    }
+
+    @Test
+    @DisplayName("Should track rules independently")
+    void shouldTrackRulesIndependently() {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L);
+
+        assertThat(service.claim("discord", bob, Arrays.asList(alice, bob), 10_000L))
+                .containsExactly(bob, alice);
+    }
+
+    @Test
+    @DisplayName("Should answer again once the window has expired")
+    void shouldExpire() {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 0L);
+
+        assertThat(service.claim("ip", bob, Arrays.asList(alice, bob), 10_000L))
+                .containsExactly(bob, alice);
+    }
+
+    @Test
+    @DisplayName("Should drop everything remembered for a removed rule")
+    void shouldForgetRule() throws Exception {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L);
+
+        service.forgetRule("ip");
+
+        assertThat(seenUntil()).doesNotContainKey("ip");
+        assertThat(service.claim("ip", bob, Arrays.asList(alice, bob), 10_000L))
+                .containsExactly(bob, alice);
+    }
+
+    @Test
+    @DisplayName("Should forget a player who quit in every rule")
+    void shouldForgetPlayer() throws Exception {
+        service.claim("ip", alice, Arrays.asList(alice, bob), 10_000L);
+        service.claim("discord", alice, Collections.singletonList(alice), 10_000L);
+
+        service.forgetPlayer(alice.getUniqueId());
+
+        assertThat(seenUntil().get("ip")).containsOnlyKeys(bob.getUniqueId());
+        assertThat(seenUntil().get("discord")).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<UUID, Long>> seenUntil() throws Exception {
+        return (Map<String, Map<UUID, Long>>) ChatTestHelper.getField(service, "seenUntil");
+    }
+}
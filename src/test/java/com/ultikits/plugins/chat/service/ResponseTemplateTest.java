@@ -0,0 +1,85 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ResponseTemplate — colour translation, player slots and
+ * PlaceholderAPI token detection.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("ResponseTemplate Tests")
+class ResponseTemplateTest {
+
+    @Test
+    @DisplayName("Should translate colour codes at compile time")
+    void shouldTranslateColours() {
+        ResponseTemplate template = ResponseTemplate.compile("&aHello &lthere");
+
+        assertThat(template.render("Steve")).containsExactly("§aHello §lthere");
+    }
+
+    @Test
+    @DisplayName("Should fill every player slot")
+    void shouldFillEveryPlayerSlot() {
+        ResponseTemplate template = ResponseTemplate.compile("{player}, hi {player}!");
+
+        assertThat(template.render("Steve")).containsExactly("Steve, hi Steve!");
+        assertThat(template.render("Alex")).containsExactly("Alex, hi Alex!");
+    }
+
+    @Test
+    @DisplayName("Should compile a list of lines in order")
+    void shouldCompileLines() {
+        ResponseTemplate template = ResponseTemplate.compile(Arrays.asList("&eLine 1", "Line 2 {player}"));
+
+        assertThat(template.getLineCount()).isEqualTo(2);
+        assertThat(template.render("Steve")).containsExactly("§eLine 1", "Line 2 Steve");
+    }
+
+    @Test
+    @DisplayName("Should compile null to the empty template")
+    void shouldCompileNullToEmpty() {
+        ResponseTemplate template = ResponseTemplate.compile(null);
+
+        assertThat(template).isSameAs(ResponseTemplate.EMPTY);
+        assertThat(template.isEmpty()).isTrue();
+        assertThat(template.render("Steve")).isEmpty();
+    }
+
+    @Nested
+    @DisplayName("Placeholder Detection")
+    class PlaceholderDetectionTests {
+
+        @Test
+        @DisplayName("Should flag PlaceholderAPI tokens")
+        void shouldFlagTokens() {
+            assertThat(ResponseTemplate.compile("Balance: %vault_eco_balance%").hasPlaceholders()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should flag a token on any line")
+        void shouldFlagTokenOnAnyLine() {
+            assertThat(ResponseTemplate.compile(Arrays.asList("Hi", "Online: %server_online%"))
+                    .hasPlaceholders()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not mistake percentages for tokens")
+        void shouldIgnorePercentages() {
+            assertThat(ResponseTemplate.compile("100% sure, 50% off").hasPlaceholders()).isFalse();
+            assertThat(ResponseTemplate.compile("Done %%").hasPlaceholders()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should not flag plain text")
+        void shouldNotFlagPlainText() {
+            assertThat(ResponseTemplate.compile("Welcome {player}").hasPlaceholders()).isFalse();
+        }
+    }
+}
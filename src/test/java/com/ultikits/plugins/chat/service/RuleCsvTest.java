@@ -0,0 +1,128 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for RuleCsv — record parsing, rule conversion and writing.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("RuleCsv Tests")
+class RuleCsvTest {
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        RuleCsv.RecordReader reader = new RuleCsv.RecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Nested
+    @DisplayName("Reading")
+    class ReadingTests {
+
+        @Test
+        @DisplayName("Should split plain fields")
+        void shouldSplitPlainFields() throws IOException {
+            assertThat(readAll("a,b,,d\n")).containsExactly(Arrays.asList("a", "b", "", "d"));
+        }
+
+        @Test
+        @DisplayName("Should handle quotes, doubled quotes and embedded separators")
+        void shouldHandleQuotes() throws IOException {
+            assertThat(readAll("\"a,b\",\"say \"\"hi\"\"\",c"))
+                    .containsExactly(Arrays.asList("a,b", "say \"hi\"", "c"));
+        }
+
+        @Test
+        @DisplayName("Should keep line breaks inside quotes and track record lines")
+        void shouldTrackLines() throws IOException {
+            RuleCsv.RecordReader reader = new RuleCsv.RecordReader(
+                    new StringReader("h1,h2\r\n\"multi\nline\",x\r\n\r\nlast,y"));
+
+            assertThat(reader.next()).containsExactly("h1", "h2");
+            assertThat(reader.getLine()).isEqualTo(1);
+            assertThat(reader.next()).containsExactly("multi\nline", "x");
+            assertThat(reader.getLine()).isEqualTo(2);
+            assertThat(reader.next()).containsExactly("last", "y");
+            assertThat(reader.getLine()).isEqualTo(5);
+            assertThat(reader.next()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject an unterminated quote")
+        void shouldRejectUnterminatedQuote() {
+            assertThatThrownBy(() -> readAll("a,\"open\n"))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Rule Conversion")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("Should map columns to rule keys and split lists")
+        void shouldMapColumns() {
+            List<String> header = Arrays.asList("name", "keyword", "response", "case-sensitive", "channels", "mode");
+            List<String> record = Arrays.asList("shop", "shop", "&aLine 1|Line 2", "true", "global|local", "");
+
+            Map.Entry<String, Map<String, Object>> rule = RuleCsv.toRule(header, record);
+
+            assertThat(rule.getKey()).isEqualTo("shop");
+            assertThat(rule.getValue().get("keyword")).isEqualTo("shop");
+            assertThat(rule.getValue().get("response")).isEqualTo(Arrays.asList("&aLine 1", "Line 2"));
+            assertThat(rule.getValue().get("case-sensitive")).isEqualTo(true);
+            assertThat(rule.getValue().get("channels")).isEqualTo(Arrays.asList("global", "local"));
+            assertThat(rule.getValue()).doesNotContainKey("mode");
+        }
+
+        @Test
+        @DisplayName("Should keep a single-line response as a string")
+        void shouldKeepSingleResponse() {
+            Map.Entry<String, Map<String, Object>> rule = RuleCsv.toRule(
+                    Arrays.asList("name", "response"), Arrays.asList("r", "Hello"));
+
+            assertThat(rule.getValue().get("response")).isEqualTo("Hello");
+        }
+    }
+
+    @Nested
+    @DisplayName("Writing")
+    class WritingTests {
+
+        @Test
+        @DisplayName("Should round-trip rules through the writer and reader")
+        void shouldRoundTrip() throws IOException {
+            Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("keyword", "where, is \"spawn\"");
+            rule.put("response", Arrays.asList("Line 1", "Line 2"));
+            rule.put("custom", "value");
+            rules.put("spawn", rule);
+
+            StringWriter out = new StringWriter();
+            List<String> header = RuleCsv.writeHeader(out, rules);
+            RuleCsv.writeRule(out, header, "spawn", rule);
+
+            List<List<String>> records = readAll(out.toString());
+            assertThat(records.get(0)).startsWith("name", "keyword", "mode").endsWith("custom");
+            Map.Entry<String, Map<String, Object>> read = RuleCsv.toRule(records.get(0), records.get(1));
+            assertThat(read.getKey()).isEqualTo("spawn");
+            assertThat(read.getValue()).containsEntry("keyword", "where, is \"spawn\"")
+                    .containsEntry("response", Arrays.asList("Line 1", "Line 2"))
+                    .containsEntry("custom", "value");
+        }
+    }
+}
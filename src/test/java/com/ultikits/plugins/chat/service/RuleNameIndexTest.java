@@ -0,0 +1,108 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for RuleNameIndex — sorted pages and prefix search over rule names
+ * and keywords.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("RuleNameIndex Tests")
+class RuleNameIndexTest {
+
+    private Map<String, Map<String, Object>> rules;
+
+    @BeforeEach
+    void setUp() {
+        rules = new LinkedHashMap<>();
+        rule("spawn", "where is spawn");
+        rule("Discord", "discord");
+        rule("shop", "buy");
+        rule("apple", "server ip");
+    }
+
+    private void rule(String name, String keyword) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("keyword", keyword);
+        rules.put(name, rule);
+    }
+
+    @Test
+    @DisplayName("Should list names in case-insensitive order")
+    void shouldListSorted() {
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.names(0, 10)).containsExactly("apple", "Discord", "shop", "spawn");
+    }
+
+    @Test
+    @DisplayName("Should slice pages and return nothing past the end")
+    void shouldSlicePages() {
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.names(1, 2)).containsExactly("Discord", "shop");
+        assertThat(index.names(3, 2)).containsExactly("spawn");
+        assertThat(index.names(4, 2)).isEmpty();
+        assertThat(index.names(-1, 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find rules by name prefix ignoring case")
+    void shouldFindByNamePrefix() {
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.search("SP")).containsExactly("spawn");
+        assertThat(index.search("disc")).containsExactly("Discord");
+    }
+
+    @Test
+    @DisplayName("Should find rules by keyword prefix")
+    void shouldFindByKeywordPrefix() {
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.search("where")).containsExactly("spawn");
+        assertThat(index.search("server")).containsExactly("apple");
+    }
+
+    @Test
+    @DisplayName("Should report a rule once when name and keyword both match")
+    void shouldDeduplicate() {
+        rule("buyer", "buy stuff");
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.search("buy")).containsExactly("buyer", "shop");
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an unknown prefix")
+    void shouldReturnNothingForUnknownPrefix() {
+        assertThat(new RuleNameIndex(rules).search("zzz")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should index rules without a keyword by name")
+    void shouldIndexRulesWithoutKeyword() {
+        rules.put("broken", new HashMap<String, Object>());
+        RuleNameIndex index = new RuleNameIndex(rules);
+
+        assertThat(index.names(0, 10)).contains("broken");
+        assertThat(index.search("bro")).containsExactly("broken");
+    }
+
+    @Test
+    @DisplayName("Should be empty for no rules")
+    void shouldBeEmpty() {
+        assertThat(RuleNameIndex.EMPTY.size()).isZero();
+        assertThat(RuleNameIndex.EMPTY.names(0, 10)).isEmpty();
+        assertThat(RuleNameIndex.EMPTY.search("a")).isEmpty();
+    }
+}
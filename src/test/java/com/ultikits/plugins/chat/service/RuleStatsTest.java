@@ -0,0 +1,67 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for RuleStats — counters, average cost and reset.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("RuleStats Tests")
+class RuleStatsTest {
+
+    private RuleStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new RuleStats("greeting");
+    }
+
+    @Test
+    @DisplayName("Should start empty")
+    void shouldStartEmpty() {
+        assertThat(stats.getRuleName()).isEqualTo("greeting");
+        assertThat(stats.getHits()).isZero();
+        assertThat(stats.getEvaluations()).isZero();
+        assertThat(stats.getMatchNanos()).isZero();
+        assertThat(stats.getAverageNanos()).isZero();
+        assertThat(stats.getLastHit()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should accumulate evaluations and compute the average")
+    void shouldAccumulateEvaluations() {
+        stats.recordEvaluation(100);
+        stats.recordEvaluation(300);
+
+        assertThat(stats.getEvaluations()).isEqualTo(2);
+        assertThat(stats.getMatchNanos()).isEqualTo(400);
+        assertThat(stats.getAverageNanos()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should count hits and remember the last one")
+    void shouldCountHits() {
+        stats.recordHit(1000L);
+        stats.recordHit(2000L);
+
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getLastHit()).isEqualTo(2000L);
+    }
+
+    @Test
+    @DisplayName("Should clear everything on reset")
+    void shouldReset() {
+        stats.recordEvaluation(50);
+        stats.recordHit(1000L);
+
+        stats.reset();
+
+        assertThat(stats.getHits()).isZero();
+        assertThat(stats.getMatchNanos()).isZero();
+        assertThat(stats.getLastHit()).isZero();
+    }
+}
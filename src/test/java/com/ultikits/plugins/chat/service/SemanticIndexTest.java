@@ -0,0 +1,134 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for SemanticIndex — tokenisation, TF-IDF cosine scoring and
+ * threshold-based winner selection.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("SemanticIndex Tests")
+class SemanticIndexTest {
+
+    private SemanticIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<List<String>> documents = new ArrayList<>();
+        documents.add(Arrays.asList("shop location", "where is the shop"));
+        documents.add(Arrays.asList("server ip", "what is the server address"));
+        documents.add(Arrays.asList("商店在哪里"));
+        index = new SemanticIndex(documents, new double[]{0.4, 0.4, 0.4});
+    }
+
+    @Nested
+    @DisplayName("Tokenize")
+    class TokenizeTests {
+
+        @Test
+        @DisplayName("Should split on punctuation and drop stop words")
+        void shouldSplitAndDropStopWords() {
+            assertThat(SemanticIndex.tokenize("where's the shop?")).containsExactly("shop");
+        }
+
+        @Test
+        @DisplayName("Should split Han runs into character pairs")
+        void shouldSplitHanIntoPairs() {
+            assertThat(SemanticIndex.tokenize("商店在哪")).containsExactly("商店", "店在", "在哪");
+        }
+
+        @Test
+        @DisplayName("Should keep a single Han character")
+        void shouldKeepSingleHan() {
+            assertThat(SemanticIndex.tokenize("ip 吗")).containsExactly("ip", "吗");
+        }
+    }
+
+    @Nested
+    @DisplayName("Scoring")
+    class ScoringTests {
+
+        @Test
+        @DisplayName("Should score an identical example at 1")
+        void shouldScoreIdenticalExample() {
+            double[] scores = index.score("what is the server address");
+
+            assertThat(scores[1]).isCloseTo(1.0, within(1e-9));
+            assertThat(scores[0]).isZero();
+        }
+
+        @Test
+        @DisplayName("Should dilute the score with unknown words")
+        void shouldDiluteWithUnknownWords() {
+            double plain = index.score("server address")[1];
+            double diluted = index.score("server address please thanks")[1];
+
+            assertThat(diluted).isLessThan(plain);
+        }
+
+        @Test
+        @DisplayName("Should score zero for messages without known terms")
+        void shouldScoreZeroForUnknown() {
+            assertThat(index.score("hello everyone")).containsOnly(0.0);
+        }
+
+        @Test
+        @DisplayName("Should share the scratch buffer across indexes of different sizes")
+        void shouldShareScratchAcrossIndexes() {
+            List<List<String>> documents = new ArrayList<>();
+            documents.add(Arrays.asList("server ip"));
+            SemanticIndex small = new SemanticIndex(documents, new double[]{0.4});
+
+            double before = index.score("what is the server address")[1];
+            assertThat(small.score("server ip")[0]).isCloseTo(1.0, within(1e-9));
+            assertThat(index.score("what is the server address")[1]).isEqualTo(before);
+            assertThat(small.score("shop location")[0]).isZero();
+        }
+
+        @Test
+        @DisplayName("Should score Chinese paraphrases")
+        void shouldScoreChinese() {
+            assertThat(index.bestMatch("请问商店在哪")).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Best Match")
+    class BestMatchTests {
+
+        @Test
+        @DisplayName("Should pick the highest-scoring rule above its threshold")
+        void shouldPickBest() {
+            assertThat(index.bestMatch("where is the shop")).isEqualTo(0);
+            assertThat(index.bestMatch("server address")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should report no match below the threshold")
+        void shouldReportNoMatch() {
+            assertThat(index.bestMatch("hello everyone")).isEqualTo(SemanticIndex.NO_MATCH);
+        }
+
+        @Test
+        @DisplayName("Empty index should never match")
+        void emptyIndex() {
+            assertThat(SemanticIndex.EMPTY.size()).isZero();
+            assertThat(SemanticIndex.EMPTY.bestMatch("anything")).isEqualTo(SemanticIndex.NO_MATCH);
+        }
+
+        @Test
+        @DisplayName("Should build a vocabulary of distinct terms")
+        void shouldBuildVocabulary() {
+            // shop, location, server, ip, address + 4 Han pairs
+            assertThat(index.vocabularySize()).isEqualTo(9);
+        }
+    }
+}
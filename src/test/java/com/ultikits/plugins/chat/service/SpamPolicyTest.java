@@ -0,0 +1,72 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for SpamPolicy — compiling a channel's anti-spam overrides.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("SpamPolicy Tests")
+class SpamPolicyTest {
+
+    @Test
+    @DisplayName("Should inherit everything when nothing is set")
+    void shouldInheritByDefault() {
+        SpamPolicy policy = SpamPolicy.compile(null);
+
+        assertThat(policy).isSameAs(SpamPolicy.DEFAULT);
+        assertThat(policy.isEnabled()).isTrue();
+        assertThat(policy.getCooldown(2)).isEqualTo(2);
+        assertThat(policy.getMaxDuplicate(3)).isEqualTo(3);
+        assertThat(policy.getCapsLimit(70)).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("Should read a boolean as an on/off switch")
+    void shouldReadBoolean() {
+        assertThat(SpamPolicy.compile(true)).isSameAs(SpamPolicy.DEFAULT);
+        assertThat(SpamPolicy.compile(false)).isSameAs(SpamPolicy.EXEMPT);
+        assertThat(SpamPolicy.EXEMPT.isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should override only the settings given")
+    void shouldOverrideGivenSettings() {
+        Map<String, Object> section = new HashMap<>();
+        section.put("cooldown", 10);
+        section.put("caps-limit", 0);
+
+        SpamPolicy policy = SpamPolicy.compile(section);
+
+        assertThat(policy.isEnabled()).isTrue();
+        assertThat(policy.getCooldown(2)).isEqualTo(10);
+        assertThat(policy.getMaxDuplicate(3)).isEqualTo(3);
+        assertThat(policy.getCapsLimit(70)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should inherit negative or non-numeric settings")
+    void shouldInheritInvalidSettings() {
+        Map<String, Object> section = new HashMap<>();
+        section.put("cooldown", -5);
+        section.put("max-duplicate", "many");
+
+        assertThat(SpamPolicy.compile(section)).isSameAs(SpamPolicy.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Should read enabled from a section")
+    void shouldReadEnabledFromSection() {
+        Map<String, Object> section = new HashMap<>();
+        section.put("enabled", false);
+
+        assertThat(SpamPolicy.compile(section)).isSameAs(SpamPolicy.EXEMPT);
+    }
+}
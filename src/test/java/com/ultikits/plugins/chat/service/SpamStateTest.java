@@ -0,0 +1,83 @@
+package com.ultikits.plugins.chat.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for SpamState — per-channel times, runs and eviction.
+ *
+ * @author wisdomme
+ * @version 1.0.0
+ */
+@DisplayName("SpamState Tests")
+class SpamStateTest {
+
+    private static final long HELLO = SpamState.hash("hello");
+    private static final long BYE = SpamState.hash("bye");
+
+    @Test
+    @DisplayName("Should report nothing for a channel never spoken in")
+    void shouldStartEmpty() {
+        SpamState state = new SpamState();
+
+        assertThat(state.lastTime(0)).isZero();
+        assertThat(state.run(0, HELLO)).isZero();
+        assertThat(state.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count a run of identical messages and restart it on a different one")
+    void shouldCountRuns() {
+        SpamState state = new SpamState();
+        state.record(0, 100L, HELLO);
+        state.record(0, 200L, HELLO);
+
+        assertThat(state.run(0, HELLO)).isEqualTo(2);
+        assertThat(state.lastTime(0)).isEqualTo(200L);
+
+        state.record(0, 300L, BYE);
+
+        assertThat(state.run(0, HELLO)).isZero();
+        assertThat(state.run(0, BYE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep channels apart")
+    void shouldSeparateChannels() {
+        SpamState state = new SpamState();
+        state.record(0, 100L, HELLO);
+        state.record(SpamState.NO_CHANNEL, 200L, HELLO);
+
+        assertThat(state.lastTime(0)).isEqualTo(100L);
+        assertThat(state.lastTime(SpamState.NO_CHANNEL)).isEqualTo(200L);
+        assertThat(state.run(1, HELLO)).isZero();
+        assertThat(state.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used channel when full")
+    void shouldEvictLeastRecent() {
+        SpamState state = new SpamState();
+        for (int channel = 0; channel < SpamState.MAX_CHANNELS; channel++) {
+            state.record(channel, 100L + channel, HELLO);
+        }
+        // Channel 0 spoke most recently, so channel 1 is the oldest
+        state.record(0, 1000L, HELLO);
+
+        state.record(99, 2000L, BYE);
+
+        assertThat(state.size()).isEqualTo(SpamState.MAX_CHANNELS);
+        assertThat(state.lastTime(1)).isZero();
+        assertThat(state.lastTime(0)).isEqualTo(1000L);
+        assertThat(state.run(99, BYE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hash equal messages equally")
+    void shouldHashConsistently() {
+        assertThat(SpamState.hash("hello")).isEqualTo(HELLO);
+        assertThat(SpamState.hash("hellp")).isNotEqualTo(HELLO);
+    }
+}
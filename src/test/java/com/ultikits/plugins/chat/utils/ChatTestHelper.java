@@ -91,6 +91,7 @@ public final class ChatTestHelper {
         lenient().when(player.getUniqueId()).thenReturn(uuid);
         lenient().when(player.hasPermission(anyString())).thenReturn(false);
         lenient().when(player.getDisplayName()).thenReturn(name);
+        lenient().when(player.isOnline()).thenReturn(true);
 
         World world = mock(World.class);
         lenient().when(world.getName()).thenReturn("world");